@@ -1,5 +1,6 @@
 package diff;
 
+import java.util.Arrays;
 import java.util.regex.Pattern;
 
 import main.ComAnLogger;
@@ -78,6 +79,89 @@ public class BuildFileDiff extends FileDiff {
 	 * Value: {@value #BUILD_CONDITION_BLOCK_END_PATTERN};
 	 */
 	private static final String BUILD_CONDITION_BLOCK_END_PATTERN = ".*(else|" + BUILD_CONDITION_END_MARKER + ").*";
+	
+	/**
+	 * The compiled {@link #BUILD_VAR_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern BUILD_VAR_REGEX = Pattern.compile(BUILD_VAR_PATTERN);
+	
+	/**
+	 * The compiled {@link #BUILD_CONDITION_START_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern BUILD_CONDITION_START_REGEX = Pattern.compile(BUILD_CONDITION_START_PATTERN);
+	
+	/**
+	 * The compiled {@link #BUILD_CONDITION_END_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern BUILD_CONDITION_END_REGEX = Pattern.compile(BUILD_CONDITION_END_PATTERN);
+	
+	/**
+	 * The compiled {@link #BUILD_CONDITION_BLOCK_END_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern BUILD_CONDITION_BLOCK_END_REGEX = Pattern.compile(BUILD_CONDITION_BLOCK_END_PATTERN);
+	
+	/**
+	 * String that must be part of any line matching {@link #BUILD_VAR_PATTERN}. Checking this string
+	 * before the actual pattern avoids regex evaluations for the majority of lines.
+	 */
+	private static final String BUILD_VAR_MARKER = "$(CONFIG_";
+	
+	/**
+	 * The flag indicating whether the previous diff line ends with a continuation "\".<br><br>
+	 * 
+	 * Note that the attributes of this class must not be initialized in their declaration, as the analysis
+	 * already starts in the super constructor.
+	 */
+	private boolean previousLineContinues;
+	
+	/**
+	 * The flag indicating whether the previous diff line contains a comment-token or is part of a multi line
+	 * comment itself. If {@link #previousLineContinues} is also <code>true</code>, the current diff line is
+	 * part of a multi line comment.
+	 */
+	private boolean previousLineContinuesComment;
+	
+	/**
+	 * The flag indicating whether the diff line passed to the last call of {@link #normalize(String, int)} is part
+	 * of a multi line comment concatenated by continuation "\".
+	 */
+	private boolean currentLineIsPartOfComment;
+	
+	/**
+	 * The flag indicating whether the diff line passed to the last call of {@link #normalize(String, int)} closes
+	 * a block, which has a variability related condition (see {@link #updateConditions(String, String, int)}).
+	 */
+	private boolean currentLineClosesVariableBlock;
+	
+	/**
+	 * The current block level, which is increased by lines only starting blocks and decreased by lines with "endif"
+	 * statements. This level is not bound, e.g. it is negative if a diff starts inside a conditional block.
+	 */
+	private int blockLevel;
+	
+	/**
+	 * The index of the latest block start for each block level (see {@link #getLevelSlot(int)}) or
+	 * <code>-1</code>, if there is no such block start. This attribute and {@link #levelConditionVarLineIndices}
+	 * are created on the first call of {@link #getLevelSlot(int)}.
+	 */
+	private int[] levelConditionIndices;
+	
+	/**
+	 * The index of the first line containing variability information of the latest block start for each block
+	 * level (see {@link #getLevelSlot(int)}) or <code>-1</code>, if there is no such line (yet).
+	 */
+	private int[] levelConditionVarLineIndices;
+	
+	/**
+	 * The flag indicating whether the condition of the latest block start is continued by the following lines.
+	 */
+	private boolean conditionContinues;
+	
+	/**
+	 * The block level of the latest block start, if its condition is continued by the following lines (see
+	 * {@link #conditionContinues}).
+	 */
+	private int continuedConditionLevel;
 
 	/**
 	 * Construct a new {@link BuildFileDiff}.<br><br>
@@ -95,37 +179,78 @@ public class BuildFileDiff extends FileDiff {
 		super(FileType.BUILD, diffLines, changesStartLineNum);
 	}
 	
+	/**
+	 * Construct a new {@link BuildFileDiff} without any diff lines.<br><br>
+	 * 
+	 * The lines of the build diff have to be passed one after another via {@link #addDiffLine(String)}, which
+	 * starts the analysis of each line calling the inherited methods {@link #normalize(String, int)} and
+	 * {@link #isVariabilityChange(String, int)} defined in this class.
+	 */
+	public BuildFileDiff() {
+		super(FileType.BUILD);
+	}
+	
+	/**
+	 * {@inheritDoc}<br><br>
+	 * 
+	 * The latest block starts of all levels are removed, but the arrays holding them keep their capacity.
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		previousLineContinues = false;
+		previousLineContinuesComment = false;
+		currentLineIsPartOfComment = false;
+		currentLineClosesVariableBlock = false;
+		blockLevel = 0;
+		conditionContinues = false;
+		continuedConditionLevel = 0;
+		if (levelConditionIndices != null) {
+			Arrays.fill(levelConditionIndices, -1);
+		}
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected String normalize(String diffLine, int diffLinePosition) {
-		// 1. Remove "+" or "-"
-		String normalizedDiffLine = diffLine;
-		/*
-		 * This method is also used by backtrackCondition-method and
-		 * may receive unchanged diff lines (no leading "+" or "-") from
-		 * there. Thus, check before removing the first character although
-		 * this is not needed if called from parent-class. 
-		 */
-		if (diffLine.startsWith(LINE_ADDED_MARKER) || diffLine.startsWith(LINE_DELETED_MARKER)) {			
-			normalizedDiffLine = diffLine.substring(1, diffLine.length());
-		}
-		// 2. Split around comment-token
-		String[] normalizedDiffLineParts = normalizedDiffLine.split(BUILD_COMMENT_MARKER);
-		if (normalizedDiffLineParts.length > 0) {				
-			normalizedDiffLine = normalizedDiffLineParts[0];
-		} else {
-			normalizedDiffLine = "";
-		}
-		// 3. Check if is part of comment
-		if (!normalizedDiffLine.trim().isEmpty() && isPartOfComment(diffLinePosition)) {
+		// 1. Check if is part of comment (using the leading "+" or "-" and the comment of the previous line)
+		currentLineIsPartOfComment = previousLineContinues && previousLineContinuesComment;
+		previousLineContinues = endsWithContinuation(diffLine);
+		previousLineContinuesComment = diffLine.contains(BUILD_COMMENT_MARKER) || currentLineIsPartOfComment;
+		// 2. Remove "+" or "-" and split around comment-token
+		String uncommentedDiffLine = removeComment(diffLine);
+		String normalizedDiffLine = uncommentedDiffLine;
+		if (!isBlank(normalizedDiffLine, 0) && currentLineIsPartOfComment) {
 			normalizedDiffLine = "";
 		}
+		// 3. Update the conditional blocks
+		updateConditions(uncommentedDiffLine, normalizedDiffLine, diffLinePosition);
 		// 4. Return part of the diff line without comments
 		return normalizedDiffLine;
 	}
 	
+	/**
+	 * Remove the leading "+" or "-" and the (single line) comment from the given diff line.
+	 * 
+	 * @param diffLine the line of a diff to remove the marker and the comment from
+	 * @return the part of the given diff line before the comment-token without leading "+" or "-"; may be empty
+	 */
+	private String removeComment(String diffLine) {
+		/*
+		 * This method is called for all diff lines and, hence, may
+		 * receive unchanged diff lines (no leading "+" or "-"). Thus,
+		 * check before skipping the first character. 
+		 */
+		int uncommentedDiffLineStart = getContentStart(diffLine);
+		int uncommentedDiffLineEnd = diffLine.indexOf(BUILD_COMMENT_MARKER, uncommentedDiffLineStart);
+		if (uncommentedDiffLineEnd < 0) {
+			uncommentedDiffLineEnd = diffLine.length();
+		}
+		return diffLine.substring(uncommentedDiffLineStart, uncommentedDiffLineEnd);
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -136,125 +261,125 @@ public class BuildFileDiff extends FileDiff {
 		 * comments that were part of this line are removed. In case of a multi line
 		 * comment, the inner part if this comment needs additional checks here.
 		 */
-		boolean isVariabilityChange = false;
-		if (!isPartOfComment(cleanDiffLinePosition)
-				&& (Pattern.matches(BUILD_VAR_PATTERN, cleanDiffLine) 
-						|| (Pattern.matches(BUILD_CONDITION_BLOCK_END_PATTERN, cleanDiffLine)
-								&& backtrackCondition(cleanDiffLinePosition)))) {
-			isVariabilityChange = true;
+		if (currentLineIsPartOfComment) {
+			classificationRule = ClassificationRule.PART_OF_COMMENT;
+		} else if (isVariableLine(cleanDiffLine)) {
+			classificationRule = ClassificationRule.BUILD_VAR_PATTERN;
+		} else if (matches(BUILD_CONDITION_BLOCK_END_REGEX, cleanDiffLine) && currentLineClosesVariableBlock) {
+			classificationRule = ClassificationRule.BUILD_BLOCK_END_BACKTRACK;
+		} else {
+			classificationRule = ClassificationRule.NO_VARIABILITY;
+		}
+		boolean isVariabilityChange = classificationRule.isVariability();
+		if (isVariabilityChange) {
 			ComAnLogger.getInstance().log(CLASS_ID, "Variability change found", cleanDiffLine, MessageType.DEBUG);
 		}
 		return isVariabilityChange;
 	}
 	
 	/**
-	 * Check if the diff line at the given position is part of a multi line comment
-	 * concatenated by continuation "\".
+	 * Update the conditional blocks with the given diff line, which is the next line of the diff description. This
+	 * defines whether that line closes a block with a variability related condition (see
+	 * {@link #currentLineClosesVariableBlock}).<br><br>
 	 * 
-	 * @param diffLinePosition the index of the diff line in {@link #diffLines} to be checked for being
-	 * part of a multi line comment
-	 * @return <code>true</code> if the diff line at the given position is part of a multi
-	 * line comment, <code>false</code> otherwise
+	 * The condition of an "else" or "endif" statement is the closest previous line, which starts a block
+	 * ("ifeq", "ifneq", "ifdef", or "ifndef"), but does not end one, and which is followed by the same number
+	 * of block starts and "endif" statements until the block end. Hence, the condition of a block end is the latest
+	 * block start, after which the {@link #blockLevel} was the same as at the block end. Only this latest block
+	 * start is stored for each level.<br><br>
+	 * 
+	 * If a block start ends with a continuation "\", the following lines are also part of its condition. As each
+	 * of these continuations ends at the next block start, only the continuation of the latest block start
+	 * needs to be tracked for variability information. Note that continuation lines are only considered up to the
+	 * line before the block end (but at least the first continuation line) during backtracking.
+	 * 
+	 * @param uncommentedDiffLine the given diff line without leading "+" or "-" and without the (single line)
+	 * comment, but not checked for being part of a multi line comment
+	 * @param diffLine the normalized diff line
+	 * @param diffLinePosition the index of the given diff line
 	 */
-	private boolean isPartOfComment(int diffLinePosition) {
-		boolean isPartOfComment = false;
-		boolean parentElementFound = false;
-		int diffLineCounter = diffLinePosition - 1;
-		String previousDiffLine = null;
-		while (diffLineCounter >= 0 && !parentElementFound) {
-			/*
-			 * Do not normalize diff line here as we need to find the leading "#"
-			 * to check if diffLine is part of comment; normalize would return the
-			 * part before "#" and, thus, we will never find the start of a comment
-			 * 
-			 * Further, leading "+" or "-" can be ignored here, as we only need to
-			 * follow the trailing "\".
-			 */
-			previousDiffLine = diffLines[diffLineCounter];
-			if (!previousDiffLine.isEmpty()) {
-				previousDiffLine = previousDiffLine.trim();
-				if (previousDiffLine.endsWith("\\")) {
-					if (previousDiffLine.contains(BUILD_COMMENT_MARKER)) {
-						/*
-						 * We found the start of a comment with a trailing
-						 * continuation, thus the given diff line must be
-						 * part of a multi line comment. 
-						 */
-						parentElementFound = true;
-						isPartOfComment = true;
-					}
-				} else {
-					/*
-					 * If previous line does not end with continuation, there
-					 * is no multi line comment.
-					 */
-					parentElementFound = true;
+	private void updateConditions(String uncommentedDiffLine, String diffLine, int diffLinePosition) {
+		// 1. Check the line for continuing the condition of the latest block start
+		if (conditionContinues) {
+			if (isVariableLine(uncommentedDiffLine)) {
+				levelConditionVarLineIndices[getLevelSlot(continuedConditionLevel)] = diffLinePosition;
+				conditionContinues = false;
+			} else if (!endsWithContinuation(uncommentedDiffLine)
+					|| matches(BUILD_CONDITION_START_REGEX, uncommentedDiffLine)) {
+				conditionContinues = false;
+			}
+		}
+		// 2. Check the condition of the current line as if it is a block end
+		boolean isBlockEnd = matches(BUILD_CONDITION_BLOCK_END_REGEX, diffLine);
+		currentLineClosesVariableBlock = false;
+		if (isBlockEnd) {
+			int levelSlot = getLevelSlot(blockLevel);
+			int conditionIndex = levelConditionIndices[levelSlot];
+			int conditionVarLineIndex = levelConditionVarLineIndices[levelSlot];
+			if (conditionIndex > -1 && conditionVarLineIndex > -1
+					&& conditionVarLineIndex <= Math.max(conditionIndex + 1, diffLinePosition - 1)) {
+				currentLineClosesVariableBlock = true;
+			}
+		}
+		// 3. Update the block level with the current line
+		if (diffLine.contains(BUILD_CONDITION_END_MARKER) && matches(BUILD_CONDITION_END_REGEX, diffLine)) {
+			// Nested block end found
+			blockLevel--;
+		} else if (matches(BUILD_CONDITION_START_REGEX, diffLine)) {
+			// Block start found
+			blockLevel++;
+			if (!isBlockEnd) {
+				int levelSlot = getLevelSlot(blockLevel);
+				levelConditionIndices[levelSlot] = diffLinePosition;
+				levelConditionVarLineIndices[levelSlot] = -1;
+				conditionContinues = false;
+				if (isVariableLine(diffLine)) {
+					levelConditionVarLineIndices[levelSlot] = diffLinePosition;
+				} else if (endsWithContinuation(diffLine)) {
+					// Expression continuation for an "if"-statement, thus, check the next line(s)
+					conditionContinues = true;
+					continuedConditionLevel = blockLevel;
 				}
-			} else {
-				/*
-				 * If the previous line is empty, there is no multi line comment
-				 * as an empty line would break the continuation.
-				 */
-				parentElementFound = true;
 			}
-			diffLineCounter--;
 		}
-		return isPartOfComment;
 	}
 	
 	/**
-	 * Find the condition for the "endif" or "else" statement at the given index of the diff
-	 * lines and return <code>true</code> if this condition is variability related, which should
-	 * lead to an increment of the respective variability lines counter (added or deleted).
-	 *  
-	 * @param blockEndIndex the index of the diff line where the "endif" or "else" statement was found
-	 * @return <code>true</code> if the found condition is variability related. <code>false</code> otherwise.
+	 * Return the index of the given block level in {@link #levelConditionIndices} and
+	 * {@link #levelConditionVarLineIndices}. Non-negative levels are mapped to even indices and negative levels
+	 * to odd indices. If required, this method creates or grows these arrays, such that the returned index is valid.
+	 * 
+	 * @param level the block level for which the index should be returned
+	 * @return the index of the given block level in the arrays of the latest block starts
 	 */
-	private boolean backtrackCondition(int blockEndIndex) {
-		boolean conditionIsVariabilityRelated = false;
-		boolean conditionFound = false;
-		int nestedEndifCounter = 0; // Counts the nested #endif-statements
-		int diffLinesCounter = blockEndIndex - 1;
-		String diffLine = null;
-		while (!conditionFound && diffLinesCounter >= 0) {
-			diffLine = normalize(diffLines[diffLinesCounter], diffLinesCounter);
-			if (nestedEndifCounter == 0 && !Pattern.matches(BUILD_CONDITION_BLOCK_END_PATTERN, diffLine)
-					&& Pattern.matches(BUILD_CONDITION_START_PATTERN, diffLine)) {
-				/*
-				 * No nested blocks and not an "endif" or "else" and line indicates block start:
-				 * 		Either this line directly matches BUILD_VAR_PATTERN
-				 * 		or expression continuation is used and the following line(s) match BUILD_VAR_PATTERN
-				 * 
-				 * --> block end change is variability change
-				 */
-				conditionFound = true;
-				if (Pattern.matches(BUILD_VAR_PATTERN, diffLine)) {						
-					conditionIsVariabilityRelated = true;
-				} else if (diffLine.trim().endsWith("\\")) {
-					// Expression continuation for an "if"-statement, thus, check the next line(s)
-					int blockLinesCounter = diffLinesCounter + 1;
-					String blockLine = "";
-					do {							
-						blockLine = normalize(diffLines[blockLinesCounter], diffLinesCounter);
-						if (Pattern.matches(BUILD_VAR_PATTERN, blockLine)) {
-							conditionIsVariabilityRelated = true;
-						}
-						blockLinesCounter++;
-					} while (blockLinesCounter < blockEndIndex
-							&& blockLine.trim().endsWith("\\")
-							&& !Pattern.matches(BUILD_CONDITION_START_PATTERN, blockLine));
-				}
-			} else {
-				if (Pattern.matches(BUILD_CONDITION_END_PATTERN, diffLine)) {
-					// Nested block end found
-					nestedEndifCounter++;
-				} else if (Pattern.matches(BUILD_CONDITION_START_PATTERN, diffLine)) {
-					// Nested block start found
-					nestedEndifCounter--;
-				}
-			}
-			diffLinesCounter--;
+	private int getLevelSlot(int level) {
+		int levelSlot = 2 * level;
+		if (level < 0) {
+			levelSlot = -2 * level - 1;
+		}
+		if (levelConditionIndices == null) {
+			levelConditionIndices = new int[16];
+			levelConditionVarLineIndices = new int[16];
+			Arrays.fill(levelConditionIndices, -1);
+		}
+		if (levelSlot >= levelConditionIndices.length) {
+			int previousLength = levelConditionIndices.length;
+			int newLength = Math.max(2 * previousLength, levelSlot + 1);
+			levelConditionIndices = Arrays.copyOf(levelConditionIndices, newLength);
+			levelConditionVarLineIndices = Arrays.copyOf(levelConditionVarLineIndices, newLength);
+			Arrays.fill(levelConditionIndices, previousLength, newLength, -1);
 		}
-		return conditionIsVariabilityRelated;
+		return levelSlot;
+	}
+	
+	/**
+	 * Check if the given diff line contains a reference to a Kconfig-symbol, e.g. "$(CONFIG_X)".
+	 * 
+	 * @param diffLine the (normalized) line of a diff to be checked
+	 * @return <code>true</code> if the given diff line matches {@link #BUILD_VAR_PATTERN}, <code>false</code>
+	 * otherwise
+	 */
+	private boolean isVariableLine(String diffLine) {
+		return diffLine.contains(BUILD_VAR_MARKER) && matches(BUILD_VAR_REGEX, diffLine);
 	}
 }
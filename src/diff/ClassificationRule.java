@@ -0,0 +1,126 @@
+package diff;
+
+/**
+ * This enumeration defines the rules, which decide the classification of a changed line of a {@link FileDiff}. For
+ * each added or deleted line, exactly one of these rules decides whether the line is ignored, counted as a line
+ * containing artifact-specific information, or counted as a line containing variability information.<br><br>
+ * 
+ * The {@link ClassificationTracer} records the rule of each traced line. As the trace stores the ordinal of a
+ * rule, new rules must only be added at the end of this enumeration.
+ * 
+ * @author agent
+ *
+ */
+public enum ClassificationRule {
+	
+	/**
+	 * The changed line is empty or contains only whitespace; the line is ignored.
+	 */
+	BLANK_LINE(false, false),
+	
+	/**
+	 * The changed line is empty after removing its comments; the line is ignored.
+	 */
+	COMMENT_ONLY(false, false),
+	
+	/**
+	 * The changed line is part of a multi line comment; the line contains artifact-specific information.
+	 */
+	PART_OF_COMMENT(true, false),
+	
+	/**
+	 * The changed source code line references a configuration option, e.g. "#ifdef CONFIG_X" or
+	 * "if (IS_ENABLED(CONFIG_X))"; the line contains variability information.
+	 */
+	SOURCE_VAR_PATTERN(true, true),
+	
+	/**
+	 * The changed source code line is an "#else", "#elif", or "#endif" statement of a preprocessor block with a
+	 * variability related condition; the line contains variability information.
+	 */
+	SOURCE_PREPROCESSOR_BACKTRACK(true, true),
+	
+	/**
+	 * The changed source code line closes a runtime block with a variability related condition, e.g. "}" of
+	 * "if (IS_ENABLED(CONFIG_X)) {"; the line contains variability information.
+	 */
+	SOURCE_RUNTIME_BACKTRACK(true, true),
+	
+	/**
+	 * The changed build line references a configuration option, e.g. "obj-$(CONFIG_X) += x.o"; the line contains
+	 * variability information.
+	 */
+	BUILD_VAR_PATTERN(true, true),
+	
+	/**
+	 * The changed build line is an "else" or "endif" statement of a block with a variability related condition;
+	 * the line contains variability information.
+	 */
+	BUILD_BLOCK_END_BACKTRACK(true, true),
+	
+	/**
+	 * The changed model line is part of a help text; the line contains artifact-specific information.
+	 */
+	MODEL_HELP_TEXT(true, false),
+	
+	/**
+	 * The changed model line defines a configuration option or includes another model file, e.g. "config X" or
+	 * "source "drivers/Kconfig""; the line contains variability information.
+	 */
+	MODEL_DEFINITION(true, true),
+	
+	/**
+	 * The changed model line is a "depends on"-statement of a configuration option; the line contains variability
+	 * information.
+	 */
+	MODEL_DEPENDS_ON(true, true),
+	
+	/**
+	 * No rule identifies variability information in the changed line; the line contains artifact-specific
+	 * information.
+	 */
+	NO_VARIABILITY(true, false);
+	
+	/**
+	 * <code>true</code> if the changed lines classified by this rule are counted, <code>false</code> if they are
+	 * ignored.
+	 */
+	private final boolean counted;
+	
+	/**
+	 * <code>true</code> if the changed lines classified by this rule contain variability information,
+	 * <code>false</code> otherwise.
+	 */
+	private final boolean variability;
+	
+	/**
+	 * Construct a new {@link ClassificationRule}.
+	 * 
+	 * @param counted <code>true</code> if the lines classified by this rule are counted, <code>false</code> otherwise
+	 * @param variability <code>true</code> if the lines classified by this rule contain variability information,
+	 * <code>false</code> otherwise
+	 */
+	private ClassificationRule(boolean counted, boolean variability) {
+		this.counted = counted;
+		this.variability = variability;
+	}
+	
+	/**
+	 * Check if the changed lines classified by this rule are counted.
+	 * 
+	 * @return <code>true</code> if the lines are counted, <code>false</code> if they are ignored
+	 */
+	public boolean isCounted() {
+		return counted;
+	}
+	
+	/**
+	 * Check if the changed lines classified by this rule contain variability information.
+	 * 
+	 * @return <code>true</code> if the lines contain variability information, <code>false</code> if they contain
+	 * artifact-specific information or are ignored
+	 */
+	public boolean isVariability() {
+		return variability;
+	}
+}
@@ -0,0 +1,383 @@
+package diff;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * This class records the {@link ClassificationRule} of each changed line of the traced diffs in an indexed, binary
+ * trace file.<br><br>
+ * 
+ * Only the diffs of commits and files matching the given filters are traced (see
+ * {@link #startDiff(String, String)}). The lines of all other diffs are analyzed without any tracing overhead, as
+ * their {@link FileDiff}s do not reference this tracer. The trace file consists of:
+ * <ul>
+ * <li>the header: {@link #MAGIC} and {@link #VERSION} (both int)</li>
+ * <li>the sections of the traced diffs: one record of {@value #RECORD_BYTES} bytes per changed line (int line
+ * index in the diff, byte change type "+" or "-", byte ordinal of the {@link ClassificationRule})</li>
+ * <li>the index: the number of sections (int) and for each section the commit SHA (UTF), the file path (UTF),
+ * the offset of the section in the file (long), and the number of its records (int)</li>
+ * <li>the footer: the offset of the index in the file (long) and {@link #MAGIC} (int)</li>
+ * </ul>
+ * Hence, {@link #read(File, String)} reads the index via the footer and only the sections of the requested
+ * commit. The index is written by {@link #close()}; a trace file without footer is incomplete.
+ * 
+ * @author agent
+ *
+ */
+public class ClassificationTracer {
+	
+	/**
+	 * The number identifying a trace file at its start and at its end ("CoAT" in ASCII).<br><br>
+	 * 
+	 * Value: {@value #MAGIC};
+	 */
+	public static final int MAGIC = 0x436F4154;
+	
+	/**
+	 * The version of the format of the trace files written by this tracer.<br><br>
+	 * 
+	 * Value: {@value #VERSION};
+	 */
+	public static final int VERSION = 1;
+	
+	/**
+	 * The number of bytes of a single record (traced line) of a trace file.<br><br>
+	 * 
+	 * Value: {@value #RECORD_BYTES};
+	 */
+	private static final int RECORD_BYTES = 6;
+	
+	/**
+	 * The number of bytes of the header of a trace file.<br><br>
+	 * 
+	 * Value: {@value #HEADER_BYTES};
+	 */
+	private static final int HEADER_BYTES = 8;
+	
+	/**
+	 * The number of bytes of the footer of a trace file.<br><br>
+	 * 
+	 * Value: {@value #FOOTER_BYTES};
+	 */
+	private static final int FOOTER_BYTES = 12;
+	
+	/**
+	 * The size of the buffers for writing and reading trace files in bytes.<br><br>
+	 * 
+	 * Value: {@value #BUFFER_SIZE};
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	/**
+	 * The {@link ClassificationRule}s by their ordinal.
+	 */
+	private static final ClassificationRule[] RULES = ClassificationRule.values();
+	
+	/**
+	 * The filter for the SHAs of the commits to trace or <code>null</code>, if all commits are traced.
+	 */
+	private Pattern commitFilter;
+	
+	/**
+	 * The filter for the paths of the files to trace or <code>null</code>, if all files are traced.
+	 */
+	private Pattern pathFilter;
+	
+	/**
+	 * The output stream of the trace file.
+	 */
+	private DataOutputStream traceOutputStream;
+	
+	/**
+	 * The number of bytes written to the trace file so far.
+	 */
+	private long position;
+	
+	/**
+	 * The commit SHAs of the sections written so far, which have at least one record.
+	 */
+	private List<String> sectionCommits;
+	
+	/**
+	 * The file paths of the sections written so far, which have at least one record.
+	 */
+	private List<String> sectionPaths;
+	
+	/**
+	 * The offsets of the sections written so far, which have at least one record.
+	 */
+	private long[] sectionOffsets;
+	
+	/**
+	 * The numbers of records of the sections written so far, which have at least one record.
+	 */
+	private int[] sectionRecords;
+	
+	/**
+	 * The commit SHA of the current section or <code>null</code>, if the current diff is not traced.
+	 */
+	private String currentCommit;
+	
+	/**
+	 * The file path of the current section.
+	 */
+	private String currentPath;
+	
+	/**
+	 * The offset of the current section in the trace file.
+	 */
+	private long currentOffset;
+	
+	/**
+	 * The number of records of the current section.
+	 */
+	private int currentRecords;
+	
+	/**
+	 * The number of lines traced so far.
+	 */
+	private long tracedLinesCount;
+	
+	/**
+	 * The first exception thrown while writing the trace file or <code>null</code>, if writing did not fail (yet).
+	 */
+	private IOException writeException;
+	
+	/**
+	 * Construct a new {@link ClassificationTracer} and write the header of the given trace file.
+	 * 
+	 * @param traceFile the {@link File} to write the trace to; an existing file is overwritten
+	 * @param commitFilter the regular expression, which must be found in the SHA of a commit for tracing its diffs,
+	 * or <code>null</code>, if the diffs of all commits should be traced
+	 * @param pathFilter the regular expression, which must be found in the path of a file for tracing its diffs,
+	 * or <code>null</code>, if the diffs of all files should be traced
+	 * @throws IOException if opening or writing the trace file fails
+	 */
+	public ClassificationTracer(File traceFile, Pattern commitFilter, Pattern pathFilter) throws IOException {
+		this.commitFilter = commitFilter;
+		this.pathFilter = pathFilter;
+		traceOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(traceFile),
+				BUFFER_SIZE));
+		traceOutputStream.writeInt(MAGIC);
+		traceOutputStream.writeInt(VERSION);
+		position = HEADER_BYTES;
+		sectionCommits = new ArrayList<String>();
+		sectionPaths = new ArrayList<String>();
+		sectionOffsets = new long[16];
+		sectionRecords = new int[16];
+		currentCommit = null;
+		tracedLinesCount = 0;
+		writeException = null;
+	}
+	
+	/**
+	 * Start the section of a new diff, if the given commit and file match the filters of this tracer. The section
+	 * of the previous diff ends in any case.
+	 * 
+	 * @param commitNumber the SHA of the commit the diff belongs to
+	 * @param filePath the path of the file changed by the diff
+	 * @return <code>true</code> if the changed lines of the diff should be traced, <code>false</code> otherwise
+	 */
+	public boolean startDiff(String commitNumber, String filePath) {
+		endSection();
+		boolean traceDiff = (commitFilter == null || commitFilter.matcher(commitNumber).find())
+				&& (pathFilter == null || pathFilter.matcher(filePath).find());
+		if (traceDiff) {
+			currentCommit = commitNumber;
+			currentPath = filePath;
+			currentOffset = position;
+			currentRecords = 0;
+		}
+		return traceDiff;
+	}
+	
+	/**
+	 * Record the classification of a changed line of the current diff.
+	 * 
+	 * @param diffLinePosition the index of the changed line in the diff description
+	 * @param changeMarker the marker of the change type of the line: "+" or "-"
+	 * @param rule the {@link ClassificationRule}, which decided the classification of the line
+	 */
+	void trace(int diffLinePosition, String changeMarker, ClassificationRule rule) {
+		if (currentCommit != null && writeException == null) {
+			try {
+				traceOutputStream.writeInt(diffLinePosition);
+				traceOutputStream.writeByte(changeMarker.charAt(0));
+				traceOutputStream.writeByte(rule.ordinal());
+				position = position + RECORD_BYTES;
+				currentRecords++;
+				tracedLinesCount++;
+			} catch (IOException e) {
+				writeException = e;
+			}
+		}
+	}
+	
+	/**
+	 * Return the number of lines traced so far.
+	 * 
+	 * @return the number of traced lines
+	 */
+	public long getTracedLinesCount() {
+		return tracedLinesCount;
+	}
+	
+	/**
+	 * End the current section and add it to the index, if it has at least one record.
+	 */
+	private void endSection() {
+		if (currentCommit != null && currentRecords > 0) {
+			int sectionsCount = sectionCommits.size();
+			if (sectionsCount == sectionOffsets.length) {
+				sectionOffsets = Arrays.copyOf(sectionOffsets, sectionsCount * 2);
+				sectionRecords = Arrays.copyOf(sectionRecords, sectionsCount * 2);
+			}
+			sectionCommits.add(currentCommit);
+			sectionPaths.add(currentPath);
+			sectionOffsets[sectionsCount] = currentOffset;
+			sectionRecords[sectionsCount] = currentRecords;
+		}
+		currentCommit = null;
+	}
+	
+	/**
+	 * End the current section, write the index and the footer, and close the trace file.
+	 * 
+	 * @throws IOException if writing any part of the trace file or closing it failed
+	 */
+	public void close() throws IOException {
+		endSection();
+		try {
+			if (writeException == null) {
+				long indexOffset = position;
+				traceOutputStream.writeInt(sectionCommits.size());
+				for (int i = 0; i < sectionCommits.size(); i++) {
+					traceOutputStream.writeUTF(sectionCommits.get(i));
+					traceOutputStream.writeUTF(sectionPaths.get(i));
+					traceOutputStream.writeLong(sectionOffsets[i]);
+					traceOutputStream.writeInt(sectionRecords[i]);
+				}
+				traceOutputStream.writeLong(indexOffset);
+				traceOutputStream.writeInt(MAGIC);
+			}
+		} finally {
+			traceOutputStream.close();
+		}
+		if (writeException != null) {
+			throw writeException;
+		}
+	}
+	
+	/**
+	 * Read the traced lines of the given commit from the given trace file. Each line is returned as a tab-separated
+	 * text: file path, line index in the diff, change type ("+" or "-"), {@link ClassificationRule}, and the
+	 * classification ("IGNORED", "ARTIFACT", or "VARIABILITY"), e.g.<br>
+	 * <i>include/libbb.h	12	+	SOURCE_VAR_PATTERN	VARIABILITY</i>
+	 * 
+	 * @param traceFile the trace {@link File} written by a {@link ClassificationTracer}
+	 * @param commitNumber the SHA of the commit to read the traced lines for
+	 * @return the traced lines of the given commit in the order of their analysis; may be empty
+	 * @throws IOException if reading the trace file fails or the file is not a complete trace file
+	 */
+	public static List<String> read(File traceFile, String commitNumber) throws IOException {
+		List<String> tracedLines = new ArrayList<String>();
+		RandomAccessFile traceRandomAccessFile = new RandomAccessFile(traceFile, "r");
+		try {
+			long fileLength = traceRandomAccessFile.length();
+			if (fileLength < HEADER_BYTES + FOOTER_BYTES || traceRandomAccessFile.readInt() != MAGIC) {
+				throw new IOException("\"" + traceFile.getName() + "\" is not a trace file");
+			}
+			int version = traceRandomAccessFile.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported trace file version " + version);
+			}
+			traceRandomAccessFile.seek(fileLength - FOOTER_BYTES);
+			long indexOffset = traceRandomAccessFile.readLong();
+			if (traceRandomAccessFile.readInt() != MAGIC || indexOffset < HEADER_BYTES
+					|| indexOffset > fileLength - FOOTER_BYTES) {
+				throw new IOException("\"" + traceFile.getName() + "\" is incomplete");
+			}
+			// Read the index and the records of each matching section
+			DataInputStream indexInputStream = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(traceFile), BUFFER_SIZE));
+			try {
+				skipFully(indexInputStream, indexOffset);
+				int sectionsCount = indexInputStream.readInt();
+				for (int i = 0; i < sectionsCount; i++) {
+					String sectionCommit = indexInputStream.readUTF();
+					String sectionPath = indexInputStream.readUTF();
+					long sectionOffset = indexInputStream.readLong();
+					int sectionRecords = indexInputStream.readInt();
+					if (sectionCommit.equals(commitNumber)) {
+						byte[] records = new byte[sectionRecords * RECORD_BYTES];
+						traceRandomAccessFile.seek(sectionOffset);
+						traceRandomAccessFile.readFully(records);
+						ByteBuffer recordsBuffer = ByteBuffer.wrap(records);
+						for (int j = 0; j < sectionRecords; j++) {
+							int diffLinePosition = recordsBuffer.getInt();
+							char changeMarker = (char) recordsBuffer.get();
+							ClassificationRule rule = RULES[recordsBuffer.get()];
+							tracedLines.add(sectionPath + "\t" + diffLinePosition + "\t" + changeMarker + "\t" + rule
+									+ "\t" + getClassification(rule));
+						}
+					}
+				}
+			} finally {
+				indexInputStream.close();
+			}
+		} finally {
+			traceRandomAccessFile.close();
+		}
+		return tracedLines;
+	}
+	
+	/**
+	 * Return the classification of the lines classified by the given {@link ClassificationRule}.
+	 * 
+	 * @param rule the {@link ClassificationRule} of a traced line
+	 * @return "IGNORED", "ARTIFACT", or "VARIABILITY"
+	 */
+	private static String getClassification(ClassificationRule rule) {
+		String classification = "IGNORED";
+		if (rule.isVariability()) {
+			classification = "VARIABILITY";
+		} else if (rule.isCounted()) {
+			classification = "ARTIFACT";
+		}
+		return classification;
+	}
+	
+	/**
+	 * Skip exactly the given number of bytes of the given input stream.
+	 * 
+	 * @param inputStream the {@link DataInputStream} to skip bytes of
+	 * @param bytes the number of bytes to skip
+	 * @throws IOException if the stream ends before or skipping fails
+	 */
+	private static void skipFully(DataInputStream inputStream, long bytes) throws IOException {
+		long remainingBytes = bytes;
+		while (remainingBytes > 0) {
+			long skippedBytes = inputStream.skip(remainingBytes);
+			if (skippedBytes <= 0) {
+				if (inputStream.read() < 0) {
+					throw new EOFException();
+				}
+				skippedBytes = 1;
+			}
+			remainingBytes = remainingBytes - skippedBytes;
+		}
+	}
+}
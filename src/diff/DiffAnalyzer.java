@@ -1,15 +1,16 @@
 package diff;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import diff.FileDiff.FileType;
 import main.ComAnLogger;
 import main.ComAnLogger.MessageType;
+import result.CommitResult;
+import result.FileResult;
 
 /**
  * This class implements a general diff analyzer.<br><br>
@@ -49,14 +50,14 @@ public class DiffAnalyzer {
 	 * Value: {@value #DIFF_START_PATTERN};
 	 */
 	private static final String DIFF_START_PATTERN = "diff --git";
-
+	
 	/**
-	 * String identifying the start of the first description of the
-	 * actual changes of a diff.<br><br>
+	 * String preceding the path of the changed file after the change in the first line of a diff, e.g.
+	 * "diff --git a/include/libbb.h b/include/libbb.h".<br><br>
 	 * 
-	 * Value: {@value #CHANGES_START_PATTERN};
+	 * Value: {@value #NEW_FILE_PATH_PREFIX};
 	 */
-	private static final String CHANGES_START_PATTERN = "@@";
+	private static final String NEW_FILE_PATH_PREFIX = " b/";
 	
 	/**
 	 * Regex identifying directories containing documentation.<br><br>
@@ -106,6 +107,26 @@ public class DiffAnalyzer {
 	 */
 	private static final String BUILD_FILE_PATTERN = ".*/(Makefile|Kbuild)((\\.|\\-|\\_|\\+|\\~).*)?"; // |(.*/.*\\.(mak|make)))
 	
+	/**
+	 * The compiled {@link #FILE_EXCLUDE_PATTERN} used for identifying the type of changed files.
+	 */
+	private static final Pattern FILE_EXCLUDE_REGEX = Pattern.compile(FILE_EXCLUDE_PATTERN);
+	
+	/**
+	 * The compiled {@link #MODEL_FILE_PATTERN} used for identifying the type of changed files.
+	 */
+	private static final Pattern MODEL_FILE_REGEX = Pattern.compile(MODEL_FILE_PATTERN);
+	
+	/**
+	 * The compiled {@link #SOURCE_FILE_PATTERN} used for identifying the type of changed files.
+	 */
+	private static final Pattern SOURCE_FILE_REGEX = Pattern.compile(SOURCE_FILE_PATTERN);
+	
+	/**
+	 * The compiled {@link #BUILD_FILE_PATTERN} used for identifying the type of changed files.
+	 */
+	private static final Pattern BUILD_FILE_REGEX = Pattern.compile(BUILD_FILE_PATTERN);
+	
 	/**
 	 * The {@link File} containing the diff information of a specific commit.<br><br>
 	 * Typically, the name of the file represents the commit SHA, e.g "0004e99.txt", where
@@ -184,6 +205,58 @@ public class DiffAnalyzer {
 	 */
 	private int changedBuildVarLinesCounter = 0;
 	
+	/**
+	 * The {@link SourceFileDiff} reused for all source code diffs analyzed by this {@link DiffAnalyzer}.
+	 * This attribute and the other file diffs below are created on first use; see
+	 * {@link #getFileDiff(FileType)}.
+	 */
+	private SourceFileDiff sourceFileDiff = null;
+	
+	/**
+	 * The {@link BuildFileDiff} reused for all build diffs analyzed by this {@link DiffAnalyzer}.
+	 */
+	private BuildFileDiff buildFileDiff = null;
+	
+	/**
+	 * The {@link ModelFileDiff} reused for all model diffs analyzed by this {@link DiffAnalyzer}.
+	 */
+	private ModelFileDiff modelFileDiff = null;
+	
+	/**
+	 * The {@link OtherFileDiff} reused for all other diffs analyzed by this {@link DiffAnalyzer}.
+	 */
+	private OtherFileDiff otherFileDiff = null;
+	
+	/**
+	 * The {@link DiffLineReader} reused for reading all commit files analyzed by this {@link DiffAnalyzer}. This
+	 * reader is created on first use.
+	 */
+	private DiffLineReader lineReader = null;
+	
+	/**
+	 * The {@link MemoryBudget} limiting the memory for reading commit files or <code>null</code>, if this memory is
+	 * not limited. See {@link #setMemoryBudget(MemoryBudget)}.
+	 */
+	private MemoryBudget memoryBudget = null;
+	
+	/**
+	 * The results of the files changed by the commit or <code>null</code>, if these results are not collected.
+	 * See {@link #enableFileResults()}.
+	 */
+	private List<FileResult> fileResults = null;
+	
+	/**
+	 * The path of the file changed by the current diff, if the {@link #fileResults} are collected or the lines are
+	 * traced, or <code>null</code> otherwise.
+	 */
+	private String filePath = null;
+	
+	/**
+	 * The tracer of the classification of the changed lines or <code>null</code>, if no lines are traced. See
+	 * {@link #setTracer(ClassificationTracer)}.
+	 */
+	private ClassificationTracer tracer = null;
+	
 	/**
 	 * Construct a new {@link DiffAnalyzer}.<br><br>
 	 * 
@@ -193,7 +266,36 @@ public class DiffAnalyzer {
 	 * @param commitFile the {@link File} containing diff information.
 	 */
 	public DiffAnalyzer(File commitFile) {
+		reset(commitFile);
+	}
+	
+	/**
+	 * Reset this {@link DiffAnalyzer} for analyzing the given commit file. This is equal to constructing a new
+	 * {@link DiffAnalyzer} for the given file, but reuses the file diffs (including their internal buffers)
+	 * of the previous analysis. Hence, a single {@link DiffAnalyzer} should be used for analyzing many commits
+	 * one after another.<br><br>
+	 * 
+	 * <b>Important</b>: to work as expected the given file name must indicate a commit SHA and
+	 * has to contain diff information only. Refer to {@link #commitFile} for further information.<br>
+	 * 
+	 * @param commitFile the {@link File} containing diff information.
+	 */
+	public void reset(File commitFile) {
 		this.commitFile = commitFile;
+		commitDate = null;
+		changedModelFilesCounter = 0;
+		changedModelLinesCounter = 0;
+		changedModelVarLinesCounter = 0;
+		changedSourceFilesCounter = 0;
+		changedSourceLinesCounter = 0;
+		changedSourceVarLinesCounter = 0;
+		changedBuildFilesCounter = 0;
+		changedBuildLinesCounter = 0;
+		changedBuildVarLinesCounter = 0;
+		if (fileResults != null) {
+			// Create a new list as the previous one may still be referenced by the consumer of the previous results
+			fileResults = new ArrayList<FileResult>();
+		}
 		
 		String[] commitFileNameParts = commitFile.getName().split("\\.");
 		if (commitFileNameParts.length != 2 || (commitFileNameParts.length == 2 && !commitFileNameParts[1].equals("txt"))) {
@@ -207,42 +309,196 @@ public class DiffAnalyzer {
 	}
 	
 	/**
-	 * Analyze the diff information of the given commit (file).
+	 * Set the {@link MemoryBudget} limiting the memory for reading the commit files analyzed by this
+	 * {@link DiffAnalyzer}. The same budget may be shared by multiple analyzers to limit their memory in total.
+	 * <br><br>
+	 * 
+	 * Before reading a commit file, the bytes required for reading it as a whole are reserved in the given budget,
+	 * which waits until other analyzers sharing the budget released enough bytes. As commit files are read line by
+	 * line, the longest line of a commit file determines the memory required for its analysis, but not the size of
+	 * that file. Hence, commit files, which exceed the given budget as a whole, are read with all bytes of the budget
+	 * reserved, i.e. one at a time. Only if a line of such a file exceeds the budget, the analysis of the commit fails
+	 * (see {@link #analyze()}) instead of running out of memory. Whether a commit is analyzed, therefore, only depends
+	 * on the commit and the size of the budget, but not on the commits analyzed concurrently. By default, the memory
+	 * is not limited.
+	 * 
+	 * @param memoryBudget the {@link MemoryBudget} to use or <code>null</code>, if the memory should not be limited
+	 */
+	public void setMemoryBudget(MemoryBudget memoryBudget) {
+		this.memoryBudget = memoryBudget;
+		if (lineReader != null) {
+			lineReader.setMemoryBudget(memoryBudget);
+		}
+	}
+	
+	/**
+	 * Enable collecting the results of each file changed by the analyzed commit, which are available via
+	 * {@link #getFileResults()} after the analysis. By default, only the results of the commit as a whole are
+	 * available.
+	 */
+	public void enableFileResults() {
+		if (fileResults == null) {
+			fileResults = new ArrayList<FileResult>();
+		}
+	}
+	
+	/**
+	 * Set the tracer recording the {@link ClassificationRule} of each changed line of the diffs, which match the
+	 * filters of the given tracer. By default, no lines are traced.
+	 * 
+	 * @param tracer the {@link ClassificationTracer} to use or <code>null</code>, if no lines should be traced
+	 */
+	public void setTracer(ClassificationTracer tracer) {
+		this.tracer = tracer;
+	}
+	
+	/**
+	 * Analyze the diff information of the given commit (file).<br><br>
+	 * 
+	 * The commit file is read line by line and each line is passed to the {@link FileDiff} of the diff it belongs
+	 * to directly. Hence, neither the commit file nor a single diff is kept in memory, which allows the analysis
+	 * of commits changing files of arbitrary size. The lines of diffs of other files (see {@link OtherFileDiff})
+	 * do not contribute to the results. Hence, their bodies are still read and decoded, but only scanned for the
+	 * start of the next diff and the start of their changes ("@@") by
+	 * {@link DiffLineReader#skipLinesUntil(String, String)} without turning them into strings. For a commit, which
+	 * only changes other files, only the first line of each diff becomes a string; the start of the changes found
+	 * while scanning decides whether the commit is analyzed with zero changes or not analyzed at all.
 	 * 
 	 * @return <code>true</code> if the analysis of the given commit was successful, <code>false</code> otherwise,
-	 * e.g. if given commit file does not match expected name, extension, or does not include changes
+	 * e.g. if given commit file does not match expected name, extension, does not include changes, or includes a
+	 * line exceeding the {@link MemoryBudget}
 	 */
 	public boolean analyze() {
 		boolean analyzedSuccessful = false;
 		if (commitNumber != null) {
-			List<String> diffList = createDiffList();
-			FileDiff fileDiff = null;
-			for (String diff : diffList) {
-				fileDiff = createFileDiff(diff);
-				if (fileDiff != null) {
-					switch(fileDiff.getFileType()) {
-						case MODEL:
-							changedModelLinesCounter = changedModelLinesCounter + getChangedLines(fileDiff, false);
-							changedModelVarLinesCounter = changedModelVarLinesCounter + getChangedLines(fileDiff, true);
-							break;
-						case SOURCE:
-							changedSourceLinesCounter = changedSourceLinesCounter + getChangedLines(fileDiff, false);
-							changedSourceVarLinesCounter = changedSourceVarLinesCounter + getChangedLines(fileDiff, true);
-							break;
-						case BUILD:
-							changedBuildLinesCounter = changedBuildLinesCounter + getChangedLines(fileDiff, false);
-							changedBuildVarLinesCounter = changedBuildVarLinesCounter + getChangedLines(fileDiff, true);
-							break;
-						default:
-							// like OTHER, do nothing
-							break;
+			if (lineReader == null) {
+				lineReader = new DiffLineReader();
+				lineReader.setMemoryBudget(memoryBudget);
+			}
+			// Only count and report oversized files; the line reader reserves the whole budget for them
+			if (memoryBudget != null && DiffLineReader.getMaxReservedBytes(commitFile) > memoryBudget.getMaxBytes()) {
+				memoryBudget.addOversizedFile();
+				ComAnLogger.getInstance().log(CLASS_ID, "File \"" + commitFile.getName() + "\" exceeds the memory "
+						+ "budget as a whole", "It is read with the whole budget reserved as long as its lines fit "
+						+ "into the budget", MessageType.DEBUG);
+			}
+			boolean lineReaderOpened = false;
+			try {
+				lineReader.open(commitFile);
+				lineReaderOpened = true;
+				// First line always contains commit date and time; parse this individually
+				parseCommitDate(lineReader.readLine());
+				FileDiff fileDiff = null;
+				/*
+				 * Lines before the first diff start form an own diff, which is only considered, if it contains
+				 * at least one non-empty line. Diffs starting with a diff start line are always considered.
+				 */
+				boolean fileDiffHasContent = false;
+				String fileLine = lineReader.readLine();
+				while (fileLine != null) {
+					if (fileLine.startsWith(DIFF_START_PATTERN)) {
+						if (fileDiff != null && fileDiffHasContent && addFileDiff(fileDiff)) {
+							analyzedSuccessful = true;
+						}
+						fileDiff = startFileDiff(fileLine);
+						fileDiffHasContent = true;
+						if (fileResults != null || tracer != null) {
+							filePath = getFilePath(fileLine);
+						}
+						if (fileDiff == otherFileDiff) {
+							// Other diffs do not contribute to the results, thus skip their lines without reading them
+							otherFileDiff.skipDiffLines(lineReader, DIFF_START_PATTERN);
+						} else if (tracer != null && tracer.startDiff(commitNumber, filePath)) {
+							fileDiff.setTracer(tracer);
+						}
+					} else {
+						if (fileDiff == null) {
+							fileDiff = startFileDiff("");
+						}
+						fileDiff.addDiffLine(fileLine);
+						fileDiffHasContent = fileDiffHasContent || !fileLine.isEmpty();
 					}
+					fileLine = lineReader.readLine();
+				}
+				// EOF: add last diff
+				if (fileDiff == null) {
+					logNoChanges();
+				} else if (fileDiffHasContent && addFileDiff(fileDiff)) {
 					analyzedSuccessful = true;
 				}
+			} catch (IOException e) {
+				analyzedSuccessful = false;
+				ComAnLogger.getInstance().log(CLASS_ID, "Reading file \"" + commitFile.getName() + "\"failed",
+						e.getMessage(), MessageType.ERROR);
+			} finally {
+				// Close the file in any case; the reader and its buffers are kept for the next commit
+				if (lineReaderOpened) {
+					try {
+						lineReader.close();
+					} catch (IOException e) {
+						analyzedSuccessful = false;
+						ComAnLogger.getInstance().log(CLASS_ID, "Closing file reader for \"" 
+								+ commitFile.getAbsolutePath() + "\" failed", e.getMessage(), MessageType.ERROR);					
+					}
+				}
 			}
 		}
 		return analyzedSuccessful;
 	}
+	
+	/**
+	 * Add the numbers of changed lines of the given, completely analyzed {@link FileDiff} to the numbers of the
+	 * respective file type of this commit.
+	 * 
+	 * @param fileDiff the {@link FileDiff} to add to the results of this commit
+	 * @return <code>true</code> if the given file diff includes changes, <code>false</code> otherwise
+	 */
+	private boolean addFileDiff(FileDiff fileDiff) {
+		boolean fileDiffAdded = false;
+		if (isAnalyzable(fileDiff)) {
+			switch(fileDiff.getFileType()) {
+				case MODEL:
+					changedModelLinesCounter = changedModelLinesCounter + getChangedLines(fileDiff, false);
+					changedModelVarLinesCounter = changedModelVarLinesCounter + getChangedLines(fileDiff, true);
+					break;
+				case SOURCE:
+					changedSourceLinesCounter = changedSourceLinesCounter + getChangedLines(fileDiff, false);
+					changedSourceVarLinesCounter = changedSourceVarLinesCounter + getChangedLines(fileDiff, true);
+					break;
+				case BUILD:
+					changedBuildLinesCounter = changedBuildLinesCounter + getChangedLines(fileDiff, false);
+					changedBuildVarLinesCounter = changedBuildVarLinesCounter + getChangedLines(fileDiff, true);
+					break;
+				default:
+					// like OTHER, do nothing
+					break;
+			}
+			fileDiffAdded = true;
+			if (fileResults != null && fileDiff.getFileType() != FileType.OTHER) {
+				fileResults.add(new FileResult(commitNumber, filePath, fileDiff.getFileType(),
+						fileDiff.getAddedLinesNum(), fileDiff.getDeletedLinesNum(),
+						fileDiff.getAddedVarLinesNum(), fileDiff.getDeletedVarLinesNum()));
+			}
+		}
+		return fileDiffAdded;
+	}
+	
+	/**
+	 * Return the path of the changed file after the change defined in the given changed file description line.
+	 * 
+	 * @param changedFileDescriptionLine the first line of a diff containing the path and the name of the changed
+	 * file, e.g. "diff --git a/include/libbb.h b/include/libbb.h"
+	 * @return the path of the changed file after the change, e.g. "include/libbb.h", or the given line, if it does
+	 * not contain such a path
+	 */
+	private String getFilePath(String changedFileDescriptionLine) {
+		String newFilePath = changedFileDescriptionLine;
+		int newFilePathPrefixIndex = changedFileDescriptionLine.lastIndexOf(NEW_FILE_PATH_PREFIX);
+		if (newFilePathPrefixIndex > -1) {
+			newFilePath = changedFileDescriptionLine.substring(newFilePathPrefixIndex + NEW_FILE_PATH_PREFIX.length());
+		}
+		return newFilePath;
+	}
 
 	/**
 	 * Return the sum of changed lines of the given {@link FileDiff}; either all changed lines or only those lines
@@ -271,77 +527,174 @@ public class DiffAnalyzer {
 	 * <code>diff</code> information:<br>
 	 * <ul>
 	 * <li>{@link SourceFileDiff}</li>
-	 * <li>{@link BuidFileDiff}</li>
+	 * <li>{@link BuildFileDiff}</li>
 	 * <li>{@link ModelFileDiff}</li>
 	 * </ul><br>
 	 * 
+	 * Note that the returned file diff is reused by the next diff of the same type.
+	 * 
 	 * @param diff the diff text describing the changed of a specific file
 	 * @return a {@link FileDiff} object holding detailed information about the diff, e.g. number of changed lines
+	 * or <code>null</code>, if the diff does not include changes
 	 */
 	private FileDiff createFileDiff(String diff) {
 		FileDiff fileDiff = null;
 		String diffLines[] = diff.split("\n");
 		if (diffLines.length > 0) {
+			fileDiff = startFileDiff(diffLines[0]);
+			for (int i = 1; i < diffLines.length; i++) {
+				fileDiff.addDiffLine(diffLines[i]);
+			}
+			if (!isAnalyzable(fileDiff)) {
+				fileDiff = null;
+			}
+		}
+		return fileDiff;
+	}
+	
+	/**
+	 * Create a new {@link FileDiff} without any diff lines based on the given first line of a diff. The following
+	 * lines of that diff have to be passed via {@link FileDiff#addDiffLine(String)}. The actual type of the returned
+	 * <code>FileDiff</code> depends on the type of file under change as provided by the given line:<br>
+	 * <ul>
+	 * <li>{@link SourceFileDiff}</li>
+	 * <li>{@link BuildFileDiff}</li>
+	 * <li>{@link ModelFileDiff}</li>
+	 * <li>{@link OtherFileDiff} for all other files</li>
+	 * </ul><br>
+	 * 
+	 * @param changedFileDescriptionLine the first line of a diff containing the path and the name of the changed
+	 * file, e.g. "diff --git a/include/libbb.h b/include/libbb.h"
+	 * @return a {@link FileDiff} object, which already analyzed the given line; this object is reused by the next
+	 * diff of the same type
+	 */
+	private FileDiff startFileDiff(String changedFileDescriptionLine) {
+		/*
+		 * First line contains the path to and the name of the changed file, e.g.:
+		 * 
+		 * 		diff --git a/<path>/<filename> b/<path>/<filename>
+		 * 
+		 * Thus, use this line to:
+		 * 		a) check whether the path includes directories not of interest (documentation, scripts)
+		 * 		b) identify the type of the file (variability model, source code, build) 
+		 */
+		FileDiff fileDiff = null;
+		if (FILE_EXCLUDE_REGEX.matcher(changedFileDescriptionLine).matches()
+				|| isBlacklisted(changedFileDescriptionLine)) {
+			// Either excluded or blacklisted file changed, thus use OtherFileDiff
+			fileDiff = getFileDiff(FileType.OTHER);
+		} else if (SOURCE_FILE_REGEX.matcher(changedFileDescriptionLine).matches()) {
+			// Diff affects source code file
+			fileDiff = getFileDiff(FileType.SOURCE);
+		} else if (BUILD_FILE_REGEX.matcher(changedFileDescriptionLine).matches()) {
+			// Diff affects build file
+			fileDiff = getFileDiff(FileType.BUILD);
+		} else if (MODEL_FILE_REGEX.matcher(changedFileDescriptionLine).matches()) {
+			// Diff affects model file
+			fileDiff = getFileDiff(FileType.MODEL);
+		} else {
 			/*
-			 * First line contains the path to and the name of the changed file, e.g.:
-			 * 
-			 * 		diff --git a/<path>/<filename> b/<path>/<filename>
-			 * 
-			 * Thus, use this line to:
-			 * 		a) check whether the path includes directories not of interest (documentation, scripts)
-			 * 		b) identify the type of the file (variability model, source code, build) 
-			 */
-			String changedFileDescriptionLine = diffLines[0];
-			/*
-			 * Each diff starts with some general information about the introduced changes, e.g.:
-			 * 
-			 * 		diff --git a/include/libbb.h b/include/libbb.h
-			 * 		index 6fb0438..4b69c85 100644
-			 * 		--- a/include/libbb.h
-			 * 		+++ b/include/libbb.h
-			 * 		@@ -1575,0 +1576,10 @@ extern const char *applet_name;
-			 *		+
-			 * 		+/* Some older linkers don't perform string merging, we used to have common strings
-			 * 		...
-			 * 
-			 * After identifying the name (and type) of the changed file, only the lines describing the
-			 * actual changes to that file are of interest. Thus, skip the other lines containing general
-			 * information. In the example, start with the line "@@ ..." for detailed analysis.
+			 * We need a way of excluding files not of interest. This is done by creating an
+			 * OtherFileDiff-object, which is actually doing nothing and does not influence further
+			 * analysis. 
 			 */
-			int changesStartLine = getFirstChangeLine(diffLines);
-			if (changesStartLine > -1 && changesStartLine < diffLines.length) {
-				if (Pattern.matches(FILE_EXCLUDE_PATTERN, changedFileDescriptionLine)
-						|| isBlacklisted(changedFileDescriptionLine)) {
-					// Either excluded or blacklisted file changed, thus use OtherFileDiff
-					fileDiff = new OtherFileDiff(diffLines, changesStartLine);
-				} else if (Pattern.matches(SOURCE_FILE_PATTERN, changedFileDescriptionLine)) {
-					// Diff affects source code file
+			fileDiff = getFileDiff(FileType.OTHER);
+		}
+		fileDiff.addDiffLine(changedFileDescriptionLine);
+		return fileDiff;
+	}
+	
+	/**
+	 * Return the reset {@link FileDiff} of the given {@link FileType}, which is reused for all diffs of that type
+	 * analyzed by this {@link DiffAnalyzer}.
+	 * 
+	 * @param fileType the {@link FileType} of the requested file diff
+	 * @return the reset file diff of the given type without any diff lines
+	 */
+	private FileDiff getFileDiff(FileType fileType) {
+		FileDiff fileDiff = null;
+		switch(fileType) {
+			case SOURCE:
+				if (sourceFileDiff == null) {
+					sourceFileDiff = new SourceFileDiff();
+				}
+				fileDiff = sourceFileDiff;
+				break;
+			case BUILD:
+				if (buildFileDiff == null) {
+					buildFileDiff = new BuildFileDiff();
+				}
+				fileDiff = buildFileDiff;
+				break;
+			case MODEL:
+				if (modelFileDiff == null) {
+					modelFileDiff = new ModelFileDiff();
+				}
+				fileDiff = modelFileDiff;
+				break;
+			default:
+				if (otherFileDiff == null) {
+					otherFileDiff = new OtherFileDiff();
+				}
+				fileDiff = otherFileDiff;
+				break;
+		}
+		fileDiff.reset();
+		return fileDiff;
+	}
+	
+	/**
+	 * Check if the given, completely analyzed {@link FileDiff} includes changes and count the changed file for
+	 * the respective file type.<br><br>
+	 * 
+	 * Each diff starts with some general information about the introduced changes, e.g.:
+	 * 
+	 * 		diff --git a/include/libbb.h b/include/libbb.h
+	 * 		index 6fb0438..4b69c85 100644
+	 * 		--- a/include/libbb.h
+	 * 		+++ b/include/libbb.h
+	 * 		@@ -1575,0 +1576,10 @@ extern const char *applet_name;
+	 *		+
+	 * 		+/* Some older linkers don't perform string merging, we used to have common strings
+	 * 		...
+	 * 
+	 * Only the lines following the first line starting with "@@" describe the actual changes to the file. If there is
+	 * no such line, the diff does not include changes and is not considered.
+	 * 
+	 * @param fileDiff the {@link FileDiff} to check
+	 * @return <code>true</code> if the given file diff includes changes, <code>false</code> otherwise
+	 */
+	private boolean isAnalyzable(FileDiff fileDiff) {
+		boolean isAnalyzable = false;
+		if (fileDiff.hasChanges()) {
+			switch(fileDiff.getFileType()) {
+				case MODEL:
+					changedModelFilesCounter++;
+					break;
+				case SOURCE:
 					changedSourceFilesCounter++;
-					fileDiff = new SourceFileDiff(diffLines, changesStartLine);
-				} else if (Pattern.matches(BUILD_FILE_PATTERN, changedFileDescriptionLine)) {
-					// Diff affects build file
+					break;
+				case BUILD:
 					changedBuildFilesCounter++;
-					fileDiff = new BuildFileDiff(diffLines, changesStartLine);
-				} else if (Pattern.matches(MODEL_FILE_PATTERN, changedFileDescriptionLine)) {
-					// Diff affects model file
-					changedModelFilesCounter++;
-					fileDiff = new ModelFileDiff(diffLines, changesStartLine);
-				} else {
-					/*
-					 * As this method should only return null if no changes start line can be identified,
-					 * we need another way of excluding files not of interest. This is done by creating an
-					 * OtherFileDiff-object, which is actually doing nothing and does not influence further
-					 * analysis. 
-					 */
-					fileDiff = new OtherFileDiff(diffLines, changesStartLine);
-				}
-			} else {
-				ComAnLogger.getInstance().log(CLASS_ID, "No changes found",
-						"Commit \"" + commitNumber + "\" includes diff without any line starting with \"@@\" indicating line changes",
-						MessageType.WARNING);
+					break;
+				default:
+					// like OTHER, do nothing
+					break;
 			}
+			isAnalyzable = true;
+		} else {
+			logNoChanges();
 		}
-		return fileDiff;
+		return isAnalyzable;
+	}
+	
+	/**
+	 * Log a warning that the analyzed commit includes a diff without any changes.
+	 */
+	private void logNoChanges() {
+		ComAnLogger.getInstance().log(CLASS_ID, "No changes found",
+				"Commit \"" + commitNumber + "\" includes diff without any line starting with \"@@\" indicating line changes",
+				MessageType.WARNING);
 	}
 	
 	/**
@@ -371,93 +724,6 @@ public class DiffAnalyzer {
 		return isBlacklisted;
 	}
 	
-	/**
-	 * Return the index of the line in the diff information part that marks the starting
-	 * point of the change details in terms of added and removed lines. This line starts with
-	 * {@value #CHANGES_START_PATTERN}. 
-	 *  
-	 * @param diffLines the diff information part in which the line marking the start of
-	 * change details should be found
-	 * @return the index of the line in the diff information part marking the start of
-	 * change details or <code>-1</code> if this line could not be found.
-	 */
-	private int getFirstChangeLine(String[] diffLines) {
-		int firstChangeLine = -1;
-		int lineCounter = 0;
-		while (firstChangeLine < 0 && lineCounter < diffLines.length) {
-			if (diffLines[lineCounter].startsWith(CHANGES_START_PATTERN)) {
-				firstChangeLine = lineCounter;
-			}
-			lineCounter++;
-		}
-		return firstChangeLine;
-	}
-	
-	/**
-	 * Create a list of diff information read from the defined commit file.
-	 * 
-	 * @return a {@link List} of strings, each containing a diff information (single file diff)
-	 * @see {@link #DiffAnalyzer(File)}
-	 */
-	private List<String> createDiffList() {
-		List<String> diffList = null;
-		FileReader fileReader = null;
-		BufferedReader bufferedReader = null;		
-		try {
-			diffList = new ArrayList<String>();
-			fileReader = new FileReader(commitFile);
-			bufferedReader = new BufferedReader(fileReader);
-			String fileLine;
-			StringBuilder diffInfoBuilder = new StringBuilder();
-			// First line always contains commit date and time; parse this individually
-			parseCommitDate(bufferedReader.readLine());
-			do {
-				fileLine = bufferedReader.readLine();
-				if (fileLine != null) {
-					if (fileLine.startsWith(DIFF_START_PATTERN)) {
-						if (diffInfoBuilder.length() > 0) {
-							// Save current diff info to list
-							diffList.add(diffInfoBuilder.toString());
-						}
-						diffInfoBuilder = new StringBuilder();
-						diffInfoBuilder.append(fileLine);
-					} else {
-						diffInfoBuilder.append("\n" + fileLine);
-					}
-				} else {
-					// EOF push last diff info from builder to list
-					diffList.add(diffInfoBuilder.toString());
-					diffInfoBuilder = null;
-				}
-			} while (fileLine != null);
-		} catch (IOException e) {
-			diffList = null;
-			ComAnLogger.getInstance().log(CLASS_ID, "Reading file \"" + commitFile.getName() + "\"failed",
-					e.getMessage(), MessageType.ERROR);
-		} finally {
-			// Close the readers in any case
-			if (fileReader != null) {
-				try {
-					fileReader.close();
-				} catch (IOException e) {
-					diffList = null;
-					ComAnLogger.getInstance().log(CLASS_ID, "Closing file reader for \"" 
-							+ commitFile.getAbsolutePath() + "\" failed", e.getMessage(), MessageType.ERROR);					
-				}
-			}
-			if (bufferedReader != null) {
-				try {
-					bufferedReader.close();
-				} catch (IOException e) {
-					diffList = null;
-					ComAnLogger.getInstance().log(CLASS_ID, "Closing buffered reader for \"" 
-							+ commitFile.getAbsolutePath() + "\" failed", e.getMessage(), MessageType.ERROR);
-				}
-			}
-		}
-		return diffList;
-	}
-	
 	/**
 	 * Parse the given content line to {@link #commitDate}.
 	 * 
@@ -497,6 +763,35 @@ public class DiffAnalyzer {
 		return commitDate;
 	}
 	
+	/**
+	 * Return the results of the analyzed commit as {@link CommitResult}, which does not reference this
+	 * {@link DiffAnalyzer}.<br><br>
+	 * 
+	 * <b>Note</b> that calling {@link #analyze()} before calling this method is
+	 * required to return the correct numbers.
+	 * 
+	 * @return the results of the analyzed commit
+	 */
+	public CommitResult getResult() {
+		return new CommitResult(commitNumber, commitDate,
+				changedSourceFilesCounter, changedSourceLinesCounter, changedSourceVarLinesCounter,
+				changedBuildFilesCounter, changedBuildLinesCounter, changedBuildVarLinesCounter,
+				changedModelFilesCounter, changedModelLinesCounter, changedModelVarLinesCounter);
+	}
+	
+	/**
+	 * Return the results of each source code, build, and model file changed by the analyzed commit in the order
+	 * of their diffs. The returned list is not changed by further analyses of this {@link DiffAnalyzer}.<br><br>
+	 * 
+	 * <b>Note</b> that calling {@link #enableFileResults()} and {@link #analyze()} before calling this method is
+	 * required to return the results.
+	 * 
+	 * @return the results of the changed files or <code>null</code>, if these results are not collected
+	 */
+	public List<FileResult> getFileResults() {
+		return fileResults;
+	}
+	
 	/**
 	 * Return the number of model files changed by analyzed commit.<br><br>
 	 * 
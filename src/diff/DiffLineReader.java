@@ -0,0 +1,400 @@
+package diff;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * This class implements a line reader for commit files, which reuses its buffers for all files it reads.<br><br>
+ * 
+ * A {@link java.io.BufferedReader} allocates its byte and char buffers for each file again, which dominates the
+ * memory allocated for small commits. This reader decodes the bytes of a file with the default charset of the
+ * platform (like {@link java.io.FileReader}) and splits lines at "\n", "\r", or "\r\n" (like
+ * {@link java.io.BufferedReader#readLine()}). Hence, the only object allocated per line is the returned line.<br><br>
+ * 
+ * If a {@link MemoryBudget} is set, this reader reserves the bytes for reading the current file in that budget when
+ * opening the file and releases them when closing it. The size of the file, which is known up front, bounds the
+ * growth of the buffers: they never grow beyond the number of bytes of the file, as each decoded char requires at
+ * least one byte. Hence, the buffers for reading a file fit into the reserved bytes, unless the file exceeds the
+ * budget as a whole; such a file is read with all bytes of the budget reserved.
+ * 
+ * @author agent
+ *
+ */
+class DiffLineReader {
+	
+	/**
+	 * The initial size of the byte and char buffers of this reader.<br><br>
+	 * 
+	 * Value: {@value #BUFFER_SIZE};
+	 */
+	private static final int BUFFER_SIZE = 8192;
+	
+	/**
+	 * The maximum size of the char buffer kept for reading the next file. A larger buffer, which was only grown
+	 * for a single long line, is replaced by a buffer of {@link #BUFFER_SIZE} when the current file is closed.<br><br>
+	 * 
+	 * Value: {@value #MAX_KEPT_BUFFER_SIZE};
+	 */
+	private static final int MAX_KEPT_BUFFER_SIZE = 1 << 20;
+	
+	/**
+	 * The number of bytes reserved in the {@link MemoryBudget} for each char of the char buffer: the char itself,
+	 * the returned line, and the normalized copy of that line created by the {@link FileDiff} (two bytes each).
+	 * <br><br>
+	 * 
+	 * Value: {@value #BYTES_PER_BUFFER_CHAR};
+	 */
+	static final int BYTES_PER_BUFFER_CHAR = 6;
+	
+	/**
+	 * The decoder for the bytes of the files read by this reader. Malformed input is replaced like in
+	 * {@link java.io.FileReader}.
+	 */
+	private CharsetDecoder decoder;
+	
+	/**
+	 * The bytes read from the current file, which are not decoded yet.
+	 */
+	private ByteBuffer byteBuffer;
+	
+	/**
+	 * The chars decoded from the current file, which are not returned as part of a line yet. This buffer grows,
+	 * if a single line does not fit into it.
+	 */
+	private CharBuffer charBuffer;
+	
+	/**
+	 * The input stream of the current file or <code>null</code>, if no file is open.
+	 */
+	private FileInputStream fileInputStream;
+	
+	/**
+	 * The channel of {@link #fileInputStream} used for reading bytes into {@link #byteBuffer} directly.
+	 */
+	private FileChannel fileChannel;
+	
+	/**
+	 * <code>true</code> if all bytes of the current file are read, <code>false</code> otherwise.
+	 */
+	private boolean inputEnded;
+	
+	/**
+	 * <code>true</code> if all bytes of the current file are decoded, <code>false</code> otherwise.
+	 */
+	private boolean decodingEnded;
+	
+	/**
+	 * <code>true</code> if the last returned line ended with "\r" and, hence, a directly following "\n" must be
+	 * skipped, <code>false</code> otherwise.
+	 */
+	private boolean skipLineFeed;
+	
+	/**
+	 * The number of bytes of the current file, which is the maximum number of chars decoded from it.
+	 */
+	private long fileSize;
+	
+	/**
+	 * The {@link MemoryBudget} in which the bytes of the buffers of this reader are reserved or <code>null</code>,
+	 * if the memory of this reader is not limited.
+	 */
+	private MemoryBudget memoryBudget;
+	
+	/**
+	 * The number of bytes reserved by this reader in the {@link #memoryBudget} for reading the current file.
+	 */
+	private long reservedBytes;
+	
+	/**
+	 * Construct a new {@link DiffLineReader}.
+	 */
+	DiffLineReader() {
+		decoder = Charset.defaultCharset().newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+		charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+		memoryBudget = null;
+		reservedBytes = 0;
+	}
+	
+	/**
+	 * Set the {@link MemoryBudget} in which the bytes for reading the files of this reader are reserved. The bytes
+	 * reserved in a previously set budget are released. By default, the memory of this reader is not limited.
+	 * 
+	 * @param memoryBudget the {@link MemoryBudget} to use or <code>null</code>, if the memory should not be limited
+	 */
+	void setMemoryBudget(MemoryBudget memoryBudget) {
+		release();
+		this.memoryBudget = memoryBudget;
+	}
+	
+	/**
+	 * Return the number of bytes required for reading the given file as a whole, i.e. for a single line consisting
+	 * of all bytes of the file, including the previous char buffer while growing it.
+	 * 
+	 * @param file the {@link File} to read
+	 * @return the maximum number of bytes required for reading the given file
+	 */
+	static long getMaxReservedBytes(File file) {
+		return BUFFER_SIZE + (2 * file.length() + 1) * BYTES_PER_BUFFER_CHAR;
+	}
+	
+	/**
+	 * Open the given file for reading its lines. A previously opened file is closed before. If a
+	 * {@link MemoryBudget} is set, this method waits until the bytes for reading the file are reserved.
+	 * 
+	 * @param file the {@link File} to read
+	 * @throws IOException if opening the file fails, the buffers of this reader exceed the {@link MemoryBudget}, or
+	 * the current thread is interrupted while waiting for the reservation
+	 */
+	void open(File file) throws IOException {
+		close();
+		fileSize = file.length();
+		if (memoryBudget != null) {
+			reserve(file);
+		}
+		try {
+			fileInputStream = new FileInputStream(file);
+		} catch (IOException e) {
+			release();
+			throw e;
+		}
+		fileChannel = fileInputStream.getChannel();
+		decoder.reset();
+		byteBuffer.clear().flip();
+		charBuffer.clear().flip();
+		inputEnded = false;
+		decodingEnded = false;
+		skipLineFeed = false;
+	}
+	
+	/**
+	 * Read the next line of the current file.
+	 * 
+	 * @return the next line without line terminators or <code>null</code>, if the end of the file is reached
+	 * @throws IOException if reading the file fails or the line exceeds the {@link MemoryBudget}
+	 */
+	String readLine() throws IOException {
+		String line = null;
+		boolean lineFound = false;
+		int searchStart = charBuffer.position();
+		while (!lineFound) {
+			if (skipLineFeed && charBuffer.hasRemaining()) {
+				if (charBuffer.get(charBuffer.position()) == '\n') {
+					charBuffer.position(charBuffer.position() + 1);
+				}
+				skipLineFeed = false;
+				searchStart = charBuffer.position();
+			}
+			int lineStart = charBuffer.position();
+			int lineEnd = -1;
+			char[] chars = charBuffer.array();
+			int i = searchStart;
+			while (lineEnd < 0 && i < charBuffer.limit()) {
+				if (chars[i] == '\n' || chars[i] == '\r') {
+					lineEnd = i;
+				}
+				i++;
+			}
+			if (lineEnd >= 0) {
+				line = new String(chars, lineStart, lineEnd - lineStart);
+				skipLineFeed = chars[lineEnd] == '\r';
+				charBuffer.position(lineEnd + 1);
+				lineFound = true;
+			} else if (decodingEnded) {
+				if (lineStart < charBuffer.limit()) {
+					line = new String(chars, lineStart, charBuffer.limit() - lineStart);
+					charBuffer.position(charBuffer.limit());
+				}
+				lineFound = true;
+			} else {
+				// Keep the chars of the current line, which were already searched for line terminators
+				searchStart = charBuffer.limit() - lineStart;
+				fill();
+			}
+		}
+		return line;
+	}
+	
+	/**
+	 * Skip the lines of the current file up to the next line starting with the given stop prefix (or the end of the
+	 * file) without creating strings for these lines. The next call of {@link #readLine()} returns the line
+	 * starting with the stop prefix. As skipped lines are never kept as a whole, their length is not limited.
+	 * 
+	 * @param stopPrefix the prefix of the line at which skipping stops, e.g. "diff --git"
+	 * @param markerPrefix the prefix of skipped lines to report, e.g. "@@"
+	 * @return <code>true</code> if at least one of the skipped lines starts with the given marker prefix,
+	 * <code>false</code> otherwise
+	 * @throws IOException if reading the file fails
+	 */
+	boolean skipLinesUntil(String stopPrefix, String markerPrefix) throws IOException {
+		boolean markerFound = false;
+		boolean skippingStopped = false;
+		boolean lineStartChecked = false;
+		int prefixLength = Math.max(stopPrefix.length(), markerPrefix.length());
+		while (!skippingStopped) {
+			if (skipLineFeed && charBuffer.hasRemaining()) {
+				if (charBuffer.get(charBuffer.position()) == '\n') {
+					charBuffer.position(charBuffer.position() + 1);
+				}
+				skipLineFeed = false;
+			}
+			int available = charBuffer.remaining();
+			if (!lineStartChecked) {
+				// 1. Check the start of the next line, if enough chars are available
+				if ((available < prefixLength || skipLineFeed) && !decodingEnded) {
+					fill();
+				} else if (available == 0 || startsWith(stopPrefix)) {
+					skippingStopped = true;
+				} else {
+					markerFound = markerFound || startsWith(markerPrefix);
+					lineStartChecked = true;
+				}
+			} else {
+				// 2. Skip the rest of the line; the chars of the line are not kept while searching its end
+				char[] chars = charBuffer.array();
+				int lineEnd = -1;
+				int i = charBuffer.position();
+				while (lineEnd < 0 && i < charBuffer.limit()) {
+					if (chars[i] == '\n' || chars[i] == '\r') {
+						lineEnd = i;
+					}
+					i++;
+				}
+				if (lineEnd >= 0) {
+					skipLineFeed = chars[lineEnd] == '\r';
+					charBuffer.position(lineEnd + 1);
+					lineStartChecked = false;
+				} else {
+					charBuffer.position(charBuffer.limit());
+					if (decodingEnded) {
+						skippingStopped = true;
+					} else {
+						fill();
+					}
+				}
+			}
+		}
+		return markerFound;
+	}
+	
+	/**
+	 * Check if the chars at the current position of {@link #charBuffer} start with the given prefix.
+	 * 
+	 * @param prefix the prefix to check
+	 * @return <code>true</code> if the available chars start with the given prefix, <code>false</code> otherwise
+	 */
+	private boolean startsWith(String prefix) {
+		boolean startsWith = charBuffer.remaining() >= prefix.length();
+		int i = 0;
+		while (startsWith && i < prefix.length()) {
+			startsWith = charBuffer.get(charBuffer.position() + i) == prefix.charAt(i);
+			i++;
+		}
+		return startsWith;
+	}
+	
+	/**
+	 * Decode further bytes of the current file into {@link #charBuffer} keeping all chars not returned yet at the
+	 * start of that buffer. If that buffer is full, it is replaced by a larger buffer, which has to fit into the
+	 * bytes reserved in the {@link MemoryBudget} together with the full buffer.
+	 * 
+	 * @throws IOException if reading the file fails or the larger buffer exceeds the reserved bytes
+	 */
+	private void fill() throws IOException {
+		charBuffer.compact();
+		if (!charBuffer.hasRemaining()) {
+			int capacity = charBuffer.capacity();
+			int largerCapacity = (int) Math.min(Integer.MAX_VALUE - 8,
+					Math.min(2L * capacity, Math.max(capacity + 1L, fileSize + 1)));
+			if (memoryBudget != null && byteBuffer.capacity() + ((long) capacity + largerCapacity)
+					* BYTES_PER_BUFFER_CHAR > reservedBytes) {
+				throw new IOException("Reading a line of more than " + capacity + " characters exceeds the memory "
+						+ "budget of " + memoryBudget.getMaxBytes() + " bytes");
+			}
+			CharBuffer largerCharBuffer = CharBuffer.allocate(largerCapacity);
+			charBuffer.flip();
+			largerCharBuffer.put(charBuffer);
+			charBuffer = largerCharBuffer;
+		}
+		if (!inputEnded) {
+			byteBuffer.compact();
+			if (fileChannel.read(byteBuffer) < 0) {
+				inputEnded = true;
+			}
+			byteBuffer.flip();
+		}
+		if (decoder.decode(byteBuffer, charBuffer, inputEnded).isUnderflow() && inputEnded
+				&& decoder.flush(charBuffer).isUnderflow()) {
+			decodingEnded = true;
+		}
+		charBuffer.flip();
+	}
+	
+	/**
+	 * Reserve the bytes for reading the given file in the {@link MemoryBudget}: the bytes required for reading the
+	 * file as a whole (see {@link #getMaxReservedBytes(File)}), but at most all bytes of the budget. A char buffer
+	 * kept from a previous file, which exceeds these bytes, is replaced by a buffer of {@link #BUFFER_SIZE}. This
+	 * method waits until these bytes are available.
+	 * 
+	 * @param file the {@link File} to read
+	 * @throws IOException if the initial buffers exceed the {@link MemoryBudget} or the current thread is interrupted
+	 * while waiting for the reservation
+	 */
+	private void reserve(File file) throws IOException {
+		long bytes = Math.min(getMaxReservedBytes(file), memoryBudget.getMaxBytes());
+		long bufferBytes = byteBuffer.capacity() + (long) charBuffer.capacity() * BYTES_PER_BUFFER_CHAR;
+		if (bufferBytes > bytes && charBuffer.capacity() > BUFFER_SIZE) {
+			charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+			bufferBytes = byteBuffer.capacity() + (long) BUFFER_SIZE * BYTES_PER_BUFFER_CHAR;
+		}
+		bytes = Math.max(bytes, bufferBytes);
+		try {
+			if (!memoryBudget.reserve(bytes)) {
+				throw new IOException("Reading \"" + file.getName() + "\" exceeds the memory budget of "
+						+ memoryBudget.getMaxBytes() + " bytes");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reserving memory for reading \"" + file.getName() + "\"", e);
+		}
+		reservedBytes = bytes;
+	}
+	
+	/**
+	 * Release the bytes reserved in the {@link MemoryBudget}, if a budget is set.
+	 */
+	private void release() {
+		if (memoryBudget != null && reservedBytes > 0) {
+			memoryBudget.release(reservedBytes);
+		}
+		reservedBytes = 0;
+	}
+	
+	/**
+	 * Close the current file and release the bytes reserved for reading it. The buffers of this reader are kept
+	 * for reading the next file, unless the char buffer was grown beyond {@link #MAX_KEPT_BUFFER_SIZE}.
+	 * 
+	 * @throws IOException if closing the file fails
+	 */
+	void close() throws IOException {
+		if (charBuffer.capacity() > MAX_KEPT_BUFFER_SIZE) {
+			charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+		}
+		release();
+		if (fileInputStream != null) {
+			FileInputStream closingFileInputStream = fileInputStream;
+			fileInputStream = null;
+			fileChannel = null;
+			closingFileInputStream.close();
+		}
+	}
+}
@@ -1,5 +1,10 @@
 package diff;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * This abstract class represents a general file diff and implements common attributes and methods for the following
  * sub-classes:<br>
@@ -35,22 +40,81 @@ public abstract class FileDiff {
 	 */
 	protected static final String LINE_DELETED_MARKER = "-";
 	
+	/**
+	 * String identifying the start of the change details in a diff text, if found at the start of the line.
+	 */
+	protected static final String CHANGES_START_MARKER = "@@";
+	
+	/**
+	 * String identifying a diff of a new file, if found at the start of a line before the change details.
+	 */
+	private static final String NEW_FILE_MARKER = "new file mode";
+	
+	/**
+	 * String identifying a diff of a deleted file, if found at the start of a line before the change details.
+	 */
+	private static final String DELETED_FILE_MARKER = "deleted file mode";
+	
+	/**
+	 * Regex identifying the start of the change details of a diff, which adds all lines of a file.<br><br>
+	 * 
+	 * Value: {@value #ADDED_FILE_CHANGES_PATTERN};
+	 */
+	private static final String ADDED_FILE_CHANGES_PATTERN = "@@ -0,0 \\+1(,[0-9]+)? @@.*";
+	
+	/**
+	 * Regex identifying the start of the change details of a diff, which deletes all lines of a file.<br><br>
+	 * 
+	 * Value: {@value #DELETED_FILE_CHANGES_PATTERN};
+	 */
+	private static final String DELETED_FILE_CHANGES_PATTERN = "@@ -1(,[0-9]+)? \\+0,0 @@.*";
+	
+	/**
+	 * The compiled {@link #ADDED_FILE_CHANGES_PATTERN} used for identifying whole-file additions.
+	 */
+	private static final Pattern ADDED_FILE_CHANGES_REGEX = Pattern.compile(ADDED_FILE_CHANGES_PATTERN);
+	
+	/**
+	 * The compiled {@link #DELETED_FILE_CHANGES_PATTERN} used for identifying whole-file deletions.
+	 */
+	private static final Pattern DELETED_FILE_CHANGES_REGEX = Pattern.compile(DELETED_FILE_CHANGES_PATTERN);
+	
 	/**
 	 * The {@link FileType} of this file diff.
 	 */
 	protected FileType fileType;
 
 	/**
-	 * The full, line-wise diff description of a commit.
+	 * The full, line-wise diff description of a commit. This attribute is <code>null</code>, if the diff lines
+	 * are passed one after another via {@link #addDiffLine(String)}.
 	 */
 	protected String[] diffLines;
 	
 	/**
 	 * The line number at which the first change of a commit is described. This typically is
-	 * the first occurrence of a line starting with "@@".
+	 * the first occurrence of a line starting with {@value #CHANGES_START_MARKER} and <code>-1</code>, if no
+	 * such line was found (yet).
 	 */
 	protected int changesStartLine;
 	
+	/**
+	 * The marker of the file mode line ({@value #NEW_FILE_MARKER} or {@value #DELETED_FILE_MARKER}) found before
+	 * the change details: {@link #LINE_ADDED_MARKER} for a new file, {@link #LINE_DELETED_MARKER} for a deleted
+	 * file, or <code>null</code>, if no such line was found (yet).
+	 */
+	private String fileModeMarker;
+	
+	/**
+	 * The marker of the only change type of all changed lines of this file diff, if this diff adds or deletes a
+	 * whole file. See {@link #getWholeFileChangeMarker()}.
+	 */
+	private String wholeFileChangeMarker;
+	
+	/**
+	 * The number of diff lines analyzed so far. This is also the index of the next diff line to analyze.
+	 */
+	private int diffLinesCounter;
+	
 	/**
 	 * The number of lines added by a commit.<br><br>
 	 * 
@@ -75,6 +139,24 @@ public abstract class FileDiff {
 	 */
 	private int deletedVarLinesNum;
 	
+	/**
+	 * The {@link Matcher}s created by {@link #matches(Pattern, CharSequence)} for each {@link Pattern}. These
+	 * matchers are reused for all lines of this file diff (and all diffs analyzed after a {@link #reset()}).
+	 */
+	private Map<Pattern, Matcher> matchers;
+	
+	/**
+	 * The {@link ClassificationRule}, which decided the classification of the diff line passed to the last call of
+	 * {@link #isVariabilityChange(String, int)}. Sub-classes must set this rule in each call of that method.
+	 */
+	protected ClassificationRule classificationRule;
+	
+	/**
+	 * The {@link ClassificationTracer} recording the classification of each changed line of this file diff or
+	 * <code>null</code>, if the lines of this diff are not traced. See {@link #setTracer(ClassificationTracer)}.
+	 */
+	private ClassificationTracer tracer;
+	
 	/**
 	 * Construct a new {@link FileDiff}.<br><br>
 	 * 
@@ -91,6 +173,10 @@ public abstract class FileDiff {
 		this.fileType = fileType;
 		this.diffLines = diffLines;
 		this.changesStartLine = changesStartLineNum;
+		this.fileModeMarker = null;
+		this.wholeFileChangeMarker = null;
+		this.classificationRule = null;
+		this.tracer = null;
 		
 		this.addedLinesNum = 0;
 		this.deletedLinesNum = 0;
@@ -100,28 +186,116 @@ public abstract class FileDiff {
 		analyzeDiff();
 	}
 	
+	/**
+	 * Construct a new {@link FileDiff} without any diff lines.<br><br>
+	 * 
+	 * The diff lines have to be passed one after another via {@link #addDiffLine(String)}, starting with the first
+	 * line of the diff description, e.g. "diff --git a/include/libbb.h b/include/libbb.h". Each line is analyzed
+	 * when it is passed and not stored, which allows the analysis of diffs of arbitrary length. The line at which
+	 * the first change is described is the first line starting with {@value #CHANGES_START_MARKER}.
+	 * 
+	 * @param fileType the {@link FileType} of this file diff
+	 */
+	protected FileDiff(FileType fileType) {
+		this.fileType = fileType;
+		this.diffLines = null;
+		this.changesStartLine = -1;
+		this.fileModeMarker = null;
+		this.wholeFileChangeMarker = null;
+		this.classificationRule = null;
+		this.tracer = null;
+		
+		this.addedLinesNum = 0;
+		this.deletedLinesNum = 0;
+		this.addedVarLinesNum = 0;
+		this.deletedVarLinesNum = 0;
+	}
+	
+	/**
+	 * Reset this file diff to the state after construction without any diff lines. The diff lines of another diff
+	 * of the same {@link FileType} can then be passed via {@link #addDiffLine(String)}. This avoids creating a new
+	 * file diff (including its internal buffers) for each diff. The lines of the next diff are not traced, unless
+	 * {@link #setTracer(ClassificationTracer)} is called again.<br><br>
+	 * 
+	 * Sub-classes holding their own analysis state must override this method and call this implementation.
+	 */
+	public void reset() {
+		this.diffLines = null;
+		this.changesStartLine = -1;
+		this.diffLinesCounter = 0;
+		this.fileModeMarker = null;
+		this.wholeFileChangeMarker = null;
+		this.classificationRule = null;
+		this.tracer = null;
+		
+		this.addedLinesNum = 0;
+		this.deletedLinesNum = 0;
+		this.addedVarLinesNum = 0;
+		this.deletedVarLinesNum = 0;
+	}
+	
+	/**
+	 * Set the {@link ClassificationTracer} recording the {@link ClassificationRule} of each changed line passed to
+	 * {@link #addDiffLine(String)} until the next {@link #reset()}. The tracer must already know the commit and
+	 * the file of this diff (see {@link ClassificationTracer#startDiff(String, String)}).
+	 * 
+	 * @param tracer the {@link ClassificationTracer} for the lines of this diff or <code>null</code>, if the lines
+	 * should not be traced
+	 */
+	void setTracer(ClassificationTracer tracer) {
+		this.tracer = tracer;
+	}
+	
 	/**
 	 * Analyze the given {@link #diffLines} by counting the general lines added or removed by a commit as well
 	 * as counting the lines containing variability information added or removed by the commit.
 	 */
 	private void analyzeDiff() {
-		String diffLine = null;
-		String diffLineNoMarker = null;
-		for (int i = changesStartLine; i < diffLines.length; i++) {
-			diffLine = diffLines[i];
+		for (int i = 0; i < diffLines.length; i++) {
+			addDiffLine(diffLines[i]);
+		}
+	}
+	
+	/**
+	 * Analyze the given diff line, which is the next line of the diff description of this file diff. If this
+	 * line is part of the change details (see {@link #changesStartLine}), it is counted as general line or as line
+	 * containing variability information, if it is added or removed by a commit.<br><br>
+	 * 
+	 * Each diff line is normalized by {@link #normalize(String, int)} exactly once (including the lines before
+	 * the change details) before it is checked by {@link #isVariabilityChange(String, int)}.
+	 * 
+	 * @param diffLine the next line of the diff description of this file diff
+	 */
+	public void addDiffLine(String diffLine) {
+		int diffLinePosition = diffLinesCounter;
+		diffLinesCounter++;
+		if (changesStartLine < 0) {
+			if (diffLine.startsWith(CHANGES_START_MARKER)) {
+				changesStartLine = diffLinePosition;
+				checkWholeFileChange(diffLine);
+			} else if (diffLine.startsWith(NEW_FILE_MARKER)) {
+				fileModeMarker = LINE_ADDED_MARKER;
+			} else if (diffLine.startsWith(DELETED_FILE_MARKER)) {
+				fileModeMarker = LINE_DELETED_MARKER;
+			}
+		}
+		String normalizedDiffLine = normalize(diffLine, diffLinePosition);
+		if (changesStartLine > -1 && diffLinePosition >= changesStartLine) {
 			if (diffLine.startsWith(LINE_ADDED_MARKER)) {
+				ClassificationRule rule = ClassificationRule.BLANK_LINE;
 				// Up-front check if the added line is an empty line (do not count such lines)
-				diffLineNoMarker = diffLine.substring(1, diffLine.length());
-				if (!diffLineNoMarker.trim().isEmpty()) {
-					// Now, actually delete the marker and additional comments from that line
-					diffLine = normalize(diffLine, i);
-					if (!diffLine.trim().isEmpty()) {
-						if (isVariabilityChange(diffLine, i)) {
+				if (!isBlank(diffLine, 1)) {
+					// Now, actually use the line without the marker and additional comments
+					diffLine = normalizedDiffLine;
+					if (!isBlank(diffLine, 0)) {
+						if (isVariabilityChange(diffLine, diffLinePosition)) {
 							addedVarLinesNum++;
 						} else {
 							addedLinesNum++;
 						}
+						rule = classificationRule;
 					} else {
+						rule = ClassificationRule.COMMENT_ONLY;
 						// Not counted as artifact-specific information anymore!
 						/*
 						 * Line is empty after normalization. Happens if line only contains a
@@ -131,19 +305,24 @@ public abstract class FileDiff {
 						//addedLinesNum++;
 					}
 				}
+				if (tracer != null) {
+					tracer.trace(diffLinePosition, LINE_ADDED_MARKER, rule);
+				}
 			} else if (diffLine.startsWith(LINE_DELETED_MARKER)) {
+				ClassificationRule rule = ClassificationRule.BLANK_LINE;
 				// Up-front check if the added line is an empty line (do not count such lines)
-				diffLineNoMarker = diffLine.substring(1, diffLine.length());
-				if (!diffLineNoMarker.trim().isEmpty()) {
-					// Now, actually delete the marker and additional comments from that line
-					diffLine = normalize(diffLine, i);
-					if (!diffLine.trim().isEmpty()) {
-						if (isVariabilityChange(diffLine, i)) {
+				if (!isBlank(diffLine, 1)) {
+					// Now, actually use the line without the marker and additional comments
+					diffLine = normalizedDiffLine;
+					if (!isBlank(diffLine, 0)) {
+						if (isVariabilityChange(diffLine, diffLinePosition)) {
 							deletedVarLinesNum++;
 						} else {
 							deletedLinesNum++;
 						}
+						rule = classificationRule;
 					} else {
+						rule = ClassificationRule.COMMENT_ONLY;
 						// Not counted as artifact-specific information anymore!
 						/*
 						 * Line is empty after normalization. Happens if line only contains a
@@ -153,16 +332,123 @@ public abstract class FileDiff {
 						//deletedLinesNum++;
 					}
 				}
+				if (tracer != null) {
+					tracer.trace(diffLinePosition, LINE_DELETED_MARKER, rule);
+				}
 			}
 		}
 	}
 	
+	/**
+	 * Check if this file diff adds or deletes a whole file based on the file mode line found before the change
+	 * details and the given first line of the change details. A new file is described by a single range of added
+	 * lines, e.g. "@@ -0,0 +1,26 @@", and a deleted file by a single range of deleted lines, e.g.
+	 * "@@ -1,26 +0,0 @@". Hence, all changed lines of such a diff are of the same change type.
+	 * 
+	 * @param changesStartDiffLine the first line of the change details starting with {@value #CHANGES_START_MARKER}
+	 */
+	private void checkWholeFileChange(String changesStartDiffLine) {
+		if (fileModeMarker == LINE_ADDED_MARKER && matches(ADDED_FILE_CHANGES_REGEX, changesStartDiffLine)) {
+			wholeFileChangeMarker = LINE_ADDED_MARKER;
+		} else if (fileModeMarker == LINE_DELETED_MARKER && matches(DELETED_FILE_CHANGES_REGEX, changesStartDiffLine)) {
+			wholeFileChangeMarker = LINE_DELETED_MARKER;
+		}
+	}
+	
+	/**
+	 * Check if the given diff line (as a whole) matches the given regular expression. In contrast to
+	 * <code>regex.matcher(diffLine).matches()</code>, this method reuses a single {@link Matcher} per regular
+	 * expression and, hence, does not create new objects for each check.
+	 * 
+	 * @param regex the compiled regular expression
+	 * @param diffLine the (part of a) line of a diff description to be checked
+	 * @return <code>true</code> if the given diff line matches the given regular expression, <code>false</code>
+	 * otherwise
+	 */
+	protected boolean matches(Pattern regex, CharSequence diffLine) {
+		if (matchers == null) {
+			matchers = new IdentityHashMap<Pattern, Matcher>();
+		}
+		Matcher matcher = matchers.get(regex);
+		if (matcher == null) {
+			matcher = regex.matcher(diffLine);
+			matchers.put(regex, matcher);
+		} else {
+			matcher.reset(diffLine);
+		}
+		return matcher.matches();
+	}
+	
+	/**
+	 * Return the index of the first character in the given diff line, which follows a leading "+" or "-".
+	 * 
+	 * @param diffLine the line of a diff description
+	 * @return <code>1</code> if the given diff line starts with "+" or "-", <code>0</code> otherwise
+	 */
+	protected static int getContentStart(String diffLine) {
+		int contentStart = 0;
+		if (diffLine.startsWith(LINE_ADDED_MARKER) || diffLine.startsWith(LINE_DELETED_MARKER)) {
+			contentStart = 1;
+		}
+		return contentStart;
+	}
+	
+	/**
+	 * Return the index of the first character in the given diff line at or after the given index, which is not
+	 * a whitespace (or any other character removed by {@link String#trim()}).
+	 * 
+	 * @param diffLine the line of a diff description
+	 * @param beginIndex the index of the first character to consider
+	 * @return the index of the first non-whitespace character or the length of the given diff line, if there is no
+	 * such character
+	 */
+	protected static int skipBlanks(String diffLine, int beginIndex) {
+		int charCounter = beginIndex;
+		while (charCounter < diffLine.length() && diffLine.charAt(charCounter) <= ' ') {
+			charCounter++;
+		}
+		return charCounter;
+	}
+	
+	/**
+	 * Check if the given diff line only consists of whitespace starting at the given index. This is the same as
+	 * <code>diffLine.substring(beginIndex).trim().isEmpty()</code> without creating new strings.
+	 * 
+	 * @param diffLine the line of a diff description
+	 * @param beginIndex the index of the first character to consider
+	 * @return <code>true</code> if the given diff line only consists of whitespace starting at the given index,
+	 * <code>false</code> otherwise
+	 */
+	protected static boolean isBlank(String diffLine, int beginIndex) {
+		return skipBlanks(diffLine, beginIndex) >= diffLine.length();
+	}
+	
+	/**
+	 * Check if the given diff line ends with a continuation ("\") ignoring trailing whitespace. This is the same
+	 * as <code>diffLine.trim().endsWith("\\")</code> without creating new strings.
+	 * 
+	 * @param diffLine the line of a diff description
+	 * @return <code>true</code> if the last non-whitespace character of the given diff line is "\",
+	 * <code>false</code> otherwise
+	 */
+	protected static boolean endsWithContinuation(String diffLine) {
+		int charCounter = diffLine.length() - 1;
+		while (charCounter >= 0 && diffLine.charAt(charCounter) <= ' ') {
+			charCounter--;
+		}
+		return charCounter >= 0 && diffLine.charAt(charCounter) == '\\';
+	}
+	
 	/**
 	 * Normalize the given diff line, e.g. remove leading "+" or "-", check if the line is a general comment or
-	 * contains general comments as part of the line.
+	 * contains general comments as part of the line.<br><br>
+	 * 
+	 * This method is called exactly once for each diff line in the order of the diff lines. Hence, the specific
+	 * file diff classes use this method to update the state required for analyzing the current and the following
+	 * diff lines, e.g. if the current line is part of a comment or a conditional block.
 	 * 
 	 * @param diffLine the line of a diff description to be normalized
-	 * @param diffLinePosition the index of the given diff line in {@link #diffLines} used, e.g., for backtracking
+	 * @param diffLinePosition the index of the given diff line in the diff description
 	 * @return the normalized diff line without leading "+" or "-"; in case of comments, only the non-comment part
 	 * will be return, which may lead to an empty string
 	 */
@@ -174,15 +460,29 @@ public abstract class FileDiff {
 	 * has to be implemented in each class derived from this class (see {@link FileDiff}.<br><br>
 	 * 
 	 * <b>Please note</b> that returning <code>true</code> results in increasing the added or removed variability line
-	 * number (counter).
+	 * number (counter). Implementations must set the {@link #classificationRule}, which decided the result.
 	 *  
 	 * @param cleanDiffLine the line of a diff description to be checked for variability information without leading "+"
 	 * or "-"
-	 * @param cleanDiffLinePosition the index of the given diff line in {@link #diffLines} used, e.g., for backtracking 
+	 * @param cleanDiffLinePosition the index of the given diff line in the diff description; this is always the
+	 * position of the diff line passed to the last call of {@link #normalize(String, int)} 
 	 * @return <code>true</code> if the given diff line contains variability information, <code>false</code> otherwise
 	 */
 	protected abstract boolean isVariabilityChange(String cleanDiffLine, int cleanDiffLinePosition);
 	
+	/**
+	 * Return the marker of the only change type of all changed lines of this file diff, if this diff adds or
+	 * deletes a whole file. Sub-classes may use this information to skip the parts of their analysis, which are
+	 * only required for the other change type. This information is available as soon as the first line of the
+	 * change details is passed to {@link #normalize(String, int)}.
+	 * 
+	 * @return {@link #LINE_ADDED_MARKER} if this diff adds a whole file, {@link #LINE_DELETED_MARKER} if this diff
+	 * deletes a whole file, or <code>null</code> otherwise
+	 */
+	protected String getWholeFileChangeMarker() {
+		return wholeFileChangeMarker;
+	}
+	
 	/**
 	 * Return the {@link FileType} of this file diff.
 	 * 
@@ -195,12 +495,24 @@ public abstract class FileDiff {
 	/**
 	 * Return the full, line-wise diff description analyzed by this file diff.
 	 * 
-	 * @return the full, line-wise diff description analyzed by this file diff
+	 * @return the full, line-wise diff description analyzed by this file diff or <code>null</code>, if the diff
+	 * lines were passed via {@link #addDiffLine(String)}
 	 */
 	public String[] getDiffText() {
 		return this.diffLines;
 	}
 	
+	/**
+	 * Check if the diff description of this file diff contains change details, which start at a line
+	 * beginning with {@value #CHANGES_START_MARKER}.
+	 * 
+	 * @return <code>true</code> if the change details of this file diff start at some line, <code>false</code>
+	 * otherwise
+	 */
+	public boolean hasChanges() {
+		return this.changesStartLine > -1;
+	}
+	
 	/**
 	 * Return the number of lines added by the given commit (diff lines).<br><br>
 	 * 
@@ -0,0 +1,126 @@
+package diff;
+
+/**
+ * This class implements a budget of heap memory shared by all {@link DiffAnalyzer}s analyzing commits concurrently.
+ * <br><br>
+ * 
+ * Each analyzer reserves the bytes it needs for reading its current commit file (see {@link DiffLineReader}) when
+ * opening that file and releases them when closing it. A reservation blocks until the other analyzers released
+ * enough bytes; it only fails, if it exceeds the maximum number of bytes of this budget on its own. Hence, the
+ * bytes in flight for reading commit files never exceed this maximum, independent of the number of analyzers, and
+ * whether a commit is analyzed does not depend on the commits analyzed concurrently. As an analyzer holds at most
+ * one reservation and does not wait while holding it, reservations cannot deadlock. All methods are synchronized,
+ * such that a single budget may be shared by multiple threads.
+ * 
+ * @author agent
+ *
+ */
+public class MemoryBudget {
+	
+	/**
+	 * The maximum number of bytes reserved by all analyzers at the same time.
+	 */
+	private long maxBytes;
+	
+	/**
+	 * The number of bytes currently reserved.
+	 */
+	private long reservedBytes;
+	
+	/**
+	 * The maximum number of bytes reserved at the same time so far.
+	 */
+	private long peakReservedBytes;
+	
+	/**
+	 * The number of files, which exceed the maximum number of bytes of this budget as a whole.
+	 */
+	private long oversizedFilesCount;
+	
+	/**
+	 * Construct a new {@link MemoryBudget} without reservations.
+	 * 
+	 * @param maxBytes the maximum number of bytes reserved by all analyzers at the same time
+	 */
+	public MemoryBudget(long maxBytes) {
+		this.maxBytes = maxBytes;
+		this.reservedBytes = 0;
+		this.peakReservedBytes = 0;
+		this.oversizedFilesCount = 0;
+	}
+	
+	/**
+	 * Reserve the given number of bytes. If they do not fit into the remaining budget, this method waits until
+	 * enough bytes are released by other threads.
+	 * 
+	 * @param bytes the number of bytes to reserve
+	 * @return <code>true</code> if the bytes were reserved, <code>false</code> if the given number of bytes exceeds
+	 * the maximum number of bytes of this budget
+	 * @throws InterruptedException if the current thread is interrupted while waiting
+	 */
+	synchronized boolean reserve(long bytes) throws InterruptedException {
+		boolean reserved = bytes <= maxBytes;
+		if (reserved) {
+			while (bytes > maxBytes - reservedBytes) {
+				wait();
+			}
+			reservedBytes = reservedBytes + bytes;
+			peakReservedBytes = Math.max(peakReservedBytes, reservedBytes);
+		}
+		return reserved;
+	}
+	
+	/**
+	 * Release the given number of previously reserved bytes and wake up the threads waiting for a reservation.
+	 * 
+	 * @param bytes the number of bytes to release
+	 */
+	synchronized void release(long bytes) {
+		reservedBytes = reservedBytes - bytes;
+		notifyAll();
+	}
+	
+	/**
+	 * Count a file, which exceeds the maximum number of bytes of this budget as a whole.
+	 */
+	synchronized void addOversizedFile() {
+		oversizedFilesCount++;
+	}
+	
+	/**
+	 * Return the maximum number of bytes reserved by all analyzers at the same time.
+	 * 
+	 * @return the maximum number of bytes of this budget
+	 */
+	public synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+	
+	/**
+	 * Return the number of bytes currently reserved.
+	 * 
+	 * @return the number of reserved bytes
+	 */
+	public synchronized long getReservedBytes() {
+		return reservedBytes;
+	}
+	
+	/**
+	 * Return the maximum number of bytes reserved at the same time so far.
+	 * 
+	 * @return the peak number of reserved bytes
+	 */
+	public synchronized long getPeakReservedBytes() {
+		return peakReservedBytes;
+	}
+	
+	/**
+	 * Return the number of files, which exceed the maximum number of bytes of this budget as a whole. These files
+	 * are read with all bytes of this budget reserved and analyzed as long as none of their lines exceeds them.
+	 * 
+	 * @return the number of oversized files
+	 */
+	public synchronized long getOversizedFilesCount() {
+		return oversizedFilesCount;
+	}
+}
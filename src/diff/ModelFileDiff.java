@@ -1,5 +1,6 @@
 package diff;
 
+import java.util.Arrays;
 import java.util.regex.Pattern;
 
 import main.ComAnLogger;
@@ -58,6 +59,68 @@ public class ModelFileDiff extends FileDiff {
 	 */
 	private static final String MODEL_DEPENDS_ON_PATTERN = "^\\s*depends on\\s+.*";
 	
+	/**
+	 * The compiled {@link #MODEL_CONFIG_COMMENT_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern MODEL_CONFIG_COMMENT_REGEX = Pattern.compile(MODEL_CONFIG_COMMENT_PATTERN);
+	
+	/**
+	 * The compiled {@link #MODEL_CONFIG_DEF_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern MODEL_CONFIG_DEF_REGEX = Pattern.compile(MODEL_CONFIG_DEF_PATTERN);
+	
+	/**
+	 * The compiled {@link #MODEL_FILE_INCLUDE_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern MODEL_FILE_INCLUDE_REGEX = Pattern.compile(MODEL_FILE_INCLUDE_PATTERN);
+	
+	/**
+	 * The compiled {@link #MODEL_DEPENDS_ON_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern MODEL_DEPENDS_ON_REGEX = Pattern.compile(MODEL_DEPENDS_ON_PATTERN);
+	
+	/**
+	 * The indentations of the previous model elements, which may be the parent element of the following lines.
+	 * These are the previous non-empty lines with strictly increasing indentation (after normalization): lines with
+	 * the same or more indentation than a following line can never be the parent of any later line. Hence, the
+	 * number of these elements is bound by the nesting depth of the model.<br><br>
+	 * 
+	 * This attribute and {@link #elementsAreHelp} are created on the first call of
+	 * {@link #normalize(String, int)}. Note that the attributes of this class must not be initialized in their
+	 * declaration, as the analysis already starts in the super constructor.
+	 */
+	private int[] elementIndentations;
+	
+	/**
+	 * The flags indicating whether the respective model element in {@link #elementIndentations} starts a help text
+	 * or a comment.
+	 */
+	private boolean[] elementsAreHelp;
+	
+	/**
+	 * The number of model elements in {@link #elementIndentations} and {@link #elementsAreHelp}.
+	 */
+	private int elementsCounter;
+	
+	/**
+	 * The flag indicating whether the closest previous line, which is either a comment-statement or contains
+	 * variability information, is not a comment-statement. This defines if a following "depends on"-statement
+	 * contains variability information.
+	 */
+	private boolean previousModelElementIsVariable;
+	
+	/**
+	 * The flag indicating whether the diff line passed to the last call of {@link #normalize(String, int)} contains
+	 * variability information.
+	 */
+	private boolean currentLineIsVariable;
+	
+	/**
+	 * The {@link ClassificationRule}, which decided whether the diff line passed to the last call of
+	 * {@link #normalize(String, int)} contains variability information (see {@link #currentLineIsVariable}).
+	 */
+	private ClassificationRule currentLineClassificationRule;
+	
 	/**
 	 * Construct a new {@link ModelFileDiff}.<br><br>
 	 * 
@@ -74,30 +137,52 @@ public class ModelFileDiff extends FileDiff {
 		super(FileType.MODEL, diffLines, changesStartLineNum);
 	}
 	
+	/**
+	 * Construct a new {@link ModelFileDiff} without any diff lines.<br><br>
+	 * 
+	 * The lines of the model diff have to be passed one after another via {@link #addDiffLine(String)}, which
+	 * starts the analysis of each line calling the inherited methods {@link #normalize(String, int)} and
+	 * {@link #isVariabilityChange(String, int)} defined in this class.
+	 */
+	public ModelFileDiff() {
+		super(FileType.MODEL);
+	}
+	
+	/**
+	 * {@inheritDoc}<br><br>
+	 * 
+	 * The model elements are removed, but the arrays holding them keep their capacity.
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		elementsCounter = 0;
+		previousModelElementIsVariable = false;
+		currentLineIsVariable = false;
+		currentLineClassificationRule = null;
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected String normalize(String diffLine, int diffLinePosition) {
-		// 1. Remove "+" or "-"
-		String normalizedDiffLine = diffLine;
+		// 1. Skip "+" or "-"
 		/*
-		 * This method is also used by isVariabilityChange-method and
-		 * may receive unchanged diff lines (no leading "+" or "-") from
-		 * there. Thus, check before removing the first character although
-		 * this is not needed if called from parent-class. 
+		 * This method is called for all diff lines and, hence, may
+		 * receive unchanged diff lines (no leading "+" or "-"). Thus,
+		 * check before skipping the first character. 
 		 */
-		if (diffLine.startsWith(LINE_ADDED_MARKER) || diffLine.startsWith(LINE_DELETED_MARKER)) {			
-			normalizedDiffLine = diffLine.substring(1, diffLine.length());
-		}
-		// 2. Split around comment-token
-		String[] splittedNormalizedDiffLine = normalizedDiffLine.split(MODEL_COMMENT_MARKER);
-		if (splittedNormalizedDiffLine.length > 0) {			
-			normalizedDiffLine = splittedNormalizedDiffLine[0];
-		} else {
-			normalizedDiffLine = "";
+		int normalizedDiffLineStart = getContentStart(diffLine);
+		// 2. Find comment-token
+		int normalizedDiffLineEnd = diffLine.indexOf(MODEL_COMMENT_MARKER, normalizedDiffLineStart);
+		if (normalizedDiffLineEnd < 0) {
+			normalizedDiffLineEnd = diffLine.length();
 		}
-		// 3. Return part before comment token (index 0)
+		String normalizedDiffLine = diffLine.substring(normalizedDiffLineStart, normalizedDiffLineEnd);
+		// 3. Update the model structure with the normalized line
+		updateModelStructure(normalizedDiffLine);
+		// 4. Return part before comment token
 		return normalizedDiffLine;
 	}
 	
@@ -111,77 +196,90 @@ public class ModelFileDiff extends FileDiff {
 		 * comments that were part of this line are removed (only the part before
 		 * the comment is passed).
 		 */
-		boolean isVariabilityChange = false;
-		if (!isPartOfHelp(cleanDiffLine, cleanDiffLinePosition)) {			
-			if (Pattern.matches(MODEL_CONFIG_DEF_PATTERN, cleanDiffLine) || Pattern.matches(MODEL_FILE_INCLUDE_PATTERN, cleanDiffLine)) {
-				isVariabilityChange = true;
-				ComAnLogger.getInstance().log(CLASS_ID, "Variability change found", cleanDiffLine, MessageType.DEBUG);
-			} else if (Pattern.matches(MODEL_DEPENDS_ON_PATTERN, cleanDiffLine)) {
+		classificationRule = currentLineClassificationRule;
+		boolean isVariabilityChange = currentLineIsVariable;
+		if (isVariabilityChange) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Variability change found", cleanDiffLine, MessageType.DEBUG);
+		}
+		return isVariabilityChange;
+	}
+	
+	/**
+	 * Update the structure of the model with the given normalized diff line, which is the next line of the diff
+	 * description. This defines whether that line contains variability information (see
+	 * {@link #currentLineIsVariable}).<br><br>
+	 * 
+	 * A normalized line contains variability information if it is not part of a help text and either
+	 * defines a model element (configuration definition or "source"-statement) or is a "depends on"-statement.
+	 * A line is part of a help text, if its parent element, the closest previous non-empty line with less
+	 * indentation, starts a help text or a comment. As "depends on"-statements can also be defined for comments,
+	 * such a statement only contains variability information if the closest previous line, which is either a
+	 * comment-statement or contains variability information, is not a comment-statement. Hence, this method keeps
+	 * track of the type of that line instead of searching for it.
+	 * 
+	 * @param diffLine the normalized line of a diff
+	 */
+	private void updateModelStructure(String diffLine) {
+		if (elementIndentations == null) {
+			elementIndentations = new int[16];
+			elementsAreHelp = new boolean[16];
+		}
+		// 1. Find parent element and check if the line is part of a help text
+		boolean isPartOfHelp = false;
+		if (!diffLine.isEmpty()) {
+			int diffLineIndentation = getIndentation(diffLine);
+			while (elementsCounter > 0 && elementIndentations[elementsCounter - 1] >= diffLineIndentation) {
+				elementsCounter--;
+			}
+			isPartOfHelp = elementsCounter > 0 && elementsAreHelp[elementsCounter - 1];
+			if (elementsCounter == elementIndentations.length) {
+				elementIndentations = Arrays.copyOf(elementIndentations, elementsCounter * 2);
+				elementsAreHelp = Arrays.copyOf(elementsAreHelp, elementsCounter * 2);
+			}
+			elementIndentations[elementsCounter] = diffLineIndentation;
+			elementsAreHelp[elementsCounter] = isHelpElement(diffLine);
+			elementsCounter++;
+		}
+		// 2. Check if the line contains variability information
+		currentLineIsVariable = false;
+		currentLineClassificationRule = ClassificationRule.NO_VARIABILITY;
+		if (isPartOfHelp) {
+			currentLineClassificationRule = ClassificationRule.MODEL_HELP_TEXT;
+		} else {
+			if (matches(MODEL_CONFIG_DEF_REGEX, diffLine) || matches(MODEL_FILE_INCLUDE_REGEX, diffLine)) {
+				currentLineIsVariable = true;
+				currentLineClassificationRule = ClassificationRule.MODEL_DEFINITION;
+			} else if (matches(MODEL_DEPENDS_ON_REGEX, diffLine)) {
 				/*
 				 * "depends on"-statements can also be defined for comments.
-				 * Thus, we need to check the previous diff line(s) for containing
-				 * variability information. If this is not the case, it must be
-				 * a comment and "false" will be returned.
+				 * Thus, the previous model element must contain variability
+				 * information. If this is not the case, it must be a comment.
 				 */
-				int diffLineCounter = cleanDiffLinePosition - 1;
-				boolean previousModelElementFound = false;
-				String previousDiffLine = null;
-				while (diffLineCounter >= 0 && previousModelElementFound == false) {
-					previousDiffLine = normalize(diffLines[diffLineCounter], diffLineCounter);
-					if (Pattern.matches(MODEL_CONFIG_COMMENT_PATTERN, previousDiffLine)) {
-						/*
-						 * Comment-statement found, thus only model element found but
-						 * changed "depend on" is not a variability change. 
-						 */
-						previousModelElementFound = true;
-					} else if (isVariabilityChange(previousDiffLine, diffLineCounter)) {
-						/*
-						 * Current line includes variability information, thus model
-						 * element found and changed "depend on" is a variability change. 
-						 */
-						previousModelElementFound = true;
-						isVariabilityChange = true;
-						ComAnLogger.getInstance().log(CLASS_ID, "Variability change found", cleanDiffLine, MessageType.DEBUG);
-					}
-					diffLineCounter--;
+				currentLineIsVariable = previousModelElementIsVariable;
+				if (currentLineIsVariable) {
+					currentLineClassificationRule = ClassificationRule.MODEL_DEPENDS_ON;
 				}
 			}
 		}
-		return isVariabilityChange;
+		// 3. Update the type of the previous model element for following "depends on"-statements
+		if (matches(MODEL_CONFIG_COMMENT_REGEX, diffLine)) {
+			previousModelElementIsVariable = false;
+		} else if (currentLineIsVariable) {
+			previousModelElementIsVariable = true;
+		}
 	}
 	
 	/**
-	 * Check if the given diff line belongs to a help text defined by, e.g., "help" or "--help--".
+	 * Check if the given (normalized) diff line starts a help text or a comment, e.g. "help" or "--help--".
 	 * 
-	 * @param diffLine the line of a diff to be checked for being part of a help text
-	 * @param diffLinePosition the index of the given diff line in {@link #diffLines}
-	 * @return <code>true</code> if the given diff line belongs to a help text, <code>false</code> otherwise
+	 * @param diffLine the normalized line of a diff to be checked
+	 * @return <code>true</code> if the given diff line starts a help text or a comment, <code>false</code> otherwise
 	 */
-	private boolean isPartOfHelp(String diffLine, int diffLinePosition) {
-		boolean isPartOfHelp = false;
-		boolean parentElementFound = false;
-		int diffLineIndentation = getIndentation(diffLine);
-		if (diffLineIndentation > 0) {
-			int diffLineCounter = diffLinePosition - 1;
-			String previousDiffLine = null;
-			do {
-				previousDiffLine = normalize(diffLines[diffLineCounter], diffLineCounter);
-				if (!previousDiffLine.isEmpty()) {
-					int previousDiffLineIndentation = getIndentation(previousDiffLine);
-					if (previousDiffLineIndentation < diffLineIndentation) {
-						parentElementFound = true;
-						previousDiffLine = previousDiffLine.trim();
-						if (previousDiffLine.startsWith("help") 
-								|| previousDiffLine.startsWith("--help--")
-								|| previousDiffLine.startsWith("comment")) {
-							isPartOfHelp = true;
-						}
-					}
-				}
-				diffLineCounter--;
-			} while (diffLineCounter >= 0 && !parentElementFound);
-		}
-		return isPartOfHelp;
+	private boolean isHelpElement(String diffLine) {
+		int elementStart = skipBlanks(diffLine, 0);
+		return diffLine.startsWith("help", elementStart) 
+				|| diffLine.startsWith("--help--", elementStart)
+				|| diffLine.startsWith("comment", elementStart);
 	}
 	
 	/**
@@ -1,5 +1,7 @@
 package diff;
 
+import java.io.IOException;
+
 import main.ComAnLogger;
 import main.ComAnLogger.MessageType;
 
@@ -34,6 +36,33 @@ public class OtherFileDiff extends FileDiff {
 		super(FileType.OTHER, diffLines, changesStartLineNum);
 	}
 
+	/**
+	 * Construct a new {@link OtherFileDiff} without any diff lines.<br><br>
+	 * 
+	 * The lines of the diff have to be passed one after another via {@link #addDiffLine(String)}, which
+	 * starts the analysis of each line calling the inherited methods {@link #normalize(String, int)} and
+	 * {@link #isVariabilityChange(String, int)} defined in this class.
+	 */
+	public OtherFileDiff() {
+		super(FileType.OTHER);
+	}
+
+	/**
+	 * Skip the remaining lines of this diff in the given reader without analyzing them. The lines of other diffs do
+	 * not contribute to the results. Hence, these lines are only checked for the start of the change details (see
+	 * {@link #hasChanges()}) without creating strings for them.
+	 * 
+	 * @param lineReader the {@link DiffLineReader} reading the commit file, which includes this diff
+	 * @param diffStartPattern the prefix of the first line of the next diff, at which skipping stops
+	 * @throws IOException if reading the commit file fails
+	 */
+	void skipDiffLines(DiffLineReader lineReader, String diffStartPattern) throws IOException {
+		if (lineReader.skipLinesUntil(diffStartPattern, CHANGES_START_MARKER) && changesStartLine < 0) {
+			// The exact line number is unknown, but the first line of a diff is never the start of the changes
+			changesStartLine = 1;
+		}
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -48,6 +77,7 @@ public class OtherFileDiff extends FileDiff {
 	@Override
 	protected boolean isVariabilityChange(String cleanDiffLine, int cleanDiffLinePosition) {
 		ComAnLogger.getInstance().log(CLASS_ID, "Change ignored", cleanDiffLine, MessageType.DEBUG);
+		classificationRule = ClassificationRule.NO_VARIABILITY;
 		return false;
 	}
 
@@ -1,5 +1,6 @@
 package diff;
 
+import java.util.Arrays;
 import java.util.regex.Pattern;
 
 import main.ComAnLogger;
@@ -50,25 +51,11 @@ public class SourceFileDiff extends FileDiff {
 	 */
 	private static final String SOURCE_ML_COMMENT_START_MARKER = "/*";
 	
-	/**
-	 * Regex identifying the start of a multi line comment in a source file.<br><br>
-	 * 
-	 * Value: {@value #SOURCE_ML_COMMENT_START_PATTERN};
-	 */
-	private static final String SOURCE_ML_COMMENT_START_PATTERN = "/\\*";
-	
 	/**
 	 * String identifying the end of a multi line comment in a source file.
 	 */
 	private static final String SOURCE_ML_COMMENT_END_MARKER = "*/";
 	
-	/**
-	 * Regex identifying the end of a multi line comment in a source file.<br><br>
-	 * 
-	 * Value: {@value #SOURCE_ML_COMMENT_END_PATTERN};
-	 */
-	private static final String SOURCE_ML_COMMENT_END_PATTERN = "\\*/";
-	
 	/**
 	 * Regex identifying lines that contain a reference to a model symbol "CONFIG_" in a source code file.<br><br>
 	 * 
@@ -123,6 +110,182 @@ public class SourceFileDiff extends FileDiff {
 	 * Value: {@value #SOURCE_VAR_IF_END_PATTERN};
 	 */
 	private static final String SOURCE_VAR_IF_END_PATTERN = ".*#\\s*(else|endif).*";
+	
+	/**
+	 * Regex identifying lines that contain an "#if" statement of any kind, e.g. "#if", "#ifdef", or "#ifndef".<br><br>
+	 * 
+	 * Value: {@value #SOURCE_IF_PATTERN};
+	 */
+	private static final String SOURCE_IF_PATTERN = ".*#if.*";
+	
+	/**
+	 * Regex identifying lines that contain an "#endif" statement.<br><br>
+	 * 
+	 * Value: {@value #SOURCE_ENDIF_PATTERN};
+	 */
+	private static final String SOURCE_ENDIF_PATTERN = ".*#endif.*";
+	
+	/**
+	 * The compiled {@link #SOURCE_VAR_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern SOURCE_VAR_REGEX = Pattern.compile(SOURCE_VAR_PATTERN);
+	
+	/**
+	 * The compiled {@link #SOURCE_VAR_IF_START_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern SOURCE_VAR_IF_START_REGEX = Pattern.compile(SOURCE_VAR_IF_START_PATTERN);
+	
+	/**
+	 * The compiled {@link #SOURCE_VAR_IF_END_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern SOURCE_VAR_IF_END_REGEX = Pattern.compile(SOURCE_VAR_IF_END_PATTERN);
+	
+	/**
+	 * The compiled {@link #SOURCE_IF_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern SOURCE_IF_REGEX = Pattern.compile(SOURCE_IF_PATTERN);
+	
+	/**
+	 * The compiled {@link #SOURCE_ENDIF_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern SOURCE_ENDIF_REGEX = Pattern.compile(SOURCE_ENDIF_PATTERN);
+	
+	/**
+	 * Regex identifying lines that contain an "else"-statement between a closing and an opening curly bracket,
+	 * which neither starts nor ends a block of source code.<br><br>
+	 * 
+	 * Value: {@value #SOURCE_ELSE_PATTERN};
+	 */
+	private static final String SOURCE_ELSE_PATTERN = ".*(\\}\\s*else\\s*\\{).*";
+	
+	/**
+	 * The compiled {@link #SOURCE_ELSE_PATTERN} used for indexing the diff lines.
+	 */
+	private static final Pattern SOURCE_ELSE_REGEX = Pattern.compile(SOURCE_ELSE_PATTERN);
+	
+	/**
+	 * String that must be part of any line matching {@link #SOURCE_VAR_PATTERN}. Checking this string
+	 * before the actual pattern avoids regex evaluations for the majority of lines.
+	 */
+	private static final String SOURCE_VAR_MARKER = "CONFIG_";
+	
+	/**
+	 * String that must be part of any line containing a preprocessor statement.
+	 */
+	private static final String SOURCE_PREPROCESSOR_MARKER = "#";
+	
+	/**
+	 * Value of an entry in {@link #blockConditionVarLineIndices}, which indicates that the condition of the
+	 * respective block start is continued by the current diff line and, hence, is not finished yet.
+	 */
+	private static final int CONDITION_CONTINUES = -2;
+	
+	/**
+	 * The flag indicating whether the next diff line starts inside a multi line comment.<br><br>
+	 * 
+	 * Note that the attributes of this class must not be initialized in their declaration, as the analysis
+	 * already starts in the super constructor. Hence, the arrays below are created by
+	 * {@link #createConditionStacks()} on the first call of {@link #normalize(String, int)}.
+	 */
+	private boolean commentContinues;
+	
+	/**
+	 * The flag indicating whether the diff line passed to the last call of {@link #normalize(String, int)} starts
+	 * inside a multi line comment.
+	 */
+	private boolean currentLineIsPartOfComment;
+	
+	/**
+	 * The flag indicating whether the diff line passed to the last call of {@link #normalize(String, int)} closes
+	 * a "#if" block, which has a variability related condition (see
+	 * {@link #updatePreprocessorConditions(String, String, int)}).
+	 */
+	private boolean currentLineClosesVariablePreprocessorBlock;
+	
+	/**
+	 * The flag indicating whether the diff line passed to the last call of {@link #normalize(String, int)} closes
+	 * a block of curly brackets, which has a variability related condition (see
+	 * {@link #updateRuntimeConditions(String, String, int)}).
+	 */
+	private boolean currentLineClosesVariableRuntimeBlock;
+	
+	/**
+	 * The stacks of unclosed "#if" blocks for each of the two change types: index 0 for the stack of added block
+	 * ends ('-' inverted), index 1 for deleted block ends ('+' inverted). Each entry references the index of the
+	 * closest unclosed "#if" condition at or below that entry or <code>-1</code>, if there is no such condition.
+	 */
+	private int[][] blockConditionIndices;
+	
+	/**
+	 * The index of the first line containing variability information of the condition of each entry in
+	 * {@link #blockConditionIndices}, <code>-1</code> if the condition is not variability related, or
+	 * {@value #CONDITION_CONTINUES}.
+	 */
+	private int[][] blockConditionVarLineIndices;
+	
+	/**
+	 * The number of entries in the stacks of {@link #blockConditionIndices}.
+	 */
+	private int[] blocksCounter;
+	
+	/**
+	 * The flag indicating whether the conditions of some block starts are continued by the following lines.
+	 * These are the entries in the stacks of {@link #blockConditionVarLineIndices} with the value
+	 * {@value #CONDITION_CONTINUES}.
+	 */
+	private boolean conditionsContinue;
+	
+	/**
+	 * The lowest position in each stack of {@link #blockConditionIndices}, at which entries were pushed since the
+	 * conditions continue (see {@link #conditionsContinue}). All continued conditions are at or above this position.
+	 */
+	private int[] continuedConditionsStart;
+	
+	/**
+	 * The block levels of curly brackets for each of the two change types (index as for
+	 * {@link #blockConditionIndices}).
+	 */
+	private int[] blockLevels;
+	
+	/**
+	 * The stacks of block starts (opening curly brackets), which may be the condition of a following closing
+	 * curly bracket, for each of the two change types (index as for {@link #blockConditionIndices}). Each entry
+	 * holds the block level after the respective block start. These levels are strictly increasing, which bounds
+	 * the size of these stacks by the nesting depth of the blocks.
+	 */
+	private int[][] conditionLevels;
+	
+	/**
+	 * The flags indicating whether the condition of the respective entry in {@link #conditionLevels} is variability
+	 * related.
+	 */
+	private boolean[][] conditionsAreVariable;
+	
+	/**
+	 * The number of entries in the stacks of {@link #conditionLevels}.
+	 */
+	private int[] conditionsCounter;
+	
+	/**
+	 * The flag indicating whether the previous lines contain a variability related condition for a following
+	 * line, which only consists of opening curly brackets "{". See
+	 * {@link #isVariableRuntimeCondition(String)} for details.
+	 */
+	private boolean previousLinesContainCondition;
+	
+	/**
+	 * The index of the first of the two stacks of each kind (e.g. {@link #blockConditionIndices}), which is updated
+	 * for each diff line. If this diff adds or deletes a whole file, only the stacks for the block ends of that
+	 * change type are updated (see {@link #getWholeFileChangeMarker()}), as the stacks for block ends of the other
+	 * change type are never used.
+	 */
+	private int firstUsedStack;
+	
+	/**
+	 * The index of the last of the two stacks of each kind, which is updated for each diff line. See
+	 * {@link #firstUsedStack}.
+	 */
+	private int lastUsedStack;
 
 	/**
 	 * Construct a new {@link SourceFileDiff}.<br><br>
@@ -140,74 +303,119 @@ public class SourceFileDiff extends FileDiff {
 		super(FileType.SOURCE, diffLines, changesStartLineNum);
 	}
 	
+	/**
+	 * Construct a new {@link SourceFileDiff} without any diff lines.<br><br>
+	 * 
+	 * The lines of the source code diff have to be passed one after another via {@link #addDiffLine(String)}, which
+	 * starts the analysis of each line calling the inherited methods {@link #normalize(String, int)} and
+	 * {@link #isVariabilityChange(String, int)} defined in this class.
+	 */
+	public SourceFileDiff() {
+		super(FileType.SOURCE);
+	}
+	
+	/**
+	 * {@inheritDoc}<br><br>
+	 * 
+	 * The stacks of the conditional blocks are emptied, but keep their capacity.
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		commentContinues = false;
+		currentLineIsPartOfComment = false;
+		currentLineClosesVariablePreprocessorBlock = false;
+		currentLineClosesVariableRuntimeBlock = false;
+		conditionsContinue = false;
+		previousLinesContainCondition = false;
+		firstUsedStack = 0;
+		lastUsedStack = 1;
+		if (blocksCounter != null) {
+			for (int j = 0; j < blocksCounter.length; j++) {
+				blocksCounter[j] = 0;
+				continuedConditionsStart[j] = 0;
+				blockLevels[j] = 0;
+				conditionsCounter[j] = 0;
+			}
+		}
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected String normalize(String diffLine, int diffLinePosition) {
-		// 1. Remove "+" or "-"
-		String normalizedDiffLine = diffLine;
+		if (blocksCounter == null) {
+			createConditionStacks();
+		}
+		if (diffLinePosition == changesStartLine && getWholeFileChangeMarker() != null) {
+			// Whole file added or deleted, thus only the stacks for block ends of that change type are used
+			firstUsedStack = getStackIndex(invertChangeType(getWholeFileChangeMarker().charAt(0)));
+			lastUsedStack = firstUsedStack;
+		}
+		// 1. Update the multi line comment state and skip "+" or "-"
+		updateCommentState(diffLine);
 		/*
-		 * This method is also used by backtrackCondition-method and
-		 * may receive unchanged diff lines (no leading "+" or "-") from
-		 * there. Thus, check before removing the first character although
-		 * this is not needed if called from parent-class. 
+		 * This method is called for all diff lines and, hence, may
+		 * receive unchanged diff lines (no leading "+" or "-"). Thus,
+		 * check before skipping the first character. 
 		 */
-		if (diffLine.startsWith(LINE_ADDED_MARKER) || diffLine.startsWith(LINE_DELETED_MARKER)) {			
-			normalizedDiffLine = diffLine.substring(1, diffLine.length());
-		}
-		// 2. Split around comment-token
-		if (normalizedDiffLine.contains(SOURCE_SL_COMMENT_MARKER)) {
+		int normalizedDiffLineStart = getContentStart(diffLine);
+		String normalizedDiffLine = null;
+		// 2. Find comment-tokens and use the part(s) of the line without comments
+		int slCommentStart = diffLine.indexOf(SOURCE_SL_COMMENT_MARKER, normalizedDiffLineStart);
+		int mlCommentStart = diffLine.indexOf(SOURCE_ML_COMMENT_START_MARKER, normalizedDiffLineStart);
+		int mlCommentEnd = diffLine.indexOf(SOURCE_ML_COMMENT_END_MARKER, normalizedDiffLineStart);
+		if (slCommentStart > -1) {
 			// Single line comment included, thus only use the part before the comment.
-			String[] normalizedDiffLineParts = normalizedDiffLine.split(SOURCE_SL_COMMENT_MARKER);
-			if (normalizedDiffLineParts.length > 0) {				
-				normalizedDiffLine = normalizedDiffLineParts[0];
-			} else {
-				normalizedDiffLine = "";
-			}
-		} else if (normalizedDiffLine.contains(SOURCE_ML_COMMENT_START_MARKER)) {
-			if (normalizedDiffLine.contains(SOURCE_ML_COMMENT_END_MARKER)) {
+			normalizedDiffLine = diffLine.substring(normalizedDiffLineStart, slCommentStart);
+		} else if (mlCommentStart > -1) {
+			if (mlCommentEnd > -1) {
 				/*
 				 * Multi line comment start and end in single line, thus the part before the start and the part after
 				 * the end of the comment should be used for further analysis.
 				 */
-				String beforeCommentStart = "";
-				String afterCommentEnd = "";
-				String[] normalizedDiffLineParts = normalizedDiffLine.split(SOURCE_ML_COMMENT_START_PATTERN);
-				if (normalizedDiffLineParts.length > 0) {
-					beforeCommentStart = normalizedDiffLineParts[0];
-				}
-				normalizedDiffLineParts = normalizedDiffLine.split(SOURCE_ML_COMMENT_END_PATTERN);
-				if (normalizedDiffLineParts.length > 1) {
-					afterCommentEnd = normalizedDiffLineParts[1];
-				}
-				normalizedDiffLine = beforeCommentStart + " " + afterCommentEnd;
+				normalizedDiffLine = diffLine.substring(normalizedDiffLineStart, mlCommentStart) + " "
+						+ getPartAfterCommentEnd(diffLine, mlCommentEnd);
 			} else {
 				// Multi line comment start only in this line, thus only use the part before the start.
-				String[] normalizedDiffLineParts = normalizedDiffLine.split(SOURCE_ML_COMMENT_START_PATTERN);
-				if (normalizedDiffLineParts.length > 0) {				
-					normalizedDiffLine = normalizedDiffLineParts[0];
-				} else {
-					normalizedDiffLine = "";
-				}
+				normalizedDiffLine = diffLine.substring(normalizedDiffLineStart, mlCommentStart);
 			}
-		} else if (normalizedDiffLine.contains(SOURCE_ML_COMMENT_END_MARKER)) {
+		} else if (mlCommentEnd > -1) {
 			// Multi line comment end included, thus only use the part after the end of the comment (if available)
-			String[] normalizedDiffLineParts = normalizedDiffLine.split(SOURCE_ML_COMMENT_END_PATTERN);
-			if (normalizedDiffLineParts.length > 1) {				
-				normalizedDiffLine = normalizedDiffLineParts[1];
-			} else {
-				normalizedDiffLine = "";
-			}
+			normalizedDiffLine = getPartAfterCommentEnd(diffLine, mlCommentEnd);
+		} else {
+			normalizedDiffLine = diffLine.substring(normalizedDiffLineStart, diffLine.length());
 		}
 		// 3. Check if is part of comment
-		if (!normalizedDiffLine.trim().isEmpty() && isPartOfComment(diffLinePosition)) {
+		if (!isBlank(normalizedDiffLine, 0) && currentLineIsPartOfComment) {
 			normalizedDiffLine = "";
 		}
-		// 4. Return part of the diff line without comments
+		// 4. Update the conditional blocks
+		updatePreprocessorConditions(diffLine, normalizedDiffLine, diffLinePosition);
+		updateRuntimeConditions(diffLine, normalizedDiffLine, diffLinePosition);
+		// 5. Return part of the diff line without comments
 		return normalizedDiffLine;
 	}
 	
+	/**
+	 * Return the part of the given diff line between the given end of a multi line comment and the next end of a
+	 * multi line comment (or the end of the line). This is the part, which follows the first multi line comment end
+	 * if the line is split around all multi line comment ends.
+	 * 
+	 * @param diffLine the line of a diff containing the end of a multi line comment
+	 * @param commentEnd the index of the first multi line comment end in the given diff line
+	 * @return the part of the given diff line after the end of the comment; may be empty
+	 */
+	private String getPartAfterCommentEnd(String diffLine, int commentEnd) {
+		int partStart = commentEnd + SOURCE_ML_COMMENT_END_MARKER.length();
+		int partEnd = diffLine.indexOf(SOURCE_ML_COMMENT_END_MARKER, partStart);
+		if (partEnd < 0) {
+			partEnd = diffLine.length();
+		}
+		return diffLine.substring(partStart, partEnd);
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -219,198 +427,364 @@ public class SourceFileDiff extends FileDiff {
 		 * comment, the inner part if this comment needs additional checks here.
 		 * See isPartOfComment-method.
 		 */
-		boolean isVariabilityChange = false;
-		if (!isPartOfComment(cleanDiffLinePosition)) {
-			if (Pattern.matches(SOURCE_VAR_PATTERN, cleanDiffLine)
-					|| (Pattern.matches(SOURCE_VAR_IF_END_PATTERN, cleanDiffLine) && backtrackPreprocessorCondition(cleanDiffLinePosition))
-					|| (cleanDiffLine.contains("}") && backtrackRuntimeCondition(cleanDiffLinePosition))) {
-				isVariabilityChange = true;
-				ComAnLogger.getInstance().log(CLASS_ID, "Variability change found", cleanDiffLine, MessageType.DEBUG);
-			}
+		if (currentLineIsPartOfComment) {
+			classificationRule = ClassificationRule.PART_OF_COMMENT;
+		} else if (cleanDiffLine.contains(SOURCE_VAR_MARKER) && matches(SOURCE_VAR_REGEX, cleanDiffLine)) {
+			classificationRule = ClassificationRule.SOURCE_VAR_PATTERN;
+		} else if (cleanDiffLine.contains(SOURCE_PREPROCESSOR_MARKER) && matches(SOURCE_VAR_IF_END_REGEX, cleanDiffLine)
+				&& currentLineClosesVariablePreprocessorBlock) {
+			classificationRule = ClassificationRule.SOURCE_PREPROCESSOR_BACKTRACK;
+		} else if (cleanDiffLine.contains("}") && currentLineClosesVariableRuntimeBlock) {
+			classificationRule = ClassificationRule.SOURCE_RUNTIME_BACKTRACK;
+		} else {
+			classificationRule = ClassificationRule.NO_VARIABILITY;
+		}
+		boolean isVariabilityChange = classificationRule.isVariability();
+		if (isVariabilityChange) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Variability change found", cleanDiffLine, MessageType.DEBUG);
 		}
 		return isVariabilityChange;
 	}
 	
 	/**
-	 * Check if the diff line at the given position is part of a multi line comment.
+	 * Create the stacks of the conditional blocks for both change types.
+	 */
+	private void createConditionStacks() {
+		blockConditionIndices = new int[2][16];
+		blockConditionVarLineIndices = new int[2][16];
+		blocksCounter = new int[2];
+		continuedConditionsStart = new int[2];
+		blockLevels = new int[2];
+		conditionLevels = new int[2][16];
+		conditionsAreVariable = new boolean[2][16];
+		conditionsCounter = new int[2];
+		firstUsedStack = 0;
+		lastUsedStack = 1;
+	}
+	
+	/**
+	 * Update the multi line comment state with the given diff line, which is the next line of the diff description.
+	 * This defines whether that line starts inside a multi line comment (see {@link #currentLineIsPartOfComment}).
+	 * <br><br>
+	 * 
+	 * A diff line is part of a multi line comment, if the closest previous diff line containing
+	 * a comment marker contains an opening multi line comment marker but no closing one. Thus,
+	 * the state only changes at lines containing such markers.
 	 * 
-	 * @param diffLinePosition the index of the diff line which should be checked for being
-	 * part of a multi line comment
-	 * @return <code>true</code> if the diff line at the given index is part of a multi line
-	 * comment, <code>false</code> otherwise
+	 * @param diffLine the next line of the diff description
 	 */
-	private boolean isPartOfComment(int diffLinePosition) {
-		boolean isPartOfComment = false;
-		int diffLineCounter = diffLinePosition - 1;
-		boolean commentMarkerFound = false;
-		String previousDiffLine = null;
-		while (diffLineCounter >= 0 && !commentMarkerFound) {
-			previousDiffLine = diffLines[diffLineCounter];
-			if (previousDiffLine.contains(SOURCE_ML_COMMENT_END_MARKER)) {
-				/*
-				 * Closing multi line found, thus the diff line at the given position
-				 * cannot be part of a multi line comment.
-				 */
-				commentMarkerFound = true;
-			} else if (previousDiffLine.contains(SOURCE_ML_COMMENT_START_MARKER)) {
-				/*
-				 * Opening multi line found, thus the diff line at the given position
-				 * must be part of a multi line comment. 
-				 */
-				commentMarkerFound = true;
-				isPartOfComment = true;
-			}
-			diffLineCounter--;
+	private void updateCommentState(String diffLine) {
+		currentLineIsPartOfComment = commentContinues;
+		if (diffLine.contains(SOURCE_ML_COMMENT_END_MARKER)) {
+			/*
+			 * Closing multi line found, thus the following diff lines
+			 * cannot be part of a multi line comment.
+			 */
+			commentContinues = false;
+		} else if (diffLine.contains(SOURCE_ML_COMMENT_START_MARKER)) {
+			/*
+			 * Opening multi line found, thus the following diff lines
+			 * must be part of a multi line comment. 
+			 */
+			commentContinues = true;
 		}
-		return isPartOfComment;
 	}
 	
 	/**
-	 * Find the condition for the "#endif" or "#else" statement at the given index of the diff
-	 * lines and return <code>true</code> if this condition is variability related, which should
-	 * lead to an increment of the respective variability lines counter (added or deleted).
-	 *  
-	 * @param blockEndIndex the index of the diff line where the "#endif" or "#else" statement was found
-	 * @return <code>true</code> if the found condition is variability related, <code>false</code> otherwise
+	 * Update the "#if" blocks with the given diff line, which is the next line of the diff description. This defines
+	 * whether that line closes a block, which has a variability related condition (see
+	 * {@link #currentLineClosesVariablePreprocessorBlock}).<br><br>
+	 * 
+	 * The condition of a block end ("#endif" or "#else") is the closest previous "#if" statement, which is not closed
+	 * by a nested "#endif" statement in between. Which "#endif" statements close nested blocks depends on the change
+	 * type ('+' or '-') of the block end: "#endif" statements of the inverted change type do not close a nested block,
+	 * but may be substituted by the block end, e.g. like in this case:
+	 *
+	 * #if !CONFIG_X
+	 *     ...
+	 * #else
+	 *     ...
+	 * -#endif
+	 *     ...
+	 * +#endif
+	 * 
+	 * Hence, this method maintains a stack of unclosed blocks for each of the two change types. Each stack
+	 * entry references the closest unclosed "#if" condition at or below that entry, which is the condition
+	 * of a block end, if that entry is on top of the respective stack.<br><br>
+	 * 
+	 * If a condition ends with a continuation ("\"), the following lines are checked for variability information
+	 * until there is no continuation anymore. All conditions continued at the same time end at the same line.
+	 * Hence, the entries of these conditions are marked as {@value #CONDITION_CONTINUES} until that line is found.
+	 * 
+	 * @param diffLine the next line of the diff description
+	 * @param normalizedDiffLine the normalized diff line
+	 * @param diffLinePosition the index of the given diff line
 	 */
-	private boolean backtrackPreprocessorCondition(int blockEndIndex) {
-		/*
-		 * Determine the change type of the block end ('+' or '-') and the inverted type for checking
-		 * whether possible previous block end statements are part of a nested block or if the given block end
-		 * substitutes the previous block end statement, e.g. like in this case:
-		 *
-		 * #if !CONFIG_X
-		 *     ...
-		 * #else
-		 *     ...
-		 * -#endif
-		 *     ...
-		 * +#endif
-		 */
-		String blockEndLine = diffLines[blockEndIndex];
-		char blockEndChangeType = blockEndLine.charAt(0);
-		char invertedblockEndChangeType = invertChangeType(blockEndChangeType);
-		boolean conditionIsVariabilityRelated = false;
-		boolean conditionFound = false;
-		int nestedEndifCounter = 0; // Counts the nested #endif-statements
-		int diffLinesCounter = blockEndIndex - 1;
-		String diffLine = null;
-		while (!conditionFound && diffLinesCounter >= 0) {
-			diffLine = diffLines[diffLinesCounter]; // normalize(diffLines[diffLinesCounter])
-			if (nestedEndifCounter == 0 && !Pattern.matches(SOURCE_VAR_IF_END_PATTERN, diffLine) && Pattern.matches(".*#if.*", diffLine)) {
-				// No nested blocks and not an #endif or #else and line indicates block start
-				conditionFound = true;
-				if (Pattern.matches(SOURCE_VAR_IF_START_PATTERN, diffLine)) {
-					// Current diff line contains variability information
-					conditionIsVariabilityRelated = true;
-				} else if (diffLine.trim().endsWith("\\")) {
-					/*
-					 * Current diffLine contains #if-statement but does not include a CONFIG_ symbol.
-					 * If this line ends with continuation ("\"), we have to check the following lines until
-					 * there is no continuation anymore for CONFIG_ symbols.
-					 */
-					int blockLinesCounter = diffLinesCounter + 1;
-					String blockLine = "";
-					do {
-						blockLine = normalize(diffLines[blockLinesCounter], blockLinesCounter);
-						if (Pattern.matches(SOURCE_VAR_PATTERN, blockLine)) {
-							conditionIsVariabilityRelated = true;
-						}
-						blockLinesCounter++;
-					} while (blockLinesCounter < blockEndIndex && blockLine.trim().endsWith("\\"));
+	private void updatePreprocessorConditions(String diffLine, String normalizedDiffLine, int diffLinePosition) {
+		// 1. Check the line for continuing the conditions of previous block starts
+		if (conditionsContinue) {
+			if (normalizedDiffLine.contains(SOURCE_VAR_MARKER) && matches(SOURCE_VAR_REGEX, normalizedDiffLine)) {
+				finishContinuedConditions(diffLinePosition);
+			} else if (!endsWithContinuation(normalizedDiffLine)) {
+				finishContinuedConditions(-1);
+			}
+		}
+		currentLineClosesVariablePreprocessorBlock = false;
+		if (diffLine.contains(SOURCE_PREPROCESSOR_MARKER)) {
+			// 2. Check the condition of the current line as if it is a block end
+			char changeType = diffLine.charAt(0);
+			int stackIndex = getStackIndex(invertChangeType(changeType));
+			int topIndex = blocksCounter[stackIndex] - 1;
+			if (topIndex >= 0) {
+				int conditionIndex = blockConditionIndices[stackIndex][topIndex];
+				int conditionVarLineIndex = blockConditionVarLineIndices[stackIndex][topIndex];
+				/*
+				 * Continuation lines of a condition are only considered up to the line before the block end
+				 * (but at least the first continuation line) during backtracking.
+				 */
+				if (conditionIndex > -1 && conditionVarLineIndex > -1
+						&& conditionVarLineIndex <= Math.max(conditionIndex + 1, diffLinePosition - 1)) {
+					currentLineClosesVariablePreprocessorBlock = true;
 				}
-			} else {
-				if (!diffLine.isEmpty() && diffLine.charAt(0) != invertedblockEndChangeType && Pattern.matches(".*#endif.*", diffLine)) {
+			}
+			// 3. Update the stacks of both change types with the current line
+			boolean isIfLine = matches(SOURCE_IF_REGEX, diffLine);
+			boolean isEndifLine = matches(SOURCE_ENDIF_REGEX, diffLine);
+			boolean isBlockStart = isIfLine && !matches(SOURCE_VAR_IF_END_REGEX, diffLine);
+			int varLineIndex = -1;
+			if (isBlockStart) {
+				varLineIndex = getConditionVarLineIndex(diffLine, diffLinePosition);
+			}
+			for (int j = firstUsedStack; j <= lastUsedStack; j++) {
+				char invertedChangeType = (j == 0) ? '-' : '+';
+				if (isEndifLine && changeType != invertedChangeType) {
 					// Nested block end found
-					nestedEndifCounter++;
-				} else if (nestedEndifCounter > 0 && Pattern.matches(".*#if.*", diffLine)) {
-					// Nested block start found
-					nestedEndifCounter--;
+					if (blocksCounter[j] > 0) {
+						blocksCounter[j]--;
+					}
+					if (conditionsContinue && blocksCounter[j] < continuedConditionsStart[j]) {
+						continuedConditionsStart[j] = blocksCounter[j];
+					}
+				} else if (isIfLine) {
+					// Nested block start found (or a line, which only closes a nested block)
+					if (blocksCounter[j] == blockConditionIndices[j].length) {
+						blockConditionIndices[j] = Arrays.copyOf(blockConditionIndices[j], blocksCounter[j] * 2);
+						blockConditionVarLineIndices[j] = Arrays.copyOf(blockConditionVarLineIndices[j], blocksCounter[j] * 2);
+					}
+					if (isBlockStart) {
+						blockConditionIndices[j][blocksCounter[j]] = diffLinePosition;
+						blockConditionVarLineIndices[j][blocksCounter[j]] = varLineIndex;
+					} else if (blocksCounter[j] > 0) {
+						blockConditionIndices[j][blocksCounter[j]] = blockConditionIndices[j][blocksCounter[j] - 1];
+						blockConditionVarLineIndices[j][blocksCounter[j]] = blockConditionVarLineIndices[j][blocksCounter[j] - 1];
+					} else {
+						blockConditionIndices[j][blocksCounter[j]] = -1;
+						blockConditionVarLineIndices[j][blocksCounter[j]] = -1;
+					}
+					blocksCounter[j]++;
 				}
 			}
-			diffLinesCounter--;
 		}
-		return conditionIsVariabilityRelated;
 	}
 	
 	/**
-	 * Find the possible condition for a closing curly bracket "}" at the given index of the diff
-	 * lines and return <code>true</code> if this condition is variability related, which should
-	 * lead to an increment of the respective variability lines counter (added or deleted).
-	 *  
-	 * @param blockEndIndex the index of the diff line where the closing curly bracket "}" was found
-	 * @return <code>true</code> if the found condition is variability related, <code>false</code> otherwise
+	 * Return the index of the first diff line, which makes the "#if" condition in the given diff line variability
+	 * related. This is either the condition line itself or one of the lines following that condition line, if it
+	 * ends with a continuation ("\"). In the latter case, the following lines are not known yet. Hence, this method
+	 * returns {@value #CONDITION_CONTINUES} and marks the conditions as continued (see {@link #conditionsContinue}).
+	 * 
+	 * @param conditionLine the diff line containing the "#if" condition
+	 * @param conditionIndex the index of the diff line containing the "#if" condition
+	 * @return the index of the first diff line of the condition containing variability information,
+	 * {@value #CONDITION_CONTINUES}, or <code>-1</code>, if the condition is not variability related
 	 */
-	private boolean backtrackRuntimeCondition(int blockEndIndex) {
-		/*
-		 * Determine the change type of the block end ('+' or '-') and the inverted type for checking
-		 * whether possible previous block end statements are part of a nested block or if the given block end
-		 * substitutes the previous block end statement, e.g. like in this case:
-		 * 
-		 * if (CONFIG_SYMBOL) {
-		 *     ...
-		 * -}
-		 *     ...
-		 * +}
-		 */
-		String blockEndLine = diffLines[blockEndIndex];
-		char blockEndChangeType = blockEndLine.charAt(0);
-		char invertedblockEndChangeType = invertChangeType(blockEndChangeType);
-		boolean conditionIsVariabilityRelated = false;
-		boolean conditionFound = false;
-		int nestedBlocksCounter = 0; // Counts the nested blocks like if... or loops
-		int diffLinesCounter = blockEndIndex - 1;
-		String diffLine = null;
-		while (!conditionFound && diffLinesCounter >= 0) {
-			diffLine = diffLines[diffLinesCounter]; // normalize(diffLines[diffLinesCounter])
-			if (nestedBlocksCounter == 0 && diffLine.contains("{") && !Pattern.matches(".*(\\}\\s*else\\s*\\{).*", diffLine)) {
-				// No nested blocks and not an else-statement indicates block start
-				conditionFound = true;
-				String[] diffLineParts = diffLine.split("\\{");
-				if (diffLineParts.length >= 1 && Pattern.matches(SOURCE_VAR_PATTERN, diffLineParts[0])) {
-					// Current line really includes the condition and there is a reference to a model symbol
-					conditionIsVariabilityRelated = true;
+	private int getConditionVarLineIndex(String conditionLine, int conditionIndex) {
+		int varLineIndex = -1;
+		if (conditionLine.contains(SOURCE_VAR_MARKER) && matches(SOURCE_VAR_IF_START_REGEX, conditionLine)) {
+			// Current diff line contains variability information
+			varLineIndex = conditionIndex;
+		} else if (endsWithContinuation(conditionLine)) {
+			/*
+			 * Current diffLine contains #if-statement but does not include a CONFIG_ symbol.
+			 * If this line ends with continuation ("\"), we have to check the following lines until
+			 * there is no continuation anymore for CONFIG_ symbols.
+			 */
+			varLineIndex = CONDITION_CONTINUES;
+			if (!conditionsContinue) {
+				conditionsContinue = true;
+				for (int j = firstUsedStack; j <= lastUsedStack; j++) {
+					continuedConditionsStart[j] = blocksCounter[j];
 				}
-				if (diffLineParts.length == 0) {
-					/*
-					 * Current line only contains the opening curly bracket, thus, check the lines before
-					 * for the corresponding condition. Do this check until no unclosed brackets ")" are
-					 * found to cover multi line statements like
-					 * 
-					 * 	if (x == 0
-					 * 			&& CONFIG_Y == 1)
-					 * 	{ ...
-					 * 
-					 * and to reject statements like
-					 * 
-					 * 	struct name
-					 * 	{ ...
-					 */
-					int blockLinesCounter = diffLinesCounter - 1;
-					String blockLine = "";
-					do {
-						blockLine = normalize(diffLines[blockLinesCounter], blockLinesCounter);
-						if (Pattern.matches(SOURCE_VAR_PATTERN, blockLine)) {
-							conditionIsVariabilityRelated = true;
-						}
-						blockLinesCounter--;
-					} while (blockLinesCounter >= 0 && hasUnclosedBrackets(blockLine));
+			}
+		}
+		return varLineIndex;
+	}
+	
+	/**
+	 * Replace the {@value #CONDITION_CONTINUES} entries in the stacks of {@link #blockConditionVarLineIndices} by the
+	 * given index of the line, which ends the continuation of these conditions.
+	 * 
+	 * @param varLineIndex the index of the diff line containing variability information, which ends the
+	 * continuation, or <code>-1</code>, if the continuation ends without variability information
+	 */
+	private void finishContinuedConditions(int varLineIndex) {
+		for (int j = firstUsedStack; j <= lastUsedStack; j++) {
+			for (int k = continuedConditionsStart[j]; k < blocksCounter[j]; k++) {
+				if (blockConditionVarLineIndices[j][k] == CONDITION_CONTINUES) {
+					blockConditionVarLineIndices[j][k] = varLineIndex;
 				}
-			} else {
-				if (!diffLine.isEmpty() && diffLine.charAt(0) != invertedblockEndChangeType && diffLine.contains("}")) {
+			}
+		}
+		conditionsContinue = false;
+	}
+	
+	/**
+	 * Return the index of the stack of unclosed blocks for block ends, which are of the inverted
+	 * type of the given change type.
+	 * 
+	 * @param invertedChangeType the inverted change type of a block end ('+' or '-')
+	 * @return <code>0</code> if the given change type is '-' (stack for added block ends); <code>1</code>
+	 * in all other cases (stack for deleted block ends)
+	 */
+	private int getStackIndex(char invertedChangeType) {
+		int stackIndex = 1;
+		if (invertedChangeType == '-') {
+			stackIndex = 0;
+		}
+		return stackIndex;
+	}
+	
+	/**
+	 * Update the blocks of curly brackets with the given diff line, which is the next line of the diff description.
+	 * This defines whether that line closes a block, which has a variability related condition (see
+	 * {@link #currentLineClosesVariableRuntimeBlock}).<br><br>
+	 * 
+	 * The condition of a closing curly bracket "}" is the closest previous line with an opening curly bracket "{",
+	 * which is not an else-statement like "} else {" and which is not closed by a nested block in between.
+	 * Similar to {@link #updatePreprocessorConditions(String, String, int)}, which lines close nested blocks depends
+	 * on the change type ('+' or '-') of the block end, e.g. like in this case:
+	 * 
+	 * if (CONFIG_SYMBOL) {
+	 *     ...
+	 * -}
+	 *     ...
+	 * +}
+	 * 
+	 * Hence, this method maintains a block level for each of the two change types, which is increased by lines
+	 * only opening blocks and decreased by lines only closing blocks. A line opening a block is the condition of a
+	 * block end, if the block level never falls below the level after that line until the block end. The candidates
+	 * satisfying this constraint are kept on a stack for each change type, where the top entry is the condition of
+	 * the next block end. A candidate with the same level as a following candidate can never be on top again and,
+	 * hence, is replaced by the following one.
+	 * 
+	 * @param diffLine the next line of the diff description
+	 * @param normalizedDiffLine the normalized diff line
+	 * @param diffLinePosition the index of the given diff line
+	 */
+	private void updateRuntimeConditions(String diffLine, String normalizedDiffLine, int diffLinePosition) {
+		boolean hasOpeningBracket = diffLine.indexOf('{') > -1;
+		boolean hasClosingBracket = diffLine.indexOf('}') > -1;
+		currentLineClosesVariableRuntimeBlock = false;
+		if (hasClosingBracket) {
+			// 1. Check the condition of the current line as if it is a block end
+			int stackIndex = getStackIndex(invertChangeType(diffLine.charAt(0)));
+			int topIndex = conditionsCounter[stackIndex] - 1;
+			if (topIndex >= 0 && conditionsAreVariable[stackIndex][topIndex]) {
+				currentLineClosesVariableRuntimeBlock = true;
+			}
+		}
+		if (hasOpeningBracket || hasClosingBracket) {
+			// 2. Update the block levels and conditions of both change types with the current line
+			boolean isElseLine = hasOpeningBracket && hasClosingBracket && diffLine.contains("else")
+					&& matches(SOURCE_ELSE_REGEX, diffLine);
+			boolean isBlockStart = hasOpeningBracket && !isElseLine;
+			boolean conditionIsVariable = isBlockStart && isVariableRuntimeCondition(diffLine);
+			for (int j = firstUsedStack; j <= lastUsedStack; j++) {
+				char invertedChangeType = (j == 0) ? '-' : '+';
+				boolean isBlockEnd = hasClosingBracket && diffLine.charAt(0) != invertedChangeType;
+				if (isBlockEnd && !hasOpeningBracket) {
 					// Nested block end found
-					nestedBlocksCounter++;
-				}
-				if (nestedBlocksCounter > 0 && diffLine.contains("{")) {
+					blockLevels[j]--;
+					while (conditionsCounter[j] > 0 && conditionLevels[j][conditionsCounter[j] - 1] > blockLevels[j]) {
+						conditionsCounter[j]--;
+					}
+				} else if (!isBlockEnd && hasOpeningBracket) {
 					// Nested block start found
-					nestedBlocksCounter--;
+					blockLevels[j]++;
+				}
+				if (isBlockStart) {
+					while (conditionsCounter[j] > 0 && conditionLevels[j][conditionsCounter[j] - 1] >= blockLevels[j]) {
+						conditionsCounter[j]--;
+					}
+					if (conditionsCounter[j] == conditionLevels[j].length) {
+						conditionLevels[j] = Arrays.copyOf(conditionLevels[j], conditionsCounter[j] * 2);
+						conditionsAreVariable[j] = Arrays.copyOf(conditionsAreVariable[j], conditionsCounter[j] * 2);
+					}
+					conditionLevels[j][conditionsCounter[j]] = blockLevels[j];
+					conditionsAreVariable[j][conditionsCounter[j]] = conditionIsVariable;
+					conditionsCounter[j]++;
 				}
 			}
-			diffLinesCounter--;
+		}
+		// 3. Update the state of the previous lines for following lines only consisting of opening curly brackets
+		previousLinesContainCondition = (normalizedDiffLine.contains(SOURCE_VAR_MARKER) && matches(SOURCE_VAR_REGEX, normalizedDiffLine))
+				|| (hasUnclosedBrackets(normalizedDiffLine) && previousLinesContainCondition);
+	}
+	
+	/**
+	 * Check if the given diff line, which opens a block of curly brackets, has a variability related condition.
+	 * <br><br>
+	 * 
+	 * If the given line only contains the opening curly bracket, the lines before are checked for the corresponding
+	 * condition. This check covers the previous lines until no unclosed brackets ")" are found to cover multi line
+	 * statements like
+	 * 
+	 * 	if (x == 0
+	 * 			&& CONFIG_Y == 1)
+	 * 	{ ...
+	 * 
+	 * and to reject statements like
+	 * 
+	 * 	struct name
+	 * 	{ ...
+	 * 
+	 * The result of this check is tracked by {@link #previousLinesContainCondition} for each line.
+	 * 
+	 * @param conditionLine the diff line containing the opening curly bracket "{"
+	 * @return <code>true</code> if the condition of the block start is variability related, <code>false</code>
+	 * otherwise
+	 */
+	private boolean isVariableRuntimeCondition(String conditionLine) {
+		boolean conditionIsVariabilityRelated = false;
+		if (!isBracketsOnly(conditionLine)) {
+			// Current line really includes the condition (the part before the first "{")
+			String condition = conditionLine.substring(0, conditionLine.indexOf('{'));
+			conditionIsVariabilityRelated = condition.contains(SOURCE_VAR_MARKER) && matches(SOURCE_VAR_REGEX, condition);
+		} else {
+			conditionIsVariabilityRelated = previousLinesContainCondition;
 		}
 		return conditionIsVariabilityRelated;
 	}
 	
+	/**
+	 * Check if the given line only consists of opening curly brackets "{".
+	 * 
+	 * @param sourceCodeLine the {@link String} to be checked
+	 * @return <code>true</code> if all characters of the given line are opening curly brackets,
+	 * <code>false</code> otherwise
+	 */
+	private boolean isBracketsOnly(String sourceCodeLine) {
+		boolean isBracketsOnly = true;
+		int charCounter = 0;
+		while (isBracketsOnly && charCounter < sourceCodeLine.length()) {
+			if (sourceCodeLine.charAt(charCounter) != '{') {
+				isBracketsOnly = false;
+			}
+			charCounter++;
+		}
+		return isBracketsOnly;
+	}
+	
 	/**
 	 * Invert the given change type ('+' or '-').
 	 * 
@@ -93,21 +93,24 @@ public class ComAnLogger {
 	 *            the {@link MessageType} of this message
 	 */
 	public void log(String origin, String message, String description, MessageType type) {
-		if (message == null) {
-			message = "";
-		}
-		
-		if (origin != null) {
-			message += ": " + origin;
-		}
-		
-	    if (description != null) {
-	    	message += "\n" + description;
-	    }
-	    
-		
+		/*
+		 * Check the type of the message first to avoid building the message, if it will not be displayed.
+		 * This method is called for each changed line containing variability information.
+		 */
 		if ((warningsEnabled || (!warningsEnabled && type != MessageType.WARNING))
 				&& (debugEnabled || (!debugEnabled && type != MessageType.DEBUG))) {
+			if (message == null) {
+				message = "";
+			}
+			
+			if (origin != null) {
+				message += ": " + origin;
+			}
+			
+		    if (description != null) {
+		    	message += "\n" + description;
+		    }
+		    
 			Logger logger;
 			logger = Logger.getGlobal();
 			
@@ -8,7 +8,11 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -18,7 +22,15 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
+import diff.ClassificationTracer;
 import diff.DiffAnalyzer;
+import diff.MemoryBudget;
+import result.BinaryResultEncoder;
+import result.GzipTextWriter;
+import result.JsonLinesResultEncoder;
+import result.ResultEncoder;
+import result.ResultRollup;
+import result.ResultRollup.Period;
 import main.ComAnLogger.MessageType;
 
 public class Main {
@@ -49,6 +61,66 @@ public class Main {
 	 */
 	private static final String UNANALYZED_FILE_NAME = "ComAn_Unanalyzed.txt";
 	
+	/**
+	 * The name of the optional columnar result file containing the same results as the
+	 * {@link #RESULT_FILE_NAME} in a binary format, which can be read without parsing
+	 * via {@link result.ResultStore}.
+	 */
+	private static final String RESULT_STORE_FILE_NAME = "ComAn_Results.bin";
+	
+	/**
+	 * The name of the optional, gzip-compressed result file containing a single line for each
+	 * changed source code, build, and model file of each analyzed commit; see
+	 * {@link result.FileResultWriter}.
+	 */
+	private static final String FILE_RESULT_FILE_NAME = "ComAn_FileResults.tsv.gz";
+	
+	/**
+	 * The name of the optional result file containing the same results as the {@link #RESULT_FILE_NAME}
+	 * encoded by a {@link ResultEncoder} without the extension, which depends on that encoder.
+	 */
+	private static final String ENCODED_RESULT_FILE_BASE_NAME = "ComAn_Results";
+	
+	/**
+	 * The name of the optional, binary trace file containing the classification of each changed line of the
+	 * traced diffs; see {@link ClassificationTracer}.
+	 */
+	private static final String TRACE_FILE_NAME = "ComAn_Trace.bin";
+	
+	/**
+	 * The name of the optional directory containing the append-only result log, to which the results of each run
+	 * are appended; see {@link result.ResultLog}.
+	 */
+	private static final String RESULT_LOG_DIR_NAME = "ComAn_ResultLog";
+	
+	/**
+	 * The name of the optional rollup files containing the sums of the results of all analyzed commits per
+	 * {@link Period} without the name of the period and the extension, e.g. "ComAn_Rollup_Year.tsv"; see
+	 * {@link ResultRollup}.
+	 */
+	private static final String ROLLUP_FILE_BASE_NAME = "ComAn_Rollup_";
+	
+	/**
+	 * The name of the optional file containing the distributions of the numbers of changed lines per commit,
+	 * which are part of the summary, as mergeable histograms; see {@link result.LineCountHistogram}.
+	 */
+	private static final String DISTRIBUTIONS_FILE_NAME = "ComAn_Distributions.bin";
+	
+	/**
+	 * The name of the optional file containing the percentiles and the maximum of the distributions of the numbers
+	 * of changed lines per commit as a table.
+	 */
+	private static final String DISTRIBUTIONS_TABLE_FILE_NAME = "ComAn_Distributions.tsv";
+	
+	/**
+	 * The divisor of the maximum heap size of the JVM (-Xmx) defining the default {@link MemoryBudget} for reading
+	 * commit files in low-memory mode. The remaining heap is left for the results and the other objects of the
+	 * analysis.<br><br>
+	 * 
+	 * Value: {@value #LOW_MEMORY_DEFAULT_BUDGET_DIVISOR};
+	 */
+	private static final int LOW_MEMORY_DEFAULT_BUDGET_DIVISOR = 2;
+	
 	/**
 	 * The command line options of this tool.
 	 * See {@link #createOptions()}
@@ -78,12 +150,54 @@ public class Main {
 	 */
 	private static File unanalyzedFile;
 	
+	/**
+	 * The file which will contain the results of the analysis in a columnar binary format.
+	 * This file is optional and may be <code>null</code>.
+	 */
+	private static File resultStoreFile;
+	
 	/**
 	 * The file which contains a list of commit numbers. These numbers control
 	 * the analysis in the way that only these commits will be analyzed. This
 	 * file is optional and may be <code>null</code>.
 	 */
 	private static File commitListFile;
+	
+	/**
+	 * The {@link MemoryBudget} shared by all {@link DiffAnalyzer}s for reading commit files. This budget is only
+	 * set in low-memory mode and may be <code>null</code>.
+	 */
+	private static MemoryBudget memoryBudget;
+	
+	/**
+	 * <code>true</code> if the results of each changed file are written to {@link #FILE_RESULT_FILE_NAME},
+	 * <code>false</code> otherwise.
+	 */
+	private static boolean fileResultsEnabled;
+	
+	/**
+	 * The tracer of the classification of the changed lines of the diffs matching the commit and path filters.
+	 * This tracer is optional and may be <code>null</code>.
+	 */
+	private static ClassificationTracer classificationTracer;
+	
+	/**
+	 * The files which will contain the sums of the results of all analyzed commits by their {@link Period}. These
+	 * files are optional and this map may be <code>null</code>.
+	 */
+	private static Map<Period, File> rollupFiles;
+	
+	/**
+	 * The file which will contain the distributions of the numbers of changed lines per commit. This file is
+	 * optional and may be <code>null</code>.
+	 */
+	private static File distributionsFile;
+	
+	/**
+	 * The file which will contain the percentiles and the maximum of the distributions of the numbers of changed
+	 * lines per commit. This file is optional and may be <code>null</code>.
+	 */
+	private static File distributionsTableFile;
 
 	/**
 	 * Main entry point of this tool.
@@ -128,17 +242,63 @@ public class Main {
 		ComAnLogger.getInstance().log(CLASS_ID, "Analyzing commits", null, MessageType.INFO);
 		File commitFile = null;
 		DiffAnalyzer diffAnalyzer = null;
-		for (int i = 0; i < commitFilesCount; i++) {
-			ComAnLogger.getInstance().log(CLASS_ID, "Analyzing commit \"" + commitFiles[i] + "\"", null, MessageType.DEBUG);
-			commitFile = new File(inputDir, commitFiles[i]);
-			diffAnalyzer = new DiffAnalyzer(commitFile);
-			if (!diffAnalyzer.getCommitNumber().isEmpty() && diffAnalyzer.analyze()) {				
-				ResultCollector.getInstance().addResults(diffAnalyzer, resultFile);
-			} else {
-				ResultCollector.getInstance().addUnanalyzed(commitFiles[i], unanalyzedFile);
+		try {
+			for (int i = 0; i < commitFilesCount; i++) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Analyzing commit \"" + commitFiles[i] + "\"", null, MessageType.DEBUG);
+				commitFile = new File(inputDir, commitFiles[i]);
+				// Reuse a single analyzer (and its internal buffers) for all commits
+				if (diffAnalyzer == null) {
+					diffAnalyzer = new DiffAnalyzer(commitFile);
+					diffAnalyzer.setMemoryBudget(memoryBudget);
+					diffAnalyzer.setTracer(classificationTracer);
+					if (fileResultsEnabled) {
+						diffAnalyzer.enableFileResults();
+					}
+				} else {
+					diffAnalyzer.reset(commitFile);
+				}
+				if (!diffAnalyzer.getCommitNumber().isEmpty() && diffAnalyzer.analyze()) {				
+					ResultCollector.getInstance().addResults(diffAnalyzer.getResult(), resultFile);
+					ResultCollector.getInstance().addFileResults(diffAnalyzer.getFileResults());
+				} else {
+					ResultCollector.getInstance().addUnanalyzed(commitFiles[i], unanalyzedFile);
+				}
+			}
+			ResultCollector.getInstance().writeSummary(summaryFile, commitFilesCount);
+			if (rollupFiles != null) {
+				for (Map.Entry<Period, File> rollupFile : rollupFiles.entrySet()) {
+					ResultCollector.getInstance().writeRollup(rollupFile.getKey(), rollupFile.getValue());
+				}
+			}
+			if (distributionsFile != null) {
+				ResultCollector.getInstance().writeDistributions(distributionsFile);
+				ResultCollector.getInstance().writeDistributionsTable(distributionsTableFile);
+			}
+		} finally {
+			// Close the writers in any case; otherwise, their background threads would not finish writing
+			ResultCollector.getInstance().closeFileResults();
+			ResultCollector.getInstance().closeEncodedResults();
+			ResultCollector.getInstance().closeResultLog();
+			ResultCollector.getInstance().closeCompressedFiles();
+		}
+		if (resultStoreFile != null) {
+			ResultCollector.getInstance().writeResultStore(resultStoreFile);
+		}
+		if (memoryBudget != null) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Low-memory mode: at most " + (memoryBudget.getPeakReservedBytes()
+					/ 1024) + " KB of " + (memoryBudget.getMaxBytes() / 1024) + " KB reserved for reading commits",
+					memoryBudget.getOversizedFilesCount() + " commit files exceeded the budget as a whole",
+					MessageType.INFO);
+		}
+		if (classificationTracer != null) {
+			try {
+				classificationTracer.close();
+				ComAnLogger.getInstance().log(CLASS_ID, classificationTracer.getTracedLinesCount()
+						+ " changed lines traced", null, MessageType.INFO);
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Writing trace file failed", e.getMessage(), MessageType.ERROR);
 			}
 		}
-		ResultCollector.getInstance().writeSummary(summaryFile, commitFilesCount);
 		ComAnLogger.getInstance().log(CLASS_ID, "Commits analyzed", null, MessageType.INFO);
 	}
 	
@@ -244,6 +404,69 @@ public class Main {
 				.required(false)
 				.desc("display debug information [optional]")
 				.build();
+		Option resultStoreOpt = Option.builder("s")
+				.required(false)
+				.desc("additionally save the results to the columnar binary file " + RESULT_STORE_FILE_NAME + " [optional]")
+				.build();
+		Option lowMemoryOpt = Option.builder("m")
+				.required(false)
+				.hasArg()
+				.optionalArg(true)
+				.argName("budget_mb")
+				.desc("run in low-memory mode [optional]. The buffers for reading commit files are limited to the given"
+						+ " number of MB (default: half of the maximum heap size of the JVM (-Xmx)); commits containing a"
+						+ " line, which does not fit into this budget, are not analyzed but listed as unanalyzed commits")
+				.build();
+		Option fileResultsOpt = Option.builder("f")
+				.required(false)
+				.desc("additionally save the results of each changed file to the compressed file " + FILE_RESULT_FILE_NAME
+						+ " [optional]")
+				.build();
+		Option encodedResultsOpt = Option.builder("e")
+				.required(false)
+				.hasArg()
+				.argName("format")
+				.desc("additionally save the results with a versioned schema [optional]: \"json\" for JSON Lines in "
+						+ ENCODED_RESULT_FILE_BASE_NAME + JsonLinesResultEncoder.FILE_EXTENSION + " or \"binary\" for"
+						+ " length-prefixed binary records in " + ENCODED_RESULT_FILE_BASE_NAME
+						+ BinaryResultEncoder.FILE_EXTENSION)
+				.build();
+		Option compressOpt = Option.builder("z")
+				.required(false)
+				.desc("compress the result, summary, and unanalyzed commits files with gzip on background threads"
+						+ " [optional]. The names of these files end with \"" + GzipTextWriter.FILE_EXTENSION + "\"")
+				.build();
+		Option traceCommitsOpt = Option.builder("t")
+				.required(false)
+				.hasArg()
+				.argName("commit_regex")
+				.desc("trace the classification of each changed line of the commits, whose SHA contains a match of the"
+						+ " given regular expression, to the indexed binary file " + TRACE_FILE_NAME + " [optional]")
+				.build();
+		Option tracePathsOpt = Option.builder("p")
+				.required(false)
+				.hasArg()
+				.argName("path_regex")
+				.desc("trace the classification of each changed line of the files, whose path contains a match of the"
+						+ " given regular expression, to the indexed binary file " + TRACE_FILE_NAME + " [optional]."
+						+ " If combined with \"-t\", only the matching files of the matching commits are traced")
+				.build();
+		Option resultLogOpt = Option.builder("r")
+				.required(false)
+				.desc("additionally append the results to the indexed result log " + RESULT_LOG_DIR_NAME + " [optional]."
+						+ " The results of previous runs are kept; use ResultLogQuery to look up commits by SHA or date")
+				.build();
+		Option rollupsOpt = Option.builder("b")
+				.required(false)
+				.desc("additionally write the sums of the results per day, month, and year to the files "
+						+ ROLLUP_FILE_BASE_NAME + "{Day,Month,Year}.tsv [optional]")
+				.build();
+		Option distributionsOpt = Option.builder("q")
+				.required(false)
+				.desc("additionally write the distributions of changed lines per commit as mergeable histograms to the"
+						+ " binary file " + DISTRIBUTIONS_FILE_NAME + " and their percentiles to the file "
+						+ DISTRIBUTIONS_TABLE_FILE_NAME + " [optional]")
+				.build();
 		
 		comanOptions = new Options();
 		comanOptions.addOption(helpOption);
@@ -252,6 +475,16 @@ public class Main {
 		comanOptions.addOption(commitListOpt);
 		comanOptions.addOption(enableWarningsOpt);
 		comanOptions.addOption(enableDebugOpt);
+		comanOptions.addOption(resultStoreOpt);
+		comanOptions.addOption(lowMemoryOpt);
+		comanOptions.addOption(fileResultsOpt);
+		comanOptions.addOption(compressOpt);
+		comanOptions.addOption(encodedResultsOpt);
+		comanOptions.addOption(traceCommitsOpt);
+		comanOptions.addOption(tracePathsOpt);
+		comanOptions.addOption(resultLogOpt);
+		comanOptions.addOption(rollupsOpt);
+		comanOptions.addOption(distributionsOpt);
 	}
 	
 	/**
@@ -292,9 +525,14 @@ public class Main {
 						if (commandLine.hasOption("d")) {
 							ComAnLogger.getInstance().enableDebug();
 						}
-						resultFile = new File(outputDir, RESULT_FILE_NAME);
-						summaryFile = new File (outputDir, SUMMARY_FILE_NAME);
-						unanalyzedFile = new File(outputDir, UNANALYZED_FILE_NAME);
+						String outputFileExtension = "";
+						if (commandLine.hasOption("z")) {
+							outputFileExtension = GzipTextWriter.FILE_EXTENSION;
+							ResultCollector.getInstance().enableCompression();
+						}
+						resultFile = new File(outputDir, RESULT_FILE_NAME + outputFileExtension);
+						summaryFile = new File (outputDir, SUMMARY_FILE_NAME + outputFileExtension);
+						unanalyzedFile = new File(outputDir, UNANALYZED_FILE_NAME + outputFileExtension);
 						if (resultFile.exists()) {
 							resultFile.delete();
 						}
@@ -304,6 +542,102 @@ public class Main {
 						if (unanalyzedFile.exists()) {
 							unanalyzedFile.delete();
 						}
+						if (commandLine.hasOption("s")) {
+							resultStoreFile = new File(outputDir, RESULT_STORE_FILE_NAME);
+							ResultCollector.getInstance().enableResultStore();
+						}
+						if (commandLine.hasOption("m")) {
+							String memoryBudgetOptionValue = commandLine.getOptionValue("m");
+							long maxBudgetBytes = Runtime.getRuntime().maxMemory() / LOW_MEMORY_DEFAULT_BUDGET_DIVISOR;
+							if (memoryBudgetOptionValue != null) {
+								try {
+									maxBudgetBytes = Long.parseLong(memoryBudgetOptionValue) * 1024 * 1024;
+								} catch (NumberFormatException e) {
+									maxBudgetBytes = -1;
+								}
+							}
+							if (maxBudgetBytes <= 0) {
+								ComAnLogger.getInstance().log(CLASS_ID, "Invalid memory budget",
+										"\"" + memoryBudgetOptionValue + "\" is not a positive number of MB",
+										MessageType.ERROR);
+								configuredCorrectly = false;
+							} else {
+								memoryBudget = new MemoryBudget(maxBudgetBytes);
+								ComAnLogger.getInstance().log(CLASS_ID, "Low-memory mode: reading commits is limited to "
+										+ (maxBudgetBytes / 1024) + " KB", null, MessageType.INFO);
+							}
+						}
+						if (commandLine.hasOption("f")) {
+							File fileResultFile = new File(outputDir, FILE_RESULT_FILE_NAME);
+							if (fileResultFile.exists()) {
+								fileResultFile.delete();
+							}
+							fileResultsEnabled = ResultCollector.getInstance().enableFileResults(fileResultFile);
+						}
+						String encodedResultsOptionValue = commandLine.getOptionValue("e");
+						if (encodedResultsOptionValue != null) {
+							ResultEncoder resultEncoder = null;
+							if (encodedResultsOptionValue.equals("json")) {
+								resultEncoder = new JsonLinesResultEncoder();
+							} else if (encodedResultsOptionValue.equals("binary")) {
+								resultEncoder = new BinaryResultEncoder();
+							}
+							if (resultEncoder == null) {
+								ComAnLogger.getInstance().log(CLASS_ID, "Unknown result format",
+										"\"" + encodedResultsOptionValue + "\" is neither \"json\" nor \"binary\"",
+										MessageType.ERROR);
+								configuredCorrectly = false;
+							} else if (!ResultCollector.getInstance().enableResultEncoder(resultEncoder, new File(outputDir,
+									ENCODED_RESULT_FILE_BASE_NAME + resultEncoder.getFileExtension() + outputFileExtension))) {
+								configuredCorrectly = false;
+							}
+						}
+						if (commandLine.hasOption("r") && !ResultCollector.getInstance().enableResultLog(
+								new File(outputDir, RESULT_LOG_DIR_NAME))) {
+							configuredCorrectly = false;
+						}
+						if (commandLine.hasOption("b")) {
+							rollupFiles = new EnumMap<Period, File>(Period.class);
+							for (Period period : Period.values()) {
+								String periodName = period.name().charAt(0) + period.name().substring(1).toLowerCase();
+								File rollupFile = new File(outputDir, ROLLUP_FILE_BASE_NAME + periodName + ".tsv"
+										+ outputFileExtension);
+								if (rollupFile.exists()) {
+									rollupFile.delete();
+								}
+								rollupFiles.put(period, rollupFile);
+							}
+							ResultCollector.getInstance().enableRollups();
+						}
+						if (commandLine.hasOption("q")) {
+							distributionsFile = new File(outputDir, DISTRIBUTIONS_FILE_NAME);
+							distributionsTableFile = new File(outputDir, DISTRIBUTIONS_TABLE_FILE_NAME + outputFileExtension);
+							if (distributionsTableFile.exists()) {
+								distributionsTableFile.delete();
+							}
+						}
+						if (commandLine.hasOption("t") || commandLine.hasOption("p")) {
+							try {
+								Pattern commitFilter = null;
+								if (commandLine.hasOption("t")) {
+									commitFilter = Pattern.compile(commandLine.getOptionValue("t"));
+								}
+								Pattern pathFilter = null;
+								if (commandLine.hasOption("p")) {
+									pathFilter = Pattern.compile(commandLine.getOptionValue("p"));
+								}
+								classificationTracer = new ClassificationTracer(new File(outputDir, TRACE_FILE_NAME),
+										commitFilter, pathFilter);
+							} catch (PatternSyntaxException e) {
+								ComAnLogger.getInstance().log(CLASS_ID, "Invalid trace filter", e.getMessage(),
+										MessageType.ERROR);
+								configuredCorrectly = false;
+							} catch (IOException e) {
+								ComAnLogger.getInstance().log(CLASS_ID, "Creating trace file failed", e.getMessage(),
+										MessageType.ERROR);
+								configuredCorrectly = false;
+							}
+						}
 						try {
 							resultFile.createNewFile();
 							summaryFile.createNewFile();
@@ -363,7 +697,7 @@ public class Main {
 		        + "      configuration options (CONFIG_* symbols) or closing statements, which are\n"
 		        + "      related to opening statements including such references; in this case the\n"
 		        + "      lines are counted as variability information\n");
-		System.out.println("The results of the analysis are the following three files:\n"
+		System.out.println("The results of the analysis are the following files:\n"
 		        + "    - ComAn_Summary.tsv: provides an overview on the changes introduced over\n"
 		        + "      all analyzed commits by summing up the detailed numbers elicited during\n"
 		        + "      the analysis\n"
@@ -372,7 +706,26 @@ public class Main {
 		        + "    - ComAn_Unanalyzed.txt: contains the names of the \"diff files\", which were\n"
 		        + "      not analyzed, e.g. as the corresponding commits do not introduce changes\n"
 		        + "      to the contents of files but only change their permissions; if such\n"
-		        + "      commits are not available in the repository, this file may be missing.\n");
+		        + "      commits are not available in the repository, this file may be missing.\n"
+		        + "    - ComAn_Results.bin: contains the same information as ComAn_Results.tsv\n"
+		        + "      in a columnar binary format for fast processing; this file is only\n"
+		        + "      created if the \"-s\" option is set.\n"
+		        + "    - ComAn_Trace.bin: contains the classification rule of each changed line of\n"
+		        + "      the traced commits and files in an indexed binary format; this file is only\n"
+		        + "      created if the \"-t\" or \"-p\" option is set.\n"
+		        + "    - ComAn_ResultLog: contains the results of this and previous runs with\n"
+		        + "      indexes on the commit SHA and date; this directory is only created if\n"
+		        + "      the \"-r\" option is set.\n"
+		        + "    - ComAn_Rollup_Day.tsv, ComAn_Rollup_Month.tsv, ComAn_Rollup_Year.tsv:\n"
+		        + "      contain the number of commits, the sums of the numbers of changed files\n"
+		        + "      and lines, and the numbers of commits changing artifact-specific and/or\n"
+		        + "      variability information per day, month, and year; these files are only\n"
+		        + "      created if the \"-b\" option is set.\n"
+		        + "    - ComAn_Distributions.bin, ComAn_Distributions.tsv: contain the\n"
+		        + "      distributions of the numbers of changed lines per commit as histograms,\n"
+		        + "      which can be merged with those of other runs, and their percentiles\n"
+		        + "      (p50, p90, p99) and maximum; these files are only created if the \"-q\"\n"
+		        + "      option is set.\n");
 		HelpFormatter helpFormatter = new HelpFormatter();
 		helpFormatter.printHelp("java -jar ComAn.jar [-i DIR] [-o DIR]", comanOptions);
 	}
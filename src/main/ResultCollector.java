@@ -1,12 +1,32 @@
 package main;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import diff.DiffAnalyzer;
 import main.ComAnLogger.MessageType;
+import result.CommitResult;
+import result.FileResult;
+import result.FileResultWriter;
+import result.GzipTextWriter;
+import result.LineCountHistogram;
+import result.ResultEncoder;
+import result.ResultLogWriter;
+import result.ResultRollup;
+import result.ResultRollup.Period;
+import result.ResultStore;
+import result.ResultSummary;
+import result.ResultTable;
 
 /**
  * This class is used to write the results of the analysis to files.<br><br>
@@ -16,6 +36,8 @@ import main.ComAnLogger.MessageType;
  * <li>ComAn_Results.tsv: the general data extracted from each commit</li>
  * <li>ComAn_Summary.tsv: the summary of the numbers, e.g. the sum and average of changed files, etc.</li>
  * </ul>
+ * If compression is enabled (see {@link #enableCompression()}), these files are gzip-compressed on background
+ * threads.
  * 
  * @author Christian Kroeher
  *
@@ -33,121 +55,315 @@ public class ResultCollector {
 	private static ResultCollector instance = new ResultCollector();
 	
 	/**
-	 * The number of analyzed commits.
+	 * The {@link ResultSummary} of all analyzed commits, e.g. the sums of changed lines and the distributions of
+	 * changed lines per commit.
 	 */
-	private long analyzedCommitsCounter;
+	private ResultSummary summary;
 	
 	/**
-	 * The number of analyzed commits changing artifact-specific information only.
+	 * The option to identify whether the result header (line with column titles
+	 * for result file) is already written. The default value is <code>false</code>
+	 * but will be changed to <code>true</code> the first time {@link #addResults(CommitResult, File)}
+	 * is called. 
 	 */
-	private long commitsChangingArtifactInfoCounter;
+	private boolean resultHeaderWritten;
 	
 	/**
-	 * The number of analyzed commits changing variability information only.
+	 * The {@link ResultTable} holding the results of all analyzed commits in memory for writing
+	 * them to a columnar result file (see {@link #writeResultStore(File)}). The default value
+	 * is <code>null</code>, which disables collecting the results in memory; see
+	 * {@link #enableResultStore()}.
 	 */
-	private long commitsChangingVariabilityInfoCounter;
+	private ResultTable resultTable;
 	
 	/**
-	 * The number of analyzed commits changing artifact-specific and variability information.
+	 * The {@link FileResultWriter} writing the results of the changed files of all analyzed commits on a background
+	 * thread. The default value is <code>null</code>, which disables writing these results; see
+	 * {@link #enableFileResults(File)}.
 	 */
-	private long commitsChangingArtifactAndVariabilityInfoCounter;
+	private FileResultWriter fileResultWriter;
 	
 	/**
-	 * The number of changed lines containing artifact-specific information only.
-	 * This attribute is used to count the number of such lines over all commits,
-	 * where each commit changes artifact-specific information only (no variability information).
+	 * The {@link GzipTextWriter}s writing the result, summary, and unanalyzed commits files on background threads
+	 * by file. The default value is <code>null</code>, which disables compressing these files; see
+	 * {@link #enableCompression()}.
 	 */
-	private long changedArtifactInfoLinesOnlyCounter;
+	private Map<File, GzipTextWriter> compressedFileWriters;
 	
 	/**
-	 * The number of changed lines containing variability information only.
-	 * This attribute is used to count the number of such lines over all commits,
-	 * where each commit changes variability information only (no artifact-specific information).
+	 * The {@link ResultEncoder} writing the results of all analyzed commits to {@link #encodedResultStream}
+	 * additionally. The default value is <code>null</code>, which disables this additional result file; see
+	 * {@link #enableResultEncoder(ResultEncoder, File)}.
 	 */
-	private long changedVariabilityInfoLinesOnlyCounter;
+	private ResultEncoder resultEncoder;
 	
 	/**
-	 * The number of changed lines containing artifact-specific information only.
-	 * This attribute is used to count the number of such lines over all commits,
-	 * where each commit changes both artifact-specific and variability information.
+	 * The stream of the additional result file written by {@link #resultEncoder}.
 	 */
-	private long changedArtifactInfoLinesCounter;
+	private OutputStream encodedResultStream;
 	
 	/**
-	 * The number of changed lines containing variability information only.
-	 * This attribute is used to count the number of such lines over all commits,
-	 * where each commit changes both artifact-specific and variability information.
+	 * The additional result file written by {@link #resultEncoder} used for logging errors.
 	 */
-	private long changedVariabilityInfoLinesCounter;
+	private File encodedResultFile;
 	
 	/**
-	 * The number of changed model lines (sum over all analyzed commits).
+	 * The {@link ResultLogWriter} appending the results of all analyzed commits to a result log. The default value
+	 * is <code>null</code>, which disables this result log; see {@link #enableResultLog(File)}.
 	 */
-	private long changedModelLinesCounter;
+	private ResultLogWriter resultLogWriter;
 	
 	/**
-	 * The number of changed model lines containing variability information
-	 * (sum over all analyzed commits).
+	 * The {@link ResultRollup}s summing up the results of all analyzed commits per {@link Period}. The default
+	 * value is <code>null</code>, which disables these rollups; see {@link #enableRollups()}.
 	 */
-	private long changedModelVarLinesCounter;
+	private Map<Period, ResultRollup> rollups;
 	
 	/**
-	 * The number of changed source code lines (sum over all analyzed commits).
+	 * Construct a new {@link ResultCollector}.
 	 */
-	private long changedSourceLinesCounter;
+	private ResultCollector() {
+		summary = new ResultSummary();
+		resultHeaderWritten = false;
+		resultTable = null;
+		fileResultWriter = null;
+		compressedFileWriters = null;
+		resultEncoder = null;
+		encodedResultStream = null;
+		encodedResultFile = null;
+		resultLogWriter = null;
+		rollups = null;
+	}
 	
 	/**
-	 * The number of changed source code lines containing variability information
-	 * (sum over all analyzed commits).
+	 * Return the single instance of the {@link ResultCollector}.
+	 * 
+	 * @return the single instance of the {@link ResultCollector}
 	 */
-	private long changedSourceVarLinesCounter;
+	public static ResultCollector getInstance() {
+		return instance;
+	}
 	
 	/**
-	 * The number of changed source code lines (sum over all analyzed commits).
+	 * Enable collecting the results of all analyzed commits in memory for writing them to a
+	 * columnar result file via {@link #writeResultStore(File)}.
 	 */
-	private long changedBuildLinesCounter;
+	public void enableResultStore() {
+		if (resultTable == null) {
+			resultTable = new ResultTable();
+		}
+	}
 	
 	/**
-	 * The number of changed build lines containing variability information
-	 * (sum over all analyzed commits).
+	 * Enable summing up the results of all analyzed commits per day, month, and year while the commits are
+	 * analyzed for writing these rollups via {@link #writeRollup(Period, File)}.
 	 */
-	private long changedBuildVarLinesCounter;
+	public void enableRollups() {
+		if (rollups == null) {
+			rollups = new EnumMap<Period, ResultRollup>(Period.class);
+			for (Period period : Period.values()) {
+				rollups.put(period, new ResultRollup(period));
+			}
+		}
+	}
 	
 	/**
-	 * The option to identify whether the result header (line with column titles
-	 * for result file) is already written. The default value is <code>false</code>
-	 * but will be changed to <code>true</code> the first time {@link #addResults(DiffAnalyzer, File)}
-	 * is called. 
+	 * Enable compressing the result, summary, and unanalyzed commits files with gzip. The content of each of these
+	 * files is compressed and written on a background thread until {@link #closeCompressedFiles()} is called.
+	 * Hence, the names of the files passed to the methods of this class should end with
+	 * {@value GzipTextWriter#FILE_EXTENSION}.
 	 */
-	private boolean resultHeaderWritten;
-
+	public void enableCompression() {
+		if (compressedFileWriters == null) {
+			compressedFileWriters = new HashMap<File, GzipTextWriter>();
+		}
+	}
+	
 	/**
-	 * Construct a new {@link ResultCollector}.
+	 * Write all pending content of the compressed result, summary, and unanalyzed commits files and close these
+	 * files. Content added afterwards is written to new gzip members at the end of the respective file.
 	 */
-	private ResultCollector() {
-		analyzedCommitsCounter = 0;
-		commitsChangingArtifactInfoCounter = 0;
-		commitsChangingVariabilityInfoCounter = 0;
-		changedArtifactInfoLinesCounter = 0;
-		changedArtifactInfoLinesOnlyCounter = 0;
-		changedVariabilityInfoLinesCounter = 0;
-		changedVariabilityInfoLinesOnlyCounter = 0;
-		changedModelLinesCounter = 0;
-		changedModelVarLinesCounter = 0;
-		changedSourceLinesCounter = 0;
-		changedSourceVarLinesCounter = 0;
-		changedBuildLinesCounter = 0;
-		changedBuildVarLinesCounter = 0;
-		resultHeaderWritten = false;
+	public void closeCompressedFiles() {
+		if (compressedFileWriters != null) {
+			for (Map.Entry<File, GzipTextWriter> compressedFileWriter : compressedFileWriters.entrySet()) {
+				try {
+					compressedFileWriter.getValue().close();
+				} catch (IOException e) {
+					ComAnLogger.getInstance().log(CLASS_ID, "Closing compressed file \""
+							+ compressedFileWriter.getKey().getAbsolutePath() + "\" failed", e.getMessage(),
+							MessageType.ERROR);
+				}
+			}
+			compressedFileWriters.clear();
+		}
 	}
 	
 	/**
-	 * Return the single instance of the {@link ResultCollector}.
+	 * Append the given content to the given file. If compression is enabled (see {@link #enableCompression()}),
+	 * the content is passed to the {@link GzipTextWriter} of the given file, which is created on first use.
+	 * Otherwise, the content is appended to the given file directly.
 	 * 
-	 * @return the single instance of the {@link ResultCollector}
+	 * @param content the content to append
+	 * @param file the {@link File} to which the content should be appended
+	 * @throws IOException if writing the content fails
 	 */
-	public static ResultCollector getInstance() {
-		return instance;
+	private void appendToFile(String content, File file) throws IOException {
+		if (compressedFileWriters != null) {
+			GzipTextWriter compressedFileWriter = compressedFileWriters.get(file);
+			if (compressedFileWriter == null) {
+				compressedFileWriter = new GzipTextWriter(file);
+				compressedFileWriters.put(file, compressedFileWriter);
+			}
+			compressedFileWriter.write(content);
+		} else {
+			FileWriter fileWriter = new FileWriter(file, true);
+			BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
+			bufferedWriter.write(content);
+			bufferedWriter.close();
+		}
+	}
+	
+	/**
+	 * Enable writing the results of all analyzed commits to the given file using the given {@link ResultEncoder}
+	 * additionally to the result file. If compression is enabled (see {@link #enableCompression()}), the encoded
+	 * results are gzip-compressed. The file is complete after {@link #closeEncodedResults()} is called.
+	 * 
+	 * @param resultEncoder the {@link ResultEncoder} defining the format of the given file
+	 * @param encodedResultFile the {@link File} to which the encoded results should be written; an existing file
+	 * will be replaced
+	 * @return <code>true</code> if the given file was opened and its header was written, <code>false</code>
+	 * otherwise
+	 */
+	public boolean enableResultEncoder(ResultEncoder resultEncoder, File encodedResultFile) {
+		boolean resultEncoderEnabled = false;
+		if (this.resultEncoder == null) {
+			try {
+				OutputStream fileStream = new FileOutputStream(encodedResultFile);
+				if (compressedFileWriters != null) {
+					fileStream = new GZIPOutputStream(fileStream, 1 << 16);
+				}
+				encodedResultStream = new BufferedOutputStream(fileStream, 1 << 16);
+				this.encodedResultFile = encodedResultFile;
+				this.resultEncoder = resultEncoder;
+				resultEncoder.writeHeader(encodedResultStream);
+				resultEncoderEnabled = true;
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Opening encoded results \"" + encodedResultFile.getAbsolutePath()
+						+ "\" failed", e.getMessage(), MessageType.ERROR);
+				closeEncodedResults();
+			}
+		}
+		return resultEncoderEnabled;
+	}
+	
+	/**
+	 * Write all pending encoded results and close the file they are written to. Further results are not encoded.
+	 */
+	public void closeEncodedResults() {
+		if (encodedResultStream != null) {
+			OutputStream closingEncodedResultStream = encodedResultStream;
+			encodedResultStream = null;
+			resultEncoder = null;
+			try {
+				closingEncodedResultStream.close();
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Closing encoded results \"" + encodedResultFile.getAbsolutePath()
+						+ "\" failed", e.getMessage(), MessageType.ERROR);
+			}
+		}
+	}
+	
+	/**
+	 * Enable appending the results of all analyzed commits to the result log in the given directory, which can be
+	 * queried via {@link result.ResultLog}. The results of previous runs are kept. The indexes of the result log
+	 * are updated by {@link #closeResultLog()}.
+	 * 
+	 * @param resultLogDir the directory of the result log; the directory is created, if it does not exist
+	 * @return <code>true</code> if the result log was opened for appending, <code>false</code> otherwise
+	 */
+	public boolean enableResultLog(File resultLogDir) {
+		boolean resultLogEnabled = false;
+		if (resultLogWriter == null) {
+			try {
+				resultLogWriter = new ResultLogWriter(resultLogDir);
+				resultLogEnabled = true;
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Opening result log \"" + resultLogDir.getAbsolutePath()
+						+ "\" failed", e.getMessage(), MessageType.ERROR);
+			}
+		}
+		return resultLogEnabled;
+	}
+	
+	/**
+	 * Write all pending results to the result log, update its indexes, and close it. Further results are not
+	 * appended to the result log.
+	 */
+	public void closeResultLog() {
+		if (resultLogWriter != null) {
+			ResultLogWriter closingResultLogWriter = resultLogWriter;
+			resultLogWriter = null;
+			try {
+				closingResultLogWriter.close();
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Closing result log failed", e.getMessage(), MessageType.ERROR);
+			}
+		}
+	}
+	
+	/**
+	 * Enable writing the results of the changed files of all analyzed commits to the given compressed file via
+	 * {@link #addFileResults(List)}. These results are written on a background thread until
+	 * {@link #closeFileResults()} is called.
+	 * 
+	 * @param fileResultFile the {@link File} to which the results of the changed files should be appended
+	 * @return <code>true</code> if the given file was opened for writing, <code>false</code> otherwise
+	 */
+	public boolean enableFileResults(File fileResultFile) {
+		boolean fileResultsEnabled = false;
+		if (fileResultWriter == null) {
+			try {
+				fileResultWriter = new FileResultWriter(fileResultFile);
+				fileResultsEnabled = true;
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Opening file results \"" + fileResultFile.getAbsolutePath()
+						+ "\" failed", e.getMessage(), MessageType.ERROR);
+			}
+		}
+		return fileResultsEnabled;
+	}
+	
+	/**
+	 * Pass the given results of the files changed by a single commit to the background thread writing these
+	 * results. This requires enabling writing these results via {@link #enableFileResults(File)} before.
+	 * 
+	 * @param fileResults the {@link FileResult}s of a single commit, which must not be changed afterwards
+	 */
+	public void addFileResults(List<FileResult> fileResults) {
+		if (fileResultWriter != null && fileResults != null) {
+			try {
+				fileResultWriter.write(fileResults);
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Saving file results failed", e.getMessage(), MessageType.ERROR);
+				closeFileResults();
+			}
+		}
+	}
+	
+	/**
+	 * Write all pending results of changed files and close the file they are written to. Further results passed
+	 * to {@link #addFileResults(List)} are ignored.
+	 */
+	public void closeFileResults() {
+		if (fileResultWriter != null) {
+			FileResultWriter closingFileResultWriter = fileResultWriter;
+			fileResultWriter = null;
+			try {
+				closingFileResultWriter.close();
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Closing file results failed", e.getMessage(), MessageType.ERROR);
+			}
+		}
 	}
 	
 	/**
@@ -159,46 +375,60 @@ public class ResultCollector {
 	 * of a appended new line
 	 */
 	public void addResults(DiffAnalyzer diffAnalyzer, File resultFile) {
-		String analyzedCommit = diffAnalyzer.getCommitNumber();
+		addResults(diffAnalyzer.getResult(), resultFile);
+	}
+	
+	/**
+	 * Add the numbers provided by the given {@link CommitResult} to the end of the given
+	 * result file as a new line and add these numbers to the respective sums over all commits.
+	 * 
+	 * @param commitResult the {@link CommitResult} which provides the numbers to be added
+	 * @param resultFile a {@link File} to which the provided numbers will be added in terms
+	 * of a appended new line
+	 */
+	public void addResults(CommitResult commitResult, File resultFile) {
+		String analyzedCommit = commitResult.getCommitNumber();
 		if (analyzedCommit != null && !analyzedCommit.isEmpty()) {
 			try {
 				StringBuilder resultLineBuilder = new StringBuilder();
-				// The final value is used in writeSummary(File, int)
-				analyzedCommitsCounter++;
-				// Get new analysis results
-				int newChangedModelFilesCount = diffAnalyzer.getChangedModelFilesCount();
-				int newChangedModelLinesCount = diffAnalyzer.getChangedModelLinesCount();
-				int newChangedModelVarLinesCount = diffAnalyzer.getChangedModelVarLinesCount();
-				int newChangedSourceFilesCount = diffAnalyzer.getChangedSourceFilesCount();
-				int newChangedSourceLinesCount = diffAnalyzer.getChangedSourceLinesCount();
-				int newChangedSourceVarLinesCount = diffAnalyzer.getChangedSourceVarLinesCount();
-				int newChangedBuildFilesCount = diffAnalyzer.getChangedBuildFilesCount();
-				int newChangedBuildLinesCount = diffAnalyzer.getChangedBuildLinesCount();
-				int newChangedBuildVarLinesCount = diffAnalyzer.getChangedBuildVarLinesCount();
-				// Add new results to overall counters (over all commits)
-				changedModelLinesCounter += newChangedModelLinesCount;
-				changedModelVarLinesCounter += newChangedModelVarLinesCount;
-				changedSourceLinesCounter += newChangedSourceLinesCount;
-				changedSourceVarLinesCounter += newChangedSourceVarLinesCount;
-				changedBuildLinesCounter += newChangedBuildLinesCount;
-				changedBuildVarLinesCounter += newChangedBuildVarLinesCount;
-				// Increase commit and change counters depending on type of lines being changed
-				int newChangedArtifactInfoLinesSum = newChangedModelLinesCount + newChangedSourceLinesCount + newChangedBuildLinesCount;
-				int newChangedVariabilityInfoLinesSum = newChangedModelVarLinesCount + newChangedSourceVarLinesCount + newChangedBuildVarLinesCount;
-				if (newChangedArtifactInfoLinesSum == 0 && newChangedVariabilityInfoLinesSum > 0) {
-					// Only lines including variability information changed
-					commitsChangingVariabilityInfoCounter++;
-					changedVariabilityInfoLinesOnlyCounter += newChangedVariabilityInfoLinesSum;
-				} else if (newChangedArtifactInfoLinesSum > 0 && newChangedVariabilityInfoLinesSum == 0) {
-					// Only lines including artifact-specific information changed
-					commitsChangingArtifactInfoCounter++;
-					changedArtifactInfoLinesOnlyCounter += newChangedArtifactInfoLinesSum;
-				} else if (newChangedArtifactInfoLinesSum > 0 && newChangedVariabilityInfoLinesSum > 0) {
-					// Lines including variability and artifact-specific information changed
-					commitsChangingArtifactAndVariabilityInfoCounter++;
-					changedArtifactInfoLinesCounter += newChangedArtifactInfoLinesSum;
-					changedVariabilityInfoLinesCounter += newChangedVariabilityInfoLinesSum;
+				// Add the numbers to the sums and distributions of the summary
+				summary.add(commitResult);
+				if (resultTable != null) {
+					resultTable.add(commitResult);
+				}
+				if (resultEncoder != null) {
+					try {
+						resultEncoder.write(commitResult, encodedResultStream);
+					} catch (IOException e) {
+						ComAnLogger.getInstance().log(CLASS_ID, "Saving encoded results to \""
+								+ encodedResultFile.getAbsolutePath() + "\" failed", e.getMessage(), MessageType.ERROR);
+						closeEncodedResults();
+					}
 				}
+				if (rollups != null) {
+					for (ResultRollup rollup : rollups.values()) {
+						rollup.add(commitResult);
+					}
+				}
+				if (resultLogWriter != null) {
+					try {
+						resultLogWriter.append(commitResult);
+					} catch (IOException e) {
+						ComAnLogger.getInstance().log(CLASS_ID, "Saving results to result log failed", e.getMessage(),
+								MessageType.ERROR);
+						closeResultLog();
+					}
+				}
+				// Get new analysis results
+				int newChangedModelFilesCount = commitResult.getChangedModelFilesCount();
+				int newChangedModelLinesCount = commitResult.getChangedModelLinesCount();
+				int newChangedModelVarLinesCount = commitResult.getChangedModelVarLinesCount();
+				int newChangedSourceFilesCount = commitResult.getChangedSourceFilesCount();
+				int newChangedSourceLinesCount = commitResult.getChangedSourceLinesCount();
+				int newChangedSourceVarLinesCount = commitResult.getChangedSourceVarLinesCount();
+				int newChangedBuildFilesCount = commitResult.getChangedBuildFilesCount();
+				int newChangedBuildLinesCount = commitResult.getChangedBuildLinesCount();
+				int newChangedBuildVarLinesCount = commitResult.getChangedBuildVarLinesCount();
 				/*
 				 * Write the header of the result file (column titles) once
 				 * this method is called the first time.
@@ -210,7 +440,7 @@ public class ResultCollector {
 					resultHeaderWritten = true;
 				}
 				// The date of the analyzed commit
-				resultLineBuilder.append(diffAnalyzer.getCommitDate() + "\t");
+				resultLineBuilder.append(commitResult.getCommitDate() + "\t");
 				// The commit number of the analyzed commit
 				resultLineBuilder.append(analyzedCommit + "\t");
 				/*
@@ -235,10 +465,7 @@ public class ResultCollector {
 				resultLineBuilder.append(newChangedModelLinesCount + "\t");
 				resultLineBuilder.append(newChangedModelVarLinesCount + "\n");
 				// Append current results to result file
-				FileWriter resultFileWriter = new FileWriter(resultFile, true);
-				BufferedWriter bufferedResultWriter = new BufferedWriter(resultFileWriter);
-				bufferedResultWriter.write(resultLineBuilder.toString());
-				bufferedResultWriter.close();
+				appendToFile(resultLineBuilder.toString(), resultFile);
 			} catch (IOException e) {
 				ComAnLogger.getInstance().log(CLASS_ID, "Saving results to \"" + resultFile.getAbsolutePath() + "\" failed",
 						e.getMessage(), MessageType.ERROR);
@@ -258,16 +485,83 @@ public class ResultCollector {
 			errorLineBuilder.append(commitFileName);
 			errorLineBuilder.append("\n");
 			
-			FileWriter errorFileWriter = new FileWriter(unanalyzedFile, true);
-			BufferedWriter bufferedErrorWriter = new BufferedWriter(errorFileWriter);
-			bufferedErrorWriter.write(errorLineBuilder.toString());
-			bufferedErrorWriter.close();
+			appendToFile(errorLineBuilder.toString(), unanalyzedFile);
 		} catch (IOException e) {
 			ComAnLogger.getInstance().log(CLASS_ID, "Saving unanalyzed commit to \"" + unanalyzedFile.getAbsolutePath() + "\" failed",
 					e.getMessage(), MessageType.ERROR);
 		}
 	}
 	
+	/**
+	 * Write the results of all analyzed commits to the given columnar result file, which can be read
+	 * via {@link ResultStore#open(File)}. This requires enabling the collection of these results
+	 * via {@link #enableResultStore()} before the first commit is added.
+	 * 
+	 * @param storeFile the {@link File} to which the results should be written; an existing file will be replaced
+	 */
+	public void writeResultStore(File storeFile) {
+		if (resultTable != null) {
+			try {
+				ResultStore.write(resultTable, storeFile);
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Saving result store to \"" + storeFile.getAbsolutePath() + "\" failed",
+						e.getMessage(), MessageType.ERROR);
+			}
+		}
+	}
+	
+	/**
+	 * Write the results of all analyzed commits summed up per the given {@link Period} to the given file. This
+	 * requires enabling these rollups via {@link #enableRollups()} before the first commit is added.
+	 * 
+	 * @param period the {@link Period} of the rollup to write
+	 * @param rollupFile the {@link File} to which the rollup should be written; this file <b>must exist</b>
+	 * and <b>must be accessible</b>
+	 */
+	public void writeRollup(Period period, File rollupFile) {
+		if (rollups != null) {
+			try {
+				appendToFile(rollups.get(period).format(), rollupFile);
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Saving rollup to \"" + rollupFile.getAbsolutePath() + "\" failed",
+						e.getMessage(), MessageType.ERROR);
+			}
+		}
+	}
+	
+	/**
+	 * Write the distributions of the numbers of changed lines per commit to the given file, which can be read via
+	 * {@link LineCountHistogram#readAll(File)}. Hence, the distributions of multiple parts of a history analyzed
+	 * separately can be merged without reading the results of the single commits again.
+	 * 
+	 * @param distributionsFile the {@link File} to which the distributions should be written; an existing file will
+	 * be replaced
+	 */
+	public void writeDistributions(File distributionsFile) {
+		try {
+			LineCountHistogram.writeAll(summary.getDistributions(), distributionsFile);
+		} catch (IOException e) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Saving distributions to \"" + distributionsFile.getAbsolutePath() + "\" failed",
+					e.getMessage(), MessageType.ERROR);
+		}
+	}
+	
+	/**
+	 * Write the table of the distributions of the numbers of changed lines per commit, their percentiles, and their
+	 * maximum to the given file (see {@link ResultSummary#formatDistributions()}).
+	 * 
+	 * @param distributionsTableFile the {@link File} to which the table should be written; this file <b>must
+	 * exist</b> and <b>must be accessible</b>
+	 */
+	public void writeDistributionsTable(File distributionsTableFile) {
+		try {
+			appendToFile(summary.formatDistributions(), distributionsTableFile);
+		} catch (IOException e) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Saving distributions to \"" + distributionsTableFile.getAbsolutePath() + "\" failed",
+					e.getMessage(), MessageType.ERROR);
+		}
+	}
+	
 	/**
 	 * Write the (final) summary of the analysis, e.g. the sum of changed files over all commits, the
 	 * average numbers of changed lines per commit, etc.
@@ -279,47 +573,7 @@ public class ResultCollector {
 	 */
 	public void writeSummary(File summaryFile, int commitFilesNum) {
 		try {
-			StringBuilder summaryLineBuilder = new StringBuilder();
-			// Column titles
-			summaryLineBuilder.append("Counted Element\tNumber of Commits\tNumber of Changed Lines (artifact-specific)\tNumber of Changed Lines (variability)\n");
-			// Commits available
-			summaryLineBuilder.append("CAv\t" + commitFilesNum + "\n");
-			// Commits analyzed
-			summaryLineBuilder.append("CAn\t" + analyzedCommitsCounter + "\n");
-			// Commits changing artifact-specific information only and corresponding sum of changed lines over all commits and file types
-			summaryLineBuilder.append("CCAI\t" + commitsChangingArtifactInfoCounter + "\t" + changedArtifactInfoLinesOnlyCounter + "\n");
-			// Commits changing variability information only and corresponding sum of changed lines over all commits and file types
-			summaryLineBuilder.append("CCVI\t" + commitsChangingVariabilityInfoCounter + "\t\t" + changedVariabilityInfoLinesOnlyCounter + "\n");
-			// Commits changing artifact-specific and variability information and corresponding sum of changed lines over all commits and file types
-			summaryLineBuilder.append("CCAVI\t" + commitsChangingArtifactAndVariabilityInfoCounter + "\t" + changedArtifactInfoLinesCounter + "\t" + changedVariabilityInfoLinesCounter + "\n");
-			// Changed model lines: artifact-specific, variability
-			summaryLineBuilder.append("CML\t\t" + changedModelLinesCounter + "\t" + changedModelVarLinesCounter + "\n");
-			// Changed source code lines: artifact-specific, variability
-			summaryLineBuilder.append("CCL\t\t" + changedSourceLinesCounter + "\t" + changedSourceVarLinesCounter + "\n");
-			// Changed build lines: artifact-specific, variability
-			summaryLineBuilder.append("CBL\t\t" + changedBuildLinesCounter + "\t" + changedBuildVarLinesCounter  + "\n");
-			// Append description of abbreviations to summary file
-			summaryLineBuilder.append("\n\nDescription:\n");
-			summaryLineBuilder.append("CAv\t[C]ommits [Av]ailable: number of all commits input to this analysis\n");
-			summaryLineBuilder.append("CAn\t[C]ommits [An]alyzed: number of commits actually analyzed\n");
-			summaryLineBuilder.append("\t    Some commits may not be analyzed due to no file changes\n");
-			summaryLineBuilder.append("CCAI\t[C]ommits [C]hanging [A]rtifact-specific [I]nformation: number of commits that change at least one line of\n");
-			summaryLineBuilder.append("\t    a) help text in a variability model file (no variability information)\n");
-			summaryLineBuilder.append("\t    b) general source code in a source code file (no variability information)\n");
-			summaryLineBuilder.append("\t    c) the general build process definition in a build file (no variability information)\n");
-			summaryLineBuilder.append("CCVI\t[C]ommits [C]hanging [V]ariability [I]nformation: number of commits that change at least one line defining\n");
-			summaryLineBuilder.append("\t    a) configuration options, etc. in a variability model file (variability information)\n");
-			summaryLineBuilder.append("\t    b) references to configuration options in a source code file (variability information)\n");
-			summaryLineBuilder.append("\t    c) references to configuration options in a build file (variability information)\n");
-			summaryLineBuilder.append("CCAVI\t[C]ommits [C]hanging [A]rtifact-specific and [V]ariability [I]nformation: number of commits that change both types of information (see CCAI and CCVI)\n");
-			summaryLineBuilder.append("CML\t[C]hanged [M]odel [L]ines: number of changed model lines over all analyzed commits\n");
-			summaryLineBuilder.append("CCL\t[C]hanged source [C]ode [L]ines: number of changed source code lines over all analyzed commits\n");
-			summaryLineBuilder.append("CBL\t[C]hanged [B]uild process[L]ines: number of changed build process lines over all analyzed commits\n");
-			// Write the complete summary file
-			FileWriter summaryFileWriter = new FileWriter(summaryFile, true);
-			BufferedWriter bufferedSummaryWriter = new BufferedWriter(summaryFileWriter);
-			bufferedSummaryWriter.write(summaryLineBuilder.toString());
-			bufferedSummaryWriter.close();
+			appendToFile(summary.format(commitFilesNum), summaryFile);
 		} catch (IOException e) {
 			ComAnLogger.getInstance().log(CLASS_ID, "Saving summary to \"" + summaryFile.getAbsolutePath() + "\" failed",
 					e.getMessage(), MessageType.ERROR);
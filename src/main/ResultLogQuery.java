@@ -0,0 +1,183 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import main.ComAnLogger.MessageType;
+import result.CommitResult;
+import result.ResultColumn;
+import result.ResultLog;
+
+/**
+ * This class provides a command line tool for looking up the results of commits in a result log written by the
+ * ComAn-tool with the "-r" option. The results of a single commit are looked up by its SHA, the results of all
+ * commits created in a range of days are looked up by their dates. Both lookups use the indexes of the result log
+ * and, hence, do not read the results of other commits.<br><br>
+ * 
+ * The results are printed in the format of the result file (including its header line).
+ * 
+ * @author agent
+ *
+ */
+public class ResultLogQuery {
+	
+	/**
+	 * The name (id) of this class for logging information.
+	 */
+	private static final String CLASS_ID = ResultLogQuery.class.getSimpleName();
+	
+	/**
+	 * The header line of the printed results.<br><br>
+	 * 
+	 * Value: {@value #RESULT_HEADER};
+	 */
+	private static final String RESULT_HEADER = "Date\tCommit\tCCF\tCCLAI\tCCLVI\tCBF\tCBLAI\tCBLVI\tCMF\tCMLAI\tCMLVI";
+	
+	/**
+	 * Main entry point of this tool.
+	 * 
+	 * @param args the parameters for configuring the lookup
+	 */
+	public static void main(String[] args) {
+		Options queryOptions = createOptions();
+		CommandLineParser commandLineParser = new DefaultParser();
+		try {
+			CommandLine commandLine = commandLineParser.parse(queryOptions, args);
+			String commitNumber = commandLine.getOptionValue("c");
+			String fromDate = commandLine.getOptionValue("f");
+			String toDate = commandLine.getOptionValue("t");
+			if ((commitNumber == null) == (fromDate == null && toDate == null)) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Invalid lookup",
+						"Either a commit SHA or a range of dates is required", MessageType.ERROR);
+				printHelp(queryOptions);
+			} else {
+				query(new File(commandLine.getOptionValue("r")), commitNumber, fromDate, toDate);
+			}
+		} catch (ParseException e) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Parsing command line options failed", e.getMessage(),
+					MessageType.ERROR);
+			printHelp(queryOptions);
+		}
+	}
+	
+	/**
+	 * Look up and print the results of the given commit or the given range of dates.
+	 * 
+	 * @param resultLogDir the directory of the result log
+	 * @param commitNumber the SHA of the commit to look up or <code>null</code>, if a range of dates is looked up
+	 * @param fromDate the first date of the range in the format <i>yyyy/mm/dd</i> or <code>null</code>, if the
+	 * range starts at the earliest date
+	 * @param toDate the last date of the range in the format <i>yyyy/mm/dd</i> or <code>null</code>, if the range
+	 * ends at the latest date
+	 */
+	private static void query(File resultLogDir, String commitNumber, String fromDate, String toDate) {
+		int fromDay = Integer.MIN_VALUE + 1;
+		int toDay = Integer.MAX_VALUE;
+		boolean datesValid = true;
+		if (fromDate != null) {
+			fromDay = CommitResult.parseCommitDay(fromDate);
+			datesValid = fromDay != CommitResult.NO_COMMIT_DAY;
+		}
+		if (toDate != null) {
+			toDay = CommitResult.parseCommitDay(toDate);
+			datesValid = datesValid && toDay != CommitResult.NO_COMMIT_DAY;
+		}
+		if (!datesValid) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Invalid date", "Dates must be in the format yyyy/mm/dd",
+					MessageType.ERROR);
+		} else {
+			try {
+				long startTime = System.nanoTime();
+				ResultLog resultLog = ResultLog.open(resultLogDir);
+				List<CommitResult> commitResults = new ArrayList<CommitResult>();
+				try {
+					if (commitNumber != null) {
+						CommitResult commitResult = resultLog.get(commitNumber);
+						if (commitResult != null) {
+							commitResults.add(commitResult);
+						}
+					} else {
+						commitResults = resultLog.getRange(fromDay, toDay);
+					}
+				} finally {
+					resultLog.close();
+				}
+				long lookupMillis = (System.nanoTime() - startTime) / 1000000;
+				StringBuilder resultBuilder = new StringBuilder(RESULT_HEADER).append('\n');
+				for (CommitResult commitResult : commitResults) {
+					resultBuilder.append(commitResult.getCommitDate()).append('\t');
+					resultBuilder.append(commitResult.getCommitNumber());
+					for (ResultColumn column : ResultColumn.values()) {
+						resultBuilder.append('\t').append(commitResult.getCount(column));
+					}
+					resultBuilder.append('\n');
+				}
+				System.out.print(resultBuilder);
+				ComAnLogger.getInstance().log(CLASS_ID, commitResults.size() + " results found in " + lookupMillis
+						+ " ms", null, MessageType.INFO);
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Reading result log \"" + resultLogDir.getAbsolutePath()
+						+ "\" failed", e.getMessage(), MessageType.ERROR);
+			}
+		}
+	}
+	
+	/**
+	 * Create the command line options of this tool.
+	 * 
+	 * @return the command line {@link Options} of this tool
+	 */
+	private static Options createOptions() {
+		Option resultLogOpt = Option.builder("r")
+				.required(true)
+				.hasArg()
+				.argName("dir")
+				.desc("specify the directory of the result log (ComAn_ResultLog in the output directory of ComAn)")
+				.build();
+		Option commitOpt = Option.builder("c")
+				.required(false)
+				.hasArg()
+				.argName("sha")
+				.desc("look up the latest results of the commit with the given SHA")
+				.build();
+		Option fromDateOpt = Option.builder("f")
+				.required(false)
+				.hasArg()
+				.argName("yyyy/mm/dd")
+				.desc("look up the results of all commits created on or after the given date")
+				.build();
+		Option toDateOpt = Option.builder("t")
+				.required(false)
+				.hasArg()
+				.argName("yyyy/mm/dd")
+				.desc("look up the results of all commits created on or before the given date")
+				.build();
+		Options queryOptions = new Options();
+		queryOptions.addOption(resultLogOpt);
+		queryOptions.addOption(commitOpt);
+		queryOptions.addOption(fromDateOpt);
+		queryOptions.addOption(toDateOpt);
+		return queryOptions;
+	}
+	
+	/**
+	 * Print the usage of this tool.
+	 * 
+	 * @param queryOptions the command line {@link Options} of this tool
+	 */
+	private static void printHelp(Options queryOptions) {
+		HelpFormatter helpFormatter = new HelpFormatter();
+		helpFormatter.printHelp("java -cp ComAn.jar main.ResultLogQuery -r DIR (-c SHA | [-f DATE] [-t DATE])",
+				queryOptions);
+	}
+}
@@ -0,0 +1,161 @@
+package main;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import main.ComAnLogger.MessageType;
+import result.ResultMerger;
+import result.ResultSummary;
+
+/**
+ * This class provides a command line tool for merging result files written by the ComAn-tool, e.g. the result files
+ * of several ranges of commits, into a single result file ordered by commit date (see {@link ResultMerger}). Each
+ * commit is merged only once, even if multiple result files contain it.<br><br>
+ * 
+ * The merged results and their summary are written to the files "ComAn_Results.tsv" and "ComAn_Summary.tsv" in the
+ * given output directory. As the number of commit files of the original analyses is not known, the number of
+ * available commits (CAv) in this summary is the number of merged commits.
+ * 
+ * @author agent
+ *
+ */
+public class ResultMerge {
+	
+	/**
+	 * The name (id) of this class for logging information.
+	 */
+	private static final String CLASS_ID = ResultMerge.class.getSimpleName();
+	
+	/**
+	 * The name of the merged result file in the output directory.<br><br>
+	 * 
+	 * Value: {@value #RESULT_FILE_NAME};
+	 */
+	private static final String RESULT_FILE_NAME = "ComAn_Results.tsv";
+	
+	/**
+	 * The name of the summary file of the merged results in the output directory.<br><br>
+	 * 
+	 * Value: {@value #SUMMARY_FILE_NAME};
+	 */
+	private static final String SUMMARY_FILE_NAME = "ComAn_Summary.tsv";
+	
+	/**
+	 * Main entry point of this tool.
+	 * 
+	 * @param args the parameters for configuring the merge followed by the result files to merge
+	 */
+	public static void main(String[] args) {
+		Options mergeOptions = createOptions();
+		CommandLineParser commandLineParser = new DefaultParser();
+		try {
+			CommandLine commandLine = commandLineParser.parse(mergeOptions, args);
+			List<File> resultFiles = new ArrayList<File>();
+			for (String resultFilePath : commandLine.getArgs()) {
+				resultFiles.add(new File(resultFilePath));
+			}
+			if (resultFiles.isEmpty()) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Invalid merge", "At least one result file is required",
+						MessageType.ERROR);
+				printHelp(mergeOptions);
+			} else {
+				merge(resultFiles, new File(commandLine.getOptionValue("o")));
+			}
+		} catch (ParseException e) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Parsing command line options failed", e.getMessage(),
+					MessageType.ERROR);
+			printHelp(mergeOptions);
+		}
+	}
+	
+	/**
+	 * Merge the given result files and write the merged results and their summary to the given output directory.
+	 * Existing result or summary files in this directory are not overwritten.
+	 * 
+	 * @param resultFiles the result {@link File}s to merge
+	 * @param outputDir the directory to write the merged results and their summary to
+	 */
+	private static void merge(List<File> resultFiles, File outputDir) {
+		File mergedResultFile = new File(outputDir, RESULT_FILE_NAME);
+		File summaryFile = new File(outputDir, SUMMARY_FILE_NAME);
+		if (!outputDir.isDirectory()) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Invalid output directory", "\"" + outputDir.getAbsolutePath()
+					+ "\" does not exist or is not a directory", MessageType.ERROR);
+		} else if (mergedResultFile.exists() || summaryFile.exists()) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Invalid output directory", "\"" + outputDir.getAbsolutePath()
+					+ "\" already contains a result or summary file", MessageType.ERROR);
+		} else {
+			try {
+				long startTime = System.nanoTime();
+				ResultMerger resultMerger = new ResultMerger(resultFiles);
+				ResultSummary summary = resultMerger.merge(mergedResultFile);
+				FileWriter summaryWriter = new FileWriter(summaryFile);
+				try {
+					summaryWriter.write(summary.format(resultMerger.getMergedCommitsCount()));
+				} finally {
+					summaryWriter.close();
+				}
+				long mergeMillis = (System.nanoTime() - startTime) / 1000000;
+				ComAnLogger.getInstance().log(CLASS_ID, resultMerger.getMergedCommitsCount() + " commits of "
+						+ resultFiles.size() + " result files merged in " + mergeMillis + " ms", null,
+						MessageType.INFO);
+				if (resultMerger.getDuplicateLinesCount() > 0) {
+					ComAnLogger.getInstance().log(CLASS_ID, resultMerger.getDuplicateLinesCount()
+							+ " duplicate lines dropped", "Only the first line of each commit is merged",
+							MessageType.INFO);
+				}
+				if (resultMerger.getMalformedLinesCount() > 0) {
+					ComAnLogger.getInstance().log(CLASS_ID, resultMerger.getMalformedLinesCount()
+							+ " malformed lines dropped", "Use test/check/ComAnResultsCheck to locate them",
+							MessageType.INFO);
+				}
+				if (resultMerger.getUnorderedLinesCount() > 0) {
+					ComAnLogger.getInstance().log(CLASS_ID, resultMerger.getUnorderedLinesCount()
+							+ " lines not ordered by date", "The merged result file is not ordered by date either",
+							MessageType.INFO);
+				}
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Merging result files failed", e.getMessage(),
+						MessageType.ERROR);
+			}
+		}
+	}
+	
+	/**
+	 * Create the command line options of this tool.
+	 * 
+	 * @return the command line {@link Options} of this tool
+	 */
+	private static Options createOptions() {
+		Option outputDirOpt = Option.builder("o")
+				.required(true)
+				.hasArg()
+				.argName("dir")
+				.desc("specify the directory for saving the merged results and their summary to")
+				.build();
+		Options mergeOptions = new Options();
+		mergeOptions.addOption(outputDirOpt);
+		return mergeOptions;
+	}
+	
+	/**
+	 * Print the usage of this tool.
+	 * 
+	 * @param mergeOptions the command line {@link Options} of this tool
+	 */
+	private static void printHelp(Options mergeOptions) {
+		HelpFormatter helpFormatter = new HelpFormatter();
+		helpFormatter.printHelp("java -cp ComAn.jar main.ResultMerge -o DIR FILE...", mergeOptions);
+	}
+}
@@ -0,0 +1,237 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import main.ComAnLogger.MessageType;
+import result.CommitResult;
+import result.ResultFileScanner;
+import result.ResultSummarizer;
+import result.ResultSummary;
+
+/**
+ * This class provides a command line tool for rebuilding the summary of an analysis ("ComAn_Summary.tsv") from its
+ * result file without analyzing the commits again (see {@link ResultSummarizer}). The summarized commits may be
+ * restricted to a range of commit dates, e.g. the commits after a change of the build process, and/or to the commits
+ * of a commit list in the format of the "-l" option of the ComAn-tool. The result file may be compressed, e.g. by
+ * the "-z" option of the ComAn-tool, in which case it is decompressed and summarized by a single thread.<br><br>
+ * 
+ * As the number of commit files of the original analysis is not known, the number of available commits (CAv) in
+ * the rebuilt summary is the number of summarized commits.
+ * 
+ * @author agent
+ *
+ */
+public class ResultSummaryRebuild {
+	
+	/**
+	 * The name (id) of this class for logging information.
+	 */
+	private static final String CLASS_ID = ResultSummaryRebuild.class.getSimpleName();
+	
+	/**
+	 * The name of the rebuilt summary file in the output directory.<br><br>
+	 * 
+	 * Value: {@value #SUMMARY_FILE_NAME};
+	 */
+	private static final String SUMMARY_FILE_NAME = "ComAn_Summary.tsv";
+	
+	/**
+	 * The number of threads summarizing chunks of the result file concurrently.
+	 */
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Main entry point of this tool.
+	 * 
+	 * @param args the parameters for configuring the rebuild
+	 */
+	public static void main(String[] args) {
+		Options rebuildOptions = createOptions();
+		CommandLineParser commandLineParser = new DefaultParser();
+		try {
+			CommandLine commandLine = commandLineParser.parse(rebuildOptions, args);
+			ResultSummarizer resultSummarizer = new ResultSummarizer();
+			boolean configuredCorrectly = true;
+			String fromDate = commandLine.getOptionValue("f");
+			String toDate = commandLine.getOptionValue("t");
+			if (fromDate != null || toDate != null) {
+				int fromDay = CommitResult.parseCommitDay(fromDate);
+				int toDay = CommitResult.parseCommitDay(toDate);
+				if ((fromDate != null && fromDay == CommitResult.NO_COMMIT_DAY)
+						|| (toDate != null && toDay == CommitResult.NO_COMMIT_DAY)) {
+					ComAnLogger.getInstance().log(CLASS_ID, "Invalid date", "Dates must be in the format yyyy/mm/dd",
+							MessageType.ERROR);
+					configuredCorrectly = false;
+				} else {
+					resultSummarizer.setDateRange(fromDay, toDay);
+				}
+			}
+			String commitListPath = commandLine.getOptionValue("l");
+			if (configuredCorrectly && commitListPath != null) {
+				Set<String> commitNumbers = readCommitList(new File(commitListPath));
+				if (commitNumbers == null) {
+					configuredCorrectly = false;
+				} else {
+					resultSummarizer.setCommitNumbers(commitNumbers);
+				}
+			}
+			if (configuredCorrectly) {
+				rebuild(resultSummarizer, new File(commandLine.getOptionValue("r")),
+						new File(commandLine.getOptionValue("o")));
+			}
+		} catch (ParseException e) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Parsing command line options failed", e.getMessage(),
+					MessageType.ERROR);
+			printHelp(rebuildOptions);
+		}
+	}
+	
+	/**
+	 * Summarize the given result file and write the summary to the given output directory. An existing summary file
+	 * in this directory is not overwritten.
+	 * 
+	 * @param resultSummarizer the {@link ResultSummarizer} defining the summarized commits
+	 * @param resultFile the (compressed) result {@link File} to summarize
+	 * @param outputDir the directory to write the summary to
+	 */
+	private static void rebuild(ResultSummarizer resultSummarizer, File resultFile, File outputDir) {
+		File summaryFile = new File(outputDir, SUMMARY_FILE_NAME);
+		if (!outputDir.isDirectory()) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Invalid output directory", "\"" + outputDir.getAbsolutePath()
+					+ "\" does not exist or is not a directory", MessageType.ERROR);
+		} else if (summaryFile.exists()) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Invalid output directory", "\"" + outputDir.getAbsolutePath()
+					+ "\" already contains a summary file", MessageType.ERROR);
+		} else {
+			try {
+				long startTime = System.nanoTime();
+				ResultSummary summary = resultSummarizer.summarize(resultFile, THREADS,
+						ResultFileScanner.DEFAULT_CHUNK_SIZE);
+				FileWriter summaryWriter = new FileWriter(summaryFile);
+				try {
+					summaryWriter.write(summary.format(summary.getAnalyzedCommitsCount()));
+				} finally {
+					summaryWriter.close();
+				}
+				long rebuildMillis = (System.nanoTime() - startTime) / 1000000;
+				ComAnLogger.getInstance().log(CLASS_ID, summary.getAnalyzedCommitsCount() + " commits summarized in "
+						+ rebuildMillis + " ms", resultSummarizer.getFilteredLinesCount() + " commits filtered",
+						MessageType.INFO);
+				if (resultSummarizer.getMalformedLinesCount() > 0) {
+					ComAnLogger.getInstance().log(CLASS_ID, resultSummarizer.getMalformedLinesCount()
+							+ " malformed lines skipped", "Use test/check/ComAnResultsCheck to locate them",
+							MessageType.INFO);
+				}
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Summarizing result file \"" + resultFile.getAbsolutePath()
+						+ "\" failed", e.getMessage(), MessageType.ERROR);
+			}
+		}
+	}
+	
+	/**
+	 * Read the commit SHAs of the given commit list. Each line of this file contains a single commit SHA; empty
+	 * lines are ignored.
+	 * 
+	 * @param commitListFile the commit list {@link File}
+	 * @return the {@link Set} of commit SHAs of the commit list or <code>null</code>, if reading the file failed
+	 */
+	private static Set<String> readCommitList(File commitListFile) {
+		Set<String> commitNumbers = new HashSet<String>();
+		BufferedReader commitListReader = null;
+		try {
+			commitListReader = new BufferedReader(new FileReader(commitListFile));
+			String commitNumber;
+			while ((commitNumber = commitListReader.readLine()) != null) {
+				if (!commitNumber.isEmpty()) {
+					commitNumbers.add(commitNumber);
+				}
+			}
+		} catch (IOException e) {
+			ComAnLogger.getInstance().log(CLASS_ID, "Reading commit list \"" + commitListFile.getAbsolutePath()
+					+ "\" failed", e.getMessage(), MessageType.ERROR);
+			commitNumbers = null;
+		} finally {
+			if (commitListReader != null) {
+				try {
+					commitListReader.close();
+				} catch (IOException e) {
+					ComAnLogger.getInstance().log(CLASS_ID, "Closing commit list \""
+							+ commitListFile.getAbsolutePath() + "\" failed", e.getMessage(), MessageType.ERROR);
+				}
+			}
+		}
+		return commitNumbers;
+	}
+	
+	/**
+	 * Create the command line options of this tool.
+	 * 
+	 * @return the command line {@link Options} of this tool
+	 */
+	private static Options createOptions() {
+		Option resultFileOpt = Option.builder("r")
+				.required(true)
+				.hasArg()
+				.argName("file")
+				.desc("specify the result file (ComAn_Results.tsv or ComAn_Results.tsv.gz) to summarize")
+				.build();
+		Option outputDirOpt = Option.builder("o")
+				.required(true)
+				.hasArg()
+				.argName("dir")
+				.desc("specify the directory for saving the summary to")
+				.build();
+		Option fromDateOpt = Option.builder("f")
+				.required(false)
+				.hasArg()
+				.argName("yyyy/mm/dd")
+				.desc("summarize only commits created on or after the given date [optional]")
+				.build();
+		Option toDateOpt = Option.builder("t")
+				.required(false)
+				.hasArg()
+				.argName("yyyy/mm/dd")
+				.desc("summarize only commits created on or before the given date [optional]")
+				.build();
+		Option commitListOpt = Option.builder("l")
+				.required(false)
+				.hasArg()
+				.argName("commit_list")
+				.desc("summarize only the commits (SHA) of the given file [optional]. Each line of this file has to "
+						+ "contain a single commit SHA without leading or trailing whitespaces")
+				.build();
+		Options rebuildOptions = new Options();
+		rebuildOptions.addOption(resultFileOpt);
+		rebuildOptions.addOption(outputDirOpt);
+		rebuildOptions.addOption(fromDateOpt);
+		rebuildOptions.addOption(toDateOpt);
+		rebuildOptions.addOption(commitListOpt);
+		return rebuildOptions;
+	}
+	
+	/**
+	 * Print the usage of this tool.
+	 * 
+	 * @param rebuildOptions the command line {@link Options} of this tool
+	 */
+	private static void printHelp(Options rebuildOptions) {
+		HelpFormatter helpFormatter = new HelpFormatter();
+		helpFormatter.printHelp("java -cp ComAn.jar main.ResultSummaryRebuild -r FILE -o DIR [-f DATE] [-t DATE] "
+				+ "[-l FILE]", rebuildOptions);
+	}
+}
@@ -0,0 +1,187 @@
+package result;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This class encodes {@link CommitResult}s as length-prefixed binary records, which are read without parsing any
+ * text via {@link #readHeader(DataInputStream)} and {@link #readRecord(DataInputStream)}.<br><br>
+ * 
+ * All numbers are stored in big-endian byte order (see {@link DataOutputStream}):
+ * <ul>
+ * <li>Header: magic number {@value #MAGIC_NUMBER}, schema version {@value #SCHEMA_VERSION}, number of count fields
+ * (all as <code>int</code>), and the name of each count field (modified UTF-8 as written by
+ * {@link DataOutputStream#writeUTF(String)})</li>
+ * <li>Record: number of bytes of the rest of the record (<code>int</code>), commit date as epoch day or
+ * {@value CommitResult#NO_COMMIT_DAY} (<code>int</code>), SHA (modified UTF-8), and one <code>int</code> per count
+ * field</li>
+ * </ul>
+ * Loaders may skip unknown trailing bytes of a record based on its length, which allows adding fields without
+ * breaking loaders of the same schema version.
+ * 
+ * @author agent
+ *
+ */
+public class BinaryResultEncoder implements ResultEncoder {
+	
+	/**
+	 * The number identifying binary record result files ("CoAR" in ASCII).<br><br>
+	 * 
+	 * Value: {@value #MAGIC_NUMBER};
+	 */
+	public static final int MAGIC_NUMBER = 0x436F4152;
+	
+	/**
+	 * The version of the schema of the results written by this encoder.<br><br>
+	 * 
+	 * Value: {@value #SCHEMA_VERSION};
+	 */
+	public static final int SCHEMA_VERSION = 1;
+	
+	/**
+	 * The extension of the names of files written by this encoder.<br><br>
+	 * 
+	 * Value: {@value #FILE_EXTENSION};
+	 */
+	public static final String FILE_EXTENSION = ".rec";
+	
+	/**
+	 * The buffer for the content of a single record, which is reused for all records.
+	 */
+	private ByteArrayOutputStream recordBuffer;
+	
+	/**
+	 * The stream writing to {@link #recordBuffer}.
+	 */
+	private DataOutputStream recordStream;
+	
+	/**
+	 * Construct a new {@link BinaryResultEncoder}.
+	 */
+	public BinaryResultEncoder() {
+		recordBuffer = new ByteArrayOutputStream();
+		recordStream = new DataOutputStream(recordBuffer);
+	}
+	
+	@Override
+	public String getFileExtension() {
+		return FILE_EXTENSION;
+	}
+	
+	@Override
+	public int getSchemaVersion() {
+		return SCHEMA_VERSION;
+	}
+	
+	@Override
+	public void writeHeader(OutputStream out) throws IOException {
+		recordBuffer.reset();
+		ResultColumn[] columns = ResultColumn.values();
+		recordStream.writeInt(MAGIC_NUMBER);
+		recordStream.writeInt(SCHEMA_VERSION);
+		recordStream.writeInt(columns.length);
+		for (ResultColumn column : columns) {
+			recordStream.writeUTF(column.name());
+		}
+		recordBuffer.writeTo(out);
+	}
+	
+	@Override
+	public void write(CommitResult commitResult, OutputStream out) throws IOException {
+		recordBuffer.reset();
+		recordStream.writeInt(commitResult.getCommitDay());
+		recordStream.writeUTF(commitResult.getCommitNumber());
+		for (ResultColumn column : ResultColumn.values()) {
+			recordStream.writeInt(commitResult.getCount(column));
+		}
+		int recordLength = recordBuffer.size();
+		out.write(recordLength >>> 24);
+		out.write(recordLength >>> 16);
+		out.write(recordLength >>> 8);
+		out.write(recordLength);
+		recordBuffer.writeTo(out);
+	}
+	
+	/**
+	 * Read and check the header of a binary record result file.
+	 * 
+	 * @param in the {@link DataInputStream} of the result file positioned at its start
+	 * @return the names of the count fields of each record in the order of their values
+	 * @throws IOException if reading fails, the file is not a binary record result file, or its schema version is
+	 * not supported
+	 */
+	public static String[] readHeader(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC_NUMBER) {
+			throw new IOException("File is not a binary record result file");
+		}
+		int schemaVersion = in.readInt();
+		if (schemaVersion != SCHEMA_VERSION) {
+			throw new IOException("Unsupported schema version " + schemaVersion);
+		}
+		String[] countFieldNames = new String[in.readInt()];
+		for (int i = 0; i < countFieldNames.length; i++) {
+			countFieldNames[i] = in.readUTF();
+		}
+		return countFieldNames;
+	}
+	
+	/**
+	 * Read the next record of a binary record result file. This requires reading the header of the file via
+	 * {@link #readHeader(DataInputStream)} before. Fields following the count fields defined by {@link ResultColumn}
+	 * are skipped.
+	 * 
+	 * @param in the {@link DataInputStream} of the result file positioned at the start of a record
+	 * @return the {@link CommitResult} of the record or <code>null</code>, if the end of the file is reached
+	 * @throws IOException if reading fails or the record is incomplete
+	 */
+	public static CommitResult readRecord(DataInputStream in) throws IOException {
+		CommitResult commitResult = null;
+		int recordLength = -1;
+		try {
+			recordLength = in.readInt();
+		} catch (EOFException e) {
+			// No further record
+		}
+		if (recordLength >= 0) {
+			int commitDay = in.readInt();
+			String commitNumber = in.readUTF();
+			int[] counts = new int[ResultColumn.values().length];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = in.readInt();
+			}
+			int remainingLength = recordLength - 4 - (2 + getUtfLength(commitNumber)) - 4 * counts.length;
+			if (remainingLength > 0) {
+				// Skip the fields added by a later writer of the same schema version
+				in.readFully(new byte[remainingLength]);
+			}
+			commitResult = new CommitResult(commitNumber, commitDay, counts);
+		}
+		return commitResult;
+	}
+	
+	/**
+	 * Return the number of bytes of the given string in modified UTF-8 as written by
+	 * {@link DataOutputStream#writeUTF(String)} (without the leading length).
+	 * 
+	 * @param string the string to measure
+	 * @return the number of bytes of the given string in modified UTF-8
+	 */
+	private static int getUtfLength(String string) {
+		int utfLength = 0;
+		for (int i = 0; i < string.length(); i++) {
+			char character = string.charAt(i);
+			if (character >= 0x0001 && character <= 0x007F) {
+				utfLength++;
+			} else if (character <= 0x07FF) {
+				utfLength = utfLength + 2;
+			} else {
+				utfLength = utfLength + 3;
+			}
+		}
+		return utfLength;
+	}
+}
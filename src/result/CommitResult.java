@@ -0,0 +1,295 @@
+package result;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.regex.Pattern;
+
+/**
+ * This class represents the results of the analysis of a single commit: the commit SHA, the date the commit was
+ * created, and the numbers of changed files and lines as defined by {@link ResultColumn}.<br><br>
+ * 
+ * Objects of this class are immutable and do not reference the {@link diff.DiffAnalyzer}, which created them.
+ * Hence, the parsing state of the analysis can be released as soon as the results are available.<br><br>
+ * 
+ * The commit date is kept as epoch day. A date, which is not available in the format <i>yyyy/mm/dd</i> or does not
+ * define a valid day, e.g. "2011/6/1" or "2011/02/30", is kept as given instead, such that
+ * {@link #getCommitDate()} returns it unchanged; its epoch day is {@value #NO_COMMIT_DAY}.
+ * 
+ * @author agent
+ *
+ */
+public final class CommitResult {
+
+	/**
+	 * The commit day, which indicates that the date of a commit is not available or could not be parsed.<br><br>
+	 * 
+	 * Value: {@value #NO_COMMIT_DAY};
+	 */
+	public static final int NO_COMMIT_DAY = Integer.MIN_VALUE;
+
+	/**
+	 * Regex identifying commit dates in the format <i>yyyy/mm/dd</i> as provided by
+	 * {@link diff.DiffAnalyzer#getCommitDate()}.<br><br>
+	 * 
+	 * Value: {@value #COMMIT_DATE_PATTERN};
+	 */
+	private static final String COMMIT_DATE_PATTERN = "\\d{4}/\\d{2}/\\d{2}";
+
+	/**
+	 * The compiled {@link #COMMIT_DATE_PATTERN} used for parsing commit dates.
+	 */
+	private static final Pattern COMMIT_DATE_REGEX = Pattern.compile(COMMIT_DATE_PATTERN);
+
+	/**
+	 * The SHA of the analyzed commit.
+	 */
+	private final String commitNumber;
+
+	/**
+	 * The date the commit was created as number of days since 1970/01/01 (epoch day) or
+	 * {@value #NO_COMMIT_DAY}, if the date is not available.
+	 */
+	private final int commitDay;
+
+	/**
+	 * The date the commit was created as given, if it cannot be parsed to the {@link #commitDay}, or
+	 * <code>null</code> otherwise.
+	 */
+	private final String unparsedCommitDate;
+
+	/**
+	 * The numbers of changed files and lines of the commit. The index of each number is the ordinal of the
+	 * respective {@link ResultColumn}.
+	 */
+	private final int[] counts;
+
+	/**
+	 * Construct a new {@link CommitResult}.
+	 * 
+	 * @param commitNumber the SHA of the analyzed commit
+	 * @param commitDate the date the commit was created in the format <i>yyyy/mm/dd</i>; may be <code>null</code>.
+	 * Dates in other formats are kept as given.
+	 * @param changedSourceFilesCount the number of changed source code files
+	 * @param changedSourceLinesCount the number of changed source code lines
+	 * @param changedSourceVarLinesCount the number of changed source code lines containing variability information
+	 * @param changedBuildFilesCount the number of changed build files
+	 * @param changedBuildLinesCount the number of changed build lines
+	 * @param changedBuildVarLinesCount the number of changed build lines containing variability information
+	 * @param changedModelFilesCount the number of changed model files
+	 * @param changedModelLinesCount the number of changed model lines
+	 * @param changedModelVarLinesCount the number of changed model lines containing variability information
+	 */
+	public CommitResult(String commitNumber, String commitDate,
+			int changedSourceFilesCount, int changedSourceLinesCount, int changedSourceVarLinesCount,
+			int changedBuildFilesCount, int changedBuildLinesCount, int changedBuildVarLinesCount,
+			int changedModelFilesCount, int changedModelLinesCount, int changedModelVarLinesCount) {
+		this.commitNumber = commitNumber;
+		commitDay = parseCommitDay(commitDate);
+		unparsedCommitDate = (commitDay == NO_COMMIT_DAY) ? commitDate : null;
+		counts = new int[] {
+				changedSourceFilesCount, changedSourceLinesCount, changedSourceVarLinesCount,
+				changedBuildFilesCount, changedBuildLinesCount, changedBuildVarLinesCount,
+				changedModelFilesCount, changedModelLinesCount, changedModelVarLinesCount};
+	}
+
+	/**
+	 * Construct a new {@link CommitResult}.<br><br>
+	 * 
+	 * <b>Note</b> that the given array is not copied and, hence, must not be changed afterwards.
+	 * 
+	 * @param commitNumber the SHA of the analyzed commit
+	 * @param commitDay the date the commit was created as epoch day or {@value #NO_COMMIT_DAY}
+	 * @param counts the numbers of changed files and lines in the order of {@link ResultColumn}
+	 */
+	CommitResult(String commitNumber, int commitDay, int[] counts) {
+		this.commitNumber = commitNumber;
+		this.commitDay = commitDay;
+		unparsedCommitDate = null;
+		this.counts = counts;
+	}
+
+	/**
+	 * Return the SHA of the analyzed commit.
+	 * 
+	 * @return the SHA of the analyzed commit
+	 */
+	public String getCommitNumber() {
+		return commitNumber;
+	}
+
+	/**
+	 * Return the date the commit was created in the format <i>yyyy/mm/dd</i> or, if the date given to the
+	 * constructor is not in this format, as given.
+	 * 
+	 * @return the date the commit was created or <code>null</code>, if the date is not available
+	 */
+	public String getCommitDate() {
+		String commitDate = unparsedCommitDate;
+		if (commitDate == null) {
+			commitDate = formatCommitDay(commitDay);
+		}
+		return commitDate;
+	}
+
+	/**
+	 * Return the date the commit was created as number of days since 1970/01/01 (epoch day).
+	 * 
+	 * @return the date the commit was created as epoch day or {@value #NO_COMMIT_DAY}, if the date is not available
+	 * or not in the format <i>yyyy/mm/dd</i>
+	 */
+	public int getCommitDay() {
+		return commitDay;
+	}
+
+	/**
+	 * Return the number of changed files or lines of the given {@link ResultColumn}.
+	 * 
+	 * @param column the {@link ResultColumn} defining the number to return
+	 * @return the number of changed files or lines of the given column
+	 */
+	public int getCount(ResultColumn column) {
+		return counts[column.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed source code files.
+	 * 
+	 * @return the number of changed source code files
+	 */
+	public int getChangedSourceFilesCount() {
+		return counts[ResultColumn.CCF.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed source code lines.
+	 * 
+	 * @return the number of changed source code lines
+	 */
+	public int getChangedSourceLinesCount() {
+		return counts[ResultColumn.CCLAI.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed source code lines containing variability information.
+	 * 
+	 * @return the number of changed source code lines containing variability information
+	 */
+	public int getChangedSourceVarLinesCount() {
+		return counts[ResultColumn.CCLVI.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed build files.
+	 * 
+	 * @return the number of changed build files
+	 */
+	public int getChangedBuildFilesCount() {
+		return counts[ResultColumn.CBF.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed build lines.
+	 * 
+	 * @return the number of changed build lines
+	 */
+	public int getChangedBuildLinesCount() {
+		return counts[ResultColumn.CBLAI.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed build lines containing variability information.
+	 * 
+	 * @return the number of changed build lines containing variability information
+	 */
+	public int getChangedBuildVarLinesCount() {
+		return counts[ResultColumn.CBLVI.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed model files.
+	 * 
+	 * @return the number of changed model files
+	 */
+	public int getChangedModelFilesCount() {
+		return counts[ResultColumn.CMF.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed model lines.
+	 * 
+	 * @return the number of changed model lines
+	 */
+	public int getChangedModelLinesCount() {
+		return counts[ResultColumn.CMLAI.ordinal()];
+	}
+
+	/**
+	 * Return the number of changed model lines containing variability information.
+	 * 
+	 * @return the number of changed model lines containing variability information
+	 */
+	public int getChangedModelVarLinesCount() {
+		return counts[ResultColumn.CMLVI.ordinal()];
+	}
+
+	/**
+	 * Parse the given commit date to the number of days since 1970/01/01 (epoch day).
+	 * 
+	 * @param commitDate the date a commit was created in the format <i>yyyy/mm/dd</i>; may be <code>null</code>
+	 * @return the given date as epoch day or {@value #NO_COMMIT_DAY}, if the given date is <code>null</code> or
+	 * does not define a valid date in the expected format
+	 */
+	public static int parseCommitDay(String commitDate) {
+		int commitDay = NO_COMMIT_DAY;
+		if (commitDate != null && COMMIT_DATE_REGEX.matcher(commitDate).matches()) {
+			try {
+				commitDay = (int) LocalDate.of(Integer.parseInt(commitDate.substring(0, 4)),
+						Integer.parseInt(commitDate.substring(5, 7)),
+						Integer.parseInt(commitDate.substring(8, 10))).toEpochDay();
+			} catch (DateTimeException e) {
+				commitDay = NO_COMMIT_DAY;
+			}
+		}
+		return commitDay;
+	}
+
+	/**
+	 * Format the given number of days since 1970/01/01 (epoch day) as commit date.
+	 * 
+	 * @param commitDay the date a commit was created as epoch day or {@value #NO_COMMIT_DAY}
+	 * @return the given date in the format <i>yyyy/mm/dd</i> or <code>null</code>, if the given day is
+	 * {@value #NO_COMMIT_DAY}
+	 */
+	public static String formatCommitDay(int commitDay) {
+		String commitDate = null;
+		if (commitDay != NO_COMMIT_DAY) {
+			LocalDate date = LocalDate.ofEpochDay(commitDay);
+			StringBuilder commitDateBuilder = new StringBuilder(10);
+			appendDigits(commitDateBuilder, date.getYear(), 4);
+			commitDateBuilder.append('/');
+			appendDigits(commitDateBuilder, date.getMonthValue(), 2);
+			commitDateBuilder.append('/');
+			appendDigits(commitDateBuilder, date.getDayOfMonth(), 2);
+			commitDate = commitDateBuilder.toString();
+		}
+		return commitDate;
+	}
+
+	/**
+	 * Append the given value to the given {@link StringBuilder} with leading zeros up to the given number of digits.
+	 * 
+	 * @param builder the {@link StringBuilder} to append the value to
+	 * @param value the non-negative value to append
+	 * @param digits the minimum number of digits to append
+	 */
+	private static void appendDigits(StringBuilder builder, int value, int digits) {
+		int limit = 1;
+		for (int i = 1; i < digits; i++) {
+			limit = limit * 10;
+			if (value < limit) {
+				builder.append('0');
+			}
+		}
+		builder.append(value);
+	}
+}
@@ -0,0 +1,137 @@
+package result;
+
+import diff.FileDiff.FileType;
+
+/**
+ * This class represents the results of the analysis of a single file changed by a commit: the commit SHA, the path
+ * and the {@link FileType} of the changed file, and the numbers of added and deleted lines containing
+ * artifact-specific or variability information.<br><br>
+ * 
+ * Objects of this class are immutable and do not reference the {@link diff.FileDiff}, which is reused for the next
+ * diff of the same type.
+ * 
+ * @author agent
+ *
+ */
+public final class FileResult {
+	
+	/**
+	 * The SHA of the commit changing the file.
+	 */
+	private final String commitNumber;
+	
+	/**
+	 * The path of the changed file after the change, e.g. "include/libbb.h".
+	 */
+	private final String filePath;
+	
+	/**
+	 * The {@link FileType} of the changed file.
+	 */
+	private final FileType fileType;
+	
+	/**
+	 * The number of added lines containing artifact-specific information.
+	 */
+	private final int addedArtifactLinesCount;
+	
+	/**
+	 * The number of deleted lines containing artifact-specific information.
+	 */
+	private final int deletedArtifactLinesCount;
+	
+	/**
+	 * The number of added lines containing variability information.
+	 */
+	private final int addedVarLinesCount;
+	
+	/**
+	 * The number of deleted lines containing variability information.
+	 */
+	private final int deletedVarLinesCount;
+	
+	/**
+	 * Construct a new {@link FileResult}.
+	 * 
+	 * @param commitNumber the SHA of the commit changing the file
+	 * @param filePath the path of the changed file after the change
+	 * @param fileType the {@link FileType} of the changed file
+	 * @param addedArtifactLinesCount the number of added lines containing artifact-specific information
+	 * @param deletedArtifactLinesCount the number of deleted lines containing artifact-specific information
+	 * @param addedVarLinesCount the number of added lines containing variability information
+	 * @param deletedVarLinesCount the number of deleted lines containing variability information
+	 */
+	public FileResult(String commitNumber, String filePath, FileType fileType, int addedArtifactLinesCount,
+			int deletedArtifactLinesCount, int addedVarLinesCount, int deletedVarLinesCount) {
+		this.commitNumber = commitNumber;
+		this.filePath = filePath;
+		this.fileType = fileType;
+		this.addedArtifactLinesCount = addedArtifactLinesCount;
+		this.deletedArtifactLinesCount = deletedArtifactLinesCount;
+		this.addedVarLinesCount = addedVarLinesCount;
+		this.deletedVarLinesCount = deletedVarLinesCount;
+	}
+	
+	/**
+	 * Return the SHA of the commit changing the file.
+	 * 
+	 * @return the SHA of the commit changing the file
+	 */
+	public String getCommitNumber() {
+		return commitNumber;
+	}
+	
+	/**
+	 * Return the path of the changed file after the change, e.g. "include/libbb.h".
+	 * 
+	 * @return the path of the changed file
+	 */
+	public String getFilePath() {
+		return filePath;
+	}
+	
+	/**
+	 * Return the {@link FileType} of the changed file.
+	 * 
+	 * @return the {@link FileType} of the changed file
+	 */
+	public FileType getFileType() {
+		return fileType;
+	}
+	
+	/**
+	 * Return the number of added lines containing artifact-specific information.
+	 * 
+	 * @return the number of added lines containing artifact-specific information
+	 */
+	public int getAddedArtifactLinesCount() {
+		return addedArtifactLinesCount;
+	}
+	
+	/**
+	 * Return the number of deleted lines containing artifact-specific information.
+	 * 
+	 * @return the number of deleted lines containing artifact-specific information
+	 */
+	public int getDeletedArtifactLinesCount() {
+		return deletedArtifactLinesCount;
+	}
+	
+	/**
+	 * Return the number of added lines containing variability information.
+	 * 
+	 * @return the number of added lines containing variability information
+	 */
+	public int getAddedVarLinesCount() {
+		return addedVarLinesCount;
+	}
+	
+	/**
+	 * Return the number of deleted lines containing variability information.
+	 * 
+	 * @return the number of deleted lines containing variability information
+	 */
+	public int getDeletedVarLinesCount() {
+		return deletedVarLinesCount;
+	}
+}
@@ -0,0 +1,88 @@
+package result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * This class writes {@link FileResult}s to a gzip-compressed, tab-separated file via a {@link GzipTextWriter}.<br><br>
+ * 
+ * The results of each commit are passed to {@link #write(List)} as a single batch, which is formatted as a single
+ * text and compressed and written by the background thread of the {@link GzipTextWriter}. The file is only
+ * appended to; the header line {@value #HEADER} is only written to a new or empty file.
+ * 
+ * @author agent
+ *
+ */
+public class FileResultWriter {
+	
+	/**
+	 * The header line (column titles) of the file written by this writer:
+	 * <ul>
+	 * <li>Commit: the SHA of the commit changing the file</li>
+	 * <li>File: the path of the changed file</li>
+	 * <li>Type: the {@link diff.FileDiff.FileType} of the changed file</li>
+	 * <li>LAAI: number of added lines containing artifact-specific information</li>
+	 * <li>LDAI: number of deleted lines containing artifact-specific information</li>
+	 * <li>LAVI: number of added lines containing variability information</li>
+	 * <li>LDVI: number of deleted lines containing variability information</li>
+	 * </ul>
+	 * 
+	 * Value: {@value #HEADER};
+	 */
+	public static final String HEADER = "Commit\tFile\tType\tLAAI\tLDAI\tLAVI\tLDVI";
+	
+	/**
+	 * The {@link GzipTextWriter} compressing and writing the formatted results.
+	 */
+	private GzipTextWriter textWriter;
+	
+	/**
+	 * The builder for formatting the results of a single commit, which is reused for all commits.
+	 */
+	private StringBuilder textBuilder;
+	
+	/**
+	 * Construct a new {@link FileResultWriter}.
+	 * 
+	 * @param file the {@link File} to which the results should be appended
+	 * @throws IOException if opening the file fails
+	 */
+	public FileResultWriter(File file) throws IOException {
+		boolean writeHeader = !file.exists() || file.length() == 0;
+		textWriter = new GzipTextWriter(file);
+		textBuilder = new StringBuilder();
+		if (writeHeader) {
+			textWriter.write(HEADER + "\n");
+		}
+	}
+	
+	/**
+	 * Format the given results and pass them to the background thread for writing them.
+	 * 
+	 * @param fileResults the {@link FileResult}s of a single commit
+	 * @throws IOException if writing previous results failed or this writer is closed
+	 */
+	public void write(List<FileResult> fileResults) throws IOException {
+		textBuilder.setLength(0);
+		for (FileResult fileResult : fileResults) {
+			textBuilder.append(fileResult.getCommitNumber()).append('\t');
+			textBuilder.append(fileResult.getFilePath()).append('\t');
+			textBuilder.append(fileResult.getFileType()).append('\t');
+			textBuilder.append(fileResult.getAddedArtifactLinesCount()).append('\t');
+			textBuilder.append(fileResult.getDeletedArtifactLinesCount()).append('\t');
+			textBuilder.append(fileResult.getAddedVarLinesCount()).append('\t');
+			textBuilder.append(fileResult.getDeletedVarLinesCount()).append('\n');
+		}
+		textWriter.write(textBuilder.toString());
+	}
+	
+	/**
+	 * Write all pending results, finish the compressed stream, and close the file.
+	 * 
+	 * @throws IOException if writing the results or closing the file failed
+	 */
+	public void close() throws IOException {
+		textWriter.close();
+	}
+}
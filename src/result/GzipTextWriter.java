@@ -0,0 +1,207 @@
+package result;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class writes text to a gzip-compressed file on a background thread.<br><br>
+ * 
+ * The text passed to {@link #write(String)} is compressed and written by the background thread. Hence, the caller
+ * only waits for this writer, if the number of pending texts exceeds {@link #MAX_PENDING_TEXTS}. The file is only
+ * appended to: if it already exists, a new gzip member is added to its end, which is read like a single gzip stream
+ * by {@link java.util.zip.GZIPInputStream}. Use {@link #openReader(File)} for reading the lines of compressed and
+ * uncompressed files alike.
+ * 
+ * @author agent
+ *
+ */
+public class GzipTextWriter {
+	
+	/**
+	 * The extension of the names of gzip-compressed files.<br><br>
+	 * 
+	 * Value: {@value #FILE_EXTENSION};
+	 */
+	public static final String FILE_EXTENSION = ".gz";
+	
+	/**
+	 * The maximum number of texts passed to {@link #write(String)}, which are not written yet.<br><br>
+	 * 
+	 * Value: {@value #MAX_PENDING_TEXTS};
+	 */
+	private static final int MAX_PENDING_TEXTS = 4096;
+	
+	/**
+	 * The size of the buffers for compressing and decompressing in bytes.<br><br>
+	 * 
+	 * Value: {@value #BUFFER_SIZE};
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	/**
+	 * The text, which signals the background thread that no further texts follow. This text is identified by
+	 * identity and, hence, never equals a text passed to {@link #write(String)}.
+	 */
+	private static final String END_OF_TEXT = new String();
+	
+	/**
+	 * The texts passed to {@link #write(String)}, which are not written yet.
+	 */
+	private BlockingQueue<String> pendingTexts;
+	
+	/**
+	 * The writer of the compressed file used by the background thread only.
+	 */
+	private Writer fileWriter;
+	
+	/**
+	 * The background thread writing the pending texts. This thread is a daemon thread, such that it does not keep
+	 * the JVM running, if the analysis fails before {@link #close()} is called.
+	 */
+	private Thread writerThread;
+	
+	/**
+	 * The first exception thrown by the background thread or <code>null</code>, if writing did not fail (yet).
+	 */
+	private volatile IOException writeException;
+	
+	/**
+	 * <code>true</code> if {@link #close()} was called, <code>false</code> otherwise.
+	 */
+	private boolean closed;
+	
+	/**
+	 * Construct a new {@link GzipTextWriter} and start its background thread.
+	 * 
+	 * @param file the {@link File} to which the text should be appended
+	 * @throws IOException if opening the file fails
+	 */
+	public GzipTextWriter(File file) throws IOException {
+		fileWriter = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file, true), BUFFER_SIZE));
+		pendingTexts = new ArrayBlockingQueue<String>(MAX_PENDING_TEXTS);
+		writeException = null;
+		closed = false;
+		writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writePendingTexts();
+			}
+		}, GzipTextWriter.class.getSimpleName() + " " + file.getName());
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+	
+	/**
+	 * Open a reader for the lines of the given file. If the name of the file ends with {@value #FILE_EXTENSION},
+	 * the content of the file is decompressed while reading; an empty file is read as an empty text.
+	 * 
+	 * @param file the {@link File} to read
+	 * @return a {@link BufferedReader} reading the (decompressed) lines of the given file
+	 * @throws IOException if opening the file fails
+	 */
+	public static BufferedReader openReader(File file) throws IOException {
+		BufferedReader reader = null;
+		if (file.getName().endsWith(FILE_EXTENSION) && file.length() > 0) {
+			FileInputStream fileInputStream = new FileInputStream(file);
+			try {
+				reader = new BufferedReader(new InputStreamReader(
+						new GZIPInputStream(fileInputStream, BUFFER_SIZE)), BUFFER_SIZE);
+			} catch (IOException e) {
+				fileInputStream.close();
+				throw e;
+			}
+		} else {
+			reader = new BufferedReader(new FileReader(file));
+		}
+		return reader;
+	}
+	
+	/**
+	 * Pass the given text to the background thread for writing it.
+	 * 
+	 * @param text the text to append to the file
+	 * @throws IOException if writing previous texts failed or this writer is closed
+	 */
+	public void write(String text) throws IOException {
+		if (closed) {
+			throw new IOException("Writer is closed");
+		}
+		if (writeException != null) {
+			throw writeException;
+		}
+		if (!text.isEmpty()) {
+			try {
+				pendingTexts.put(text);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for pending text", e);
+			}
+		}
+	}
+	
+	/**
+	 * Write all pending texts, finish the compressed stream, and close the file. The background thread ends before
+	 * this method returns.
+	 * 
+	 * @throws IOException if writing the texts or closing the file failed
+	 */
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			try {
+				pendingTexts.put(END_OF_TEXT);
+				writerThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for pending text", e);
+			}
+			if (writeException != null) {
+				throw writeException;
+			}
+		}
+	}
+	
+	/**
+	 * Write the pending texts until {@link #END_OF_TEXT} is taken and close the file afterwards. This method is
+	 * executed by the background thread. If writing fails, the remaining texts are taken, but not written.
+	 */
+	private void writePendingTexts() {
+		boolean textEnded = false;
+		while (!textEnded) {
+			String text = null;
+			try {
+				text = pendingTexts.take();
+			} catch (InterruptedException e) {
+				writeException = new IOException("Interrupted while waiting for pending text", e);
+				textEnded = true;
+			}
+			if (text == END_OF_TEXT) {
+				textEnded = true;
+			} else if (text != null && writeException == null) {
+				try {
+					fileWriter.write(text);
+				} catch (IOException e) {
+					writeException = e;
+				}
+			}
+		}
+		try {
+			fileWriter.close();
+		} catch (IOException e) {
+			if (writeException == null) {
+				writeException = e;
+			}
+		}
+	}
+}
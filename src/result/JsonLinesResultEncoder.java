@@ -0,0 +1,129 @@
+package result;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class encodes {@link CommitResult}s as JSON Lines: each line of a result file is a single JSON object
+ * encoded in UTF-8.<br><br>
+ * 
+ * The first line describes the schema of the following lines, e.g.:<br>
+ * <i>{"schema":"ComAn_Results","version":1,"fields":["Date","Commit","CCF",...,"CMLVI"]}</i><br>
+ * Each further line contains the result of a single commit with the fields of the schema as keys, e.g.:<br>
+ * <i>{"Date":"2016/11/17","Commit":"1cf5b87","CCF":1,"CCLAI":12,...,"CMLVI":0}</i><br>
+ * The date is <code>null</code>, if it is not available.
+ * 
+ * @author agent
+ *
+ */
+public class JsonLinesResultEncoder implements ResultEncoder {
+	
+	/**
+	 * The name of the schema of the results written by this encoder.<br><br>
+	 * 
+	 * Value: {@value #SCHEMA_NAME};
+	 */
+	public static final String SCHEMA_NAME = "ComAn_Results";
+	
+	/**
+	 * The version of the schema of the results written by this encoder.<br><br>
+	 * 
+	 * Value: {@value #SCHEMA_VERSION};
+	 */
+	public static final int SCHEMA_VERSION = 1;
+	
+	/**
+	 * The extension of the names of files written by this encoder.<br><br>
+	 * 
+	 * Value: {@value #FILE_EXTENSION};
+	 */
+	public static final String FILE_EXTENSION = ".jsonl";
+	
+	/**
+	 * The builder for the line of a single result, which is reused for all results.
+	 */
+	private StringBuilder lineBuilder;
+	
+	/**
+	 * Construct a new {@link JsonLinesResultEncoder}.
+	 */
+	public JsonLinesResultEncoder() {
+		lineBuilder = new StringBuilder();
+	}
+	
+	@Override
+	public String getFileExtension() {
+		return FILE_EXTENSION;
+	}
+	
+	@Override
+	public int getSchemaVersion() {
+		return SCHEMA_VERSION;
+	}
+	
+	@Override
+	public void writeHeader(OutputStream out) throws IOException {
+		lineBuilder.setLength(0);
+		lineBuilder.append("{\"schema\":");
+		appendString(SCHEMA_NAME);
+		lineBuilder.append(",\"version\":").append(SCHEMA_VERSION).append(",\"fields\":[");
+		for (int i = 0; i < FIELD_NAMES.length; i++) {
+			if (i > 0) {
+				lineBuilder.append(',');
+			}
+			appendString(FIELD_NAMES[i]);
+		}
+		lineBuilder.append("]}\n");
+		writeLine(out);
+	}
+	
+	@Override
+	public void write(CommitResult commitResult, OutputStream out) throws IOException {
+		lineBuilder.setLength(0);
+		lineBuilder.append("{\"").append(FIELD_NAMES[0]).append("\":");
+		appendString(commitResult.getCommitDate());
+		lineBuilder.append(",\"").append(FIELD_NAMES[1]).append("\":");
+		appendString(commitResult.getCommitNumber());
+		ResultColumn[] columns = ResultColumn.values();
+		for (int i = 0; i < columns.length; i++) {
+			lineBuilder.append(",\"").append(FIELD_NAMES[i + 2]).append("\":").append(commitResult.getCount(columns[i]));
+		}
+		lineBuilder.append("}\n");
+		writeLine(out);
+	}
+	
+	/**
+	 * Append the given string as JSON string (or <code>null</code>) to the {@link #lineBuilder}.
+	 * 
+	 * @param string the string to append; may be <code>null</code>
+	 */
+	private void appendString(String string) {
+		if (string == null) {
+			lineBuilder.append("null");
+		} else {
+			lineBuilder.append('"');
+			for (int i = 0; i < string.length(); i++) {
+				char character = string.charAt(i);
+				if (character == '"' || character == '\\') {
+					lineBuilder.append('\\').append(character);
+				} else if (character < 0x20) {
+					lineBuilder.append(String.format("\\u%04x", (int) character));
+				} else {
+					lineBuilder.append(character);
+				}
+			}
+			lineBuilder.append('"');
+		}
+	}
+	
+	/**
+	 * Write the content of the {@link #lineBuilder} to the given stream encoded in UTF-8.
+	 * 
+	 * @param out the {@link OutputStream} of the result file
+	 * @throws IOException if writing to the given stream fails
+	 */
+	private void writeLine(OutputStream out) throws IOException {
+		out.write(lineBuilder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,307 @@
+package result;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class implements a mergeable histogram of non-negative numbers of changed lines, e.g. the numbers of changed
+ * source code lines containing artifact-specific information per commit, for approximating their distribution
+ * without keeping the single numbers.<br><br>
+ * 
+ * Numbers below {@value #EXACT_VALUES} are counted exactly. Larger numbers are counted in buckets, which split each
+ * range [2<sup>n</sup>, 2<sup>n+1</sup>) into {@value #EXACT_VALUES}/2 buckets of equal width. Hence, the value at a
+ * percentile returned by {@link #getValueAtPercentile(double)} is the highest number of its bucket and exceeds the
+ * exact value by less than 1/128 (about 0.8%) of that value; the maximum is exact. The counts of the buckets are
+ * grown up to the highest added number only, which requires at most 25 KB per histogram.<br><br>
+ * 
+ * Histograms are merged by adding their counts; see {@link #merge(LineCountHistogram)}. This allows combining the
+ * histograms of multiple parts of a history analyzed separately without the results of the single commits. The
+ * histograms of a run are written to and read from a single file via {@link #writeAll(Map, File)} and
+ * {@link #readAll(File)}.
+ * 
+ * @author agent
+ *
+ */
+public class LineCountHistogram {
+	
+	/**
+	 * The number of bits of the numbers, which are counted exactly.<br><br>
+	 * 
+	 * Value: {@value #EXACT_VALUE_BITS};
+	 */
+	private static final int EXACT_VALUE_BITS = 8;
+	
+	/**
+	 * The numbers below this value are counted exactly; larger numbers are counted in buckets.<br><br>
+	 * 
+	 * Value: {@value #EXACT_VALUES};
+	 */
+	public static final int EXACT_VALUES = 1 << EXACT_VALUE_BITS;
+	
+	/**
+	 * The number of buckets for each range [2<sup>n</sup>, 2<sup>n+1</sup>) of numbers above the
+	 * {@link #EXACT_VALUES}.<br><br>
+	 * 
+	 * Value: {@value #BUCKETS_PER_RANGE};
+	 */
+	private static final int BUCKETS_PER_RANGE = EXACT_VALUES / 2;
+	
+	/**
+	 * The magic number at the start of a histogram file written by {@link #writeAll(Map, File)}: "CoAH".<br><br>
+	 * 
+	 * Value: {@value #FILE_MAGIC};
+	 */
+	private static final int FILE_MAGIC = 0x436F4148;
+	
+	/**
+	 * The version of the format of histogram files written by {@link #writeAll(Map, File)}.<br><br>
+	 * 
+	 * Value: {@value #FILE_VERSION};
+	 */
+	private static final int FILE_VERSION = 1;
+	
+	/**
+	 * The counts of the added numbers by the index of their bucket; see {@link #getIndex(int)}.
+	 */
+	private long[] counts;
+	
+	/**
+	 * The number of added numbers.
+	 */
+	private long totalCount;
+	
+	/**
+	 * The highest added number or 0, if no number was added.
+	 */
+	private int maxValue;
+	
+	/**
+	 * Construct a new, empty {@link LineCountHistogram}.
+	 */
+	public LineCountHistogram() {
+		counts = new long[EXACT_VALUES];
+		totalCount = 0;
+		maxValue = 0;
+	}
+	
+	/**
+	 * Add the given number to this histogram.
+	 * 
+	 * @param value the number to add
+	 * @throws IllegalArgumentException if the given number is negative
+	 */
+	public void add(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Negative number of lines: " + value);
+		}
+		int index = getIndex(value);
+		if (index >= counts.length) {
+			counts = Arrays.copyOf(counts, Math.max(index + 1, 2 * counts.length));
+		}
+		counts[index]++;
+		totalCount++;
+		if (value > maxValue) {
+			maxValue = value;
+		}
+	}
+	
+	/**
+	 * Add the counts of the given histogram to the counts of this histogram. Afterwards, this histogram is equal to a
+	 * histogram to which all numbers of both histograms were added.
+	 * 
+	 * @param histogram the {@link LineCountHistogram} to merge into this histogram
+	 */
+	public void merge(LineCountHistogram histogram) {
+		if (histogram.counts.length > counts.length) {
+			counts = Arrays.copyOf(counts, histogram.counts.length);
+		}
+		for (int i = 0; i < histogram.counts.length; i++) {
+			counts[i] += histogram.counts[i];
+		}
+		totalCount = totalCount + histogram.totalCount;
+		maxValue = Math.max(maxValue, histogram.maxValue);
+	}
+	
+	/**
+	 * Return the number of added numbers.
+	 * 
+	 * @return the number of added numbers
+	 */
+	public long getCount() {
+		return totalCount;
+	}
+	
+	/**
+	 * Return the highest added number.
+	 * 
+	 * @return the highest added number or 0, if no number was added
+	 */
+	public int getMax() {
+		return maxValue;
+	}
+	
+	/**
+	 * Return the (approximated) number at the given percentile using the nearest-rank method: the smallest added
+	 * number, for which at least the given percentage of all added numbers are less or equal.
+	 * 
+	 * @param percentile the percentile between 0 and 100, e.g. 99 for the 99th percentile
+	 * @return the number at the given percentile or 0, if no number was added
+	 */
+	public int getValueAtPercentile(double percentile) {
+		int value = 0;
+		if (totalCount > 0) {
+			long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * totalCount));
+			long countedValues = 0;
+			int index = 0;
+			while (countedValues < rank) {
+				countedValues = countedValues + counts[index];
+				index++;
+			}
+			value = Math.min(getHighestValue(index - 1), maxValue);
+		}
+		return value;
+	}
+	
+	/**
+	 * Write the given histograms to the given file.
+	 * 
+	 * @param histograms the {@link LineCountHistogram}s to write by their name
+	 * @param histogramFile the {@link File} to which the histograms should be written; an existing file will be
+	 * replaced
+	 * @throws IOException if writing the file fails
+	 */
+	public static void writeAll(Map<String, LineCountHistogram> histograms, File histogramFile) throws IOException {
+		DataOutputStream histogramStream = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(histogramFile)));
+		try {
+			histogramStream.writeInt(FILE_MAGIC);
+			histogramStream.writeInt(FILE_VERSION);
+			histogramStream.writeInt(histograms.size());
+			for (Map.Entry<String, LineCountHistogram> histogram : histograms.entrySet()) {
+				histogramStream.writeUTF(histogram.getKey());
+				histogram.getValue().write(histogramStream);
+			}
+		} finally {
+			histogramStream.close();
+		}
+	}
+	
+	/**
+	 * Read the histograms written by {@link #writeAll(Map, File)} from the given file.
+	 * 
+	 * @param histogramFile the {@link File} from which the histograms should be read
+	 * @return the {@link LineCountHistogram}s by their name in the order they were written
+	 * @throws IOException if reading the file fails or the file is not a histogram file
+	 */
+	public static Map<String, LineCountHistogram> readAll(File histogramFile) throws IOException {
+		Map<String, LineCountHistogram> histograms = new LinkedHashMap<String, LineCountHistogram>();
+		DataInputStream histogramStream = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(histogramFile)));
+		try {
+			if (histogramStream.readInt() != FILE_MAGIC) {
+				throw new IOException("\"" + histogramFile.getAbsolutePath() + "\" is not a histogram file");
+			}
+			int version = histogramStream.readInt();
+			if (version != FILE_VERSION) {
+				throw new IOException("Unsupported histogram file version " + version);
+			}
+			int histogramsCount = histogramStream.readInt();
+			for (int i = 0; i < histogramsCount; i++) {
+				String name = histogramStream.readUTF();
+				histograms.put(name, read(histogramStream));
+			}
+		} finally {
+			histogramStream.close();
+		}
+		return histograms;
+	}
+	
+	/**
+	 * Write the maximum and the non-zero counts of this histogram as pairs of bucket index and count to the given
+	 * stream.
+	 * 
+	 * @param histogramStream the {@link DataOutputStream} to write to
+	 * @throws IOException if writing fails
+	 */
+	private void write(DataOutputStream histogramStream) throws IOException {
+		int usedBuckets = 0;
+		for (long count : counts) {
+			if (count > 0) {
+				usedBuckets++;
+			}
+		}
+		histogramStream.writeInt(maxValue);
+		histogramStream.writeInt(usedBuckets);
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				histogramStream.writeInt(i);
+				histogramStream.writeLong(counts[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Read a histogram written by {@link #write(DataOutputStream)} from the given stream.
+	 * 
+	 * @param histogramStream the {@link DataInputStream} to read from
+	 * @return the read {@link LineCountHistogram}
+	 * @throws IOException if reading fails or the stream contains invalid bucket indexes or counts
+	 */
+	private static LineCountHistogram read(DataInputStream histogramStream) throws IOException {
+		LineCountHistogram histogram = new LineCountHistogram();
+		histogram.maxValue = histogramStream.readInt();
+		int usedBuckets = histogramStream.readInt();
+		int maxIndex = getIndex(Math.max(0, histogram.maxValue));
+		histogram.counts = new long[Math.max(EXACT_VALUES, maxIndex + 1)];
+		for (int i = 0; i < usedBuckets; i++) {
+			int index = histogramStream.readInt();
+			long count = histogramStream.readLong();
+			if (index < 0 || index > maxIndex || count <= 0) {
+				throw new IOException("Invalid histogram bucket " + index + " with count " + count);
+			}
+			histogram.counts[index] += count;
+			histogram.totalCount = histogram.totalCount + count;
+		}
+		return histogram;
+	}
+	
+	/**
+	 * Return the index of the bucket counting the given number.
+	 * 
+	 * @param value the non-negative number
+	 * @return the index of the bucket of the given number
+	 */
+	private static int getIndex(int value) {
+		int index = value;
+		if (value >= EXACT_VALUES) {
+			int shift = 31 - Integer.numberOfLeadingZeros(value) - EXACT_VALUE_BITS + 1;
+			index = EXACT_VALUES + (shift - 1) * BUCKETS_PER_RANGE + (value >>> shift) - BUCKETS_PER_RANGE;
+		}
+		return index;
+	}
+	
+	/**
+	 * Return the highest number counted by the bucket with the given index.
+	 * 
+	 * @param index the index of the bucket
+	 * @return the highest number of the bucket with the given index
+	 */
+	private static int getHighestValue(int index) {
+		int value = index;
+		if (index >= EXACT_VALUES) {
+			int shift = (index - EXACT_VALUES) / BUCKETS_PER_RANGE + 1;
+			long bucketStart = (index - EXACT_VALUES) % BUCKETS_PER_RANGE + BUCKETS_PER_RANGE;
+			value = (int) Math.min(Integer.MAX_VALUE, ((bucketStart + 1) << shift) - 1);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,24 @@
+package result;
+
+/**
+ * This enumeration defines the numbers of changed files and lines, which are part of the result of each analyzed
+ * commit. The order of the constants is the order of the respective columns in the result file
+ * "ComAn_Results.tsv":
+ * <ul>
+ * <li>CCF: number of changed source code files</li>
+ * <li>CCLAI: number of changed source code lines containing artifact-specific information</li>
+ * <li>CCLVI: number of changed source code lines containing variability information</li>
+ * <li>CBF: number of changed build files</li>
+ * <li>CBLAI: number of changed build lines containing artifact-specific information</li>
+ * <li>CBLVI: number of changed build lines containing variability information</li>
+ * <li>CMF: number of changed variability model files</li>
+ * <li>CMLAI: number of changed model lines containing artifact-specific information</li>
+ * <li>CMLVI: number of changed model lines containing variability information</li>
+ * </ul>
+ * 
+ * @author agent
+ *
+ */
+public enum ResultColumn {
+	CCF, CCLAI, CCLVI, CBF, CBLAI, CBLVI, CMF, CMLAI, CMLVI
+}
@@ -0,0 +1,61 @@
+package result;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This interface defines an encoder of {@link CommitResult}s for writing them to a result file in a specific format.
+ * Each format has a schema version, which is part of the header written by {@link #writeHeader(OutputStream)}.
+ * Hence, loaders of such a file can check whether they support its content before reading the first result.<br><br>
+ * 
+ * Available encoders:
+ * <ul>
+ * <li>{@link JsonLinesResultEncoder}: a JSON object per line</li>
+ * <li>{@link BinaryResultEncoder}: length-prefixed binary records</li>
+ * </ul>
+ * 
+ * @author agent
+ *
+ */
+public interface ResultEncoder {
+	
+	/**
+	 * The names of the parts of the result of each commit in the order of the columns of the result file
+	 * "ComAn_Results.tsv". The names of the numbers of changed files and lines are the names of the respective
+	 * {@link ResultColumn}s.
+	 */
+	public static final String[] FIELD_NAMES = {"Date", "Commit", "CCF", "CCLAI", "CCLVI", "CBF", "CBLAI", "CBLVI",
+			"CMF", "CMLAI", "CMLVI"};
+	
+	/**
+	 * Return the extension of the names of files written by this encoder, e.g. ".jsonl".
+	 * 
+	 * @return the file extension including the leading "."
+	 */
+	public String getFileExtension();
+	
+	/**
+	 * Return the version of the schema of the results written by this encoder. This version is increased with each
+	 * incompatible change of the format.
+	 * 
+	 * @return the schema version of this encoder
+	 */
+	public int getSchemaVersion();
+	
+	/**
+	 * Write the header of a new result file including the schema version to the given stream.
+	 * 
+	 * @param out the {@link OutputStream} of the result file
+	 * @throws IOException if writing to the given stream fails
+	 */
+	public void writeHeader(OutputStream out) throws IOException;
+	
+	/**
+	 * Write the given result to the given stream.
+	 * 
+	 * @param commitResult the {@link CommitResult} to write
+	 * @param out the {@link OutputStream} of the result file
+	 * @throws IOException if writing to the given stream fails
+	 */
+	public void write(CommitResult commitResult, OutputStream out) throws IOException;
+}
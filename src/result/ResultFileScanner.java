@@ -0,0 +1,703 @@
+package result;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class scans the lines of a result file, e.g. "ComAn_Results.tsv", in parallel without reading the file into
+ * the heap.<br><br>
+ * 
+ * The lines after the header line are split into chunks of (about) the given size, which are memory-mapped and
+ * parsed by multiple threads. Each chunk consists of the lines starting within its byte range: a chunk skips the
+ * remainder of a line started in the previous chunk and completes its own last line beyond its range. Hence, each
+ * line is passed to exactly one {@link LineHandler}, which is created for each chunk, and the handlers returned by
+ * {@link #scan(LineHandlerFactory, int, long)} are sorted by the position of their chunks in the file.<br><br>
+ * 
+ * Compressed result files (see {@link GzipTextWriter#FILE_EXTENSION}) cannot be mapped. Their lines are decompressed
+ * and passed to a single {@link LineHandler} by a single thread in one pass instead; as the byte offsets of the
+ * uncompressed lines are unknown, the {@link ResultLine#getOffset()} of these lines is their line number.<br><br>
+ * 
+ * Result files with the current header {@value #HEADER} and with the legacy header {@value #LEGACY_HEADER} are
+ * supported: the columns of the legacy header are mapped to the {@link ResultColumn}s in the order model, source
+ * code, build, e.g. CMF to {@link ResultColumn#CMF}, CSL to {@link ResultColumn#CCLAI}, and CBVL to
+ * {@link ResultColumn#CBLVI}. The lines of files with another header are parsed like lines of the current format.
+ * 
+ * @author agent
+ *
+ */
+public class ResultFileScanner {
+	
+	/**
+	 * The header line (column titles) of current result files.<br><br>
+	 * 
+	 * Value: {@value #HEADER};
+	 */
+	public static final String HEADER = "Date\tCommit\tCCF\tCCLAI\tCCLVI\tCBF\tCBLAI\tCBLVI\tCMF\tCMLAI\tCMLVI";
+	
+	/**
+	 * The header line (column titles) of result files written by previous versions of this tool, e.g. the files in
+	 * "testdata/check_input".<br><br>
+	 * 
+	 * Value: {@value #LEGACY_HEADER};
+	 */
+	public static final String LEGACY_HEADER = "Date\tCommit\tCMF\tCML\tCMVL\tCSF\tCSL\tCSVL\tCBF\tCBL\tCBVL";
+	
+	/**
+	 * The number of tab-separated fields of each line: the date, the commit SHA, and one number per
+	 * {@link ResultColumn}.
+	 */
+	public static final int FIELDS_PER_LINE = 2 + ResultColumn.values().length;
+	
+	/**
+	 * The default number of bytes of each chunk scanned by a single thread.<br><br>
+	 * 
+	 * Value: {@value #DEFAULT_CHUNK_SIZE};
+	 */
+	public static final long DEFAULT_CHUNK_SIZE = 1 << 26;
+	
+	/**
+	 * The maximum number of bytes of a single line. Longer lines are passed to the {@link LineHandler} as malformed
+	 * lines and end the scan of their chunk.<br><br>
+	 * 
+	 * Value: {@value #MAX_LINE_LENGTH};
+	 */
+	public static final int MAX_LINE_LENGTH = 1 << 16;
+	
+	/**
+	 * The number of bytes copied from the mapped chunk to the array parsed by a single thread at once. This size
+	 * exceeds the {@link #MAX_LINE_LENGTH}, such that each line fits into a single block.<br><br>
+	 * 
+	 * Value: {@value #BLOCK_SIZE};
+	 */
+	private static final int BLOCK_SIZE = 1 << 20;
+	
+	/**
+	 * The {@link ResultColumn}s of the numbers of the current format in the order of their columns.
+	 */
+	private static final ResultColumn[] COLUMN_ORDER = ResultColumn.values();
+	
+	/**
+	 * The {@link ResultColumn}s of the numbers of the legacy format in the order of their columns.
+	 */
+	private static final ResultColumn[] LEGACY_COLUMN_ORDER = {ResultColumn.CMF, ResultColumn.CMLAI,
+			ResultColumn.CMLVI, ResultColumn.CCF, ResultColumn.CCLAI, ResultColumn.CCLVI, ResultColumn.CBF,
+			ResultColumn.CBLAI, ResultColumn.CBLVI};
+	
+	/**
+	 * This interface is implemented by the handlers of the lines of a single chunk. A handler is called by a single
+	 * thread only, but the handlers of different chunks are called concurrently.
+	 * 
+	 * @author agent
+	 *
+	 */
+	public interface LineHandler {
+		
+		/**
+		 * Handle the given line. The given object is reused for the next line of the chunk.
+		 * 
+		 * @param line the parsed {@link ResultLine}
+		 */
+		public void handleLine(ResultLine line);
+	}
+	
+	/**
+	 * This interface is implemented by the factories creating the {@link LineHandler} of each chunk.
+	 * 
+	 * @author agent
+	 *
+	 * @param <T> the type of the created {@link LineHandler}s
+	 */
+	public interface LineHandlerFactory<T extends LineHandler> {
+		
+		/**
+		 * Create a new handler for the lines of a single chunk.
+		 * 
+		 * @return a new {@link LineHandler}
+		 */
+		public T createHandler();
+	}
+	
+	/**
+	 * The scanned result file.
+	 */
+	private File resultFile;
+	
+	/**
+	 * The definition of whether the {@link #resultFile} is compressed and, hence, scanned by a single thread
+	 * (<code>true</code>) or not (<code>false</code>).
+	 */
+	private boolean compressed;
+	
+	/**
+	 * The number of bytes of the {@link #resultFile}.
+	 */
+	private long fileSize;
+	
+	/**
+	 * The header line of the {@link #resultFile} without the line break.
+	 */
+	private String header;
+	
+	/**
+	 * The byte offset of the first line after the header line.
+	 */
+	private long dataStart;
+	
+	/**
+	 * The {@link ResultColumn}s of the numbers of each line in the order of their columns as defined by the
+	 * {@link #header}.
+	 */
+	private ResultColumn[] columnOrder;
+	
+	/**
+	 * Construct a new {@link ResultFileScanner} and read the header line of the given result file.
+	 * 
+	 * @param resultFile the result {@link File} to scan
+	 * @throws IOException if reading the header of the file fails
+	 */
+	public ResultFileScanner(File resultFile) throws IOException {
+		this.resultFile = resultFile;
+		compressed = resultFile.getName().endsWith(GzipTextWriter.FILE_EXTENSION);
+		if (compressed) {
+			fileSize = resultFile.length();
+			BufferedReader reader = GzipTextWriter.openReader(resultFile);
+			try {
+				header = reader.readLine();
+			} finally {
+				reader.close();
+			}
+			if (header == null) {
+				header = "";
+			}
+		} else {
+			readHeader();
+		}
+		columnOrder = getColumnOrder(header);
+	}
+	
+	/**
+	 * Read the {@link #header} of the uncompressed {@link #resultFile} and set the {@link #fileSize} and the
+	 * {@link #dataStart}.
+	 * 
+	 * @throws IOException if mapping the start of the file fails
+	 */
+	private void readHeader() throws IOException {
+		FileChannel channel = FileChannel.open(resultFile.toPath(), StandardOpenOption.READ);
+		try {
+			fileSize = channel.size();
+			ByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(fileSize, MAX_LINE_LENGTH));
+			int headerEnd = 0;
+			while (headerEnd < headerBuffer.limit() && headerBuffer.get(headerEnd) != '\n') {
+				headerEnd++;
+			}
+			dataStart = Math.min(fileSize, headerEnd + 1);
+			if (headerEnd > 0 && headerBuffer.get(headerEnd - 1) == '\r') {
+				headerEnd--;
+			}
+			byte[] headerBytes = new byte[headerEnd];
+			headerBuffer.get(headerBytes);
+			header = new String(headerBytes, StandardCharsets.ISO_8859_1);
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Return the {@link ResultColumn}s of the numbers of each line of a result file with the given header line in the
+	 * order of their columns. The returned array is shared and must not be modified.
+	 * 
+	 * @param header the header line of a result file without the line break
+	 * @return the {@link ResultColumn}s of the {@link #LEGACY_HEADER}, if the given header is this header, or of the
+	 * {@link #HEADER} otherwise
+	 */
+	static ResultColumn[] getColumnOrder(String header) {
+		return header.equals(LEGACY_HEADER) ? LEGACY_COLUMN_ORDER : COLUMN_ORDER;
+	}
+	
+	/**
+	 * Return the header line of the scanned result file without the line break.
+	 * 
+	 * @return the header line of the scanned result file
+	 */
+	public String getHeader() {
+		return header;
+	}
+	
+	/**
+	 * Check whether the header line of the scanned result file is the {@link #HEADER} or the
+	 * {@link #LEGACY_HEADER}.
+	 * 
+	 * @return <code>true</code> if the header line is known, <code>false</code> otherwise
+	 */
+	public boolean isKnownHeader() {
+		return header.equals(HEADER) || header.equals(LEGACY_HEADER);
+	}
+	
+	/**
+	 * Check whether the scanned result file is compressed. The lines of compressed files are scanned by a single
+	 * thread and the {@link ResultLine#getOffset()} of each line is its line number.
+	 * 
+	 * @return <code>true</code> if the scanned result file is compressed, <code>false</code> otherwise
+	 */
+	public boolean isCompressed() {
+		return compressed;
+	}
+	
+	/**
+	 * Return the number of bytes of the scanned result file. For compressed files, this is the number of compressed
+	 * bytes.
+	 * 
+	 * @return the number of bytes of the scanned result file
+	 */
+	public long getFileSize() {
+		return fileSize;
+	}
+	
+	/**
+	 * Scan all lines after the header line in chunks of the given size using the given number of threads. The lines
+	 * of a compressed file are scanned as a single chunk by the calling thread.
+	 * 
+	 * @param <T> the type of the {@link LineHandler}s
+	 * @param handlerFactory the {@link LineHandlerFactory} creating the handler of each chunk
+	 * @param threads the maximum number of chunks scanned concurrently
+	 * @param chunkSize the number of bytes of each chunk; at most {@link Integer#MAX_VALUE} minus
+	 * {@link #MAX_LINE_LENGTH}
+	 * @return the {@link LineHandler}s of all chunks sorted by the position of their chunks in the file
+	 * @throws IOException if mapping or decompressing the file fails or a handler throws an exception
+	 */
+	public <T extends LineHandler> List<T> scan(LineHandlerFactory<T> handlerFactory, int threads, long chunkSize)
+			throws IOException {
+		if (chunkSize < 1 || chunkSize > Integer.MAX_VALUE - MAX_LINE_LENGTH) {
+			throw new IllegalArgumentException("Invalid chunk size " + chunkSize);
+		}
+		if (compressed) {
+			T handler = handlerFactory.createHandler();
+			scanCompressed(handler);
+			List<T> handlers = new ArrayList<T>(1);
+			handlers.add(handler);
+			return handlers;
+		}
+		int chunksCount = (int) Math.max(1, (fileSize - dataStart + chunkSize - 1) / chunkSize);
+		List<T> handlers = new ArrayList<T>(chunksCount);
+		final FileChannel channel = FileChannel.open(resultFile.toPath(), StandardOpenOption.READ);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, chunksCount)));
+		try {
+			List<Future<Void>> chunkScans = new ArrayList<Future<Void>>(chunksCount);
+			for (int i = 0; i < chunksCount; i++) {
+				final T handler = handlerFactory.createHandler();
+				final long chunkStart = dataStart + i * chunkSize;
+				final long chunkEnd = Math.min(fileSize, chunkStart + chunkSize);
+				handlers.add(handler);
+				chunkScans.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						scanChunk(channel, chunkStart, chunkEnd, handler);
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> chunkScan : chunkScans) {
+				try {
+					chunkScan.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof IOException) {
+						throw (IOException) e.getCause();
+					}
+					throw new IOException("Scanning \"" + resultFile.getAbsolutePath() + "\" failed", e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while scanning \"" + resultFile.getAbsolutePath() + "\"", e);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			channel.close();
+		}
+		return handlers;
+	}
+	
+	/**
+	 * Scan the lines starting within the given byte range and pass them to the given handler.
+	 * 
+	 * @param channel the {@link FileChannel} of the scanned result file
+	 * @param chunkStart the byte offset of the start of the chunk
+	 * @param chunkEnd the byte offset of the end of the chunk (exclusive)
+	 * @param handler the {@link LineHandler} of the chunk
+	 * @throws IOException if mapping the chunk fails
+	 */
+	private void scanChunk(FileChannel channel, long chunkStart, long chunkEnd, LineHandler handler)
+			throws IOException {
+		// Map the byte before the chunk to detect whether its first line starts at the start of the chunk
+		long mapStart = (chunkStart == dataStart) ? chunkStart : chunkStart - 1;
+		long mapEnd = Math.min(fileSize, chunkEnd + MAX_LINE_LENGTH);
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+		int limit = buffer.limit();
+		int end = (int) (chunkEnd - mapStart);
+		int position = 0;
+		if (chunkStart != dataStart) {
+			// Skip the remainder of the line started in the previous chunk
+			while (position < limit && buffer.get(position) != '\n') {
+				position++;
+			}
+			position++;
+		}
+		byte[] block = new byte[BLOCK_SIZE];
+		ResultLine line = new ResultLine(block, columnOrder);
+		boolean chunkEnded = false;
+		while (position < end && !chunkEnded) {
+			// Copy the next block starting with the next line; parse its complete lines
+			int blockLength = Math.min(BLOCK_SIZE, limit - position);
+			buffer.position(position);
+			buffer.get(block, 0, blockLength);
+			boolean mapEnded = (position + blockLength == limit);
+			int lineStart = 0;
+			int lineEnd = 0;
+			while (!chunkEnded && position + lineStart < end && lineEnd <= blockLength) {
+				while (lineEnd < blockLength && block[lineEnd] != '\n') {
+					lineEnd++;
+				}
+				if (lineEnd < blockLength || (mapEnded && mapEnd == fileSize)) {
+					// A complete line or the last line of the file without line break
+					boolean tooLong = lineEnd - lineStart > MAX_LINE_LENGTH;
+					line.parse(mapStart + position + lineStart, lineStart, lineEnd, tooLong);
+					handler.handleLine(line);
+					chunkEnded = tooLong;
+					lineStart = lineEnd + 1;
+					lineEnd = lineStart;
+				} else if (lineStart == 0 || mapEnded) {
+					// The line does not fit into a block or exceeds the mapped bytes
+					line.parse(mapStart + position + lineStart, lineStart, lineStart, true);
+					handler.handleLine(line);
+					chunkEnded = true;
+				} else {
+					// Continue with the incomplete line in the next block
+					lineEnd = blockLength + 1;
+				}
+			}
+			position = position + lineStart;
+		}
+	}
+	
+	/**
+	 * Scan the lines after the header line of the compressed {@link #resultFile} in a single pass and pass them to
+	 * the given handler. The offset of each line is its line number (the header line is line 1).
+	 * 
+	 * @param handler the {@link LineHandler} of all lines
+	 * @throws IOException if decompressing the file fails
+	 */
+	private void scanCompressed(LineHandler handler) throws IOException {
+		byte[] block = new byte[MAX_LINE_LENGTH];
+		ResultLine line = new ResultLine(block, columnOrder);
+		BufferedReader reader = GzipTextWriter.openReader(resultFile);
+		try {
+			// Skip the header line
+			reader.readLine();
+			long lineNumber = 1;
+			String text;
+			while ((text = reader.readLine()) != null) {
+				lineNumber++;
+				boolean tooLong = text.length() > MAX_LINE_LENGTH;
+				int length = tooLong ? 0 : text.length();
+				for (int i = 0; i < length; i++) {
+					block[i] = (byte) text.charAt(i);
+				}
+				line.parse(lineNumber, 0, length, tooLong);
+				handler.handleLine(line);
+			}
+		} finally {
+			reader.close();
+		}
+	}
+	
+	/**
+	 * This class represents a single parsed line of a result file. The object of a chunk is reused for all lines of
+	 * that chunk; it is only valid during {@link LineHandler#handleLine(ResultLine)}.
+	 * 
+	 * @author agent
+	 *
+	 */
+	public static final class ResultLine {
+		
+		/**
+		 * The block of the chunk containing this line.
+		 */
+		private byte[] block;
+		
+		/**
+		 * The {@link ResultColumn}s of the numbers of this line in the order of their columns.
+		 */
+		private ResultColumn[] columnOrder;
+		
+		/**
+		 * The byte offset of the start of this line in the file or its line number, if the file is compressed.
+		 */
+		private long offset;
+		
+		/**
+		 * The number of tab-separated fields of this line.
+		 */
+		private int fieldsCount;
+		
+		/**
+		 * The description of the first problem of this line or <code>null</code>, if this line is well-formed.
+		 */
+		private String error;
+		
+		/**
+		 * The commit date of this line as epoch day or {@link CommitResult#NO_COMMIT_DAY}, if its date is "null".
+		 */
+		private int commitDay;
+		
+		/**
+		 * The start of the commit SHA of this line in the {@link #block}.
+		 */
+		private int commitNumberStart;
+		
+		/**
+		 * The end of the commit SHA of this line in the {@link #block} (exclusive).
+		 */
+		private int commitNumberEnd;
+		
+		/**
+		 * The numbers of this line by the ordinal of their {@link ResultColumn}.
+		 */
+		private int[] counts;
+		
+		/**
+		 * The date of the previous line as <i>yyyymmdd</i> for reusing its {@link #cachedCommitDay}.
+		 */
+		private int cachedDate;
+		
+		/**
+		 * The epoch day of the {@link #cachedDate}.
+		 */
+		private int cachedCommitDay;
+		
+		/**
+		 * Construct a new {@link ResultLine}.
+		 * 
+		 * @param block the block of the chunk containing the lines
+		 * @param columnOrder the {@link ResultColumn}s of the numbers in the order of their columns
+		 */
+		private ResultLine(byte[] block, ResultColumn[] columnOrder) {
+			this.block = block;
+			this.columnOrder = columnOrder;
+			counts = new int[ResultColumn.values().length];
+			cachedDate = -1;
+			cachedCommitDay = CommitResult.NO_COMMIT_DAY;
+		}
+		
+		/**
+		 * Parse the line between the given positions of the {@link #block}.
+		 * 
+		 * @param offset the byte offset of the start of the line in the file or its line number, if the file is
+		 * compressed
+		 * @param start the start of the line in the {@link #block}
+		 * @param end the end of the line in the {@link #block} (exclusive) without the line break
+		 * @param tooLong <code>true</code> if the line exceeds the {@link ResultFileScanner#MAX_LINE_LENGTH},
+		 * <code>false</code> otherwise
+		 */
+		private void parse(long offset, int start, int end, boolean tooLong) {
+			this.offset = offset;
+			fieldsCount = 0;
+			error = null;
+			commitDay = CommitResult.NO_COMMIT_DAY;
+			commitNumberStart = start;
+			commitNumberEnd = start;
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = 0;
+			}
+			if (tooLong) {
+				error = "Line longer than " + MAX_LINE_LENGTH + " bytes";
+			} else {
+				if (end > start && block[end - 1] == '\r') {
+					end--;
+				}
+				int fieldStart = start;
+				for (int i = start; i <= end; i++) {
+					if (i == end || block[i] == '\t') {
+						parseField(fieldStart, i);
+						fieldsCount++;
+						fieldStart = i + 1;
+					}
+				}
+				if (error == null && fieldsCount != FIELDS_PER_LINE) {
+					error = fieldsCount + " columns instead of " + FIELDS_PER_LINE;
+				}
+			}
+		}
+		
+		/**
+		 * Parse the field between the given positions of the {@link #block} as the field with the index
+		 * {@link #fieldsCount}.
+		 * 
+		 * @param start the start of the field in the {@link #block}
+		 * @param end the end of the field in the {@link #block} (exclusive)
+		 */
+		private void parseField(int start, int end) {
+			if (fieldsCount == 0) {
+				parseDate(start, end);
+			} else if (fieldsCount == 1) {
+				commitNumberStart = start;
+				commitNumberEnd = end;
+				if (start == end && error == null) {
+					error = "Missing commit SHA";
+				}
+			} else if (fieldsCount < FIELDS_PER_LINE) {
+				long value = 0;
+				for (int i = start; i < end && value <= Integer.MAX_VALUE; i++) {
+					int digit = block[i] - '0';
+					value = (digit >= 0 && digit <= 9) ? value * 10 + digit : Long.MAX_VALUE;
+				}
+				if (start < end && value <= Integer.MAX_VALUE) {
+					counts[columnOrder[fieldsCount - 2].ordinal()] = (int) value;
+				} else if (error == null) {
+					error = "Invalid number \"" + getText(start, end) + "\" in column " + (fieldsCount + 1);
+				}
+			}
+		}
+		
+		/**
+		 * Parse the date between the given positions of the {@link #block}, which is either "null" or a date in
+		 * the format <i>yyyy/mm/dd</i>.
+		 * 
+		 * @param start the start of the date in the {@link #block}
+		 * @param end the end of the date in the {@link #block} (exclusive)
+		 */
+		private void parseDate(int start, int end) {
+			int date = -1;
+			if (end - start == 10 && block[start + 4] == '/' && block[start + 7] == '/') {
+				date = 0;
+				for (int i = start; i < end && date >= 0; i++) {
+					int digit = block[i] - '0';
+					if (digit >= 0 && digit <= 9) {
+						date = date * 10 + digit;
+					} else if (i != start + 4 && i != start + 7) {
+						date = -1;
+					}
+				}
+			}
+			if (date == cachedDate) {
+				commitDay = cachedCommitDay;
+			} else if (date >= 0) {
+				try {
+					commitDay = (int) LocalDate.of(date / 10000, date / 100 % 100, date % 100).toEpochDay();
+					cachedDate = date;
+					cachedCommitDay = commitDay;
+				} catch (DateTimeException e) {
+					date = -1;
+				}
+			}
+			if (date < 0 && !getText(start, end).equals("null")) {
+				error = "Invalid date \"" + getText(start, end) + "\"";
+			}
+		}
+		
+		/**
+		 * Return the text between the given positions of the {@link #block}.
+		 * 
+		 * @param start the start of the text in the {@link #block}
+		 * @param end the end of the text in the {@link #block} (exclusive)
+		 * @return the text between the given positions
+		 */
+		private String getText(int start, int end) {
+			return new String(block, start, end - start, StandardCharsets.ISO_8859_1);
+		}
+		
+		/**
+		 * Return the byte offset of the start of this line in the file. If the file is compressed, the byte offsets
+		 * are unknown and the line number of this line (starting with 1 for the header line) is returned instead.
+		 * 
+		 * @return the byte offset of this line or its line number, if the file is compressed
+		 */
+		public long getOffset() {
+			return offset;
+		}
+		
+		/**
+		 * Return the number of tab-separated fields of this line.
+		 * 
+		 * @return the number of fields of this line
+		 */
+		public int getFieldsCount() {
+			return fieldsCount;
+		}
+		
+		/**
+		 * Return the description of the first problem of this line, e.g. a missing column or an invalid date.
+		 * 
+		 * @return the description of the first problem of this line or <code>null</code>, if this line is
+		 * well-formed
+		 */
+		public String getError() {
+			return error;
+		}
+		
+		/**
+		 * Return the commit date of this line as number of days since 1970/01/01 (epoch day).
+		 * 
+		 * @return the commit date as epoch day or {@link CommitResult#NO_COMMIT_DAY}, if the date of this line is
+		 * "null" or invalid
+		 */
+		public int getCommitDay() {
+			return commitDay;
+		}
+		
+		/**
+		 * Return the commit SHA of this line.
+		 * 
+		 * @return the commit SHA of this line
+		 */
+		public String getCommitNumber() {
+			return getText(commitNumberStart, commitNumberEnd);
+		}
+		
+		/**
+		 * Return the 64 bit FNV-1a hash of the commit SHA of this line, which identifies equal SHAs without creating
+		 * strings.
+		 * 
+		 * @return the hash of the commit SHA of this line
+		 */
+		public long getCommitNumberHash() {
+			long hash = 0xcbf29ce484222325L;
+			for (int i = commitNumberStart; i < commitNumberEnd; i++) {
+				hash = (hash ^ (block[i] & 0xFF)) * 0x100000001b3L;
+			}
+			return hash;
+		}
+		
+		/**
+		 * Return the number of the given column of this line.
+		 * 
+		 * @param column the {@link ResultColumn} to return
+		 * @return the number of the given column
+		 */
+		public int getCount(ResultColumn column) {
+			return counts[column.ordinal()];
+		}
+		
+		/**
+		 * Create a {@link CommitResult} containing the date, the commit SHA, and the numbers of this line.
+		 * 
+		 * @return a new {@link CommitResult} of this line
+		 */
+		public CommitResult toCommitResult() {
+			return new CommitResult(getCommitNumber(), commitDay, counts.clone());
+		}
+	}
+}
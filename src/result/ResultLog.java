@@ -0,0 +1,587 @@
+package result;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class provides indexed read access to an append-only result log, which is written by a
+ * {@link ResultLogWriter}. Use {@link #open(File)} to read such a log.<br><br>
+ * 
+ * A result log is a directory containing the following files. All numbers are stored in big-endian byte order:
+ * <ul>
+ * <li>{@value #LOG_FILE_NAME}: the results of all commits in the order of their analysis as binary records of
+ * the {@link BinaryResultEncoder}. Records are only appended to this file; a commit analyzed again is appended
+ * again and the latest record of a commit replaces all previous ones.</li>
+ * <li>{@value #SHA_INDEX_FILE_NAME}: a hash index on the commit SHA, which is an open addressing hash table with
+ * linear probing. Each slot consists of the hash of the SHA (<code>int</code>) and the offset of the record in
+ * the log file (<code>long</code>); an offset of <code>0</code> marks an empty slot.</li>
+ * <li>{@value #DATE_INDEX_FILE_NAME}: a sorted index on the commit date. Each entry consists of the commit date
+ * as epoch day (<code>int</code>), the hash of the SHA (<code>int</code>), and the offset of the record in the
+ * log file (<code>long</code>); the entries are sorted by date and offset.</li>
+ * </ul>
+ * Both index files start with a header of {@value #INDEX_HEADER_SIZE} bytes: magic number
+ * {@value #INDEX_MAGIC_NUMBER}, version {@value #INDEX_VERSION} (both <code>int</code>), the length of the log
+ * file covered by the index (<code>long</code>), and the number of slots or entries (<code>int</code>). The
+ * indexes are replaced as a whole at the end of each append. If the log file is longer than the length covered by
+ * the indexes, e.g. after an interrupted append, the indexes are rebuilt in memory from the log file.<br><br>
+ * 
+ * The index files are mapped into memory. Hence, looking up a commit or a range of dates only reads the few index
+ * pages and records required for the result.
+ * 
+ * @author agent
+ *
+ */
+public class ResultLog {
+	
+	/**
+	 * The name of the file containing the records of a result log.<br><br>
+	 * 
+	 * Value: {@value #LOG_FILE_NAME};
+	 */
+	public static final String LOG_FILE_NAME = "results" + BinaryResultEncoder.FILE_EXTENSION;
+	
+	/**
+	 * The name of the file containing the hash index on the commit SHA of a result log.<br><br>
+	 * 
+	 * Value: {@value #SHA_INDEX_FILE_NAME};
+	 */
+	public static final String SHA_INDEX_FILE_NAME = "sha.idx";
+	
+	/**
+	 * The name of the file containing the sorted index on the commit date of a result log.<br><br>
+	 * 
+	 * Value: {@value #DATE_INDEX_FILE_NAME};
+	 */
+	public static final String DATE_INDEX_FILE_NAME = "date.idx";
+	
+	/**
+	 * The number identifying index files of a result log ("CoAI" in ASCII).<br><br>
+	 * 
+	 * Value: {@value #INDEX_MAGIC_NUMBER};
+	 */
+	static final int INDEX_MAGIC_NUMBER = 0x436F4149;
+	
+	/**
+	 * The version of the format of the index files of a result log.<br><br>
+	 * 
+	 * Value: {@value #INDEX_VERSION};
+	 */
+	static final int INDEX_VERSION = 1;
+	
+	/**
+	 * The number of bytes of the header of the index files.<br><br>
+	 * 
+	 * Value: {@value #INDEX_HEADER_SIZE};
+	 */
+	static final int INDEX_HEADER_SIZE = 20;
+	
+	/**
+	 * The number of bytes of a single slot of the hash index.<br><br>
+	 * 
+	 * Value: {@value #SHA_SLOT_SIZE};
+	 */
+	static final int SHA_SLOT_SIZE = 12;
+	
+	/**
+	 * The number of bytes of a single entry of the date index.<br><br>
+	 * 
+	 * Value: {@value #DATE_ENTRY_SIZE};
+	 */
+	static final int DATE_ENTRY_SIZE = 16;
+	
+	/**
+	 * The number of bytes read at once for a single record. Larger records are read with a second read.<br><br>
+	 * 
+	 * Value: {@value #RECORD_READ_SIZE};
+	 */
+	private static final int RECORD_READ_SIZE = 256;
+	
+	/**
+	 * This class holds the commit date, the hash of the SHA, and the offset of each record of a result log while
+	 * building its indexes.
+	 * 
+	 * @author agent
+	 *
+	 */
+	static class IndexEntries {
+		
+		/**
+		 * The commit date of each record as epoch day.
+		 */
+		private int[] commitDays;
+		
+		/**
+		 * The hash of the SHA of each record.
+		 */
+		private int[] shaHashes;
+		
+		/**
+		 * The offset of each record in the log file.
+		 */
+		private long[] offsets;
+		
+		/**
+		 * The number of entries.
+		 */
+		private int entriesCounter;
+		
+		/**
+		 * Construct new, empty {@link IndexEntries}.
+		 */
+		IndexEntries() {
+			commitDays = new int[1024];
+			shaHashes = new int[1024];
+			offsets = new long[1024];
+			entriesCounter = 0;
+		}
+		
+		/**
+		 * Add the entry of a record.
+		 * 
+		 * @param commitDay the commit date of the record as epoch day
+		 * @param shaHash the hash of the SHA of the record (see {@link ResultLog#hash(String)})
+		 * @param offset the offset of the record in the log file
+		 */
+		void add(int commitDay, int shaHash, long offset) {
+			if (entriesCounter == offsets.length) {
+				commitDays = Arrays.copyOf(commitDays, entriesCounter * 2);
+				shaHashes = Arrays.copyOf(shaHashes, entriesCounter * 2);
+				offsets = Arrays.copyOf(offsets, entriesCounter * 2);
+			}
+			commitDays[entriesCounter] = commitDay;
+			shaHashes[entriesCounter] = shaHash;
+			offsets[entriesCounter] = offset;
+			entriesCounter++;
+		}
+		
+		/**
+		 * Return the number of entries.
+		 * 
+		 * @return the number of entries
+		 */
+		int size() {
+			return entriesCounter;
+		}
+	}
+	
+	/**
+	 * The channel of the log file.
+	 */
+	private FileChannel logChannel;
+	
+	/**
+	 * The content of the hash index file including its header.
+	 */
+	private ByteBuffer shaIndex;
+	
+	/**
+	 * The content of the date index file including its header.
+	 */
+	private ByteBuffer dateIndex;
+	
+	/**
+	 * The buffer for reading a single record, which is reused for all records.
+	 */
+	private ByteBuffer recordBuffer;
+	
+	/**
+	 * Construct a new {@link ResultLog}.
+	 * 
+	 * @param logChannel the channel of the log file
+	 * @param shaIndex the content of the hash index file
+	 * @param dateIndex the content of the date index file
+	 */
+	private ResultLog(FileChannel logChannel, ByteBuffer shaIndex, ByteBuffer dateIndex) {
+		this.logChannel = logChannel;
+		this.shaIndex = shaIndex;
+		this.dateIndex = dateIndex;
+		this.recordBuffer = ByteBuffer.allocate(RECORD_READ_SIZE);
+	}
+	
+	/**
+	 * Open the result log in the given directory for reading. If the index files are missing, invalid, or do not
+	 * cover the complete log file, the indexes are rebuilt in memory. The log file remains open until
+	 * {@link #close()} is called.
+	 * 
+	 * @param logDir the directory of the result log written by a {@link ResultLogWriter}
+	 * @return a {@link ResultLog} providing indexed read access to the given result log
+	 * @throws IOException if the log file cannot be read or is not a valid result log
+	 */
+	public static ResultLog open(File logDir) throws IOException {
+		RandomAccessFile logFile = new RandomAccessFile(new File(logDir, LOG_FILE_NAME), "r");
+		ResultLog resultLog = null;
+		try {
+			FileChannel logChannel = logFile.getChannel();
+			long logLength = logChannel.size();
+			long headerLength = checkHeader(logChannel);
+			ByteBuffer shaIndex = readIndex(new File(logDir, SHA_INDEX_FILE_NAME), SHA_SLOT_SIZE, true);
+			ByteBuffer dateIndex = readIndex(new File(logDir, DATE_INDEX_FILE_NAME), DATE_ENTRY_SIZE, true);
+			if (shaIndex == null || dateIndex == null || shaIndex.getLong(8) != logLength
+					|| dateIndex.getLong(8) != logLength) {
+				IndexEntries indexEntries = new IndexEntries();
+				long indexedLength = scan(logChannel, headerLength, indexEntries);
+				shaIndex = buildShaIndex(indexEntries, indexedLength);
+				dateIndex = buildDateIndex(indexEntries, indexedLength);
+			}
+			resultLog = new ResultLog(logChannel, shaIndex, dateIndex);
+		} finally {
+			if (resultLog == null) {
+				logFile.close();
+			}
+		}
+		return resultLog;
+	}
+	
+	/**
+	 * Close the log file of this result log.
+	 * 
+	 * @throws IOException if closing the log file fails
+	 */
+	public void close() throws IOException {
+		logChannel.close();
+	}
+	
+	/**
+	 * Return the number of records of this result log including the records replaced by later records of the same
+	 * commit.
+	 * 
+	 * @return the number of records of this result log
+	 */
+	public int size() {
+		return dateIndex.getInt(16);
+	}
+	
+	/**
+	 * Return the latest result of the commit with the given SHA.
+	 * 
+	 * @param commitNumber the SHA of the commit
+	 * @return the latest {@link CommitResult} of the given commit or <code>null</code>, if this log does not
+	 * contain a result of that commit
+	 * @throws IOException if reading a record fails
+	 */
+	public CommitResult get(String commitNumber) throws IOException {
+		CommitResult commitResult = null;
+		long commitResultOffset = -1;
+		int shaHash = hash(commitNumber);
+		int slotsMask = shaIndex.getInt(16) - 1;
+		int slot = shaHash & slotsMask;
+		long offset = shaIndex.getLong(INDEX_HEADER_SIZE + slot * SHA_SLOT_SIZE + 4);
+		while (offset != 0) {
+			if (shaIndex.getInt(INDEX_HEADER_SIZE + slot * SHA_SLOT_SIZE) == shaHash && offset > commitResultOffset) {
+				CommitResult candidate = readRecord(offset);
+				if (candidate.getCommitNumber().equals(commitNumber)) {
+					commitResult = candidate;
+					commitResultOffset = offset;
+				}
+			}
+			slot = (slot + 1) & slotsMask;
+			offset = shaIndex.getLong(INDEX_HEADER_SIZE + slot * SHA_SLOT_SIZE + 4);
+		}
+		return commitResult;
+	}
+	
+	/**
+	 * Return the latest results of all commits created between the given days (inclusive) sorted by their commit
+	 * date.
+	 * 
+	 * @param fromDay the first commit date as epoch day (see {@link CommitResult#parseCommitDay(String)})
+	 * @param toDay the last commit date as epoch day
+	 * @return the {@link CommitResult}s of the commits created in the given range; may be empty
+	 * @throws IOException if reading a record fails
+	 */
+	public List<CommitResult> getRange(int fromDay, int toDay) throws IOException {
+		// Keep the latest record of each commit, which follows the previous ones in the order of the index
+		Map<String, CommitResult> commitResults = new LinkedHashMap<String, CommitResult>();
+		int entries = dateIndex.getInt(16);
+		int low = 0;
+		int high = entries;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (dateIndex.getInt(INDEX_HEADER_SIZE + middle * DATE_ENTRY_SIZE) < fromDay) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		for (int i = low; i < entries && dateIndex.getInt(INDEX_HEADER_SIZE + i * DATE_ENTRY_SIZE) <= toDay; i++) {
+			CommitResult commitResult = readRecord(dateIndex.getLong(INDEX_HEADER_SIZE + i * DATE_ENTRY_SIZE + 8));
+			commitResults.put(commitResult.getCommitNumber(), commitResult);
+		}
+		return new ArrayList<CommitResult>(commitResults.values());
+	}
+	
+	/**
+	 * Read the record at the given offset of the log file.
+	 * 
+	 * @param offset the offset of the record in the log file
+	 * @return the {@link CommitResult} of the record
+	 * @throws IOException if reading the record fails
+	 */
+	private CommitResult readRecord(long offset) throws IOException {
+		recordBuffer.clear();
+		readFully(logChannel, recordBuffer, offset, Math.min(RECORD_READ_SIZE, logChannel.size() - offset));
+		int recordSize = 4 + recordBuffer.getInt(0);
+		byte[] record = new byte[recordSize];
+		if (recordSize <= recordBuffer.limit()) {
+			System.arraycopy(recordBuffer.array(), 0, record, 0, recordSize);
+		} else {
+			readFully(logChannel, ByteBuffer.wrap(record), offset, recordSize);
+		}
+		return BinaryResultEncoder.readRecord(new DataInputStream(new ByteArrayInputStream(record)));
+	}
+	
+	/**
+	 * Return the hash of the given SHA used by the indexes of result logs.
+	 * 
+	 * @param commitNumber the SHA of a commit
+	 * @return the hash of the given SHA
+	 */
+	static int hash(String commitNumber) {
+		int hash = commitNumber.hashCode();
+		hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+		return hash ^ (hash >>> 13);
+	}
+	
+	/**
+	 * Return the header of log files as written by the {@link BinaryResultEncoder}.
+	 * 
+	 * @return the bytes of the header of log files
+	 * @throws IOException if encoding the header fails
+	 */
+	static byte[] getHeader() throws IOException {
+		ByteArrayOutputStream headerStream = new ByteArrayOutputStream();
+		new BinaryResultEncoder().writeHeader(headerStream);
+		return headerStream.toByteArray();
+	}
+	
+	/**
+	 * Check that the given log file starts with the header returned by {@link #getHeader()}.
+	 * 
+	 * @param logChannel the channel of the log file
+	 * @return the length of the header
+	 * @throws IOException if reading the header fails or the log file does not start with the expected header
+	 */
+	static long checkHeader(FileChannel logChannel) throws IOException {
+		byte[] expectedHeader = getHeader();
+		if (logChannel.size() < expectedHeader.length) {
+			throw new IOException("Log file is not a result log");
+		}
+		ByteBuffer header = ByteBuffer.allocate(expectedHeader.length);
+		readFully(logChannel, header, 0, expectedHeader.length);
+		if (!Arrays.equals(expectedHeader, header.array())) {
+			throw new IOException("Log file is not a result log of schema version " + BinaryResultEncoder.SCHEMA_VERSION);
+		}
+		return expectedHeader.length;
+	}
+	
+	/**
+	 * Add the entries of all complete records of the given log file starting at the given offset to the given
+	 * index entries.
+	 * 
+	 * @param logChannel the channel of the log file
+	 * @param startOffset the offset of the first record to scan
+	 * @param indexEntries the {@link IndexEntries} to which the entries of the scanned records are added
+	 * @return the offset after the last complete record; this is the length of the log file, unless its last
+	 * record is incomplete
+	 * @throws IOException if reading the log file fails
+	 */
+	static long scan(FileChannel logChannel, long startOffset, IndexEntries indexEntries) throws IOException {
+		long logLength = logChannel.size();
+		long offset = startOffset;
+		DataInputStream logStream = new DataInputStream(new BufferedInputStream(
+				Channels.newInputStream(logChannel.position(startOffset)), 1 << 16));
+		boolean recordComplete = true;
+		while (recordComplete && offset + 4 <= logLength) {
+			int recordLength = logStream.readInt();
+			if (recordLength < 0 || offset + 4 + recordLength > logLength) {
+				recordComplete = false;
+			} else {
+				byte[] record = new byte[4 + recordLength];
+				ByteBuffer.wrap(record).putInt(recordLength);
+				logStream.readFully(record, 4, recordLength);
+				CommitResult commitResult = BinaryResultEncoder.readRecord(
+						new DataInputStream(new ByteArrayInputStream(record)));
+				indexEntries.add(commitResult.getCommitDay(), hash(commitResult.getCommitNumber()), offset);
+				offset = offset + 4 + recordLength;
+			}
+		}
+		// Do not close the stream, as this would close the channel
+		return offset;
+	}
+	
+	/**
+	 * Add the entries of the given date index file to the given index entries, if the index is valid and covers a
+	 * part of the log file.
+	 * 
+	 * @param dateIndexFile the date index {@link File} of a result log
+	 * @param headerLength the length of the header of the log file
+	 * @param logLength the length of the log file
+	 * @param indexEntries the {@link IndexEntries} to which the entries of the date index are added
+	 * @return the length of the log file covered by the added entries; this is the given header length, if the
+	 * index does not exist or is not valid
+	 * @throws IOException if reading the index file fails
+	 */
+	static long loadDateIndex(File dateIndexFile, long headerLength, long logLength, IndexEntries indexEntries)
+			throws IOException {
+		long indexedLength = headerLength;
+		ByteBuffer dateIndex = readIndex(dateIndexFile, DATE_ENTRY_SIZE, false);
+		if (dateIndex != null && dateIndex.getLong(8) >= headerLength && dateIndex.getLong(8) <= logLength) {
+			int entries = dateIndex.getInt(16);
+			for (int i = 0; i < entries; i++) {
+				int entryOffset = INDEX_HEADER_SIZE + i * DATE_ENTRY_SIZE;
+				indexEntries.add(dateIndex.getInt(entryOffset), dateIndex.getInt(entryOffset + 4),
+						dateIndex.getLong(entryOffset + 8));
+			}
+			indexedLength = dateIndex.getLong(8);
+		}
+		return indexedLength;
+	}
+	
+	/**
+	 * Build the content of the hash index file for the given index entries.
+	 * 
+	 * @param indexEntries the {@link IndexEntries} of all records of the log file
+	 * @param indexedLength the length of the log file covered by the given entries
+	 * @return the content of the hash index file including its header
+	 * @throws IOException if the number of entries exceeds the maximum size of the index
+	 */
+	static ByteBuffer buildShaIndex(IndexEntries indexEntries, long indexedLength) throws IOException {
+		int slots = 16;
+		while (slots < 2L * indexEntries.size()) {
+			slots = slots * 2;
+		}
+		if ((long) slots * SHA_SLOT_SIZE + INDEX_HEADER_SIZE > Integer.MAX_VALUE) {
+			throw new IOException("Too many records for a single result log: " + indexEntries.size());
+		}
+		ByteBuffer shaIndex = ByteBuffer.allocate(INDEX_HEADER_SIZE + slots * SHA_SLOT_SIZE);
+		putIndexHeader(shaIndex, indexedLength, slots);
+		int slotsMask = slots - 1;
+		for (int i = 0; i < indexEntries.size(); i++) {
+			int slot = indexEntries.shaHashes[i] & slotsMask;
+			while (shaIndex.getLong(INDEX_HEADER_SIZE + slot * SHA_SLOT_SIZE + 4) != 0) {
+				slot = (slot + 1) & slotsMask;
+			}
+			shaIndex.putInt(INDEX_HEADER_SIZE + slot * SHA_SLOT_SIZE, indexEntries.shaHashes[i]);
+			shaIndex.putLong(INDEX_HEADER_SIZE + slot * SHA_SLOT_SIZE + 4, indexEntries.offsets[i]);
+		}
+		shaIndex.clear();
+		return shaIndex;
+	}
+	
+	/**
+	 * Build the content of the date index file for the given index entries.
+	 * 
+	 * @param indexEntries the {@link IndexEntries} of all records of the log file in the order of the log file
+	 * @param indexedLength the length of the log file covered by the given entries
+	 * @return the content of the date index file including its header
+	 * @throws IOException if the number of entries exceeds the maximum size of the index
+	 */
+	static ByteBuffer buildDateIndex(IndexEntries indexEntries, long indexedLength) throws IOException {
+		int entries = indexEntries.size();
+		if ((long) entries * DATE_ENTRY_SIZE + INDEX_HEADER_SIZE > Integer.MAX_VALUE) {
+			throw new IOException("Too many records for a single result log: " + entries);
+		}
+		// Sort by date and (as the entries are in the order of the log file) by offset without creating objects
+		long[] sortKeys = new long[entries];
+		for (int i = 0; i < entries; i++) {
+			sortKeys[i] = (((long) indexEntries.commitDays[i] - Integer.MIN_VALUE) << 31) | i;
+		}
+		Arrays.sort(sortKeys);
+		ByteBuffer dateIndex = ByteBuffer.allocate(INDEX_HEADER_SIZE + entries * DATE_ENTRY_SIZE);
+		putIndexHeader(dateIndex, indexedLength, entries);
+		for (int i = 0; i < entries; i++) {
+			int entry = (int) (sortKeys[i] & Integer.MAX_VALUE);
+			dateIndex.putInt(indexEntries.commitDays[entry]);
+			dateIndex.putInt(indexEntries.shaHashes[entry]);
+			dateIndex.putLong(indexEntries.offsets[entry]);
+		}
+		dateIndex.flip();
+		return dateIndex;
+	}
+	
+	/**
+	 * Write the header of an index file to the start of the given buffer and position the buffer after the header.
+	 * 
+	 * @param index the buffer of the content of an index file
+	 * @param indexedLength the length of the log file covered by the index
+	 * @param size the number of slots or entries of the index
+	 */
+	private static void putIndexHeader(ByteBuffer index, long indexedLength, int size) {
+		index.putInt(INDEX_MAGIC_NUMBER);
+		index.putInt(INDEX_VERSION);
+		index.putLong(indexedLength);
+		index.putInt(size);
+	}
+	
+	/**
+	 * Read the given index file, if it is valid.
+	 * 
+	 * @param indexFile the index {@link File} to read
+	 * @param itemSize the number of bytes of a single slot or entry of the index
+	 * @param mapped <code>true</code> if the index file should be mapped into memory, <code>false</code> if it should
+	 * be copied to the heap, which does not keep the file mapped until the buffer is garbage collected
+	 * @return the content of the given index file or <code>null</code>, if the file does not exist or is not valid
+	 * @throws IOException if reading the index file fails
+	 */
+	private static ByteBuffer readIndex(File indexFile, int itemSize, boolean mapped) throws IOException {
+		ByteBuffer index = null;
+		if (indexFile.isFile() && indexFile.length() >= INDEX_HEADER_SIZE
+				&& indexFile.length() <= Integer.MAX_VALUE) {
+			RandomAccessFile indexRandomAccessFile = new RandomAccessFile(indexFile, "r");
+			try {
+				FileChannel indexChannel = indexRandomAccessFile.getChannel();
+				ByteBuffer indexContent = null;
+				if (mapped) {
+					// The mapping stays valid after closing the channel
+					indexContent = indexChannel.map(MapMode.READ_ONLY, 0, indexChannel.size());
+				} else {
+					indexContent = ByteBuffer.allocate((int) indexChannel.size());
+					readFully(indexChannel, indexContent, 0, indexChannel.size());
+				}
+				if (indexContent.getInt(0) == INDEX_MAGIC_NUMBER && indexContent.getInt(4) == INDEX_VERSION
+						&& INDEX_HEADER_SIZE + (long) indexContent.getInt(16) * itemSize == indexChannel.size()) {
+					index = indexContent;
+				}
+			} finally {
+				indexRandomAccessFile.close();
+			}
+		}
+		return index;
+	}
+	
+	/**
+	 * Read exactly the given number of bytes from the given channel at the given position into the given buffer.
+	 * 
+	 * @param channel the {@link FileChannel} to read from
+	 * @param buffer the buffer to read into starting at its position
+	 * @param position the position in the channel to read from
+	 * @param bytes the number of bytes to read
+	 * @throws IOException if reading fails or the channel ends before
+	 */
+	static void readFully(FileChannel channel, ByteBuffer buffer, long position, long bytes) throws IOException {
+		buffer.limit((int) (buffer.position() + bytes));
+		long readPosition = position;
+		while (buffer.hasRemaining()) {
+			int readBytes = channel.read(buffer, readPosition);
+			if (readBytes < 0) {
+				throw new EOFException("Unexpected end of log file");
+			}
+			readPosition = readPosition + readBytes;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package result;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * This class appends {@link CommitResult}s to a result log, which can be read via {@link ResultLog}.<br><br>
+ * 
+ * The results are appended to the log file of the result log as binary records of the {@link BinaryResultEncoder}.
+ * The existing records are never changed; only an incomplete last record of an interrupted previous append is
+ * removed when opening the log. The entries of the existing records are loaded from the date index, such that
+ * only the records following the indexed part of the log file are read. The indexes of the log are written to temporary files and replace the previous
+ * indexes by {@link #close()}. Hence, the indexes always cover a sequence of complete records and an interrupted
+ * append loses at most the results of that append, which are re-indexed by the next reader or writer. An exclusive
+ * lock on the log file prevents concurrent appends, e.g. by multiple incremental runs.
+ * 
+ * @author agent
+ *
+ */
+public class ResultLogWriter {
+	
+	/**
+	 * The extension of the names of the temporary index files replacing the index files at the end of an append.
+	 * <br><br>
+	 * 
+	 * Value: {@value #TEMPORARY_FILE_EXTENSION};
+	 */
+	private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+	
+	/**
+	 * The size of the buffer for appending records in bytes.<br><br>
+	 * 
+	 * Value: {@value #BUFFER_SIZE};
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	/**
+	 * The directory of the result log.
+	 */
+	private File logDir;
+	
+	/**
+	 * The log file opened for appending.
+	 */
+	private RandomAccessFile logFile;
+	
+	/**
+	 * The exclusive lock on the log file held until {@link #close()}.
+	 */
+	private FileLock logLock;
+	
+	/**
+	 * The entries of all records of the log file including the appended records.
+	 */
+	private ResultLog.IndexEntries indexEntries;
+	
+	/**
+	 * The encoder of the appended records.
+	 */
+	private BinaryResultEncoder resultEncoder;
+	
+	/**
+	 * The buffer for the records not written to the log file yet.
+	 */
+	private ByteArrayOutputStream recordsBuffer;
+	
+	/**
+	 * The offset of the next record in the log file.
+	 */
+	private long nextOffset;
+	
+	/**
+	 * Construct a new {@link ResultLogWriter} appending to the result log in the given directory. The directory and
+	 * the log file are created, if they do not exist.
+	 * 
+	 * @param logDir the directory of the result log
+	 * @throws IOException if the directory or the log file cannot be created or read, the log file is not a valid
+	 * result log, or the log is locked by another writer
+	 */
+	public ResultLogWriter(File logDir) throws IOException {
+		if (!logDir.isDirectory() && !logDir.mkdirs()) {
+			throw new IOException("Creating result log directory \"" + logDir.getAbsolutePath() + "\" failed");
+		}
+		this.logDir = logDir;
+		logFile = new RandomAccessFile(new File(logDir, ResultLog.LOG_FILE_NAME), "rw");
+		try {
+			FileChannel logChannel = logFile.getChannel();
+			logLock = logChannel.tryLock();
+			if (logLock == null) {
+				throw new IOException("Result log \"" + logDir.getAbsolutePath() + "\" is locked by another writer");
+			}
+			if (logChannel.size() == 0) {
+				logChannel.write(ByteBuffer.wrap(ResultLog.getHeader()), 0);
+			}
+			long headerLength = ResultLog.checkHeader(logChannel);
+			indexEntries = new ResultLog.IndexEntries();
+			long logLength = logChannel.size();
+			long indexedLength = ResultLog.loadDateIndex(new File(logDir, ResultLog.DATE_INDEX_FILE_NAME), headerLength,
+					logLength, indexEntries);
+			nextOffset = ResultLog.scan(logChannel, indexedLength, indexEntries);
+			if (nextOffset < logLength) {
+				// Remove the incomplete last record of an interrupted append
+				logChannel.truncate(nextOffset);
+			}
+		} catch (IOException e) {
+			logFile.close();
+			throw e;
+		}
+		resultEncoder = new BinaryResultEncoder();
+		recordsBuffer = new ByteArrayOutputStream(BUFFER_SIZE);
+	}
+	
+	/**
+	 * Append the given result to the result log.
+	 * 
+	 * @param commitResult the {@link CommitResult} to append
+	 * @throws IOException if writing to the log file fails
+	 */
+	public void append(CommitResult commitResult) throws IOException {
+		int bufferedBytes = recordsBuffer.size();
+		resultEncoder.write(commitResult, recordsBuffer);
+		indexEntries.add(commitResult.getCommitDay(), ResultLog.hash(commitResult.getCommitNumber()),
+				nextOffset + bufferedBytes);
+		if (recordsBuffer.size() >= BUFFER_SIZE) {
+			flushRecords();
+		}
+	}
+	
+	/**
+	 * Write the buffered records to the log file.
+	 * 
+	 * @throws IOException if writing to the log file fails
+	 */
+	private void flushRecords() throws IOException {
+		FileChannel logChannel = logFile.getChannel();
+		ByteBuffer records = ByteBuffer.wrap(recordsBuffer.toByteArray());
+		while (records.hasRemaining()) {
+			nextOffset = nextOffset + logChannel.write(records, nextOffset);
+		}
+		recordsBuffer.reset();
+	}
+	
+	/**
+	 * Write the buffered records, replace the indexes of the result log, release the lock, and close the log file.
+	 * 
+	 * @throws IOException if writing the records or the indexes fails
+	 */
+	public void close() throws IOException {
+		try {
+			flushRecords();
+			logFile.getChannel().force(false);
+			writeIndex(ResultLog.buildShaIndex(indexEntries, nextOffset), ResultLog.SHA_INDEX_FILE_NAME);
+			writeIndex(ResultLog.buildDateIndex(indexEntries, nextOffset), ResultLog.DATE_INDEX_FILE_NAME);
+		} finally {
+			logFile.close();
+		}
+	}
+	
+	/**
+	 * Write the given content of an index file to a temporary file, which replaces the index file afterwards.
+	 * 
+	 * @param index the content of the index file
+	 * @param indexFileName the name of the index file
+	 * @throws IOException if writing or replacing the index file fails
+	 */
+	private void writeIndex(ByteBuffer index, String indexFileName) throws IOException {
+		File temporaryIndexFile = new File(logDir, indexFileName + TEMPORARY_FILE_EXTENSION);
+		RandomAccessFile temporaryIndexRandomAccessFile = new RandomAccessFile(temporaryIndexFile, "rw");
+		try {
+			FileChannel temporaryIndexChannel = temporaryIndexRandomAccessFile.getChannel();
+			temporaryIndexChannel.truncate(0);
+			while (index.hasRemaining()) {
+				temporaryIndexChannel.write(index);
+			}
+			temporaryIndexChannel.force(false);
+		} finally {
+			temporaryIndexRandomAccessFile.close();
+		}
+		Files.move(temporaryIndexFile.toPath(), new File(logDir, indexFileName).toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
@@ -0,0 +1,451 @@
+package result;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This class merges multiple result files, e.g. the result files of several ranges of commits, into a single result
+ * file and recomputes the {@link ResultSummary} of the merged results.<br><br>
+ * 
+ * The result files list the newest commits first. Hence, the merge reads the result files in parallel and always
+ * writes the line with the latest commit date of all current lines next (k-way merge); lines with equal dates are
+ * written in the order of the given files. Lines without a date are written last. Each commit is written only once:
+ * further lines of the same commit SHA are dropped as duplicates. Lines of the legacy format (see
+ * {@link ResultFileScanner#LEGACY_HEADER}) are written in the current format (see
+ * {@link ResultFileScanner#HEADER}). Malformed lines are dropped and counted. Compressed result files (ending with
+ * {@value GzipTextWriter#FILE_EXTENSION}) are decompressed while reading.<br><br>
+ * 
+ * The merge holds only the current line of each result file and the SHAs of the written commits as pairs of
+ * 64 bit hashes (at most 64 bytes per commit). The summary is computed while writing and, hence, requires no
+ * further pass over the merged results.
+ * 
+ * @author agent
+ *
+ */
+public class ResultMerger {
+	
+	/**
+	 * The size of the buffer for writing the merged result file in characters.<br><br>
+	 * 
+	 * Value: {@value #BUFFER_SIZE};
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	/**
+	 * The result files to merge in the order of precedence for lines with equal dates.
+	 */
+	private List<File> resultFiles;
+	
+	/**
+	 * The number of commits written to the merged result file.
+	 */
+	private long mergedCommitsCount;
+	
+	/**
+	 * The number of lines dropped, because a line of the same commit SHA was written before.
+	 */
+	private long duplicateLinesCount;
+	
+	/**
+	 * The number of lines with a later commit date than the previous line of the same result file.
+	 */
+	private long unorderedLinesCount;
+	
+	/**
+	 * The number of lines dropped, because they do not consist of a date, a commit SHA, and valid numbers.
+	 */
+	private long malformedLinesCount;
+	
+	/**
+	 * Construct a new {@link ResultMerger}.
+	 * 
+	 * @param resultFiles the result {@link File}s to merge; lines with equal dates are written in the order of
+	 * these files
+	 */
+	public ResultMerger(List<File> resultFiles) {
+		this.resultFiles = new ArrayList<File>(resultFiles);
+		mergedCommitsCount = 0;
+		duplicateLinesCount = 0;
+		unorderedLinesCount = 0;
+		malformedLinesCount = 0;
+	}
+	
+	/**
+	 * Merge the result files into the given file and compute the summary of the merged results. The given file is
+	 * overwritten, if it exists.
+	 * 
+	 * @param mergedResultFile the {@link File} to write the merged results to; this file must not be one of the
+	 * merged result files
+	 * @return the {@link ResultSummary} of the merged results
+	 * @throws IOException if the header of a result file is unknown or reading or writing a file fails
+	 */
+	public ResultSummary merge(File mergedResultFile) throws IOException {
+		mergedCommitsCount = 0;
+		duplicateLinesCount = 0;
+		unorderedLinesCount = 0;
+		malformedLinesCount = 0;
+		ResultSummary summary = new ResultSummary();
+		CommitNumberSet mergedCommitNumbers = new CommitNumberSet();
+		PriorityQueue<ResultFileReader> readers = new PriorityQueue<ResultFileReader>(
+				Math.max(1, resultFiles.size()), new Comparator<ResultFileReader>() {
+			@Override
+			public int compare(ResultFileReader reader1, ResultFileReader reader2) {
+				int compare = Integer.compare(reader2.getCurrentResult().getCommitDay(),
+						reader1.getCurrentResult().getCommitDay());
+				if (compare == 0) {
+					compare = Integer.compare(reader1.getIndex(), reader2.getIndex());
+				}
+				return compare;
+			}
+		});
+		List<ResultFileReader> openReaders = new ArrayList<ResultFileReader>();
+		try {
+			for (File resultFile : resultFiles) {
+				ResultFileReader reader = new ResultFileReader(resultFile, openReaders.size());
+				openReaders.add(reader);
+				if (reader.next()) {
+					readers.add(reader);
+				}
+			}
+			BufferedWriter writer = new BufferedWriter(new FileWriter(mergedResultFile), BUFFER_SIZE);
+			try {
+				StringBuilder lineBuilder = new StringBuilder();
+				writer.write(ResultFileScanner.HEADER + "\n");
+				while (!readers.isEmpty()) {
+					ResultFileReader reader = readers.poll();
+					CommitResult commitResult = reader.getCurrentResult();
+					if (mergedCommitNumbers.add(commitResult.getCommitNumber())) {
+						lineBuilder.setLength(0);
+						lineBuilder.append(commitResult.getCommitDate()).append('\t');
+						lineBuilder.append(commitResult.getCommitNumber());
+						for (ResultColumn column : ResultColumn.values()) {
+							lineBuilder.append('\t').append(commitResult.getCount(column));
+						}
+						lineBuilder.append('\n');
+						writer.write(lineBuilder.toString());
+						summary.add(commitResult);
+						mergedCommitsCount++;
+					} else {
+						duplicateLinesCount++;
+					}
+					if (reader.next()) {
+						readers.add(reader);
+					}
+				}
+			} finally {
+				writer.close();
+			}
+		} finally {
+			for (ResultFileReader reader : openReaders) {
+				reader.close();
+				unorderedLinesCount += reader.getUnorderedLinesCount();
+				malformedLinesCount += reader.getMalformedLinesCount();
+			}
+		}
+		return summary;
+	}
+	
+	/**
+	 * Return the number of commits written to the merged result file by the last merge.
+	 * 
+	 * @return the number of merged commits
+	 */
+	public long getMergedCommitsCount() {
+		return mergedCommitsCount;
+	}
+	
+	/**
+	 * Return the number of lines dropped by the last merge, because a line of the same commit SHA was written
+	 * before.
+	 * 
+	 * @return the number of duplicate lines
+	 */
+	public long getDuplicateLinesCount() {
+		return duplicateLinesCount;
+	}
+	
+	/**
+	 * Return the number of lines of the last merge with a later commit date than the previous line of the same
+	 * result file. These lines are merged as well, but the merged result file is not ordered by date then.
+	 * 
+	 * @return the number of unordered lines
+	 */
+	public long getUnorderedLinesCount() {
+		return unorderedLinesCount;
+	}
+	
+	/**
+	 * Return the number of lines dropped by the last merge, because they do not consist of a date, a commit SHA,
+	 * and valid numbers.
+	 * 
+	 * @return the number of malformed lines
+	 */
+	public long getMalformedLinesCount() {
+		return malformedLinesCount;
+	}
+	
+	/**
+	 * This class reads the well-formed lines of a single result file one by one.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class ResultFileReader {
+		
+		/**
+		 * The reader of the lines of the result file.
+		 */
+		private BufferedReader reader;
+		
+		/**
+		 * The index of the result file in the list of merged result files.
+		 */
+		private int index;
+		
+		/**
+		 * The {@link ResultColumn}s of the numbers of each line in the order of their columns.
+		 */
+		private ResultColumn[] columnOrder;
+		
+		/**
+		 * The numbers of the current line by the ordinals of their {@link ResultColumn}s, which are reused for each
+		 * line.
+		 */
+		private int[] counts;
+		
+		/**
+		 * The {@link CommitResult} of the current line or <code>null</code>, if no line was read yet.
+		 */
+		private CommitResult currentResult;
+		
+		/**
+		 * The number of lines with a later commit date than the previous line.
+		 */
+		private long unorderedLinesCount;
+		
+		/**
+		 * The number of malformed lines.
+		 */
+		private long malformedLinesCount;
+		
+		/**
+		 * Construct a new {@link ResultFileReader} and read the header line of the given result file.
+		 * 
+		 * @param resultFile the result {@link File} to read
+		 * @param index the index of the result file in the list of merged result files
+		 * @throws IOException if the header of the result file is unknown or reading it fails
+		 */
+		private ResultFileReader(File resultFile, int index) throws IOException {
+			this.index = index;
+			reader = GzipTextWriter.openReader(resultFile);
+			String header = reader.readLine();
+			if (header == null || (!header.equals(ResultFileScanner.HEADER)
+					&& !header.equals(ResultFileScanner.LEGACY_HEADER))) {
+				reader.close();
+				throw new IOException("Unknown header of result file \"" + resultFile.getAbsolutePath() + "\"");
+			}
+			columnOrder = ResultFileScanner.getColumnOrder(header);
+			counts = new int[ResultColumn.values().length];
+			currentResult = null;
+			unorderedLinesCount = 0;
+			malformedLinesCount = 0;
+		}
+		
+		/**
+		 * Read the next well-formed line of the result file, which becomes the current line. Malformed lines are
+		 * skipped.
+		 * 
+		 * @return <code>true</code> if a next line was read, <code>false</code> if the end of the file is reached
+		 * @throws IOException if reading the result file fails
+		 */
+		private boolean next() throws IOException {
+			CommitResult nextResult = null;
+			String line;
+			while (nextResult == null && (line = reader.readLine()) != null) {
+				nextResult = parse(line);
+				if (nextResult == null) {
+					malformedLinesCount++;
+				}
+			}
+			if (nextResult != null && currentResult != null
+					&& nextResult.getCommitDay() > currentResult.getCommitDay()) {
+				unorderedLinesCount++;
+			}
+			if (nextResult != null) {
+				currentResult = nextResult;
+			}
+			return nextResult != null;
+		}
+		
+		/**
+		 * Parse the given line of the result file.
+		 * 
+		 * @param line the line to parse
+		 * @return the {@link CommitResult} of the given line or <code>null</code>, if the line is malformed
+		 */
+		private CommitResult parse(String line) {
+			CommitResult commitResult = null;
+			String[] fields = line.split("\t", -1);
+			if (fields.length == ResultFileScanner.FIELDS_PER_LINE && !fields[1].isEmpty()) {
+				int commitDay = CommitResult.parseCommitDay(fields[0]);
+				boolean wellFormed = commitDay != CommitResult.NO_COMMIT_DAY || fields[0].equals("null");
+				for (int i = 0; wellFormed && i < columnOrder.length; i++) {
+					try {
+						counts[columnOrder[i].ordinal()] = Integer.parseInt(fields[i + 2]);
+						wellFormed = Character.isDigit(fields[i + 2].charAt(0));
+					} catch (NumberFormatException e) {
+						wellFormed = false;
+					}
+				}
+				if (wellFormed) {
+					commitResult = new CommitResult(fields[1], commitDay, counts.clone());
+				}
+			}
+			return commitResult;
+		}
+		
+		/**
+		 * Return the index of the result file in the list of merged result files.
+		 * 
+		 * @return the index of the result file
+		 */
+		private int getIndex() {
+			return index;
+		}
+		
+		/**
+		 * Return the {@link CommitResult} of the current line.
+		 * 
+		 * @return the {@link CommitResult} of the current line or <code>null</code>, if no line was read yet
+		 */
+		private CommitResult getCurrentResult() {
+			return currentResult;
+		}
+		
+		/**
+		 * Return the number of lines with a later commit date than the previous line.
+		 * 
+		 * @return the number of unordered lines
+		 */
+		private long getUnorderedLinesCount() {
+			return unorderedLinesCount;
+		}
+		
+		/**
+		 * Return the number of malformed lines.
+		 * 
+		 * @return the number of malformed lines
+		 */
+		private long getMalformedLinesCount() {
+			return malformedLinesCount;
+		}
+		
+		/**
+		 * Close the result file.
+		 * 
+		 * @throws IOException if closing the result file fails
+		 */
+		private void close() throws IOException {
+			reader.close();
+		}
+	}
+	
+	/**
+	 * This class implements a set of commit SHAs, which stores each SHA as a pair of independent 64 bit hashes in an
+	 * open-addressing table of primitive values. Hence, distinct SHAs are only considered equal, if both hashes of
+	 * them are equal (a probability of about 2<sup>-128</sup> per pair of SHAs).
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class CommitNumberSet {
+		
+		/**
+		 * The initial number of slots of the table (a power of two).<br><br>
+		 * 
+		 * Value: {@value #INITIAL_CAPACITY};
+		 */
+		private static final int INITIAL_CAPACITY = 1 << 10;
+		
+		/**
+		 * The pairs of hashes of the SHAs in this set: the slot <i>i</i> consists of the values at the indexes
+		 * <i>2i</i> and <i>2i + 1</i>. The first hash of a used slot is never 0.
+		 */
+		private long[] table;
+		
+		/**
+		 * The number of SHAs in this set.
+		 */
+		private int size;
+		
+		/**
+		 * Construct a new, empty {@link CommitNumberSet}.
+		 */
+		private CommitNumberSet() {
+			table = new long[2 * INITIAL_CAPACITY];
+			size = 0;
+		}
+		
+		/**
+		 * Add the given SHA to this set.
+		 * 
+		 * @param commitNumber the commit SHA to add
+		 * @return <code>true</code> if this set did not contain the given SHA, <code>false</code> otherwise
+		 */
+		private boolean add(String commitNumber) {
+			long hash1 = 0xcbf29ce484222325L;
+			long hash2 = 0;
+			for (int i = 0; i < commitNumber.length(); i++) {
+				char character = commitNumber.charAt(i);
+				hash1 = (hash1 ^ character) * 0x100000001b3L;
+				hash2 = (hash2 + character) * 0x9E3779B97F4A7C15L;
+				hash2 = hash2 ^ (hash2 >>> 29);
+			}
+			if (hash1 == 0) {
+				hash1 = 1;
+			}
+			boolean added = insert(hash1, hash2);
+			if (added) {
+				size++;
+				if (2 * size > table.length / 2) {
+					long[] oldTable = table;
+					table = new long[2 * oldTable.length];
+					for (int i = 0; i < oldTable.length; i += 2) {
+						if (oldTable[i] != 0) {
+							insert(oldTable[i], oldTable[i + 1]);
+						}
+					}
+				}
+			}
+			return added;
+		}
+		
+		/**
+		 * Insert the given pair of hashes into the {@link #table}, if it does not contain this pair yet.
+		 * 
+		 * @param hash1 the first hash of a SHA (not 0)
+		 * @param hash2 the second hash of a SHA
+		 * @return <code>true</code> if the pair was inserted, <code>false</code> if the table contains it already
+		 */
+		private boolean insert(long hash1, long hash2) {
+			int mask = table.length / 2 - 1;
+			int slot = (int) (hash1 ^ (hash1 >>> 32)) & mask;
+			while (table[2 * slot] != 0 && (table[2 * slot] != hash1 || table[2 * slot + 1] != hash2)) {
+				slot = (slot + 1) & mask;
+			}
+			boolean inserted = table[2 * slot] == 0;
+			if (inserted) {
+				table[2 * slot] = hash1;
+				table[2 * slot + 1] = hash2;
+			}
+			return inserted;
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package result;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class sums up the results of analyzed commits per period of time, e.g. per month, while the commits are
+ * analyzed. Hence, the evolution of the numbers of changed lines over time is available without reading the
+ * results of all commits again.<br><br>
+ * 
+ * Each period (bucket) holds the number of commits, the sums of all {@link ResultColumn}s, and the numbers of
+ * commits changing artifact-specific information only (CCAI), variability information only (CCVI), and both
+ * types of information (CCAVI) as defined by the summary of the analysis. Commits without a date are summed up in
+ * a separate bucket, which is written first with the period "null" (like their date in the result file). Rollups
+ * of the same period type can be merged via {@link #merge(ResultRollup)}, e.g. the rollups of multiple parts of a
+ * history analyzed separately.
+ * 
+ * @author agent
+ *
+ */
+public class ResultRollup {
+	
+	/**
+	 * Enumeration for defining the length of the periods of time of a {@link ResultRollup}.
+	 * 
+	 * @author agent
+	 *
+	 */
+	public enum Period {DAY, MONTH, YEAR};
+	
+	/**
+	 * The header line (column titles) of the text written by {@link #format()}: the period (<i>yyyy/mm/dd</i>,
+	 * <i>yyyy/mm</i>, or <i>yyyy</i>), the number of commits, the sums of all {@link ResultColumn}s, and the numbers
+	 * of commits changing artifact-specific information only, variability information only, and both.<br><br>
+	 * 
+	 * Value: {@value #HEADER};
+	 */
+	public static final String HEADER = "Period\tCommits\tCCF\tCCLAI\tCCLVI\tCBF\tCBLAI\tCBLVI\tCMF\tCMLAI\tCMLVI"
+			+ "\tCCAI\tCCVI\tCCAVI";
+	
+	/**
+	 * The key of the bucket of commits without a date. This key precedes the keys of all other buckets.
+	 */
+	private static final int NO_PERIOD = Integer.MIN_VALUE;
+	
+	/**
+	 * The number of values of each bucket: the number of commits, one sum per {@link ResultColumn}, and the
+	 * numbers of commits of the three classifications.
+	 */
+	private static final int VALUES_PER_BUCKET = 1 + ResultColumn.values().length + 3;
+	
+	/**
+	 * The index of the number of commits changing artifact-specific information only in each bucket.
+	 */
+	private static final int CCAI_INDEX = 1 + ResultColumn.values().length;
+	
+	/**
+	 * The {@link Period} of the buckets of this rollup.
+	 */
+	private Period period;
+	
+	/**
+	 * The values of the buckets of this rollup sorted by their key: the epoch day, the number of months since
+	 * year 0, or the year of the bucket depending on the {@link #period}.
+	 */
+	private TreeMap<Integer, long[]> buckets;
+	
+	/**
+	 * The epoch day of the latest commit added to this rollup used for avoiding the computation of the key of the
+	 * same day for consecutive commits.
+	 */
+	private int latestCommitDay;
+	
+	/**
+	 * The values of the bucket of {@link #latestCommitDay}.
+	 */
+	private long[] latestBucket;
+	
+	/**
+	 * Construct a new, empty {@link ResultRollup}.
+	 * 
+	 * @param period the {@link Period} of the buckets of this rollup
+	 */
+	public ResultRollup(Period period) {
+		this.period = period;
+		buckets = new TreeMap<Integer, long[]>();
+		latestCommitDay = CommitResult.NO_COMMIT_DAY;
+		latestBucket = null;
+	}
+	
+	/**
+	 * Return the {@link Period} of the buckets of this rollup.
+	 * 
+	 * @return the {@link Period} of the buckets of this rollup
+	 */
+	public Period getPeriod() {
+		return period;
+	}
+	
+	/**
+	 * Add the given result to the bucket of the period the commit was created in.
+	 * 
+	 * @param commitResult the {@link CommitResult} to add
+	 */
+	public void add(CommitResult commitResult) {
+		int commitDay = commitResult.getCommitDay();
+		if (latestBucket == null || commitDay != latestCommitDay) {
+			latestBucket = getBucket(getKey(commitDay));
+			latestCommitDay = commitDay;
+		}
+		latestBucket[0]++;
+		for (ResultColumn column : ResultColumn.values()) {
+			latestBucket[1 + column.ordinal()] += commitResult.getCount(column);
+		}
+		int artifactLines = commitResult.getChangedSourceLinesCount() + commitResult.getChangedBuildLinesCount()
+				+ commitResult.getChangedModelLinesCount();
+		int variabilityLines = commitResult.getChangedSourceVarLinesCount()
+				+ commitResult.getChangedBuildVarLinesCount() + commitResult.getChangedModelVarLinesCount();
+		if (artifactLines > 0 && variabilityLines == 0) {
+			latestBucket[CCAI_INDEX]++;
+		} else if (artifactLines == 0 && variabilityLines > 0) {
+			latestBucket[CCAI_INDEX + 1]++;
+		} else if (artifactLines > 0 && variabilityLines > 0) {
+			latestBucket[CCAI_INDEX + 2]++;
+		}
+	}
+	
+	/**
+	 * Add the buckets of the given rollup to the buckets of this rollup.
+	 * 
+	 * @param rollup the {@link ResultRollup} to merge into this rollup; its {@link Period} must be equal to the
+	 * period of this rollup
+	 * @throws IllegalArgumentException if the periods of both rollups differ
+	 */
+	public void merge(ResultRollup rollup) {
+		if (rollup.period != period) {
+			throw new IllegalArgumentException("Cannot merge rollup per " + rollup.period + " into rollup per "
+					+ period);
+		}
+		for (Map.Entry<Integer, long[]> bucket : rollup.buckets.entrySet()) {
+			long[] values = getBucket(bucket.getKey());
+			for (int i = 0; i < VALUES_PER_BUCKET; i++) {
+				values[i] += bucket.getValue()[i];
+			}
+		}
+	}
+	
+	/**
+	 * Return the number of buckets (periods with at least one commit) of this rollup.
+	 * 
+	 * @return the number of buckets of this rollup
+	 */
+	public int size() {
+		return buckets.size();
+	}
+	
+	/**
+	 * Format the buckets of this rollup as tab-separated text starting with the {@link #HEADER} line. The buckets
+	 * are sorted by their period.
+	 * 
+	 * @return the text of this rollup
+	 */
+	public String format() {
+		StringBuilder rollupBuilder = new StringBuilder(HEADER).append('\n');
+		for (Map.Entry<Integer, long[]> bucket : buckets.entrySet()) {
+			rollupBuilder.append(formatKey(bucket.getKey()));
+			for (long value : bucket.getValue()) {
+				rollupBuilder.append('\t').append(value);
+			}
+			rollupBuilder.append('\n');
+		}
+		return rollupBuilder.toString();
+	}
+	
+	/**
+	 * Return the values of the bucket with the given key. A new bucket is created, if it does not exist.
+	 * 
+	 * @param key the key of the bucket
+	 * @return the values of the bucket with the given key
+	 */
+	private long[] getBucket(int key) {
+		long[] bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = new long[VALUES_PER_BUCKET];
+			buckets.put(key, bucket);
+		}
+		return bucket;
+	}
+	
+	/**
+	 * Return the key of the bucket of the given commit date.
+	 * 
+	 * @param commitDay the commit date as epoch day or {@value CommitResult#NO_COMMIT_DAY}
+	 * @return the key of the bucket of the given day
+	 */
+	private int getKey(int commitDay) {
+		int key = NO_PERIOD;
+		if (commitDay != CommitResult.NO_COMMIT_DAY) {
+			if (period == Period.DAY) {
+				key = commitDay;
+			} else {
+				LocalDate date = LocalDate.ofEpochDay(commitDay);
+				if (period == Period.MONTH) {
+					key = date.getYear() * 12 + date.getMonthValue() - 1;
+				} else {
+					key = date.getYear();
+				}
+			}
+		}
+		return key;
+	}
+	
+	/**
+	 * Format the given bucket key as period: <i>yyyy/mm/dd</i>, <i>yyyy/mm</i>, <i>yyyy</i>, or "null".
+	 * 
+	 * @param key the key of a bucket
+	 * @return the period of the bucket with the given key
+	 */
+	private String formatKey(int key) {
+		String formattedKey = "null";
+		if (key != NO_PERIOD) {
+			if (period == Period.DAY) {
+				formattedKey = CommitResult.formatCommitDay(key);
+			} else if (period == Period.MONTH) {
+				int month = key % 12 + 1;
+				formattedKey = (key / 12) + (month < 10 ? "/0" : "/") + month;
+			} else {
+				formattedKey = Integer.toString(key);
+			}
+		}
+		return formattedKey;
+	}
+}
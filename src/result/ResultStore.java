@@ -0,0 +1,358 @@
+package result;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * This class provides read access to the results of analyzed commits stored in a columnar result file, which is
+ * mapped into memory. Hence, scanning, filtering, and aggregating the results does neither parse any text nor create
+ * any objects per row. Use {@link #write(ResultTable, File)} to create such a file and {@link #open(File)} to read
+ * it.<br><br>
+ * 
+ * The file consists of a header followed by one column per part of the results, in which each row has a fixed
+ * width. All numbers are stored in big-endian byte order:
+ * <ul>
+ * <li>Header ({@value #HEADER_SIZE} bytes): magic number {@value #MAGIC_NUMBER}, version {@value #VERSION},
+ * number of rows, number of count columns, width of the SHA column (all as <code>int</code>), remaining
+ * bytes reserved</li>
+ * <li>Commit date: one <code>int</code> per row (epoch day or {@value CommitResult#NO_COMMIT_DAY})</li>
+ * <li>Numbers of changed files and lines: one column of one <code>int</code> per row for each
+ * {@link ResultColumn} in the order of that enumeration</li>
+ * <li>SHA length: one <code>short</code> per row (positive for hexadecimal SHAs packed with two digits per byte,
+ * negated number of ISO-8859-1 bytes otherwise)</li>
+ * <li>SHA: the bytes of the SHA of each row padded to the width of the SHA column</li>
+ * </ul>
+ * As the file is mapped as a single buffer, its size is limited to 2 GB, which is sufficient for more than
+ * 30 million commits with full SHAs.
+ * 
+ * @author agent
+ *
+ */
+public class ResultStore {
+
+	/**
+	 * This interface is used to visit the rows of a {@link ResultStore} during a scan, see
+	 * {@link ResultStore#scan(int, int, RowVisitor)}.
+	 * 
+	 * @author agent
+	 *
+	 */
+	public interface RowVisitor {
+
+		/**
+		 * Visit the given row of the given {@link ResultStore}.
+		 * 
+		 * @param resultStore the {@link ResultStore} containing the row
+		 * @param row the index of the visited row
+		 */
+		public void visit(ResultStore resultStore, int row);
+	}
+
+	/**
+	 * The number identifying columnar result files ("CoAn" in ASCII).<br><br>
+	 * 
+	 * Value: {@value #MAGIC_NUMBER};
+	 */
+	private static final int MAGIC_NUMBER = 0x436F416E;
+
+	/**
+	 * The version of the format of the columnar result files.<br><br>
+	 * 
+	 * Value: {@value #VERSION};
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The number of bytes of the header of columnar result files.<br><br>
+	 * 
+	 * Value: {@value #HEADER_SIZE};
+	 */
+	private static final int HEADER_SIZE = 32;
+
+	/**
+	 * The memory-mapped content of the columnar result file.
+	 */
+	private MappedByteBuffer storeBuffer;
+
+	/**
+	 * The number of rows in the columnar result file.
+	 */
+	private int rowsCounter;
+
+	/**
+	 * The number of bytes of each entry in the SHA column (without the SHA length).
+	 */
+	private int shaWidth;
+
+	/**
+	 * The index of the first byte of the commit date column in {@link #storeBuffer}.
+	 */
+	private int commitDaysOffset;
+
+	/**
+	 * The index of the first byte of the first {@link ResultColumn} in {@link #storeBuffer}.
+	 */
+	private int countsOffset;
+
+	/**
+	 * The index of the first byte of the SHA length column in {@link #storeBuffer}.
+	 */
+	private int shaLengthsOffset;
+
+	/**
+	 * The index of the first byte of the SHA column in {@link #storeBuffer}.
+	 */
+	private int shaBytesOffset;
+
+	/**
+	 * Construct a new {@link ResultStore} reading the given, memory-mapped columnar result file.
+	 * 
+	 * @param storeBuffer the memory-mapped content of a columnar result file
+	 * @throws IOException if the given content does not start with a valid header
+	 */
+	private ResultStore(MappedByteBuffer storeBuffer) throws IOException {
+		this.storeBuffer = storeBuffer;
+		if (storeBuffer.capacity() < HEADER_SIZE || storeBuffer.getInt(0) != MAGIC_NUMBER) {
+			throw new IOException("File is not a columnar result file");
+		}
+		if (storeBuffer.getInt(4) != VERSION) {
+			throw new IOException("Unsupported version " + storeBuffer.getInt(4) + " of columnar result file");
+		}
+		rowsCounter = storeBuffer.getInt(8);
+		if (storeBuffer.getInt(12) != ResultColumn.values().length) {
+			throw new IOException("Unsupported number of columns " + storeBuffer.getInt(12) + " in columnar result file");
+		}
+		shaWidth = storeBuffer.getInt(16);
+		commitDaysOffset = HEADER_SIZE;
+		countsOffset = commitDaysOffset + rowsCounter * 4;
+		shaLengthsOffset = countsOffset + ResultColumn.values().length * rowsCounter * 4;
+		shaBytesOffset = shaLengthsOffset + rowsCounter * 2;
+		if (storeBuffer.capacity() < getStoreSize(rowsCounter, shaWidth)) {
+			throw new IOException("Columnar result file is truncated");
+		}
+	}
+
+	/**
+	 * Return the number of bytes of a columnar result file with the given number of rows and SHA width.
+	 * 
+	 * @param rows the number of rows
+	 * @param shaWidth the number of bytes of each entry in the SHA column
+	 * @return the number of bytes of such a file
+	 */
+	private static long getStoreSize(int rows, int shaWidth) {
+		return HEADER_SIZE + (long) rows * (4 + ResultColumn.values().length * 4 + 2 + shaWidth);
+	}
+
+	/**
+	 * Open the given columnar result file for reading.
+	 * 
+	 * @param storeFile the columnar result file created by {@link #write(ResultTable, File)}
+	 * @return a {@link ResultStore} providing read access to the given file
+	 * @throws IOException if the file cannot be read or is not a valid columnar result file
+	 */
+	public static ResultStore open(File storeFile) throws IOException {
+		ResultStore resultStore = null;
+		RandomAccessFile randomAccessFile = new RandomAccessFile(storeFile, "r");
+		try {
+			FileChannel storeChannel = randomAccessFile.getChannel();
+			// The mapping stays valid after closing the channel
+			resultStore = new ResultStore(storeChannel.map(MapMode.READ_ONLY, 0, storeChannel.size()));
+		} finally {
+			randomAccessFile.close();
+		}
+		return resultStore;
+	}
+
+	/**
+	 * Write the rows of the given {@link ResultTable} to the given columnar result file. An existing file will
+	 * be replaced.
+	 * 
+	 * @param resultTable the {@link ResultTable} containing the rows to write
+	 * @param storeFile the columnar result file to write to
+	 * @throws IOException if writing the file fails or the rows exceed the maximum size of the file
+	 */
+	public static void write(ResultTable resultTable, File storeFile) throws IOException {
+		int rows = resultTable.size();
+		int shaWidth = 0;
+		for (int i = 0; i < rows; i++) {
+			shaWidth = Math.max(shaWidth, ResultTable.getCommitNumberBytesLength(resultTable.getCommitNumberLength(i)));
+		}
+		long storeSize = getStoreSize(rows, shaWidth);
+		if (storeSize > Integer.MAX_VALUE) {
+			throw new IOException("Too many rows for a single columnar result file: " + rows);
+		}
+		if (storeFile.exists()) {
+			storeFile.delete();
+		}
+		RandomAccessFile randomAccessFile = new RandomAccessFile(storeFile, "rw");
+		try {
+			FileChannel storeChannel = randomAccessFile.getChannel();
+			MappedByteBuffer storeBuffer = storeChannel.map(MapMode.READ_WRITE, 0, storeSize);
+			// Header
+			storeBuffer.putInt(MAGIC_NUMBER);
+			storeBuffer.putInt(VERSION);
+			storeBuffer.putInt(rows);
+			storeBuffer.putInt(ResultColumn.values().length);
+			storeBuffer.putInt(shaWidth);
+			storeBuffer.position(HEADER_SIZE);
+			// Columns
+			for (int i = 0; i < rows; i++) {
+				storeBuffer.putInt(resultTable.getCommitDay(i));
+			}
+			for (ResultColumn column : ResultColumn.values()) {
+				for (int i = 0; i < rows; i++) {
+					storeBuffer.putInt(resultTable.getCount(i, column));
+				}
+			}
+			for (int i = 0; i < rows; i++) {
+				storeBuffer.putShort(resultTable.getCommitNumberLength(i));
+			}
+			byte[] shaBuffer = new byte[shaWidth];
+			for (int i = 0; i < rows; i++) {
+				int shaBytesLength = resultTable.copyCommitNumberBytes(i, shaBuffer, 0);
+				for (int j = shaBytesLength; j < shaWidth; j++) {
+					shaBuffer[j] = 0;
+				}
+				storeBuffer.put(shaBuffer);
+			}
+			storeBuffer.force();
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Return the number of rows in this store.
+	 * 
+	 * @return the number of rows in this store
+	 */
+	public int size() {
+		return rowsCounter;
+	}
+
+	/**
+	 * Return the commit date of the given row as number of days since 1970/01/01 (epoch day).
+	 * 
+	 * @param row the index of the row
+	 * @return the commit date of the given row as epoch day or {@value CommitResult#NO_COMMIT_DAY}, if the date is
+	 * not available
+	 */
+	public int getCommitDay(int row) {
+		checkRow(row);
+		return storeBuffer.getInt(commitDaysOffset + row * 4);
+	}
+
+	/**
+	 * Return the number of changed files or lines of the given {@link ResultColumn} in the given row.
+	 * 
+	 * @param row the index of the row
+	 * @param column the {@link ResultColumn} defining the number to return
+	 * @return the number of changed files or lines of the given column in the given row
+	 */
+	public int getCount(int row, ResultColumn column) {
+		checkRow(row);
+		return storeBuffer.getInt(countsOffset + (column.ordinal() * rowsCounter + row) * 4);
+	}
+
+	/**
+	 * Return the commit SHA of the given row.
+	 * 
+	 * @param row the index of the row
+	 * @return the commit SHA of the given row
+	 */
+	public String getCommitNumber(int row) {
+		checkRow(row);
+		short shaLength = storeBuffer.getShort(shaLengthsOffset + row * 2);
+		byte[] shaBuffer = new byte[ResultTable.getCommitNumberBytesLength(shaLength)];
+		for (int i = 0; i < shaBuffer.length; i++) {
+			shaBuffer[i] = storeBuffer.get(shaBytesOffset + row * shaWidth + i);
+		}
+		return ResultTable.decodeCommitNumber(shaBuffer, 0, shaLength);
+	}
+
+	/**
+	 * Return the {@link CommitResult} of the given row. This creates new objects and, hence, should not be used
+	 * for scanning the store; use {@link #getCommitDay(int)} and {@link #getCount(int, ResultColumn)} instead.
+	 * 
+	 * @param row the index of the row
+	 * @return the {@link CommitResult} of the given row
+	 */
+	public CommitResult get(int row) {
+		int[] rowCounts = new int[ResultColumn.values().length];
+		for (ResultColumn column : ResultColumn.values()) {
+			rowCounts[column.ordinal()] = getCount(row, column);
+		}
+		return new CommitResult(getCommitNumber(row), getCommitDay(row), rowCounts);
+	}
+
+	/**
+	 * Visit all rows of this store in their order, which have a commit date in the given range.
+	 * 
+	 * @param fromDay the first commit date (inclusive) as epoch day
+	 * @param toDay the last commit date (inclusive) as epoch day
+	 * @param visitor the {@link RowVisitor} to call for each row in the given range
+	 */
+	public void scan(int fromDay, int toDay, RowVisitor visitor) {
+		for (int i = 0; i < rowsCounter; i++) {
+			int commitDay = storeBuffer.getInt(commitDaysOffset + i * 4);
+			if (commitDay >= fromDay && commitDay <= toDay) {
+				visitor.visit(this, i);
+			}
+		}
+	}
+
+	/**
+	 * Return the number of rows of this store, which have a commit date in the given range.
+	 * 
+	 * @param fromDay the first commit date (inclusive) as epoch day
+	 * @param toDay the last commit date (inclusive) as epoch day
+	 * @return the number of rows in the given range
+	 */
+	public int count(int fromDay, int toDay) {
+		int rowsInRange = 0;
+		for (int i = 0; i < rowsCounter; i++) {
+			int commitDay = storeBuffer.getInt(commitDaysOffset + i * 4);
+			if (commitDay >= fromDay && commitDay <= toDay) {
+				rowsInRange++;
+			}
+		}
+		return rowsInRange;
+	}
+
+	/**
+	 * Return the sum of the numbers of changed files or lines of the given {@link ResultColumn} over all rows
+	 * of this store, which have a commit date in the given range.
+	 * 
+	 * @param column the {@link ResultColumn} defining the numbers to sum up
+	 * @param fromDay the first commit date (inclusive) as epoch day
+	 * @param toDay the last commit date (inclusive) as epoch day
+	 * @return the sum of the numbers of the given column in the given range
+	 */
+	public long sum(ResultColumn column, int fromDay, int toDay) {
+		long sum = 0;
+		int columnOffset = countsOffset + column.ordinal() * rowsCounter * 4;
+		for (int i = 0; i < rowsCounter; i++) {
+			int commitDay = storeBuffer.getInt(commitDaysOffset + i * 4);
+			if (commitDay >= fromDay && commitDay <= toDay) {
+				sum += storeBuffer.getInt(columnOffset + i * 4);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Check if the given row is part of this store.
+	 * 
+	 * @param row the index of the row to check
+	 * @throws IndexOutOfBoundsException if the given row is negative or not less than {@link #size()}
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= rowsCounter) {
+			throw new IndexOutOfBoundsException("Row " + row + " is not part of the store with " + rowsCounter + " rows");
+		}
+	}
+}
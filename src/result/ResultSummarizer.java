@@ -0,0 +1,198 @@
+package result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import result.ResultFileScanner.LineHandler;
+import result.ResultFileScanner.LineHandlerFactory;
+import result.ResultFileScanner.ResultLine;
+
+/**
+ * This class computes the {@link ResultSummary} of the commits of an existing result file without analyzing these
+ * commits again. The summarized commits may be restricted to a range of commit dates and/or to a set of commit SHAs,
+ * e.g. the commits of a commit list.<br><br>
+ * 
+ * The result file is scanned in a single pass by a {@link ResultFileScanner}: each chunk of the file is summarized
+ * by its own thread and the summaries of all chunks are merged afterwards. A compressed result file is decompressed
+ * and summarized as a single chunk by the calling thread. Malformed lines are skipped and counted.
+ * 
+ * @author agent
+ *
+ */
+public class ResultSummarizer {
+	
+	/**
+	 * The first commit day of the summarized commits as epoch day.
+	 */
+	private int fromDay;
+	
+	/**
+	 * The last commit day of the summarized commits as epoch day.
+	 */
+	private int toDay;
+	
+	/**
+	 * <code>true</code> if a range of commit dates is set, <code>false</code> otherwise. Commits without a date are
+	 * only summarized, if no range is set.
+	 */
+	private boolean dateFiltered;
+	
+	/**
+	 * The SHAs of the summarized commits or <code>null</code>, if the commits are not restricted to a set of SHAs.
+	 */
+	private Set<String> commitNumbers;
+	
+	/**
+	 * The number of well-formed lines of the last summarized file, which do not match the date range or the set of
+	 * commit SHAs.
+	 */
+	private long filteredLinesCount;
+	
+	/**
+	 * The number of malformed lines of the last summarized file.
+	 */
+	private long malformedLinesCount;
+	
+	/**
+	 * Construct a new {@link ResultSummarizer}, which summarizes all commits of a result file.
+	 */
+	public ResultSummarizer() {
+		fromDay = CommitResult.NO_COMMIT_DAY;
+		toDay = CommitResult.NO_COMMIT_DAY;
+		dateFiltered = false;
+		commitNumbers = null;
+		filteredLinesCount = 0;
+		malformedLinesCount = 0;
+	}
+	
+	/**
+	 * Restrict the summarized commits to the commits created in the given range of days. Commits without a date are
+	 * not summarized afterwards.
+	 * 
+	 * @param fromDay the first day of the range as epoch day (see {@link CommitResult#parseCommitDay(String)}) or
+	 * {@link CommitResult#NO_COMMIT_DAY}, if the range starts at the earliest date
+	 * @param toDay the last day of the range as epoch day or {@link CommitResult#NO_COMMIT_DAY}, if the range ends at
+	 * the latest date
+	 */
+	public void setDateRange(int fromDay, int toDay) {
+		this.fromDay = (fromDay == CommitResult.NO_COMMIT_DAY) ? Integer.MIN_VALUE + 1 : fromDay;
+		this.toDay = (toDay == CommitResult.NO_COMMIT_DAY) ? Integer.MAX_VALUE : toDay;
+		dateFiltered = true;
+	}
+	
+	/**
+	 * Restrict the summarized commits to the commits with the given SHAs.
+	 * 
+	 * @param commitNumbers the SHAs of the commits to summarize
+	 */
+	public void setCommitNumbers(Set<String> commitNumbers) {
+		this.commitNumbers = new HashSet<String>(commitNumbers);
+	}
+	
+	/**
+	 * Summarize the matching commits of the given result file.
+	 * 
+	 * @param resultFile the (compressed) result {@link File} to summarize
+	 * @param threads the maximum number of chunks of the file summarized concurrently; ignored for compressed files
+	 * @param chunkSize the number of bytes of each chunk (see {@link ResultFileScanner#scan(LineHandlerFactory, int,
+	 * long)})
+	 * @return the {@link ResultSummary} of the matching commits
+	 * @throws IOException if the header of the result file is unknown or reading the file fails
+	 */
+	public ResultSummary summarize(File resultFile, int threads, long chunkSize) throws IOException {
+		ResultFileScanner scanner = new ResultFileScanner(resultFile);
+		if (!scanner.isKnownHeader()) {
+			throw new IOException("Unknown header of result file \"" + resultFile.getAbsolutePath() + "\"");
+		}
+		List<SummaryHandler> summaryHandlers = scanner.scan(new LineHandlerFactory<SummaryHandler>() {
+			@Override
+			public SummaryHandler createHandler() {
+				return new SummaryHandler();
+			}
+		}, threads, chunkSize);
+		ResultSummary summary = new ResultSummary();
+		filteredLinesCount = 0;
+		malformedLinesCount = 0;
+		for (SummaryHandler summaryHandler : summaryHandlers) {
+			summary.merge(summaryHandler.summary);
+			filteredLinesCount += summaryHandler.filteredLinesCount;
+			malformedLinesCount += summaryHandler.malformedLinesCount;
+		}
+		return summary;
+	}
+	
+	/**
+	 * Return the number of well-formed lines of the last summarized file, which do not match the date range or the
+	 * set of commit SHAs.
+	 * 
+	 * @return the number of filtered lines
+	 */
+	public long getFilteredLinesCount() {
+		return filteredLinesCount;
+	}
+	
+	/**
+	 * Return the number of malformed lines of the last summarized file. These lines are not summarized.
+	 * 
+	 * @return the number of malformed lines
+	 */
+	public long getMalformedLinesCount() {
+		return malformedLinesCount;
+	}
+	
+	/**
+	 * Check whether the given well-formed line matches the date range and the set of commit SHAs.
+	 * 
+	 * @param line the {@link ResultLine} to check
+	 * @return <code>true</code> if the commit of the given line should be summarized, <code>false</code> otherwise
+	 */
+	private boolean matches(ResultLine line) {
+		boolean matches = true;
+		if (dateFiltered) {
+			int commitDay = line.getCommitDay();
+			matches = commitDay != CommitResult.NO_COMMIT_DAY && commitDay >= fromDay && commitDay <= toDay;
+		}
+		if (matches && commitNumbers != null) {
+			matches = commitNumbers.contains(line.getCommitNumber());
+		}
+		return matches;
+	}
+	
+	/**
+	 * This class summarizes the matching lines of a single chunk of the result file.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private class SummaryHandler implements LineHandler {
+		
+		/**
+		 * The {@link ResultSummary} of the matching lines of the chunk.
+		 */
+		private ResultSummary summary = new ResultSummary();
+		
+		/**
+		 * The number of well-formed lines of the chunk, which do not match.
+		 */
+		private long filteredLinesCount = 0;
+		
+		/**
+		 * The number of malformed lines of the chunk.
+		 */
+		private long malformedLinesCount = 0;
+		
+		@Override
+		public void handleLine(ResultLine line) {
+			if (line.getError() != null) {
+				malformedLinesCount++;
+			} else if (matches(line)) {
+				summary.add(line.toCommitResult());
+			} else {
+				filteredLinesCount++;
+			}
+		}
+	}
+}
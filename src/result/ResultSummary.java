@@ -0,0 +1,322 @@
+package result;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class sums up the results of analyzed commits for the summary of an analysis ("ComAn_Summary.tsv"), e.g. the
+ * numbers of commits changing artifact-specific and/or variability information, the sums of changed lines per type
+ * of artifact. Additionally, it collects the distributions of changed lines per commit, which are formatted
+ * separately from the summary (see {@link #formatDistributions()}).<br><br>
+ * 
+ * The memory used by a summary does not depend on the number of added commits. Summaries of disjoint sets of
+ * commits, e.g. of multiple parts of a result file, are combined via {@link #merge(ResultSummary)}.
+ * 
+ * @author agent
+ *
+ */
+public class ResultSummary {
+	
+	/**
+	 * The names of the distributions of changed lines per commit in the summary: the numbers of changed lines of
+	 * each type of artifact and information (see {@link ResultColumn}), of all changed lines containing
+	 * artifact-specific information (CLAI) or variability information (CLVI), and of all changed lines (CL).
+	 */
+	private static final String[] DISTRIBUTION_NAMES = {"CCLAI", "CCLVI", "CBLAI", "CBLVI", "CMLAI", "CMLVI",
+			"CLAI", "CLVI", "CL"};
+	
+	/**
+	 * The number of analyzed commits.
+	 */
+	private long analyzedCommitsCounter;
+	
+	/**
+	 * The number of analyzed commits changing artifact-specific information only.
+	 */
+	private long commitsChangingArtifactInfoCounter;
+	
+	/**
+	 * The number of analyzed commits changing variability information only.
+	 */
+	private long commitsChangingVariabilityInfoCounter;
+	
+	/**
+	 * The number of analyzed commits changing artifact-specific and variability information.
+	 */
+	private long commitsChangingArtifactAndVariabilityInfoCounter;
+	
+	/**
+	 * The number of changed lines containing artifact-specific information only.
+	 * This attribute is used to count the number of such lines over all commits,
+	 * where each commit changes artifact-specific information only (no variability information).
+	 */
+	private long changedArtifactInfoLinesOnlyCounter;
+	
+	/**
+	 * The number of changed lines containing variability information only.
+	 * This attribute is used to count the number of such lines over all commits,
+	 * where each commit changes variability information only (no artifact-specific information).
+	 */
+	private long changedVariabilityInfoLinesOnlyCounter;
+	
+	/**
+	 * The number of changed lines containing artifact-specific information only.
+	 * This attribute is used to count the number of such lines over all commits,
+	 * where each commit changes both artifact-specific and variability information.
+	 */
+	private long changedArtifactInfoLinesCounter;
+	
+	/**
+	 * The number of changed lines containing variability information only.
+	 * This attribute is used to count the number of such lines over all commits,
+	 * where each commit changes both artifact-specific and variability information.
+	 */
+	private long changedVariabilityInfoLinesCounter;
+	
+	/**
+	 * The number of changed model lines (sum over all analyzed commits).
+	 */
+	private long changedModelLinesCounter;
+	
+	/**
+	 * The number of changed model lines containing variability information
+	 * (sum over all analyzed commits).
+	 */
+	private long changedModelVarLinesCounter;
+	
+	/**
+	 * The number of changed source code lines (sum over all analyzed commits).
+	 */
+	private long changedSourceLinesCounter;
+	
+	/**
+	 * The number of changed source code lines containing variability information
+	 * (sum over all analyzed commits).
+	 */
+	private long changedSourceVarLinesCounter;
+	
+	/**
+	 * The number of changed source code lines (sum over all analyzed commits).
+	 */
+	private long changedBuildLinesCounter;
+	
+	/**
+	 * The number of changed build lines containing variability information
+	 * (sum over all analyzed commits).
+	 */
+	private long changedBuildVarLinesCounter;
+	
+	/**
+	 * The {@link LineCountHistogram}s of the numbers of changed lines per commit by the
+	 * {@link #DISTRIBUTION_NAMES}. Each histogram only counts the commits changing at least one such line.
+	 */
+	private Map<String, LineCountHistogram> distributions;
+	
+	/**
+	 * Construct a new, empty {@link ResultSummary}.
+	 */
+	public ResultSummary() {
+		analyzedCommitsCounter = 0;
+		commitsChangingArtifactInfoCounter = 0;
+		commitsChangingVariabilityInfoCounter = 0;
+		commitsChangingArtifactAndVariabilityInfoCounter = 0;
+		changedArtifactInfoLinesCounter = 0;
+		changedArtifactInfoLinesOnlyCounter = 0;
+		changedVariabilityInfoLinesCounter = 0;
+		changedVariabilityInfoLinesOnlyCounter = 0;
+		changedModelLinesCounter = 0;
+		changedModelVarLinesCounter = 0;
+		changedSourceLinesCounter = 0;
+		changedSourceVarLinesCounter = 0;
+		changedBuildLinesCounter = 0;
+		changedBuildVarLinesCounter = 0;
+		distributions = new LinkedHashMap<String, LineCountHistogram>();
+		for (String distributionName : DISTRIBUTION_NAMES) {
+			distributions.put(distributionName, new LineCountHistogram());
+		}
+	}
+	
+	/**
+	 * Add the numbers provided by the given {@link CommitResult} to the respective sums and distributions over all
+	 * commits.
+	 * 
+	 * @param commitResult the {@link CommitResult} which provides the numbers to be added
+	 */
+	public void add(CommitResult commitResult) {
+		analyzedCommitsCounter++;
+		int newChangedModelLinesCount = commitResult.getChangedModelLinesCount();
+		int newChangedModelVarLinesCount = commitResult.getChangedModelVarLinesCount();
+		int newChangedSourceLinesCount = commitResult.getChangedSourceLinesCount();
+		int newChangedSourceVarLinesCount = commitResult.getChangedSourceVarLinesCount();
+		int newChangedBuildLinesCount = commitResult.getChangedBuildLinesCount();
+		int newChangedBuildVarLinesCount = commitResult.getChangedBuildVarLinesCount();
+		// Add new results to overall counters (over all commits)
+		changedModelLinesCounter += newChangedModelLinesCount;
+		changedModelVarLinesCounter += newChangedModelVarLinesCount;
+		changedSourceLinesCounter += newChangedSourceLinesCount;
+		changedSourceVarLinesCounter += newChangedSourceVarLinesCount;
+		changedBuildLinesCounter += newChangedBuildLinesCount;
+		changedBuildVarLinesCounter += newChangedBuildVarLinesCount;
+		// Increase commit and change counters depending on type of lines being changed
+		int newChangedArtifactInfoLinesSum = newChangedModelLinesCount + newChangedSourceLinesCount + newChangedBuildLinesCount;
+		int newChangedVariabilityInfoLinesSum = newChangedModelVarLinesCount + newChangedSourceVarLinesCount + newChangedBuildVarLinesCount;
+		if (newChangedArtifactInfoLinesSum == 0 && newChangedVariabilityInfoLinesSum > 0) {
+			// Only lines including variability information changed
+			commitsChangingVariabilityInfoCounter++;
+			changedVariabilityInfoLinesOnlyCounter += newChangedVariabilityInfoLinesSum;
+		} else if (newChangedArtifactInfoLinesSum > 0 && newChangedVariabilityInfoLinesSum == 0) {
+			// Only lines including artifact-specific information changed
+			commitsChangingArtifactInfoCounter++;
+			changedArtifactInfoLinesOnlyCounter += newChangedArtifactInfoLinesSum;
+		} else if (newChangedArtifactInfoLinesSum > 0 && newChangedVariabilityInfoLinesSum > 0) {
+			// Lines including variability and artifact-specific information changed
+			commitsChangingArtifactAndVariabilityInfoCounter++;
+			changedArtifactInfoLinesCounter += newChangedArtifactInfoLinesSum;
+			changedVariabilityInfoLinesCounter += newChangedVariabilityInfoLinesSum;
+		}
+		// Add the numbers of changed lines to their distributions (in the order of DISTRIBUTION_NAMES)
+		addToDistribution("CCLAI", newChangedSourceLinesCount);
+		addToDistribution("CCLVI", newChangedSourceVarLinesCount);
+		addToDistribution("CBLAI", newChangedBuildLinesCount);
+		addToDistribution("CBLVI", newChangedBuildVarLinesCount);
+		addToDistribution("CMLAI", newChangedModelLinesCount);
+		addToDistribution("CMLVI", newChangedModelVarLinesCount);
+		addToDistribution("CLAI", newChangedArtifactInfoLinesSum);
+		addToDistribution("CLVI", newChangedVariabilityInfoLinesSum);
+		addToDistribution("CL", newChangedArtifactInfoLinesSum + newChangedVariabilityInfoLinesSum);
+	}
+	
+	/**
+	 * Add the sums and distributions of the given summary to this summary. Afterwards, this summary is equal to a
+	 * summary to which the commits of both summaries were added.
+	 * 
+	 * @param resultSummary the {@link ResultSummary} to merge into this summary
+	 */
+	public void merge(ResultSummary resultSummary) {
+		analyzedCommitsCounter += resultSummary.analyzedCommitsCounter;
+		commitsChangingArtifactInfoCounter += resultSummary.commitsChangingArtifactInfoCounter;
+		commitsChangingVariabilityInfoCounter += resultSummary.commitsChangingVariabilityInfoCounter;
+		commitsChangingArtifactAndVariabilityInfoCounter += resultSummary.commitsChangingArtifactAndVariabilityInfoCounter;
+		changedArtifactInfoLinesCounter += resultSummary.changedArtifactInfoLinesCounter;
+		changedArtifactInfoLinesOnlyCounter += resultSummary.changedArtifactInfoLinesOnlyCounter;
+		changedVariabilityInfoLinesCounter += resultSummary.changedVariabilityInfoLinesCounter;
+		changedVariabilityInfoLinesOnlyCounter += resultSummary.changedVariabilityInfoLinesOnlyCounter;
+		changedModelLinesCounter += resultSummary.changedModelLinesCounter;
+		changedModelVarLinesCounter += resultSummary.changedModelVarLinesCounter;
+		changedSourceLinesCounter += resultSummary.changedSourceLinesCounter;
+		changedSourceVarLinesCounter += resultSummary.changedSourceVarLinesCounter;
+		changedBuildLinesCounter += resultSummary.changedBuildLinesCounter;
+		changedBuildVarLinesCounter += resultSummary.changedBuildVarLinesCounter;
+		for (Map.Entry<String, LineCountHistogram> distribution : distributions.entrySet()) {
+			distribution.getValue().merge(resultSummary.distributions.get(distribution.getKey()));
+		}
+	}
+	
+	/**
+	 * Return the number of added commits.
+	 * 
+	 * @return the number of added commits
+	 */
+	public long getAnalyzedCommitsCount() {
+		return analyzedCommitsCounter;
+	}
+	
+	/**
+	 * Return the distributions of the numbers of changed lines per commit by their names as shown in the summary.
+	 * 
+	 * @return the unmodifiable {@link Map} of the {@link LineCountHistogram}s by their names
+	 */
+	public Map<String, LineCountHistogram> getDistributions() {
+		return Collections.unmodifiableMap(distributions);
+	}
+	
+	/**
+	 * Format this summary as the content of the summary file: the table of the numbers of commits and their changed
+	 * lines and the description of the abbreviations.
+	 * 
+	 * @param commitFilesNum the number of commit files involved in the analysis (this number may vary from the
+	 * number of actually analyzed commits due to missing diff information)
+	 * @return the text of this summary
+	 */
+	public String format(long commitFilesNum) {
+		StringBuilder summaryLineBuilder = new StringBuilder();
+		// Column titles
+		summaryLineBuilder.append("Counted Element\tNumber of Commits\tNumber of Changed Lines (artifact-specific)\tNumber of Changed Lines (variability)\n");
+		// Commits available
+		summaryLineBuilder.append("CAv\t" + commitFilesNum + "\n");
+		// Commits analyzed
+		summaryLineBuilder.append("CAn\t" + analyzedCommitsCounter + "\n");
+		// Commits changing artifact-specific information only and corresponding sum of changed lines over all commits and file types
+		summaryLineBuilder.append("CCAI\t" + commitsChangingArtifactInfoCounter + "\t" + changedArtifactInfoLinesOnlyCounter + "\n");
+		// Commits changing variability information only and corresponding sum of changed lines over all commits and file types
+		summaryLineBuilder.append("CCVI\t" + commitsChangingVariabilityInfoCounter + "\t\t" + changedVariabilityInfoLinesOnlyCounter + "\n");
+		// Commits changing artifact-specific and variability information and corresponding sum of changed lines over all commits and file types
+		summaryLineBuilder.append("CCAVI\t" + commitsChangingArtifactAndVariabilityInfoCounter + "\t" + changedArtifactInfoLinesCounter + "\t" + changedVariabilityInfoLinesCounter + "\n");
+		// Changed model lines: artifact-specific, variability
+		summaryLineBuilder.append("CML\t\t" + changedModelLinesCounter + "\t" + changedModelVarLinesCounter + "\n");
+		// Changed source code lines: artifact-specific, variability
+		summaryLineBuilder.append("CCL\t\t" + changedSourceLinesCounter + "\t" + changedSourceVarLinesCounter + "\n");
+		// Changed build lines: artifact-specific, variability
+		summaryLineBuilder.append("CBL\t\t" + changedBuildLinesCounter + "\t" + changedBuildVarLinesCounter  + "\n");
+		// Append description of abbreviations to summary file
+		summaryLineBuilder.append("\n\nDescription:\n");
+		summaryLineBuilder.append("CAv\t[C]ommits [Av]ailable: number of all commits input to this analysis\n");
+		summaryLineBuilder.append("CAn\t[C]ommits [An]alyzed: number of commits actually analyzed\n");
+		summaryLineBuilder.append("\t    Some commits may not be analyzed due to no file changes\n");
+		summaryLineBuilder.append("CCAI\t[C]ommits [C]hanging [A]rtifact-specific [I]nformation: number of commits that change at least one line of\n");
+		summaryLineBuilder.append("\t    a) help text in a variability model file (no variability information)\n");
+		summaryLineBuilder.append("\t    b) general source code in a source code file (no variability information)\n");
+		summaryLineBuilder.append("\t    c) the general build process definition in a build file (no variability information)\n");
+		summaryLineBuilder.append("CCVI\t[C]ommits [C]hanging [V]ariability [I]nformation: number of commits that change at least one line defining\n");
+		summaryLineBuilder.append("\t    a) configuration options, etc. in a variability model file (variability information)\n");
+		summaryLineBuilder.append("\t    b) references to configuration options in a source code file (variability information)\n");
+		summaryLineBuilder.append("\t    c) references to configuration options in a build file (variability information)\n");
+		summaryLineBuilder.append("CCAVI\t[C]ommits [C]hanging [A]rtifact-specific and [V]ariability [I]nformation: number of commits that change both types of information (see CCAI and CCVI)\n");
+		summaryLineBuilder.append("CML\t[C]hanged [M]odel [L]ines: number of changed model lines over all analyzed commits\n");
+		summaryLineBuilder.append("CCL\t[C]hanged source [C]ode [L]ines: number of changed source code lines over all analyzed commits\n");
+		summaryLineBuilder.append("CBL\t[C]hanged [B]uild process[L]ines: number of changed build process lines over all analyzed commits\n");
+		return summaryLineBuilder.toString();
+	}
+	
+	/**
+	 * Format the distributions of changed lines per commit as the content of the distributions file: the table of
+	 * the numbers of commits changing such lines, their percentiles, and their maximum, and the description of this
+	 * table. The summary file (see {@link #format(long)}) does not contain these distributions.
+	 * 
+	 * @return the text of the distributions of this summary
+	 */
+	public String formatDistributions() {
+		StringBuilder distributionLineBuilder = new StringBuilder();
+		// Distributions of changed lines per commit: commits changing such lines, percentiles, maximum
+		distributionLineBuilder.append("Distribution\tNumber of Commits\tp50\tp90\tp99\tmax\n");
+		for (Map.Entry<String, LineCountHistogram> distribution : distributions.entrySet()) {
+			LineCountHistogram histogram = distribution.getValue();
+			distributionLineBuilder.append(distribution.getKey() + "\t" + histogram.getCount()
+					+ "\t" + histogram.getValueAtPercentile(50) + "\t" + histogram.getValueAtPercentile(90)
+					+ "\t" + histogram.getValueAtPercentile(99) + "\t" + histogram.getMax() + "\n");
+		}
+		// Append description of the table to distributions file
+		distributionLineBuilder.append("\n\nDescription:\n");
+		distributionLineBuilder.append("Distribution\tdistribution of the number of changed lines per commit over all commits changing at least one such line:\n");
+		distributionLineBuilder.append("\t    a) CCLAI, CCLVI, CBLAI, CBLVI, CMLAI, CMLVI: changed lines of the respective result column\n");
+		distributionLineBuilder.append("\t    b) CLAI, CLVI: changed lines containing artifact-specific or variability information of all file types\n");
+		distributionLineBuilder.append("\t    c) CL: all changed lines (the size of the commit)\n");
+		distributionLineBuilder.append("\t    The percentiles (p50, p90, p99) are exact up to " + (LineCountHistogram.EXACT_VALUES - 1)
+				+ " lines and exceed larger exact values by less than 1%\n");
+		return distributionLineBuilder.toString();
+	}
+	
+	/**
+	 * Add the given number of changed lines of a single commit to the distribution with the given name, if the
+	 * commit changes at least one such line.
+	 * 
+	 * @param distributionName one of the {@link #DISTRIBUTION_NAMES}
+	 * @param changedLinesCount the number of changed lines of a single commit
+	 */
+	private void addToDistribution(String distributionName, int changedLinesCount) {
+		if (changedLinesCount > 0) {
+			distributions.get(distributionName).add(changedLinesCount);
+		}
+	}
+}
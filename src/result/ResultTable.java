@@ -0,0 +1,354 @@
+package result;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the results of a large number of analyzed commits in memory.<br><br>
+ * 
+ * Instead of keeping a {@link CommitResult} (or even a {@link diff.DiffAnalyzer}) object per commit, this table
+ * stores each part of the results in an individual array of primitives (one row per commit):
+ * <ul>
+ * <li>The commit SHA as bytes: hexadecimal SHAs (lower case) are packed with two digits per byte, all other
+ * SHAs are stored as their ISO-8859-1 bytes</li>
+ * <li>The commit date as number of days since 1970/01/01 (epoch day)</li>
+ * <li>The numbers of changed files and lines as one <code>int</code> array per {@link ResultColumn}</li>
+ * </ul>
+ * Hence, a row of a typical commit with a full SHA requires less than 70 bytes and a table of millions of commits
+ * can be sorted and scanned without creating an object per commit.
+ * 
+ * @author agent
+ *
+ */
+public class ResultTable {
+
+	/**
+	 * The number of rows for which memory is allocated initially.
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * The hexadecimal digits in the order of their values used for packing and unpacking commit SHAs.
+	 */
+	private static final String HEX_DIGITS = "0123456789abcdef";
+
+	/**
+	 * The bytes of the SHAs of all rows. The bytes of the SHA of a row start at the respective index in
+	 * {@link #shaOffsets}.
+	 */
+	private byte[] shaBytes;
+
+	/**
+	 * The number of bytes used in {@link #shaBytes}.
+	 */
+	private int shaBytesCounter;
+
+	/**
+	 * The index of the first byte of the SHA of each row in {@link #shaBytes}.
+	 */
+	private int[] shaOffsets;
+
+	/**
+	 * The length of the SHA of each row: positive values define the number of hexadecimal digits packed with two
+	 * digits per byte, negative values define the (negated) number of ISO-8859-1 bytes of a non-hexadecimal SHA.
+	 */
+	private short[] shaLengths;
+
+	/**
+	 * The commit date of each row as epoch day or {@value CommitResult#NO_COMMIT_DAY}.
+	 */
+	private int[] commitDays;
+
+	/**
+	 * The numbers of changed files and lines of each row. The first index is the ordinal of the respective
+	 * {@link ResultColumn}, the second index is the row.
+	 */
+	private int[][] counts;
+
+	/**
+	 * The number of rows in this table.
+	 */
+	private int rowsCounter;
+
+	/**
+	 * Construct a new, empty {@link ResultTable}.
+	 */
+	public ResultTable() {
+		shaBytes = new byte[INITIAL_CAPACITY * 20];
+		shaBytesCounter = 0;
+		shaOffsets = new int[INITIAL_CAPACITY];
+		shaLengths = new short[INITIAL_CAPACITY];
+		commitDays = new int[INITIAL_CAPACITY];
+		counts = new int[ResultColumn.values().length][INITIAL_CAPACITY];
+		rowsCounter = 0;
+	}
+
+	/**
+	 * Add the given {@link CommitResult} as new row to the end of this table.
+	 * 
+	 * @param commitResult the {@link CommitResult} to add
+	 */
+	public void add(CommitResult commitResult) {
+		if (rowsCounter == commitDays.length) {
+			int newCapacity = rowsCounter * 2;
+			shaOffsets = Arrays.copyOf(shaOffsets, newCapacity);
+			shaLengths = Arrays.copyOf(shaLengths, newCapacity);
+			commitDays = Arrays.copyOf(commitDays, newCapacity);
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = Arrays.copyOf(counts[i], newCapacity);
+			}
+		}
+		addCommitNumber(commitResult.getCommitNumber());
+		commitDays[rowsCounter] = commitResult.getCommitDay();
+		for (ResultColumn column : ResultColumn.values()) {
+			counts[column.ordinal()][rowsCounter] = commitResult.getCount(column);
+		}
+		rowsCounter++;
+	}
+
+	/**
+	 * Add the given commit SHA as bytes of the next row to {@link #shaBytes}.
+	 * 
+	 * @param commitNumber the commit SHA to add
+	 */
+	private void addCommitNumber(String commitNumber) {
+		int commitNumberLength = Math.min(commitNumber.length(), Short.MAX_VALUE);
+		boolean isHex = true;
+		int charCounter = 0;
+		while (isHex && charCounter < commitNumberLength) {
+			isHex = HEX_DIGITS.indexOf(commitNumber.charAt(charCounter)) > -1;
+			charCounter++;
+		}
+		int requiredBytes = commitNumberLength;
+		if (isHex) {
+			requiredBytes = (commitNumberLength + 1) / 2;
+		}
+		if (shaBytesCounter + requiredBytes > shaBytes.length) {
+			shaBytes = Arrays.copyOf(shaBytes, Math.max(shaBytes.length * 2, shaBytesCounter + requiredBytes));
+		}
+		shaOffsets[rowsCounter] = shaBytesCounter;
+		if (isHex) {
+			shaLengths[rowsCounter] = (short) commitNumberLength;
+			for (int i = 0; i < commitNumberLength; i++) {
+				int digit = HEX_DIGITS.indexOf(commitNumber.charAt(i));
+				if (i % 2 == 0) {
+					shaBytes[shaBytesCounter + i / 2] = (byte) (digit << 4);
+				} else {
+					shaBytes[shaBytesCounter + i / 2] |= (byte) digit;
+				}
+			}
+		} else {
+			shaLengths[rowsCounter] = (short) -commitNumberLength;
+			for (int i = 0; i < commitNumberLength; i++) {
+				shaBytes[shaBytesCounter + i] = (byte) commitNumber.charAt(i);
+			}
+		}
+		shaBytesCounter += requiredBytes;
+	}
+
+	/**
+	 * Return the number of rows in this table.
+	 * 
+	 * @return the number of rows in this table
+	 */
+	public int size() {
+		return rowsCounter;
+	}
+
+	/**
+	 * Return the {@link CommitResult} of the given row. This creates a new object and, hence, should not be used
+	 * for scanning the table; use {@link #getCommitDay(int)} and {@link #getCount(int, ResultColumn)} instead.
+	 * 
+	 * @param row the index of the row
+	 * @return the {@link CommitResult} of the given row
+	 */
+	public CommitResult get(int row) {
+		checkRow(row);
+		int[] rowCounts = new int[counts.length];
+		for (int i = 0; i < counts.length; i++) {
+			rowCounts[i] = counts[i][row];
+		}
+		return new CommitResult(getCommitNumber(row), commitDays[row], rowCounts);
+	}
+
+	/**
+	 * Return the commit SHA of the given row.
+	 * 
+	 * @param row the index of the row
+	 * @return the commit SHA of the given row
+	 */
+	public String getCommitNumber(int row) {
+		checkRow(row);
+		return decodeCommitNumber(shaBytes, shaOffsets[row], shaLengths[row]);
+	}
+	
+	/**
+	 * Create the commit SHA stored in the given bytes.
+	 * 
+	 * @param bytes the array containing the bytes of a commit SHA
+	 * @param offset the index of the first byte of the commit SHA in the given array
+	 * @param commitNumberLength the length of the commit SHA as defined by {@link #getCommitNumberLength(int)}
+	 * @return the commit SHA
+	 */
+	static String decodeCommitNumber(byte[] bytes, int offset, short commitNumberLength) {
+		StringBuilder commitNumberBuilder = new StringBuilder(Math.abs(commitNumberLength));
+		if (commitNumberLength >= 0) {
+			for (int i = 0; i < commitNumberLength; i++) {
+				int shaByte = bytes[offset + i / 2];
+				if (i % 2 == 0) {
+					commitNumberBuilder.append(HEX_DIGITS.charAt((shaByte >> 4) & 0xF));
+				} else {
+					commitNumberBuilder.append(HEX_DIGITS.charAt(shaByte & 0xF));
+				}
+			}
+		} else {
+			for (int i = 0; i < -commitNumberLength; i++) {
+				commitNumberBuilder.append((char) (bytes[offset + i] & 0xFF));
+			}
+		}
+		return commitNumberBuilder.toString();
+	}
+	
+	/**
+	 * Return the length of the commit SHA of the given row as stored in {@link #shaLengths}.
+	 * 
+	 * @param row the index of the row
+	 * @return the number of packed hexadecimal digits (positive) or the negated number of ISO-8859-1 bytes
+	 */
+	short getCommitNumberLength(int row) {
+		checkRow(row);
+		return shaLengths[row];
+	}
+	
+	/**
+	 * Copy the bytes of the commit SHA of the given row to the given array.
+	 * 
+	 * @param row the index of the row
+	 * @param target the array to copy the bytes to; must provide at least {@link #getCommitNumberBytesLength(short)}
+	 * bytes starting at the given offset
+	 * @param targetOffset the index in the given array at which the first byte is copied
+	 * @return the number of copied bytes
+	 */
+	int copyCommitNumberBytes(int row, byte[] target, int targetOffset) {
+		int bytesLength = getCommitNumberBytesLength(getCommitNumberLength(row));
+		System.arraycopy(shaBytes, shaOffsets[row], target, targetOffset, bytesLength);
+		return bytesLength;
+	}
+	
+	/**
+	 * Return the number of bytes required to store a commit SHA of the given length.
+	 * 
+	 * @param commitNumberLength the length of a commit SHA as defined by {@link #getCommitNumberLength(int)}
+	 * @return the number of bytes required to store that commit SHA
+	 */
+	static int getCommitNumberBytesLength(short commitNumberLength) {
+		int bytesLength = -commitNumberLength;
+		if (commitNumberLength >= 0) {
+			bytesLength = (commitNumberLength + 1) / 2;
+		}
+		return bytesLength;
+	}
+
+	/**
+	 * Return the commit date of the given row as number of days since 1970/01/01 (epoch day).
+	 * 
+	 * @param row the index of the row
+	 * @return the commit date of the given row as epoch day or {@value CommitResult#NO_COMMIT_DAY}, if the date is
+	 * not available
+	 */
+	public int getCommitDay(int row) {
+		checkRow(row);
+		return commitDays[row];
+	}
+
+	/**
+	 * Return the number of changed files or lines of the given {@link ResultColumn} in the given row.
+	 * 
+	 * @param row the index of the row
+	 * @param column the {@link ResultColumn} defining the number to return
+	 * @return the number of changed files or lines of the given column in the given row
+	 */
+	public int getCount(int row, ResultColumn column) {
+		checkRow(row);
+		return counts[column.ordinal()][row];
+	}
+
+	/**
+	 * Return the sum of the numbers of changed files or lines of the given {@link ResultColumn} over all rows.
+	 * 
+	 * @param column the {@link ResultColumn} defining the numbers to sum up
+	 * @return the sum of the numbers of the given column
+	 */
+	public long sum(ResultColumn column) {
+		long sum = 0;
+		int[] columnCounts = counts[column.ordinal()];
+		for (int i = 0; i < rowsCounter; i++) {
+			sum += columnCounts[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Sort the rows of this table by their commit dates in ascending order. Rows with the same commit date keep
+	 * their relative order (stable sort). Rows without commit date are sorted to the beginning of the table.
+	 */
+	public void sortByCommitDay() {
+		// 1. Sort the row indices by the commit days of the rows (stable merge sort)
+		int[] sortedRows = new int[rowsCounter];
+		for (int i = 0; i < rowsCounter; i++) {
+			sortedRows[i] = i;
+		}
+		int[] mergeBuffer = new int[rowsCounter];
+		for (int width = 1; width < rowsCounter; width = width * 2) {
+			for (int left = 0; left < rowsCounter; left = left + 2 * width) {
+				int middle = Math.min(left + width, rowsCounter);
+				int right = Math.min(left + 2 * width, rowsCounter);
+				int leftCounter = left;
+				int rightCounter = middle;
+				for (int i = left; i < right; i++) {
+					if (leftCounter < middle && (rightCounter >= right
+							|| commitDays[sortedRows[leftCounter]] <= commitDays[sortedRows[rightCounter]])) {
+						mergeBuffer[i] = sortedRows[leftCounter];
+						leftCounter++;
+					} else {
+						mergeBuffer[i] = sortedRows[rightCounter];
+						rightCounter++;
+					}
+				}
+			}
+			int[] mergedRows = mergeBuffer;
+			mergeBuffer = sortedRows;
+			sortedRows = mergedRows;
+		}
+		// 2. Reorder all columns based on the sorted row indices
+		int[] sortedShaOffsets = new int[shaOffsets.length];
+		short[] sortedShaLengths = new short[shaLengths.length];
+		int[] sortedCommitDays = new int[commitDays.length];
+		for (int i = 0; i < rowsCounter; i++) {
+			sortedShaOffsets[i] = shaOffsets[sortedRows[i]];
+			sortedShaLengths[i] = shaLengths[sortedRows[i]];
+			sortedCommitDays[i] = commitDays[sortedRows[i]];
+		}
+		shaOffsets = sortedShaOffsets;
+		shaLengths = sortedShaLengths;
+		commitDays = sortedCommitDays;
+		for (int j = 0; j < counts.length; j++) {
+			int[] sortedCounts = new int[counts[j].length];
+			for (int i = 0; i < rowsCounter; i++) {
+				sortedCounts[i] = counts[j][sortedRows[i]];
+			}
+			counts[j] = sortedCounts;
+		}
+	}
+
+	/**
+	 * Check if the given row is part of this table.
+	 * 
+	 * @param row the index of the row to check
+	 * @throws IndexOutOfBoundsException if the given row is negative or not less than {@link #size()}
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= rowsCounter) {
+			throw new IndexOutOfBoundsException("Row " + row + " is not part of the table with " + rowsCounter + " rows");
+		}
+	}
+}
@@ -0,0 +1,9 @@
+/**
+ * This package contains all classes for representing the results of the analysis of commits in memory.
+ * Use {@link result.CommitResult} for the results of a single commit and {@link result.ResultTable}
+ * for the results of a large number of commits.
+ * 
+ * @author agent
+ *
+ */
+package result;
\ No newline at end of file
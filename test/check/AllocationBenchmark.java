@@ -0,0 +1,107 @@
+package check;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import diff.DiffAnalyzer;
+
+/**
+ * This class measures the memory allocated by analyzing commits with a single, reused {@link DiffAnalyzer}.<br><br>
+ * 
+ * The commit files of the given directories (or of the default test input directories, if no directory is given)
+ * are analyzed multiple times. For each run, the number of bytes allocated per commit and per line of the commit
+ * files is printed. The first runs include the warm-up of the JVM.
+ * 
+ * @author agent
+ *
+ */
+public class AllocationBenchmark {
+	
+	/**
+	 * The directories in which the commit files are located, if no directory is given as argument.
+	 */
+	private static final File[] DEFAULT_INPUT_DIRS = {new File("testdata/test_debug_input"),
+			new File("testdata/test_input_linux"), new File("testdata/test_input_coreboot"),
+			new File("testdata/test_input_busybox")};
+	
+	/**
+	 * The number of times all commit files are analyzed.<br><br>
+	 * 
+	 * Value: {@value #RUNS};
+	 */
+	private static final int RUNS = 5;
+	
+	public static void main(String[] args) {
+		com.sun.management.ThreadMXBean threadMXBean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (threadMXBean.isThreadAllocatedMemorySupported()) {
+			List<File> commitFiles = getCommitFiles(args);
+			long lines = countLines(commitFiles);
+			long threadId = Thread.currentThread().getId();
+			for (int i = 0; i < RUNS; i++) {
+				long bytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+				long timeBefore = System.nanoTime();
+				DiffAnalyzer diffAnalyzer = null;
+				for (File commitFile : commitFiles) {
+					if (diffAnalyzer == null) {
+						diffAnalyzer = new DiffAnalyzer(commitFile);
+					} else {
+						diffAnalyzer.reset(commitFile);
+					}
+					diffAnalyzer.analyze();
+				}
+				long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+				long time = (System.nanoTime() - timeBefore) / 1000000;
+				System.out.println("Run " + (i + 1) + ": " + commitFiles.size() + " commits, " + lines + " lines, "
+						+ bytes + " bytes allocated (" + (bytes / Math.max(1, commitFiles.size())) + " per commit, "
+						+ (bytes / Math.max(1, lines)) + " per line), " + time + " ms");
+			}
+		} else {
+			System.err.println("Measuring allocated memory is not supported by this JVM");
+		}
+	}
+	
+	private static List<File> getCommitFiles(String[] args) {
+		File[] inputDirs = DEFAULT_INPUT_DIRS;
+		if (args.length > 0) {
+			inputDirs = new File[args.length];
+			for (int i = 0; i < args.length; i++) {
+				inputDirs[i] = new File(args[i]);
+			}
+		}
+		List<File> commitFiles = new ArrayList<File>();
+		for (File inputDir : inputDirs) {
+			File[] files = inputDir.listFiles();
+			if (files != null) {
+				Arrays.sort(files);
+				for (File file : files) {
+					if (file.isFile() && file.getName().endsWith(".txt")) {
+						commitFiles.add(file);
+					}
+				}
+			} else {
+				System.err.println("Input directory does not exist or is not a directory: " + inputDir.getAbsolutePath());
+			}
+		}
+		return commitFiles;
+	}
+	
+	private static long countLines(List<File> commitFiles) {
+		long lines = 0;
+		for (File commitFile : commitFiles) {
+			try {
+				lines = lines + Files.readAllLines(commitFile.toPath(),
+						StandardCharsets.ISO_8859_1).size();
+			} catch (IOException e) {
+				System.err.println("Reading " + commitFile.getAbsolutePath() + " failed: " + e.getMessage());
+			}
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,38 @@
+package check;
+
+import java.io.File;
+import java.io.IOException;
+
+import diff.ClassificationTracer;
+
+/**
+ * This class prints the traced classification of the changed lines of a single commit from a trace file written by
+ * the ComAn-tool with the "-t" or "-p" option.<br><br>
+ * 
+ * Usage: <i>ClassificationTraceDump &lt;trace_file&gt; &lt;commit_sha&gt;</i><br>
+ * Each traced line is printed as: file path, line index in the diff, change type, rule, and classification.
+ * 
+ * @author agent
+ *
+ */
+public class ClassificationTraceDump {
+	
+	/**
+	 * Print the traced lines of the given commit.
+	 * 
+	 * @param args the trace file and the SHA of the commit to print
+	 */
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.err.println("Usage: ClassificationTraceDump <trace_file> <commit_sha>");
+		} else {
+			try {
+				for (String tracedLine : ClassificationTracer.read(new File(args[0]), args[1])) {
+					System.out.println(tracedLine);
+				}
+			} catch (IOException e) {
+				System.err.println("Reading trace file \"" + args[0] + "\" failed: " + e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,395 @@
+package check;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import main.ComAnLogger;
+import main.ComAnLogger.MessageType;
+import result.CommitResult;
+import result.ResultFileScanner;
+import result.ResultFileScanner.LineHandler;
+import result.ResultFileScanner.LineHandlerFactory;
+import result.ResultFileScanner.ResultLine;
+
+/**
+ * This class checks ComAn result files for violations of their format: an unknown header line, lines with a wrong
+ * number of columns or invalid values, commit dates out of order, and duplicate commits. The commits of a result
+ * file are in order, if their dates do not increase (newest commit first), which is the order of the commits
+ * extracted from the history of a repository; commits without date ("null") are ignored for this check.<br><br>
+ * 
+ * The result files are memory-mapped and checked in parallel chunks by the {@link ResultFileScanner}. The order of
+ * the commits at the borders of the chunks is checked after all chunks are checked. Duplicate commits are found by
+ * sorting the hashes of the SHAs of all commits and, only if equal hashes exist, scanning the file again for the
+ * offsets of the respective commits. Each violation is reported with the byte offset of its line. Compressed result
+ * files (ending with ".gz") are decompressed and checked by a single thread instead; their violations are reported
+ * with the line number of their line.<br><br>
+ * 
+ * Usage: <i>ComAnResultsCheck [FILE|DIR]...</i>; without arguments, the files in {@link #COMAN_RESULTS_DIR} are
+ * checked.
+ * 
+ * @author agent
+ *
+ */
+public class ComAnResultsCheck {
+	
+	/**
+	 * The name (id) of this class for logging information.
+	 */
+	private static final String CLASS_ID = ComAnResultsCheck.class.getSimpleName();
+	
+	/**
+	 * The directory in which the ComAn result files are located, if no files are given as arguments.
+	 */
+	private static final File COMAN_RESULTS_DIR = new File("testdata/check_input/");
+	
+	/**
+	 * The maximum number of violations reported per chunk. Further violations are counted only.<br><br>
+	 * 
+	 * Value: {@value #MAX_REPORTED_VIOLATIONS};
+	 */
+	private static final int MAX_REPORTED_VIOLATIONS = 100;
+	
+	/**
+	 * The number of threads checking chunks concurrently.
+	 */
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * This class checks the lines of a single chunk. The order of the commits is checked within the chunk; the
+	 * dates of its first and last dated commit are kept for checking the order at the borders of the chunks.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class ChunkCheck implements LineHandler {
+		
+		/**
+		 * The name of the position of a line in the checked file, which is either "Offset" or "Line"; see
+		 * {@link #getPositionName(ResultFileScanner)}.
+		 */
+		private String positionName;
+		
+		/**
+		 * The descriptions of the violations found in this chunk in the order of their lines.
+		 */
+		private List<String> violations = new ArrayList<String>();
+		
+		/**
+		 * The number of violations found in this chunk including those not described in {@link #violations}.
+		 */
+		private long violationsCount = 0;
+		
+		/**
+		 * The number of lines of this chunk.
+		 */
+		private long linesCount = 0;
+		
+		/**
+		 * The hashes of the commit SHAs of the well-formed lines of this chunk; see
+		 * {@link ResultLine#getCommitNumberHash()}.
+		 */
+		private long[] commitNumberHashes = new long[1024];
+		
+		/**
+		 * The number of used elements of {@link #commitNumberHashes}.
+		 */
+		private int commitNumberHashesCount = 0;
+		
+		/**
+		 * The commit date of the first dated line of this chunk as epoch day.
+		 */
+		private int firstCommitDay = CommitResult.NO_COMMIT_DAY;
+		
+		/**
+		 * The byte offset of the first dated line of this chunk.
+		 */
+		private long firstOffset = -1;
+		
+		/**
+		 * The commit date of the last dated line of this chunk as epoch day.
+		 */
+		private int lastCommitDay = CommitResult.NO_COMMIT_DAY;
+		
+		/**
+		 * The byte offset of the last dated line of this chunk.
+		 */
+		private long lastOffset = -1;
+		
+		/**
+		 * Construct a new {@link ChunkCheck}.
+		 * 
+		 * @param positionName the name of the position of a line in the checked file
+		 */
+		private ChunkCheck(String positionName) {
+			this.positionName = positionName;
+		}
+		
+		@Override
+		public void handleLine(ResultLine line) {
+			linesCount++;
+			if (line.getError() != null) {
+				violationsCount++;
+				if (violations.size() < MAX_REPORTED_VIOLATIONS) {
+					violations.add(positionName + " " + line.getOffset() + ": " + line.getError());
+				}
+			} else {
+				if (commitNumberHashesCount == commitNumberHashes.length) {
+					commitNumberHashes = Arrays.copyOf(commitNumberHashes, 2 * commitNumberHashesCount);
+				}
+				commitNumberHashes[commitNumberHashesCount++] = line.getCommitNumberHash();
+				int commitDay = line.getCommitDay();
+				if (commitDay != CommitResult.NO_COMMIT_DAY) {
+					if (firstOffset < 0) {
+						firstCommitDay = commitDay;
+						firstOffset = line.getOffset();
+					} else if (commitDay > lastCommitDay) {
+						violationsCount++;
+						if (violations.size() < MAX_REPORTED_VIOLATIONS) {
+							violations.add(getOrderViolation(positionName, line.getOffset(), commitDay, lastOffset,
+									lastCommitDay));
+						}
+					}
+					lastCommitDay = commitDay;
+					lastOffset = line.getOffset();
+				}
+			}
+		}
+
+	}
+	
+	/**
+	 * This class collects the offsets of the lines of a single chunk, whose commit SHAs have one of the given hashes.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class DuplicateCollector implements LineHandler {
+		
+		/**
+		 * The hashes of the commit SHAs of multiple lines.
+		 */
+		private Set<Long> duplicateHashes;
+		
+		/**
+		 * The byte offsets of the lines of this chunk by their commit SHA, if its hash is one of the
+		 * {@link #duplicateHashes}.
+		 */
+		private Map<String, List<Long>> offsets = new LinkedHashMap<String, List<Long>>();
+		
+		/**
+		 * Construct a new {@link DuplicateCollector}.
+		 * 
+		 * @param duplicateHashes the hashes of the commit SHAs of multiple lines
+		 */
+		private DuplicateCollector(Set<Long> duplicateHashes) {
+			this.duplicateHashes = duplicateHashes;
+		}
+		
+		@Override
+		public void handleLine(ResultLine line) {
+			if (line.getError() == null && duplicateHashes.contains(line.getCommitNumberHash())) {
+				String commitNumber = line.getCommitNumber();
+				List<Long> commitOffsets = offsets.get(commitNumber);
+				if (commitOffsets == null) {
+					commitOffsets = new ArrayList<Long>();
+					offsets.put(commitNumber, commitOffsets);
+				}
+				commitOffsets.add(line.getOffset());
+			}
+		}
+	}
+	
+	public static void main(String[] args) {
+		List<File> resultFiles = new ArrayList<File>();
+		String[] resultPaths = (args.length > 0) ? args : new String[] {COMAN_RESULTS_DIR.getPath()};
+		for (String resultPath : resultPaths) {
+			File resultPathFile = new File(resultPath);
+			if (resultPathFile.isDirectory()) {
+				File[] dirFiles = resultPathFile.listFiles();
+				Arrays.sort(dirFiles);
+				for (File dirFile : dirFiles) {
+					if (dirFile.isFile()) {
+						resultFiles.add(dirFile);
+					}
+				}
+			} else if (resultPathFile.isFile()) {
+				resultFiles.add(resultPathFile);
+			} else {
+				System.err.println("ComAn results file or directory does not exist: " + resultPathFile.getAbsolutePath());
+			}
+		}
+		boolean allValid = !resultFiles.isEmpty();
+		for (File resultFile : resultFiles) {
+			System.out.println("Checking " + resultFile.getName() + "----");
+			try {
+				allValid = checkResultFile(resultFile) && allValid;
+			} catch (IOException e) {
+				ComAnLogger.getInstance().log(CLASS_ID, "Checking file \"" + resultFile.getAbsolutePath() + "\" failed",
+						e.getMessage(), MessageType.ERROR);
+				allValid = false;
+			}
+			System.out.println("Checking " + resultFile.getName() + " done ----\n");
+		}
+		if (!allValid) {
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Check the given result file and print its violations.
+	 * 
+	 * @param resultFile the result {@link File} to check
+	 * @return <code>true</code> if the given file does not contain violations, <code>false</code> otherwise
+	 * @throws IOException if reading the file fails
+	 */
+	private static boolean checkResultFile(File resultFile) throws IOException {
+		long startTime = System.currentTimeMillis();
+		ResultFileScanner scanner = new ResultFileScanner(resultFile);
+		final String positionName = getPositionName(scanner);
+		long violationsCount = 0;
+		if (!scanner.isKnownHeader()) {
+			System.out.println(positionName + " " + (scanner.isCompressed() ? 1 : 0) + ": unknown header \""
+					+ scanner.getHeader() + "\"");
+			violationsCount++;
+		}
+		List<ChunkCheck> chunkChecks = scanner.scan(new LineHandlerFactory<ChunkCheck>() {
+			@Override
+			public ChunkCheck createHandler() {
+				return new ChunkCheck(positionName);
+			}
+		}, THREADS, ResultFileScanner.DEFAULT_CHUNK_SIZE);
+		long linesCount = 0;
+		int commitNumberHashesCount = 0;
+		ChunkCheck previousDatedChunk = null;
+		for (ChunkCheck chunkCheck : chunkChecks) {
+			// Check the order of the last commit of the previous chunk and the first commit of this chunk
+			if (previousDatedChunk != null && chunkCheck.firstOffset >= 0
+					&& chunkCheck.firstCommitDay > previousDatedChunk.lastCommitDay) {
+				System.out.println(getOrderViolation(positionName, chunkCheck.firstOffset, chunkCheck.firstCommitDay,
+						previousDatedChunk.lastOffset, previousDatedChunk.lastCommitDay));
+				violationsCount++;
+			}
+			if (chunkCheck.firstOffset >= 0) {
+				previousDatedChunk = chunkCheck;
+			}
+			for (String violation : chunkCheck.violations) {
+				System.out.println(violation);
+			}
+			if (chunkCheck.violationsCount > chunkCheck.violations.size()) {
+				System.out.println("... " + (chunkCheck.violationsCount - chunkCheck.violations.size())
+						+ " further violations in this part of the file");
+			}
+			violationsCount = violationsCount + chunkCheck.violationsCount;
+			linesCount = linesCount + chunkCheck.linesCount;
+			commitNumberHashesCount = commitNumberHashesCount + chunkCheck.commitNumberHashesCount;
+		}
+		violationsCount = violationsCount + checkDuplicates(scanner, chunkChecks, commitNumberHashesCount);
+		System.out.println(linesCount + " lines (" + scanner.getFileSize() + " bytes) checked in "
+				+ (System.currentTimeMillis() - startTime) + " ms: " + violationsCount + " violations");
+		return violationsCount == 0;
+	}
+	
+	/**
+	 * Check the commit SHAs of all well-formed lines for duplicates and print the offsets (line numbers, if the file
+	 * is compressed) of the lines of each duplicate commit.
+	 * 
+	 * @param scanner the {@link ResultFileScanner} of the checked file
+	 * @param chunkChecks the {@link ChunkCheck}s of all chunks of the checked file
+	 * @param commitNumberHashesCount the number of hashes of all chunks
+	 * @return the number of duplicate lines, which is the number of lines of each duplicate commit except its first
+	 * line
+	 * @throws IOException if scanning the file again fails
+	 */
+	private static long checkDuplicates(ResultFileScanner scanner, List<ChunkCheck> chunkChecks,
+			int commitNumberHashesCount) throws IOException {
+		long[] commitNumberHashes = new long[commitNumberHashesCount];
+		int position = 0;
+		for (ChunkCheck chunkCheck : chunkChecks) {
+			System.arraycopy(chunkCheck.commitNumberHashes, 0, commitNumberHashes, position,
+					chunkCheck.commitNumberHashesCount);
+			position = position + chunkCheck.commitNumberHashesCount;
+			chunkCheck.commitNumberHashes = null;
+		}
+		Arrays.parallelSort(commitNumberHashes);
+		final Set<Long> duplicateHashes = new HashSet<Long>();
+		for (int i = 1; i < commitNumberHashes.length; i++) {
+			if (commitNumberHashes[i] == commitNumberHashes[i - 1]) {
+				duplicateHashes.add(commitNumberHashes[i]);
+			}
+		}
+		long duplicatesCount = 0;
+		if (!duplicateHashes.isEmpty()) {
+			List<DuplicateCollector> duplicateCollectors = scanner.scan(new LineHandlerFactory<DuplicateCollector>() {
+				@Override
+				public DuplicateCollector createHandler() {
+					return new DuplicateCollector(duplicateHashes);
+				}
+			}, THREADS, ResultFileScanner.DEFAULT_CHUNK_SIZE);
+			Map<String, List<Long>> offsets = new LinkedHashMap<String, List<Long>>();
+			for (DuplicateCollector duplicateCollector : duplicateCollectors) {
+				for (Map.Entry<String, List<Long>> commitOffsets : duplicateCollector.offsets.entrySet()) {
+					List<Long> allCommitOffsets = offsets.get(commitOffsets.getKey());
+					if (allCommitOffsets == null) {
+						offsets.put(commitOffsets.getKey(), commitOffsets.getValue());
+					} else {
+						allCommitOffsets.addAll(commitOffsets.getValue());
+					}
+				}
+			}
+			// Equal hashes of different SHAs are no duplicates
+			int reportedDuplicates = 0;
+			for (Map.Entry<String, List<Long>> commitOffsets : offsets.entrySet()) {
+				List<Long> commitOffsetsList = commitOffsets.getValue();
+				if (commitOffsetsList.size() > 1) {
+					if (reportedDuplicates < MAX_REPORTED_VIOLATIONS) {
+						System.out.println(getPositionName(scanner) + "s "
+								+ commitOffsetsList.subList(0, Math.min(10, commitOffsetsList.size()))
+								+ (commitOffsetsList.size() > 10 ? "..." : "") + ": duplicate commit "
+								+ commitOffsets.getKey() + " in " + commitOffsetsList.size() + " lines");
+					}
+					reportedDuplicates++;
+					duplicatesCount = duplicatesCount + commitOffsetsList.size() - 1;
+				}
+			}
+			if (reportedDuplicates > MAX_REPORTED_VIOLATIONS) {
+				System.out.println("... " + (reportedDuplicates - MAX_REPORTED_VIOLATIONS) + " further duplicate commits");
+			}
+		}
+		return duplicatesCount;
+	}
+	
+	/**
+	 * Return the name of the position of a line in the file of the given scanner: the byte offset of the line, if the
+	 * file is uncompressed, or its line number, if the file is compressed (see {@link ResultFileScanner#isCompressed()}).
+	 * 
+	 * @param scanner the {@link ResultFileScanner} of the checked file
+	 * @return "Offset" if the file is uncompressed or "Line" if it is compressed
+	 */
+	private static String getPositionName(ResultFileScanner scanner) {
+		return scanner.isCompressed() ? "Line" : "Offset";
+	}
+	
+	/**
+	 * Return the description of a commit, which is newer than the previous commit.
+	 * 
+	 * @param positionName the name of the position of a line in the checked file, which is either "Offset" or "Line"
+	 * @param offset the byte offset (line number) of the line of the commit
+	 * @param commitDay the date of the commit as epoch day
+	 * @param previousOffset the byte offset (line number) of the line of the previous commit
+	 * @param previousCommitDay the date of the previous commit as epoch day
+	 * @return the description of the order violation
+	 */
+	private static String getOrderViolation(String positionName, long offset, int commitDay, long previousOffset,
+			int previousCommitDay) {
+		return positionName + " " + offset + ": commits not in order: commit date "
+				+ CommitResult.formatCommitDay(commitDay) + " after " + CommitResult.formatCommitDay(previousCommitDay)
+				+ " at " + positionName.toLowerCase() + " " + previousOffset;
+	}
+}
@@ -0,0 +1,85 @@
+package check;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import result.BinaryResultEncoder;
+import result.CommitResult;
+import result.JsonLinesResultEncoder;
+import result.ResultEncoder;
+
+/**
+ * This class measures the number of results per second encoded by each {@link ResultEncoder} and decoded from
+ * binary records.<br><br>
+ * 
+ * The given number of synthetic results (or {@link #DEFAULT_ROWS}, if no number is given) is encoded into memory
+ * multiple times. The first runs include the warm-up of the JVM.
+ * 
+ * @author agent
+ *
+ */
+public class ResultEncoderBenchmark {
+	
+	/**
+	 * The number of results encoded in each run, if no number is given as argument.<br><br>
+	 * 
+	 * Value: {@value #DEFAULT_ROWS};
+	 */
+	private static final int DEFAULT_ROWS = 1000000;
+	
+	/**
+	 * The number of times all results are encoded by each encoder.<br><br>
+	 * 
+	 * Value: {@value #RUNS};
+	 */
+	private static final int RUNS = 5;
+	
+	public static void main(String[] args) throws IOException {
+		int rows = DEFAULT_ROWS;
+		if (args.length > 0) {
+			rows = Integer.parseInt(args[0]);
+		}
+		CommitResult[] commitResults = new CommitResult[rows];
+		for (int i = 0; i < rows; i++) {
+			commitResults[i] = new CommitResult(String.format("%040x", i), "2016/11/" + (10 + i % 20),
+					i % 3, i % 100, i % 7, i % 2, i % 50, i % 5, i % 4, i % 30, i % 11);
+		}
+		ResultEncoder[] resultEncoders = {new JsonLinesResultEncoder(), new BinaryResultEncoder()};
+		for (int i = 0; i < RUNS; i++) {
+			for (ResultEncoder resultEncoder : resultEncoders) {
+				ByteArrayOutputStream encodedResults = new ByteArrayOutputStream();
+				OutputStream out = new BufferedOutputStream(encodedResults, 1 << 16);
+				long timeBefore = System.nanoTime();
+				resultEncoder.writeHeader(out);
+				for (CommitResult commitResult : commitResults) {
+					resultEncoder.write(commitResult, out);
+				}
+				out.flush();
+				printRate("Run " + (i + 1) + ": encoding " + resultEncoder.getClass().getSimpleName(), rows,
+						System.nanoTime() - timeBefore, encodedResults.size());
+				if (resultEncoder instanceof BinaryResultEncoder) {
+					timeBefore = System.nanoTime();
+					DataInputStream in = new DataInputStream(new BufferedInputStream(
+							new ByteArrayInputStream(encodedResults.toByteArray()), 1 << 16));
+					BinaryResultEncoder.readHeader(in);
+					int decodedRows = 0;
+					while (BinaryResultEncoder.readRecord(in) != null) {
+						decodedRows++;
+					}
+					printRate("Run " + (i + 1) + ": decoding " + resultEncoder.getClass().getSimpleName(), decodedRows,
+							System.nanoTime() - timeBefore, encodedResults.size());
+				}
+			}
+		}
+	}
+	
+	private static void printRate(String description, int rows, long nanos, int bytes) {
+		System.out.println(description + ": " + rows + " rows, " + bytes + " bytes, " + (nanos / 1000000) + " ms ("
+				+ (long) (rows * 1e9 / Math.max(1, nanos)) + " rows/s)");
+	}
+}
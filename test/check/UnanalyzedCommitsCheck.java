@@ -3,7 +3,6 @@ package check;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -12,6 +11,7 @@ import java.util.List;
 
 import main.ComAnLogger;
 import main.ComAnLogger.MessageType;
+import result.GzipTextWriter;
 
 public class UnanalyzedCommitsCheck {
 	
@@ -138,7 +138,8 @@ public class UnanalyzedCommitsCheck {
 
 	/**
 	 * Read the content of the given file and return a list of strings in which each string
-	 * contains a single line of the content of the file.
+	 * contains a single line of the content of the file. Gzip-compressed files (see
+	 * {@link GzipTextWriter#openReader(File)}) are decompressed while reading.
 	 * 
 	 * @param file the {@link File} the content should be read from
 	 * @return a {@link List} of {@link String}s representing the line-wise content of the
@@ -146,12 +147,10 @@ public class UnanalyzedCommitsCheck {
 	 */
 	private static List<String> readFile(File file) {
 		List<String> fileLines = null;
-		FileReader fileReader = null;
 		BufferedReader bufferedReader = null;		
 		try {
 			fileLines = new ArrayList<String>();
-			fileReader = new FileReader(file);
-			bufferedReader = new BufferedReader(fileReader);
+			bufferedReader = GzipTextWriter.openReader(file);
 			String fileLine;
 			while ((fileLine = bufferedReader.readLine()) != null) {
 				fileLines.add(fileLine);
@@ -160,15 +159,7 @@ public class UnanalyzedCommitsCheck {
 			ComAnLogger.getInstance().log(CLASS_ID, "Reading file \"" + file.getAbsolutePath() + "\" failed", 
 					e.getMessage(), MessageType.ERROR);
 		} finally {
-			// Close the readers in any case
-			if (fileReader != null) {
-				try {
-					fileReader.close();
-				} catch (IOException e) {
-					ComAnLogger.getInstance().log(CLASS_ID, "Closing file reader for \"" 
-							+ file.getAbsolutePath() + "\" failed", e.getMessage(), MessageType.ERROR);
-				}
-			}
+			// Close the reader in any case
 			if (bufferedReader != null) {
 				try {
 					bufferedReader.close();
@@ -16,7 +16,20 @@ import org.junit.runners.Suite.SuiteClasses;
 	 */
 	//DiffAnalyzerBusyboxTests.class,
 	DiffAnalyzerCorebootTests.class,
-	DiffAnalyzerLinuxTests.class
+	DiffAnalyzerLinuxTests.class,
+	ResultTableTests.class,
+	ResultStoreTests.class,
+	DiffAnalyzerLowMemoryTests.class,
+	FileResultWriterTests.class,
+	GzipTextWriterTests.class,
+	ResultEncoderTests.class,
+	ClassificationTracerTests.class,
+	ResultLogTests.class,
+	ResultRollupTests.class,
+	LineCountHistogramTests.class,
+	ResultFileScannerTests.class,
+	ResultMergerTests.class,
+	ResultSummarizerTests.class
 })
 
 /**
@@ -0,0 +1,136 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import diff.ClassificationTracer;
+import diff.DiffAnalyzer;
+import result.CommitResult;
+import result.ResultColumn;
+
+/**
+ * This class provides some {@link ClassificationTracer} tests checking that the traced classification of the
+ * changed lines is consistent with the results of the analysis and that only the diffs matching the filters of
+ * the tracer are traced.
+ * 
+ * @author agent
+ *
+ */
+public class ClassificationTracerTests extends AbstractTests {
+	
+	/**
+	 * The directory in which the artificial input files are located.
+	 */
+	private static final File ARTIFICIAL_TEST_INPUT_DIR = new File("testdata/test_artificial_input");
+	
+	/**
+	 * The names of the artificial commit files analyzed by the tests of this class.
+	 */
+	private static final String[] COMMIT_FILE_NAMES = {"sourceChangeCommit.txt", "buildChangeCommit.txt",
+			"modelChangeCommit.txt", "sourceAddDeleteFileCommit.txt"};
+	
+	/**
+	 * Test that tracing all diffs does not change the results of the analysis and that the numbers of traced
+	 * lines classified as artifact-specific or variability information are equal to the numbers of counted lines.
+	 * 
+	 * @throws IOException if writing or reading the temporary trace file fails
+	 */
+	@Test
+	public void testTraceAllDiffs() throws IOException {
+		File traceFile = File.createTempFile("ComAn_Trace", ".bin");
+		try {
+			CommitResult[] tracedResults = analyze(traceFile, null, null);
+			for (int i = 0; i < COMMIT_FILE_NAMES.length; i++) {
+				File commitFile = new File(ARTIFICIAL_TEST_INPUT_DIR, COMMIT_FILE_NAMES[i]);
+				DiffAnalyzer expectedDiffAnalyzer = new DiffAnalyzer(commitFile);
+				assertTrue("[ClassificationTracerTests] Analysis without tracer must succeed",
+						expectedDiffAnalyzer.analyze());
+				CommitResult expectedResult = expectedDiffAnalyzer.getResult();
+				for (ResultColumn column : ResultColumn.values()) {
+					assertEquals("[ClassificationTracerTests] Wrong " + column + " of " + COMMIT_FILE_NAMES[i],
+							expectedResult.getCount(column), tracedResults[i].getCount(column));
+				}
+				int artifactLines = 0;
+				int variabilityLines = 0;
+				for (String tracedLine : ClassificationTracer.read(traceFile, expectedDiffAnalyzer.getCommitNumber())) {
+					if (tracedLine.endsWith("\tARTIFACT")) {
+						artifactLines++;
+					} else if (tracedLine.endsWith("\tVARIABILITY")) {
+						variabilityLines++;
+					}
+				}
+				assertEquals("[ClassificationTracerTests] Wrong number of traced artifact lines of "
+						+ COMMIT_FILE_NAMES[i], expectedResult.getCount(ResultColumn.CCLAI)
+						+ expectedResult.getCount(ResultColumn.CBLAI) + expectedResult.getCount(ResultColumn.CMLAI),
+						artifactLines);
+				assertEquals("[ClassificationTracerTests] Wrong number of traced variability lines of "
+						+ COMMIT_FILE_NAMES[i], expectedResult.getCount(ResultColumn.CCLVI)
+						+ expectedResult.getCount(ResultColumn.CBLVI) + expectedResult.getCount(ResultColumn.CMLVI),
+						variabilityLines);
+			}
+		} finally {
+			traceFile.delete();
+		}
+	}
+	
+	/**
+	 * Test that only the diffs of the commits and files matching the filters of the tracer are traced.
+	 * 
+	 * @throws IOException if writing or reading the temporary trace file fails
+	 */
+	@Test
+	public void testTraceFilteredDiffs() throws IOException {
+		File traceFile = File.createTempFile("ComAn_Trace", ".bin");
+		try {
+			analyze(traceFile, Pattern.compile("^model"), Pattern.compile("Kconfig"));
+			for (String commitFileName : COMMIT_FILE_NAMES) {
+				String commitNumber = commitFileName.split("\\.")[0];
+				List<String> tracedLines = ClassificationTracer.read(traceFile, commitNumber);
+				if (commitNumber.startsWith("model")) {
+					assertTrue("[ClassificationTracerTests] Lines of " + commitFileName + " must be traced",
+							!tracedLines.isEmpty());
+					for (String tracedLine : tracedLines) {
+						assertTrue("[ClassificationTracerTests] Wrong file traced: " + tracedLine,
+								tracedLine.split("\t")[0].contains("Kconfig"));
+					}
+				} else {
+					assertEquals("[ClassificationTracerTests] Lines of " + commitFileName + " must not be traced",
+							0, tracedLines.size());
+				}
+			}
+		} finally {
+			traceFile.delete();
+		}
+	}
+	
+	/**
+	 * Analyze the artificial commits with a single {@link DiffAnalyzer}, which traces the diffs matching the given
+	 * filters to the given trace file.
+	 * 
+	 * @param traceFile the {@link File} to write the trace to
+	 * @param commitFilter the filter for the SHAs of the commits to trace or <code>null</code>
+	 * @param pathFilter the filter for the paths of the files to trace or <code>null</code>
+	 * @return the {@link CommitResult}s of the artificial commits in the order of {@link #COMMIT_FILE_NAMES}
+	 * @throws IOException if writing the trace file fails
+	 */
+	private CommitResult[] analyze(File traceFile, Pattern commitFilter, Pattern pathFilter) throws IOException {
+		CommitResult[] results = new CommitResult[COMMIT_FILE_NAMES.length];
+		ClassificationTracer tracer = new ClassificationTracer(traceFile, commitFilter, pathFilter);
+		DiffAnalyzer diffAnalyzer = new DiffAnalyzer(new File(ARTIFICIAL_TEST_INPUT_DIR, COMMIT_FILE_NAMES[0]));
+		diffAnalyzer.setTracer(tracer);
+		for (int i = 0; i < COMMIT_FILE_NAMES.length; i++) {
+			diffAnalyzer.reset(new File(ARTIFICIAL_TEST_INPUT_DIR, COMMIT_FILE_NAMES[i]));
+			assertTrue("[ClassificationTracerTests] Analysis with tracer must succeed", diffAnalyzer.analyze());
+			results[i] = diffAnalyzer.getResult();
+		}
+		tracer.close();
+		return results;
+	}
+}
@@ -1,5 +1,7 @@
 package test;
 
+import static org.junit.Assert.assertTrue;
+
 import java.io.File;
 
 import org.junit.Test;
@@ -31,4 +33,24 @@ public class DiffAnalyzerArtificialTests extends AbstractTests {
 		this.compareResultsToExpectedValues("DiffAnalyzerArtificialTests", ARTIFICIAL_TEST_INPUT_DIR, "sourceChangeCommit.txt", 0, 0, 0, 1, 14, 49, 0, 0, 0);
 		this.compareResultsToExpectedValues("DiffAnalyzerArtificialTests", ARTIFICIAL_TEST_INPUT_DIR, "buildChangeCommit.txt", 0, 0, 0, 0, 0, 0, 1, 6, 6);
 	}
+	
+	/**
+	 * Test the {@link DiffAnalyzer} by providing a commit, which adds a whole source code file and deletes another
+	 * one. All changed lines of these diffs are of the same change type.
+	 */
+	@Test
+	public void testWholeFileChangeDetection() {
+		this.compareResultsToExpectedValues("DiffAnalyzerArtificialTests", ARTIFICIAL_TEST_INPUT_DIR, "sourceAddDeleteFileCommit.txt", 0, 0, 0, 2, 34, 18, 0, 0, 0);
+	}
+	
+	/**
+	 * Test the {@link DiffAnalyzer} by providing a commit, which only changes documentation, scripts, and other
+	 * files. The lines of these diffs are skipped, but the commit is analyzed successfully with zero changes.
+	 */
+	@Test
+	public void testOtherChangeDetection() {
+		DiffAnalyzer diffAnalyzer = new DiffAnalyzer(new File(ARTIFICIAL_TEST_INPUT_DIR, "otherChangeCommit.txt"));
+		assertTrue("[DiffAnalyzerArtificialTests] Commit changing other files only must be analyzed", diffAnalyzer.analyze());
+		this.compareResultsToExpectedValues("DiffAnalyzerArtificialTests", ARTIFICIAL_TEST_INPUT_DIR, "otherChangeCommit.txt", 0, 0, 0, 0, 0, 0, 0, 0, 0);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import diff.DiffAnalyzer;
+import diff.MemoryBudget;
+
+/**
+ * This class provides some {@link DiffAnalyzer} tests checking that a {@link MemoryBudget} limits the memory for
+ * reading commit files of all analyzers sharing it and only affects commits, which do not fit into that budget.
+ * 
+ * @author agent
+ *
+ */
+public class DiffAnalyzerLowMemoryTests extends AbstractTests {
+	
+	/**
+	 * The directory in which the artificial input files are located.
+	 */
+	private static final File ARTIFICIAL_TEST_INPUT_DIR = new File("testdata/test_artificial_input");
+	
+	/**
+	 * The number of characters of the long line of the commit created by {@link #createLongLineCommitFile()}. This
+	 * line is longer than the initial buffers of the analyzers.
+	 */
+	private static final int LONG_LINE_LENGTH = 20000;
+	
+	/**
+	 * The number of bytes of a budget, which fits the bytes reserved by a single analyzer for reading the model
+	 * commit, but neither the bytes reserved by two analyzers nor the grown buffers of an analyzer reading the long
+	 * line.
+	 */
+	private static final long SMALL_BUDGET_BYTES = 100000;
+	
+	/**
+	 * The number of threads analyzing the model commit concurrently in {@link #testSharedBudget()}.<br><br>
+	 * 
+	 * Value: {@value #SHARED_BUDGET_THREADS};
+	 */
+	private static final int SHARED_BUDGET_THREADS = 3;
+	
+	/**
+	 * The number of analyses of the model commit by each thread in {@link #testSharedBudget()}.<br><br>
+	 * 
+	 * Value: {@value #SHARED_BUDGET_ANALYSES};
+	 */
+	private static final int SHARED_BUDGET_ANALYSES = 20;
+	
+	/**
+	 * Test that the analyzers sharing a {@link MemoryBudget} are limited in total: analyzers, which do not fit into
+	 * the budget at the same time, wait for each other instead of failing and analyze the commit without changes to
+	 * its results. The bytes of an analyzer are only reserved while reading a commit.
+	 * 
+	 * @throws InterruptedException if the test thread is interrupted while waiting for the analyzing threads
+	 */
+	@Test
+	public void testSharedBudget() throws InterruptedException {
+		final File modelCommitFile = new File(ARTIFICIAL_TEST_INPUT_DIR, "modelChangeCommit.txt");
+		final DiffAnalyzer expectedDiffAnalyzer = new DiffAnalyzer(modelCommitFile);
+		assertTrue("[DiffAnalyzerLowMemoryTests] Analysis without budget must succeed", expectedDiffAnalyzer.analyze());
+		
+		final MemoryBudget memoryBudget = new MemoryBudget(SMALL_BUDGET_BYTES);
+		DiffAnalyzer firstDiffAnalyzer = new DiffAnalyzer(modelCommitFile);
+		firstDiffAnalyzer.setMemoryBudget(memoryBudget);
+		assertTrue("[DiffAnalyzerLowMemoryTests] Analysis within budget must succeed", firstDiffAnalyzer.analyze());
+		assertEquals("[DiffAnalyzerLowMemoryTests] Budget must not be reserved after the analysis", 0,
+				memoryBudget.getReservedBytes());
+		
+		final AtomicInteger failedAnalysesCount = new AtomicInteger(0);
+		Thread[] analyzingThreads = new Thread[SHARED_BUDGET_THREADS];
+		for (int i = 0; i < analyzingThreads.length; i++) {
+			analyzingThreads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					DiffAnalyzer diffAnalyzer = new DiffAnalyzer(modelCommitFile);
+					diffAnalyzer.setMemoryBudget(memoryBudget);
+					for (int j = 0; j < SHARED_BUDGET_ANALYSES; j++) {
+						diffAnalyzer.reset(modelCommitFile);
+						if (!diffAnalyzer.analyze() || diffAnalyzer.getChangedModelLinesCount()
+								!= expectedDiffAnalyzer.getChangedModelLinesCount()
+								|| diffAnalyzer.getChangedModelVarLinesCount()
+								!= expectedDiffAnalyzer.getChangedModelVarLinesCount()) {
+							failedAnalysesCount.incrementAndGet();
+						}
+					}
+				}
+			});
+			analyzingThreads[i].start();
+		}
+		for (Thread analyzingThread : analyzingThreads) {
+			analyzingThread.join();
+		}
+		assertEquals("[DiffAnalyzerLowMemoryTests] Analyses within shared budget must succeed without changes", 0,
+				failedAnalysesCount.get());
+		assertEquals("[DiffAnalyzerLowMemoryTests] Budget must not be reserved after the analyses", 0,
+				memoryBudget.getReservedBytes());
+		assertTrue("[DiffAnalyzerLowMemoryTests] Peak must not exceed budget",
+				memoryBudget.getPeakReservedBytes() <= SMALL_BUDGET_BYTES);
+	}
+	
+	/**
+	 * Test that a commit containing a line, which exceeds the budget, is not analyzed and that the same commit is
+	 * analyzed without changes to its results within a larger budget.
+	 * 
+	 * @throws IOException if writing the temporary commit file fails
+	 */
+	@Test
+	public void testLongLine() throws IOException {
+		File longLineCommitFile = createLongLineCommitFile();
+		try {
+			DiffAnalyzer expectedDiffAnalyzer = new DiffAnalyzer(longLineCommitFile);
+			assertTrue("[DiffAnalyzerLowMemoryTests] Analysis without budget must succeed",
+					expectedDiffAnalyzer.analyze());
+			
+			MemoryBudget smallMemoryBudget = new MemoryBudget(SMALL_BUDGET_BYTES);
+			DiffAnalyzer diffAnalyzer = new DiffAnalyzer(longLineCommitFile);
+			diffAnalyzer.setMemoryBudget(smallMemoryBudget);
+			assertFalse("[DiffAnalyzerLowMemoryTests] Analysis of too long line must fail", diffAnalyzer.analyze());
+			assertEquals("[DiffAnalyzerLowMemoryTests] Oversized commit file must be detected up front", 1,
+					smallMemoryBudget.getOversizedFilesCount());
+			
+			MemoryBudget largeMemoryBudget = new MemoryBudget(SMALL_BUDGET_BYTES * 4);
+			diffAnalyzer.setMemoryBudget(largeMemoryBudget);
+			assertEquals("[DiffAnalyzerLowMemoryTests] Replaced budget must not be reserved", 0,
+					smallMemoryBudget.getReservedBytes());
+			diffAnalyzer.reset(longLineCommitFile);
+			assertTrue("[DiffAnalyzerLowMemoryTests] Analysis within budget must succeed", diffAnalyzer.analyze());
+			assertEquals("[DiffAnalyzerLowMemoryTests] Oversized commit file must not be counted within budget", 0,
+					largeMemoryBudget.getOversizedFilesCount());
+			assertEquals("[DiffAnalyzerLowMemoryTests] Changed source lines must not change",
+					expectedDiffAnalyzer.getChangedSourceLinesCount(), diffAnalyzer.getChangedSourceLinesCount());
+			assertEquals("[DiffAnalyzerLowMemoryTests] Changed source lines including variability must not change",
+					expectedDiffAnalyzer.getChangedSourceVarLinesCount(), diffAnalyzer.getChangedSourceVarLinesCount());
+		} finally {
+			longLineCommitFile.delete();
+		}
+	}
+	
+	/**
+	 * Create a temporary commit file changing a single source file by a line of {@link #LONG_LINE_LENGTH}
+	 * characters and a line referencing a configuration option.
+	 * 
+	 * @return the temporary commit {@link File}
+	 * @throws IOException if writing the file fails
+	 */
+	private File createLongLineCommitFile() throws IOException {
+		char[] longLine = new char[LONG_LINE_LENGTH];
+		Arrays.fill(longLine, 'a');
+		String commit = "2011-06-10 06:01:30 +0200\r\n"
+				+ "diff --git a/SourceA.c b/SourceA.c\r\n"
+				+ "index 15209be..d35f1a4 100644\r\n"
+				+ "--- a/SourceA.c\r\n"
+				+ "+++ b/SourceA.c\r\n"
+				+ "@@ -1,1 +1,3 @@\r\n"
+				+ " int a;\r\n"
+				+ "+int " + new String(longLine) + ";\r\n"
+				+ "+#ifdef CONFIG_A\r\n";
+		File commitFile = File.createTempFile("longLineCommit", ".txt");
+		FileOutputStream commitStream = new FileOutputStream(commitFile);
+		try {
+			commitStream.write(commit.getBytes(StandardCharsets.ISO_8859_1));
+		} finally {
+			commitStream.close();
+		}
+		return commitFile;
+	}
+}
@@ -0,0 +1,115 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import diff.DiffAnalyzer;
+import result.FileResult;
+import result.FileResultWriter;
+import result.ResultColumn;
+
+/**
+ * This class provides some {@link FileResultWriter} tests checking that the results of the changed files of a
+ * commit add up to the results of that commit and are written to the compressed file completely.
+ * 
+ * @author agent
+ *
+ */
+public class FileResultWriterTests extends AbstractTests {
+	
+	/**
+	 * The directory in which the artificial input files are located.
+	 */
+	private static final File ARTIFICIAL_TEST_INPUT_DIR = new File("testdata/test_artificial_input");
+	
+	/**
+	 * The names of the artificial commit files analyzed by the tests of this class.
+	 */
+	private static final String[] COMMIT_FILE_NAMES = {"sourceChangeCommit.txt", "buildChangeCommit.txt",
+			"modelChangeCommit.txt", "sourceAddDeleteFileCommit.txt", "otherChangeCommit.txt"};
+	
+	/**
+	 * Test that the file results of each commit add up to its commit results and that appending the same file
+	 * results by a second writer adds all rows again, but not the header.
+	 * 
+	 * @throws IOException if writing or reading the temporary file result file fails
+	 */
+	@Test
+	public void testWriteAndAppend() throws IOException {
+		List<String> expectedRows = new ArrayList<String>();
+		List<List<FileResult>> commitFileResults = new ArrayList<List<FileResult>>();
+		DiffAnalyzer diffAnalyzer = new DiffAnalyzer(new File(ARTIFICIAL_TEST_INPUT_DIR, COMMIT_FILE_NAMES[0]));
+		diffAnalyzer.enableFileResults();
+		for (String commitFileName : COMMIT_FILE_NAMES) {
+			diffAnalyzer.reset(new File(ARTIFICIAL_TEST_INPUT_DIR, commitFileName));
+			assertTrue("[FileResultWriterTests] Analysis of " + commitFileName + " must succeed", diffAnalyzer.analyze());
+			int[] counts = new int[ResultColumn.values().length];
+			for (FileResult fileResult : diffAnalyzer.getFileResults()) {
+				int column;
+				switch (fileResult.getFileType()) {
+					case SOURCE:
+						column = ResultColumn.CCF.ordinal();
+						break;
+					case BUILD:
+						column = ResultColumn.CBF.ordinal();
+						break;
+					default:
+						column = ResultColumn.CMF.ordinal();
+						break;
+				}
+				counts[column]++;
+				counts[column + 1] += fileResult.getAddedArtifactLinesCount() + fileResult.getDeletedArtifactLinesCount();
+				counts[column + 2] += fileResult.getAddedVarLinesCount() + fileResult.getDeletedVarLinesCount();
+				expectedRows.add(fileResult.getCommitNumber() + "\t" + fileResult.getFilePath() + "\t"
+						+ fileResult.getFileType() + "\t" + fileResult.getAddedArtifactLinesCount() + "\t"
+						+ fileResult.getDeletedArtifactLinesCount() + "\t" + fileResult.getAddedVarLinesCount() + "\t"
+						+ fileResult.getDeletedVarLinesCount());
+			}
+			for (ResultColumn column : ResultColumn.values()) {
+				assertEquals("[FileResultWriterTests] Wrong sum of " + column + " of " + commitFileName,
+						diffAnalyzer.getResult().getCount(column), counts[column.ordinal()]);
+			}
+			commitFileResults.add(diffAnalyzer.getFileResults());
+		}
+		File fileResultFile = File.createTempFile("ComAn_FileResults", ".tsv.gz");
+		fileResultFile.delete();
+		try {
+			for (int i = 0; i < 2; i++) {
+				FileResultWriter fileResultWriter = new FileResultWriter(fileResultFile);
+				for (List<FileResult> fileResults : commitFileResults) {
+					fileResultWriter.write(fileResults);
+				}
+				fileResultWriter.close();
+			}
+			List<String> rows = new ArrayList<String>();
+			BufferedReader reader = new BufferedReader(new InputStreamReader(
+					new GZIPInputStream(new FileInputStream(fileResultFile))));
+			try {
+				assertEquals("[FileResultWriterTests] Wrong header", FileResultWriter.HEADER, reader.readLine());
+				String row = reader.readLine();
+				while (row != null) {
+					rows.add(row);
+					row = reader.readLine();
+				}
+			} finally {
+				reader.close();
+			}
+			List<String> expectedAppendedRows = new ArrayList<String>(expectedRows);
+			expectedAppendedRows.addAll(expectedRows);
+			assertEquals("[FileResultWriterTests] Wrong rows", expectedAppendedRows, rows);
+		} finally {
+			fileResultFile.delete();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import result.GzipTextWriter;
+
+/**
+ * This class provides some {@link GzipTextWriter} tests checking that the text written by multiple writers to the
+ * same compressed file is read completely and in order.
+ * 
+ * @author agent
+ *
+ */
+public class GzipTextWriterTests extends AbstractTests {
+	
+	/**
+	 * The number of lines written by each writer.
+	 */
+	private static final int LINES_PER_WRITER = 10000;
+	
+	/**
+	 * Test that the lines appended by two writers one after another are read in order and that an empty compressed
+	 * file is read as empty text.
+	 * 
+	 * @throws IOException if writing or reading the temporary compressed file fails
+	 */
+	@Test
+	public void testWriteAndAppend() throws IOException {
+		File compressedFile = File.createTempFile("ComAn_Results", ".tsv" + GzipTextWriter.FILE_EXTENSION);
+		try {
+			BufferedReader reader = GzipTextWriter.openReader(compressedFile);
+			try {
+				assertNull("[GzipTextWriterTests] Empty file must not contain lines", reader.readLine());
+			} finally {
+				reader.close();
+			}
+			for (int i = 0; i < 2; i++) {
+				GzipTextWriter writer = new GzipTextWriter(compressedFile);
+				for (int j = 0; j < LINES_PER_WRITER; j++) {
+					writer.write("2016/11/17\tline" + (i * LINES_PER_WRITER + j) + "\n");
+				}
+				writer.close();
+			}
+			reader = GzipTextWriter.openReader(compressedFile);
+			try {
+				for (int i = 0; i < 2 * LINES_PER_WRITER; i++) {
+					assertEquals("[GzipTextWriterTests] Wrong line " + i, "2016/11/17\tline" + i, reader.readLine());
+				}
+				assertNull("[GzipTextWriterTests] Unexpected line after last written line", reader.readLine());
+			} finally {
+				reader.close();
+			}
+		} finally {
+			compressedFile.delete();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import result.LineCountHistogram;
+
+/**
+ * This class provides some {@link LineCountHistogram} tests checking the percentiles against the exact values as
+ * well as merging, writing, and reading histograms.
+ * 
+ * @author agent
+ *
+ */
+public class LineCountHistogramTests extends AbstractTests {
+	
+	/**
+	 * The percentiles checked by the tests.
+	 */
+	private static final double[] PERCENTILES = {0, 1, 25, 50, 90, 99, 99.9, 100};
+	
+	/**
+	 * Test that the percentiles of small numbers are exact.
+	 */
+	@Test
+	public void testExactPercentiles() {
+		LineCountHistogram histogram = new LineCountHistogram();
+		assertEquals("[LineCountHistogramTests] Wrong median of empty histogram", 0, histogram.getValueAtPercentile(50));
+		for (int i = 100; i >= 1; i--) {
+			histogram.add(i);
+		}
+		assertEquals("[LineCountHistogramTests] Wrong count", 100, histogram.getCount());
+		assertEquals("[LineCountHistogramTests] Wrong minimum", 1, histogram.getValueAtPercentile(0));
+		assertEquals("[LineCountHistogramTests] Wrong median", 50, histogram.getValueAtPercentile(50));
+		assertEquals("[LineCountHistogramTests] Wrong p90", 90, histogram.getValueAtPercentile(90));
+		assertEquals("[LineCountHistogramTests] Wrong p99", 99, histogram.getValueAtPercentile(99));
+		assertEquals("[LineCountHistogramTests] Wrong maximum", 100, histogram.getMax());
+	}
+	
+	/**
+	 * Test that the percentiles of large, skewed numbers exceed the exact values by less than 1% and that merging
+	 * two histograms equals adding all numbers to a single histogram.
+	 */
+	@Test
+	public void testApproximatedPercentilesAndMerge() {
+		Random random = new Random(42);
+		int[] values = new int[100000];
+		LineCountHistogram[] histograms = {new LineCountHistogram(), new LineCountHistogram()};
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (int) Math.min(Integer.MAX_VALUE, Math.exp(random.nextDouble() * 22));
+			histograms[i % 2].add(values[i]);
+		}
+		histograms[0].merge(histograms[1]);
+		Arrays.sort(values);
+		assertEquals("[LineCountHistogramTests] Wrong merged count", values.length, histograms[0].getCount());
+		assertEquals("[LineCountHistogramTests] Wrong merged maximum", values[values.length - 1], histograms[0].getMax());
+		for (double percentile : PERCENTILES) {
+			int exactValue = values[(int) Math.max(0, Math.ceil(percentile / 100 * values.length) - 1)];
+			int value = histograms[0].getValueAtPercentile(percentile);
+			assertTrue("[LineCountHistogramTests] p" + percentile + " " + value + " below exact value " + exactValue,
+					value >= exactValue);
+			assertTrue("[LineCountHistogramTests] p" + percentile + " " + value + " too far from exact value " + exactValue,
+					value - exactValue <= exactValue / 100);
+		}
+	}
+	
+	/**
+	 * Test that histograms are read as written.
+	 * 
+	 * @throws IOException if writing or reading the temporary histogram file fails
+	 */
+	@Test
+	public void testWriteAndRead() throws IOException {
+		Map<String, LineCountHistogram> histograms = new LinkedHashMap<String, LineCountHistogram>();
+		histograms.put("empty", new LineCountHistogram());
+		LineCountHistogram histogram = new LineCountHistogram();
+		for (int i = 0; i < 1000; i++) {
+			histogram.add(i * i * 7);
+		}
+		histograms.put("squares", histogram);
+		File histogramFile = File.createTempFile("ComAn_Distributions", ".bin");
+		try {
+			LineCountHistogram.writeAll(histograms, histogramFile);
+			Map<String, LineCountHistogram> readHistograms = LineCountHistogram.readAll(histogramFile);
+			assertEquals("[LineCountHistogramTests] Wrong histogram names", histograms.keySet().toString(),
+					readHistograms.keySet().toString());
+			for (String name : histograms.keySet()) {
+				assertEquals("[LineCountHistogramTests] Wrong count of " + name, histograms.get(name).getCount(),
+						readHistograms.get(name).getCount());
+				assertEquals("[LineCountHistogramTests] Wrong maximum of " + name, histograms.get(name).getMax(),
+						readHistograms.get(name).getMax());
+				for (double percentile : PERCENTILES) {
+					assertEquals("[LineCountHistogramTests] Wrong p" + percentile + " of " + name,
+							histograms.get(name).getValueAtPercentile(percentile),
+							readHistograms.get(name).getValueAtPercentile(percentile));
+				}
+			}
+		} finally {
+			histogramFile.delete();
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import result.BinaryResultEncoder;
+import result.CommitResult;
+import result.JsonLinesResultEncoder;
+import result.ResultColumn;
+import result.ResultEncoder;
+
+/**
+ * This class provides some {@link ResultEncoder} tests checking the format of the JSON Lines encoding and that
+ * binary records are read without changes.
+ * 
+ * @author agent
+ *
+ */
+public class ResultEncoderTests extends AbstractTests {
+	
+	/**
+	 * The results encoded by the tests of this class.
+	 */
+	private static final CommitResult[] COMMIT_RESULTS = {
+		new CommitResult("1cf5b87", "2016/11/17", 1, 2, 3, 4, 5, 6, 7, 8, 9),
+		new CommitResult("build\"Change\\Commit", null, 0, 0, 0, 1, 10, 2, 0, 0, 0),
+		new CommitResult("abcdef0123456789abcdef0123456789abcdef01", "2016/11/18", 10, 20, 30, 40, 50, 60, 70, 80, 90)
+	};
+	
+	/**
+	 * Test that the JSON Lines encoding starts with the schema and contains one object per result.
+	 * 
+	 * @throws IOException if encoding fails
+	 */
+	@Test
+	public void testJsonLines() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ResultEncoder resultEncoder = new JsonLinesResultEncoder();
+		resultEncoder.writeHeader(out);
+		for (CommitResult commitResult : COMMIT_RESULTS) {
+			resultEncoder.write(commitResult, out);
+		}
+		String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		assertEquals("[ResultEncoderTests] Wrong number of lines", COMMIT_RESULTS.length + 1, lines.length);
+		assertEquals("[ResultEncoderTests] Wrong schema", "{\"schema\":\"ComAn_Results\",\"version\":1,\"fields\":["
+				+ "\"Date\",\"Commit\",\"CCF\",\"CCLAI\",\"CCLVI\",\"CBF\",\"CBLAI\",\"CBLVI\",\"CMF\",\"CMLAI\",\"CMLVI\"]}",
+				lines[0]);
+		assertEquals("[ResultEncoderTests] Wrong first result", "{\"Date\":\"2016/11/17\",\"Commit\":\"1cf5b87\","
+				+ "\"CCF\":1,\"CCLAI\":2,\"CCLVI\":3,\"CBF\":4,\"CBLAI\":5,\"CBLVI\":6,\"CMF\":7,\"CMLAI\":8,\"CMLVI\":9}",
+				lines[1]);
+		assertEquals("[ResultEncoderTests] Wrong second result", "{\"Date\":null,\"Commit\":\"build\\\"Change\\\\Commit\","
+				+ "\"CCF\":0,\"CCLAI\":0,\"CCLVI\":0,\"CBF\":1,\"CBLAI\":10,\"CBLVI\":2,\"CMF\":0,\"CMLAI\":0,\"CMLVI\":0}",
+				lines[2]);
+	}
+	
+	/**
+	 * Test that all binary records are read without changes.
+	 * 
+	 * @throws IOException if encoding or decoding fails
+	 */
+	@Test
+	public void testBinaryRecords() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ResultEncoder resultEncoder = new BinaryResultEncoder();
+		resultEncoder.writeHeader(out);
+		for (CommitResult commitResult : COMMIT_RESULTS) {
+			resultEncoder.write(commitResult, out);
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+		String[] countFieldNames = BinaryResultEncoder.readHeader(in);
+		assertEquals("[ResultEncoderTests] Wrong number of count fields", ResultColumn.values().length,
+				countFieldNames.length);
+		for (ResultColumn column : ResultColumn.values()) {
+			assertEquals("[ResultEncoderTests] Wrong count field name", column.name(), countFieldNames[column.ordinal()]);
+		}
+		for (int i = 0; i < COMMIT_RESULTS.length; i++) {
+			CommitResult commitResult = BinaryResultEncoder.readRecord(in);
+			assertEquals("[ResultEncoderTests] Wrong commit of record " + i, COMMIT_RESULTS[i].getCommitNumber(),
+					commitResult.getCommitNumber());
+			assertEquals("[ResultEncoderTests] Wrong date of record " + i, COMMIT_RESULTS[i].getCommitDate(),
+					commitResult.getCommitDate());
+			for (ResultColumn column : ResultColumn.values()) {
+				assertEquals("[ResultEncoderTests] Wrong " + column + " of record " + i,
+						COMMIT_RESULTS[i].getCount(column), commitResult.getCount(column));
+			}
+		}
+		assertNull("[ResultEncoderTests] Unexpected record after last record", BinaryResultEncoder.readRecord(in));
+	}
+}
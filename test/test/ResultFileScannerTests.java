@@ -0,0 +1,248 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import result.CommitResult;
+import result.ResultColumn;
+import result.ResultFileScanner;
+import result.ResultFileScanner.LineHandler;
+import result.ResultFileScanner.LineHandlerFactory;
+import result.ResultFileScanner.ResultLine;
+
+/**
+ * This class provides some {@link ResultFileScanner} tests checking that each line is parsed exactly once
+ * independent of the size of the chunks and that malformed lines, legacy result files, and compressed result files
+ * are recognized.
+ * 
+ * @author agent
+ *
+ */
+public class ResultFileScannerTests extends AbstractTests {
+	
+	/**
+	 * The lines of the result file of the tests after the header line: well-formed lines including a line with
+	 * a Windows line break and a line without date, and malformed lines. The last line has no line break.
+	 */
+	private static final String RESULT_LINES = "2016/11/17\t1cf5b87\t1\t2\t3\t4\t5\t6\t7\t8\t9\n"
+			+ "2016/11/17\te34e178\t0\t24\t10\t3\t485\t6\t1\t3\t1\r\n"
+			+ "null\tbuildChangeCommit\t0\t0\t0\t1\t2\t0\t0\t0\t0\n"
+			+ "2016/11/16\t0004e99\t0\t0\t0\n"
+			+ "\n"
+			+ "2016/02/30\t0004e98\t0\t0\t0\t0\t0\t0\t0\t0\t0\n"
+			+ "2016/11/15\t0004e97\t0\t0\tx\t0\t0\t0\t0\t0\t0\n"
+			+ "2016/11/15\t0004e96\t0\t0\t99999999999\t0\t0\t0\t0\t0\t0\n"
+			+ "1999/01/02\tabcdef0123456789abcdef0123456789abcdef01\t9\t8\t7\t6\t5\t4\t3\t2\t1";
+	
+	/**
+	 * The lines expected from scanning {@link #RESULT_LINES} in the format of {@link LineCollector}.
+	 */
+	private static final String[] EXPECTED_LINES = {
+		"0 2016/11/17 1cf5b87 [1, 2, 3, 4, 5, 6, 7, 8, 9] null",
+		"37 2016/11/17 e34e178 [0, 24, 10, 3, 485, 6, 1, 3, 1] null",
+		"79 null buildChangeCommit [0, 0, 0, 1, 2, 0, 0, 0, 0] null",
+		"120 2016/11/16 0004e99 [0, 0, 0, 0, 0, 0, 0, 0, 0] 5 columns instead of 11",
+		"145 null  [0, 0, 0, 0, 0, 0, 0, 0, 0] Invalid date \"\"",
+		"146 null 0004e98 [0, 0, 0, 0, 0, 0, 0, 0, 0] Invalid date \"2016/02/30\"",
+		"183 2016/11/15 0004e97 [0, 0, 0, 0, 0, 0, 0, 0, 0] Invalid number \"x\" in column 5",
+		"220 2016/11/15 0004e96 [0, 0, 0, 0, 0, 0, 0, 0, 0] Invalid number \"99999999999\" in column 5",
+		"267 1999/01/02 abcdef0123456789abcdef0123456789abcdef01 [9, 8, 7, 6, 5, 4, 3, 2, 1] null"
+	};
+	
+	/**
+	 * This class collects the lines of a single chunk as text: the offset of the line (relative to the end of the
+	 * header line), the date, the commit SHA, the numbers, and the error.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class LineCollector implements LineHandler {
+		
+		/**
+		 * The lines of the chunk as text.
+		 */
+		private List<String> lines = new ArrayList<String>();
+		
+		/**
+		 * The byte offset of the first line after the header line.
+		 */
+		private long dataStart;
+		
+		/**
+		 * Construct a new {@link LineCollector}.
+		 * 
+		 * @param dataStart the byte offset of the first line after the header line
+		 */
+		private LineCollector(long dataStart) {
+			this.dataStart = dataStart;
+		}
+		
+		@Override
+		public void handleLine(ResultLine line) {
+			CommitResult commitResult = line.toCommitResult();
+			int[] counts = new int[ResultColumn.values().length];
+			for (ResultColumn column : ResultColumn.values()) {
+				counts[column.ordinal()] = commitResult.getCount(column);
+			}
+			lines.add((line.getOffset() - dataStart) + " " + commitResult.getCommitDate() + " "
+					+ commitResult.getCommitNumber() + " " + Arrays.toString(counts) + " " + line.getError());
+		}
+	}
+	
+	/**
+	 * Test that all lines are parsed exactly once and in order for chunks of various sizes.
+	 * 
+	 * @throws IOException if writing or scanning the temporary result file fails
+	 */
+	@Test
+	public void testChunks() throws IOException {
+		File resultFile = createResultFile(ResultFileScanner.HEADER + "\n" + RESULT_LINES);
+		try {
+			ResultFileScanner scanner = new ResultFileScanner(resultFile);
+			assertTrue("[ResultFileScannerTests] Header must be known", scanner.isKnownHeader());
+			final long dataStart = ResultFileScanner.HEADER.length() + 1;
+			long[] chunkSizes = {1, 2, 7, 40, 41, 100, ResultFileScanner.DEFAULT_CHUNK_SIZE};
+			for (long chunkSize : chunkSizes) {
+				List<LineCollector> lineCollectors = scanner.scan(new LineHandlerFactory<LineCollector>() {
+					@Override
+					public LineCollector createHandler() {
+						return new LineCollector(dataStart);
+					}
+				}, 3, chunkSize);
+				List<String> lines = new ArrayList<String>();
+				for (LineCollector lineCollector : lineCollectors) {
+					lines.addAll(lineCollector.lines);
+				}
+				assertEquals("[ResultFileScannerTests] Wrong number of lines for chunk size " + chunkSize,
+						EXPECTED_LINES.length, lines.size());
+				for (int i = 0; i < EXPECTED_LINES.length; i++) {
+					assertEquals("[ResultFileScannerTests] Wrong line " + i + " for chunk size " + chunkSize,
+							EXPECTED_LINES[i], lines.get(i));
+				}
+			}
+		} finally {
+			resultFile.delete();
+		}
+	}
+	
+	/**
+	 * Test that the lines of a compressed result file are parsed in a single chunk and identified by their line
+	 * numbers instead of their byte offsets.
+	 * 
+	 * @throws IOException if writing or scanning the temporary result file fails
+	 */
+	@Test
+	public void testCompressed() throws IOException {
+		File resultFile = createResultFile(ResultFileScanner.HEADER + "\n" + RESULT_LINES, true);
+		try {
+			ResultFileScanner scanner = new ResultFileScanner(resultFile);
+			assertTrue("[ResultFileScannerTests] Compressed file must be recognized", scanner.isCompressed());
+			assertTrue("[ResultFileScannerTests] Header must be known", scanner.isKnownHeader());
+			List<LineCollector> lineCollectors = scanner.scan(new LineHandlerFactory<LineCollector>() {
+				@Override
+				public LineCollector createHandler() {
+					// Line numbers start with 1 for the header line
+					return new LineCollector(2);
+				}
+			}, 3, 1);
+			assertEquals("[ResultFileScannerTests] Compressed file must be scanned as a single chunk", 1,
+					lineCollectors.size());
+			List<String> lines = lineCollectors.get(0).lines;
+			assertEquals("[ResultFileScannerTests] Wrong number of compressed lines", EXPECTED_LINES.length,
+					lines.size());
+			for (int i = 0; i < EXPECTED_LINES.length; i++) {
+				assertEquals("[ResultFileScannerTests] Wrong compressed line " + i,
+						i + EXPECTED_LINES[i].substring(EXPECTED_LINES[i].indexOf(' ')), lines.get(i));
+			}
+		} finally {
+			resultFile.delete();
+		}
+	}
+	
+	/**
+	 * Test that the columns of a legacy result file are mapped to the respective {@link ResultColumn}s.
+	 * 
+	 * @throws IOException if writing or scanning the temporary result file fails
+	 */
+	@Test
+	public void testLegacyHeader() throws IOException {
+		File resultFile = createResultFile(ResultFileScanner.LEGACY_HEADER + "\r\n"
+				+ "2016/11/17\te34e178\t1\t24\t10\t3\t485\t6\t1\t3\t1\n");
+		try {
+			ResultFileScanner scanner = new ResultFileScanner(resultFile);
+			assertTrue("[ResultFileScannerTests] Legacy header must be known", scanner.isKnownHeader());
+			final List<CommitResult> commitResults = new ArrayList<CommitResult>();
+			scanner.scan(new LineHandlerFactory<LineHandler>() {
+				@Override
+				public LineHandler createHandler() {
+					return new LineHandler() {
+						@Override
+						public void handleLine(ResultLine line) {
+							assertNull("[ResultFileScannerTests] Legacy line must be well-formed", line.getError());
+							commitResults.add(line.toCommitResult());
+						}
+					};
+				}
+			}, 1, ResultFileScanner.DEFAULT_CHUNK_SIZE);
+			assertEquals("[ResultFileScannerTests] Wrong number of legacy lines", 1, commitResults.size());
+			CommitResult commitResult = commitResults.get(0);
+			assertEquals("[ResultFileScannerTests] Wrong CMF", 1, commitResult.getChangedModelFilesCount());
+			assertEquals("[ResultFileScannerTests] Wrong CML", 24, commitResult.getChangedModelLinesCount());
+			assertEquals("[ResultFileScannerTests] Wrong CMVL", 10, commitResult.getChangedModelVarLinesCount());
+			assertEquals("[ResultFileScannerTests] Wrong CSF", 3, commitResult.getChangedSourceFilesCount());
+			assertEquals("[ResultFileScannerTests] Wrong CSL", 485, commitResult.getChangedSourceLinesCount());
+			assertEquals("[ResultFileScannerTests] Wrong CSVL", 6, commitResult.getChangedSourceVarLinesCount());
+			assertEquals("[ResultFileScannerTests] Wrong CBF", 1, commitResult.getChangedBuildFilesCount());
+			assertEquals("[ResultFileScannerTests] Wrong CBL", 3, commitResult.getChangedBuildLinesCount());
+			assertEquals("[ResultFileScannerTests] Wrong CBVL", 1, commitResult.getChangedBuildVarLinesCount());
+		} finally {
+			resultFile.delete();
+		}
+	}
+	
+	/**
+	 * Create a temporary, uncompressed result file with the given content.
+	 * 
+	 * @param content the content of the result file
+	 * @return the temporary result {@link File}
+	 * @throws IOException if writing the file fails
+	 */
+	private File createResultFile(String content) throws IOException {
+		return createResultFile(content, false);
+	}
+	
+	/**
+	 * Create a temporary result file with the given content.
+	 * 
+	 * @param content the content of the result file
+	 * @param compressed <code>true</code> if the file should be compressed with gzip, <code>false</code> otherwise
+	 * @return the temporary result {@link File}
+	 * @throws IOException if writing the file fails
+	 */
+	private File createResultFile(String content, boolean compressed) throws IOException {
+		File resultFile = File.createTempFile("ComAn_Results", compressed ? ".tsv.gz" : ".tsv");
+		OutputStream resultStream = new FileOutputStream(resultFile);
+		try {
+			if (compressed) {
+				resultStream = new GZIPOutputStream(resultStream);
+			}
+			resultStream.write(content.getBytes(StandardCharsets.ISO_8859_1));
+		} finally {
+			resultStream.close();
+		}
+		return resultFile;
+	}
+}
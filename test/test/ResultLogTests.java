@@ -0,0 +1,187 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+
+import result.CommitResult;
+import result.ResultLog;
+import result.ResultLogWriter;
+
+/**
+ * This class provides some {@link ResultLog} tests checking the lookups by SHA and date after multiple appends,
+ * including the replacement of the results of commits analyzed again and the recovery from an interrupted append.
+ * 
+ * @author agent
+ *
+ */
+public class ResultLogTests extends AbstractTests {
+	
+	/**
+	 * The number of commits appended by each writer.
+	 */
+	private static final int COMMITS_PER_WRITER = 1000;
+	
+	/**
+	 * Test that the results appended by two writers one after another are found by SHA and date and that a commit
+	 * appended again replaces its previous results.
+	 * 
+	 * @throws IOException if writing or reading the temporary result log fails
+	 */
+	@Test
+	public void testAppendAndLookup() throws IOException {
+		File resultLogDir = createResultLogDir();
+		try {
+			for (int i = 0; i < 2; i++) {
+				ResultLogWriter resultLogWriter = new ResultLogWriter(resultLogDir);
+				for (int j = 0; j < COMMITS_PER_WRITER; j++) {
+					resultLogWriter.append(createResult(i * COMMITS_PER_WRITER + j, 0));
+				}
+				if (i == 1) {
+					// Analyze the first commit again
+					resultLogWriter.append(createResult(0, 1));
+				}
+				resultLogWriter.close();
+			}
+			checkResultLog(resultLogDir);
+		} finally {
+			deleteResultLogDir(resultLogDir);
+		}
+	}
+	
+	/**
+	 * Test that an incomplete record at the end of the log file is ignored by readers and removed by the next
+	 * writer.
+	 * 
+	 * @throws IOException if writing or reading the temporary result log fails
+	 */
+	@Test
+	public void testInterruptedAppend() throws IOException {
+		File resultLogDir = createResultLogDir();
+		try {
+			ResultLogWriter resultLogWriter = new ResultLogWriter(resultLogDir);
+			for (int i = 0; i < 2 * COMMITS_PER_WRITER; i++) {
+				resultLogWriter.append(createResult(i, 0));
+			}
+			resultLogWriter.close();
+			// Append the start of a record without updating the indexes
+			FileOutputStream logStream = new FileOutputStream(new File(resultLogDir, ResultLog.LOG_FILE_NAME), true);
+			try {
+				logStream.write(new byte[] {0, 0, 0, 70, 0, 0});
+			} finally {
+				logStream.close();
+			}
+			ResultLog resultLog = ResultLog.open(resultLogDir);
+			try {
+				assertEquals("[ResultLogTests] Wrong number of records", 2 * COMMITS_PER_WRITER, resultLog.size());
+			} finally {
+				resultLog.close();
+			}
+			resultLogWriter = new ResultLogWriter(resultLogDir);
+			resultLogWriter.append(createResult(0, 1));
+			resultLogWriter.close();
+			checkResultLog(resultLogDir);
+		} finally {
+			deleteResultLogDir(resultLogDir);
+		}
+	}
+	
+	/**
+	 * Check that the given result log contains the results of {@link #COMMITS_PER_WRITER} * 2 commits, of which
+	 * the first one was appended again with the variant <code>1</code>.
+	 * 
+	 * @param resultLogDir the directory of the result log to check
+	 * @throws IOException if reading the result log fails
+	 */
+	private void checkResultLog(File resultLogDir) throws IOException {
+		ResultLog resultLog = ResultLog.open(resultLogDir);
+		try {
+			assertEquals("[ResultLogTests] Wrong number of records", 2 * COMMITS_PER_WRITER + 1, resultLog.size());
+			for (int i = 0; i < 2 * COMMITS_PER_WRITER; i++) {
+				CommitResult expectedResult = createResult(i, i == 0 ? 1 : 0);
+				checkResult(expectedResult, resultLog.get(expectedResult.getCommitNumber()));
+			}
+			assertNull("[ResultLogTests] Unknown commit must not be found", resultLog.get("0123456789abcdef"));
+			// Each day of the range contains the commits i with i % 100 == day offset
+			List<CommitResult> rangeResults = resultLog.getRange(CommitResult.parseCommitDay("2016/01/01"),
+					CommitResult.parseCommitDay("2016/01/02"));
+			assertEquals("[ResultLogTests] Wrong number of results in range", 2 * COMMITS_PER_WRITER / 100 * 2,
+					rangeResults.size());
+			for (CommitResult rangeResult : rangeResults) {
+				int commit = Integer.parseInt(rangeResult.getCommitNumber().substring(1));
+				checkResult(createResult(commit, commit == 0 ? 1 : 0), rangeResult);
+			}
+			assertEquals("[ResultLogTests] Wrong number of results in empty range", 0,
+					resultLog.getRange(CommitResult.parseCommitDay("2017/01/01"),
+							CommitResult.parseCommitDay("2017/12/31")).size());
+		} finally {
+			resultLog.close();
+		}
+	}
+	
+	/**
+	 * Check that the given actual result is equal to the given expected result.
+	 * 
+	 * @param expectedResult the expected {@link CommitResult}
+	 * @param actualResult the actual {@link CommitResult}
+	 */
+	private void checkResult(CommitResult expectedResult, CommitResult actualResult) {
+		assertEquals("[ResultLogTests] Wrong commit", expectedResult.getCommitNumber(), actualResult.getCommitNumber());
+		assertEquals("[ResultLogTests] Wrong date of " + expectedResult.getCommitNumber(),
+				expectedResult.getCommitDate(), actualResult.getCommitDate());
+		assertEquals("[ResultLogTests] Wrong results of " + expectedResult.getCommitNumber(),
+				expectedResult.getChangedSourceLinesCount(), actualResult.getChangedSourceLinesCount());
+		assertEquals("[ResultLogTests] Wrong results of " + expectedResult.getCommitNumber(),
+				expectedResult.getChangedModelVarLinesCount(), actualResult.getChangedModelVarLinesCount());
+	}
+	
+	/**
+	 * Create the result of the commit with the given number. The commits are distributed over 100 days starting
+	 * at 2016/01/01.
+	 * 
+	 * @param commit the number of the commit
+	 * @param variant the variant of the result, which is added to all counts
+	 * @return the {@link CommitResult} of the given commit
+	 */
+	private CommitResult createResult(int commit, int variant) {
+		return new CommitResult("c" + commit, CommitResult.formatCommitDay(
+				CommitResult.parseCommitDay("2016/01/01") + commit % 100), 1 + variant, commit + variant, variant,
+				0, 0, 0, 0, 0, commit % 7 + variant);
+	}
+	
+	/**
+	 * Create a new, empty temporary directory for a result log.
+	 * 
+	 * @return the temporary directory
+	 * @throws IOException if creating the directory fails
+	 */
+	private File createResultLogDir() throws IOException {
+		File resultLogDir = File.createTempFile("ComAn_ResultLog", "");
+		resultLogDir.delete();
+		if (!resultLogDir.mkdir()) {
+			throw new IOException("Creating temporary directory failed");
+		}
+		return resultLogDir;
+	}
+	
+	/**
+	 * Delete the given temporary result log directory and its files.
+	 * 
+	 * @param resultLogDir the temporary directory to delete
+	 */
+	private void deleteResultLogDir(File resultLogDir) {
+		File[] files = resultLogDir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		resultLogDir.delete();
+	}
+}
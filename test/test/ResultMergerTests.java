@@ -0,0 +1,185 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import result.CommitResult;
+import result.ResultFileScanner;
+import result.ResultMerger;
+import result.ResultSummary;
+
+/**
+ * This class provides some {@link ResultMerger} tests checking the order of the merged lines, the handling of
+ * duplicate, unordered, and malformed lines, and the summary of the merged results.
+ * 
+ * @author agent
+ *
+ */
+public class ResultMergerTests extends AbstractTests {
+	
+	/**
+	 * The first result file of the tests in the current format including a malformed line and a line without date.
+	 */
+	private static final String RESULT_FILE_1 = ResultFileScanner.HEADER + "\n"
+			+ "2016/11/17\ta1\t1\t2\t3\t4\t5\t6\t7\t8\t9\n"
+			+ "2016/11/15\ta2\t0\t10\t0\t0\t0\t0\t0\t0\t0\n"
+			+ "2016/11/15\tbad\t0\n"
+			+ "null\ta3\t0\t0\t0\t1\t2\t0\t0\t0\t0\n";
+	
+	/**
+	 * The second result file of the tests in the legacy format including a duplicate of a line of
+	 * {@link #RESULT_FILE_1} and a line with a later date than its previous line.
+	 */
+	private static final String RESULT_FILE_2 = ResultFileScanner.LEGACY_HEADER + "\r\n"
+			+ "2016/11/18\tb1\t0\t0\t0\t1\t0\t4\t0\t0\t0\r\n"
+			+ "2016/11/17\tb2\t1\t1\t1\t0\t0\t0\t0\t0\t0\r\n"
+			+ "2016/11/15\ta2\t0\t0\t0\t0\t10\t0\t0\t0\t0\r\n"
+			+ "2016/11/16\tb3\t0\t0\t0\t0\t0\t0\t0\t0\t0\r\n";
+	
+	/**
+	 * The lines expected in the merged result file of {@link #RESULT_FILE_1} and {@link #RESULT_FILE_2} after the
+	 * header line.
+	 */
+	private static final String[] EXPECTED_LINES = {
+		"2016/11/18\tb1\t1\t0\t4\t0\t0\t0\t0\t0\t0",
+		"2016/11/17\ta1\t1\t2\t3\t4\t5\t6\t7\t8\t9",
+		"2016/11/17\tb2\t0\t0\t0\t0\t0\t0\t1\t1\t1",
+		"2016/11/15\ta2\t0\t10\t0\t0\t0\t0\t0\t0\t0",
+		"2016/11/16\tb3\t0\t0\t0\t0\t0\t0\t0\t0\t0",
+		"null\ta3\t0\t0\t0\t1\t2\t0\t0\t0\t0"
+	};
+	
+	/**
+	 * Test that the lines of a result file and a legacy result file are merged by date, that duplicate and malformed
+	 * lines are dropped, and that the summary equals the summary of the merged lines.
+	 * 
+	 * @throws IOException if writing, merging, or reading the temporary result files fails
+	 */
+	@Test
+	public void testMerge() throws IOException {
+		File resultFile1 = createResultFile(RESULT_FILE_1);
+		File resultFile2 = createResultFile(RESULT_FILE_2);
+		File mergedResultFile = File.createTempFile("ComAn_Results", ".tsv");
+		try {
+			ResultMerger resultMerger = new ResultMerger(Arrays.asList(resultFile1, resultFile2));
+			ResultSummary summary = resultMerger.merge(mergedResultFile);
+			String[] mergedLines = new String(Files.readAllBytes(mergedResultFile.toPath()),
+					StandardCharsets.ISO_8859_1).split("\n");
+			assertEquals("[ResultMergerTests] Wrong header", ResultFileScanner.HEADER, mergedLines[0]);
+			assertEquals("[ResultMergerTests] Wrong number of lines", EXPECTED_LINES.length + 1, mergedLines.length);
+			ResultSummary expectedSummary = new ResultSummary();
+			for (int i = 0; i < EXPECTED_LINES.length; i++) {
+				assertEquals("[ResultMergerTests] Wrong line " + i, EXPECTED_LINES[i], mergedLines[i + 1]);
+				expectedSummary.add(parseLine(EXPECTED_LINES[i]));
+			}
+			assertEquals("[ResultMergerTests] Wrong number of merged commits", EXPECTED_LINES.length,
+					resultMerger.getMergedCommitsCount());
+			assertEquals("[ResultMergerTests] Wrong number of duplicate lines", 1,
+					resultMerger.getDuplicateLinesCount());
+			assertEquals("[ResultMergerTests] Wrong number of unordered lines", 1,
+					resultMerger.getUnorderedLinesCount());
+			assertEquals("[ResultMergerTests] Wrong number of malformed lines", 1,
+					resultMerger.getMalformedLinesCount());
+			assertEquals("[ResultMergerTests] Wrong summary", expectedSummary.format(EXPECTED_LINES.length),
+					summary.format(resultMerger.getMergedCommitsCount()));
+		} finally {
+			resultFile1.delete();
+			resultFile2.delete();
+			mergedResultFile.delete();
+		}
+	}
+	
+	/**
+	 * Test that all lines of a result file merged with itself are dropped as duplicates, if the number of commits
+	 * exceeds the initial capacity of the set of merged commits.
+	 * 
+	 * @throws IOException if writing or merging the temporary result files fails
+	 */
+	@Test
+	public void testDuplicates() throws IOException {
+		int commitsCount = 5000;
+		StringBuilder resultFileBuilder = new StringBuilder(ResultFileScanner.HEADER).append('\n');
+		for (int i = 0; i < commitsCount; i++) {
+			resultFileBuilder.append("2016/11/17\t").append(Integer.toHexString(i))
+					.append("\t0\t1\t0\t0\t0\t0\t0\t0\t0\n");
+		}
+		File resultFile = createResultFile(resultFileBuilder.toString());
+		File mergedResultFile = File.createTempFile("ComAn_Results", ".tsv");
+		try {
+			ResultMerger resultMerger = new ResultMerger(Arrays.asList(resultFile, resultFile));
+			ResultSummary summary = resultMerger.merge(mergedResultFile);
+			assertEquals("[ResultMergerTests] Wrong number of merged commits", commitsCount,
+					resultMerger.getMergedCommitsCount());
+			assertEquals("[ResultMergerTests] Wrong number of duplicate lines", commitsCount,
+					resultMerger.getDuplicateLinesCount());
+			assertEquals("[ResultMergerTests] Wrong number of summarized commits", commitsCount,
+					summary.getAnalyzedCommitsCount());
+		} finally {
+			resultFile.delete();
+			mergedResultFile.delete();
+		}
+	}
+	
+	/**
+	 * Test that merging a file with an unknown header fails.
+	 * 
+	 * @throws IOException if writing the temporary result files fails
+	 */
+	@Test
+	public void testUnknownHeader() throws IOException {
+		File resultFile = createResultFile("Commit\tDate\n");
+		File mergedResultFile = File.createTempFile("ComAn_Results", ".tsv");
+		try {
+			new ResultMerger(Arrays.asList(resultFile)).merge(mergedResultFile);
+			fail("[ResultMergerTests] Merging a file with an unknown header must fail");
+		} catch (IOException e) {
+			// Expected
+		} finally {
+			resultFile.delete();
+			mergedResultFile.delete();
+		}
+	}
+	
+	/**
+	 * Parse the given line of a result file in the current format.
+	 * 
+	 * @param line the line to parse
+	 * @return the {@link CommitResult} of the given line
+	 */
+	private CommitResult parseLine(String line) {
+		String[] fields = line.split("\t");
+		int[] counts = new int[fields.length - 2];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = Integer.parseInt(fields[i + 2]);
+		}
+		return new CommitResult(fields[1], fields[0].equals("null") ? null : fields[0], counts[0], counts[1],
+				counts[2], counts[3], counts[4], counts[5], counts[6], counts[7], counts[8]);
+	}
+	
+	/**
+	 * Create a temporary result file with the given content.
+	 * 
+	 * @param content the content of the result file
+	 * @return the temporary result {@link File}
+	 * @throws IOException if writing the file fails
+	 */
+	private File createResultFile(String content) throws IOException {
+		File resultFile = File.createTempFile("ComAn_Results", ".tsv");
+		FileOutputStream resultStream = new FileOutputStream(resultFile);
+		try {
+			resultStream.write(content.getBytes(StandardCharsets.ISO_8859_1));
+		} finally {
+			resultStream.close();
+		}
+		return resultFile;
+	}
+}
@@ -0,0 +1,91 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import result.CommitResult;
+import result.ResultRollup;
+import result.ResultRollup.Period;
+
+/**
+ * This class provides some {@link ResultRollup} tests checking the sums and classifications of commits per day,
+ * month, and year as well as merging rollups.
+ * 
+ * @author agent
+ *
+ */
+public class ResultRollupTests extends AbstractTests {
+	
+	/**
+	 * The dates of the commits added to the rollups of the tests.
+	 */
+	private static final String[] COMMIT_DATES = {"2016/11/17", "2016/11/16", null, "2016/11/17", "1999/01/02"};
+	
+	/**
+	 * Test that the commits are summed up and classified per day, month, and year sorted by period.
+	 */
+	@Test
+	public void testPeriods() {
+		assertEquals("[ResultRollupTests] Wrong rollup per day", ResultRollup.HEADER + "\n"
+				+ "null\t1\t2\t2\t0\t0\t0\t0\t0\t0\t0\t1\t0\t0\n"
+				+ "1999/01/02\t1\t4\t0\t0\t0\t0\t0\t0\t0\t7\t0\t1\t0\n"
+				+ "2016/11/16\t1\t1\t1\t1\t0\t0\t0\t0\t0\t0\t0\t0\t1\n"
+				+ "2016/11/17\t2\t3\t0\t0\t0\t0\t0\t0\t0\t3\t0\t1\t0\n",
+				createRollup(Period.DAY).format());
+		assertEquals("[ResultRollupTests] Wrong rollup per month", ResultRollup.HEADER + "\n"
+				+ "null\t1\t2\t2\t0\t0\t0\t0\t0\t0\t0\t1\t0\t0\n"
+				+ "1999/01\t1\t4\t0\t0\t0\t0\t0\t0\t0\t7\t0\t1\t0\n"
+				+ "2016/11\t3\t4\t1\t1\t0\t0\t0\t0\t0\t3\t0\t1\t1\n",
+				createRollup(Period.MONTH).format());
+		assertEquals("[ResultRollupTests] Wrong rollup per year", ResultRollup.HEADER + "\n"
+				+ "null\t1\t2\t2\t0\t0\t0\t0\t0\t0\t0\t1\t0\t0\n"
+				+ "1999\t1\t4\t0\t0\t0\t0\t0\t0\t0\t7\t0\t1\t0\n"
+				+ "2016\t3\t4\t1\t1\t0\t0\t0\t0\t0\t3\t0\t1\t1\n",
+				createRollup(Period.YEAR).format());
+	}
+	
+	/**
+	 * Test that merging a rollup adds its buckets to the buckets of the merged rollup and that rollups of different
+	 * periods cannot be merged.
+	 */
+	@Test
+	public void testMerge() {
+		ResultRollup rollup = createRollup(Period.YEAR);
+		rollup.merge(createRollup(Period.YEAR));
+		assertEquals("[ResultRollupTests] Wrong number of merged periods", 3, rollup.size());
+		assertEquals("[ResultRollupTests] Wrong merged rollup", ResultRollup.HEADER + "\n"
+				+ "null\t2\t4\t4\t0\t0\t0\t0\t0\t0\t0\t2\t0\t0\n"
+				+ "1999\t2\t8\t0\t0\t0\t0\t0\t0\t0\t14\t0\t2\t0\n"
+				+ "2016\t6\t8\t2\t2\t0\t0\t0\t0\t0\t6\t0\t2\t2\n",
+				rollup.format());
+		try {
+			rollup.merge(createRollup(Period.DAY));
+			fail("[ResultRollupTests] Merging different periods must fail");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+	
+	/**
+	 * Create a rollup of the given period containing a commit for each of the {@link #COMMIT_DATES} (in a
+	 * different order): the first and last commit change model lines containing variability information only, the
+	 * second commit source lines containing both types of information, the third commit source lines containing
+	 * artifact-specific information only, and the fourth commit source files without counted lines.
+	 * 
+	 * @param period the {@link Period} of the rollup
+	 * @return the new {@link ResultRollup}
+	 */
+	private ResultRollup createRollup(Period period) {
+		ResultRollup rollup = new ResultRollup(period);
+		int[][] counts = {{1, 0, 0, 3}, {1, 1, 1, 0}, {2, 2, 0, 0}, {2, 0, 0, 0}, {4, 0, 0, 7}};
+		int[] order = {1, 2, 0, 3, 4};
+		for (int i : order) {
+			int[] count = counts[i];
+			rollup.add(new CommitResult("commit" + i, COMMIT_DATES[i], count[0], count[1], count[2], 0, 0, 0, 0, 0,
+					count[3]));
+		}
+		return rollup;
+	}
+}
@@ -0,0 +1,59 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import result.CommitResult;
+import result.ResultColumn;
+import result.ResultStore;
+import result.ResultTable;
+
+/**
+ * This class provides some {@link ResultStore} tests checking that the results written to a columnar result file
+ * are read without changes.
+ * 
+ * @author agent
+ *
+ */
+public class ResultStoreTests extends AbstractTests {
+
+	/**
+	 * Test that all rows of a {@link ResultTable} are available in a {@link ResultStore} unchanged and that
+	 * filtering by commit date considers the correct rows.
+	 * 
+	 * @throws IOException if writing or reading the temporary columnar result file fails
+	 */
+	@Test
+	public void testWriteAndRead() throws IOException {
+		ResultTable resultTable = new ResultTable();
+		String[] commitNumbers = {"1cf5b87", "buildChangeCommit", "abcdef0123456789abcdef0123456789abcdef01"};
+		String[] commitDates = {"2016/11/17", null, "2016/11/18"};
+		for (int i = 0; i < commitNumbers.length; i++) {
+			resultTable.add(new CommitResult(commitNumbers[i], commitDates[i], i, 10 + i, 20 + i, 30 + i, 40 + i, 50 + i, 60 + i, 70 + i, 80 + i));
+		}
+		File storeFile = File.createTempFile("ComAn_Results", ".bin");
+		try {
+			ResultStore.write(resultTable, storeFile);
+			ResultStore resultStore = ResultStore.open(storeFile);
+			assertEquals("[ResultStoreTests] Wrong number of rows", commitNumbers.length, resultStore.size());
+			for (int i = 0; i < commitNumbers.length; i++) {
+				assertEquals("[ResultStoreTests] Wrong commit at row " + i, commitNumbers[i], resultStore.getCommitNumber(i));
+				assertEquals("[ResultStoreTests] Wrong date at row " + i, commitDates[i], resultStore.get(i).getCommitDate());
+				for (ResultColumn column : ResultColumn.values()) {
+					assertEquals("[ResultStoreTests] Wrong " + column + " at row " + i,
+							resultTable.getCount(i, column), resultStore.getCount(i, column));
+				}
+			}
+			int firstDay = CommitResult.parseCommitDay("2016/11/17");
+			assertEquals("[ResultStoreTests] Wrong number of rows in range", 2, resultStore.count(firstDay, firstDay + 1));
+			assertEquals("[ResultStoreTests] Wrong sum of CMLVI in range", 80 + 82, resultStore.sum(ResultColumn.CMLVI, firstDay, firstDay + 1));
+			assertEquals("[ResultStoreTests] Wrong sum of CMLVI for first day", 80, resultStore.sum(ResultColumn.CMLVI, firstDay, firstDay));
+		} finally {
+			storeFile.delete();
+		}
+	}
+}
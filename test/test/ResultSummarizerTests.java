@@ -0,0 +1,150 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import result.CommitResult;
+import result.ResultFileScanner;
+import result.ResultSummarizer;
+import result.ResultSummary;
+
+/**
+ * This class provides some {@link ResultSummarizer} tests checking that the summary of a result file equals the
+ * summary of its matching commits independent of the size of the chunks and of the compression of the file.
+ * 
+ * @author agent
+ *
+ */
+public class ResultSummarizerTests extends AbstractTests {
+	
+	/**
+	 * The result file of the tests including a line without date and a malformed line.
+	 */
+	private static final String RESULT_FILE = ResultFileScanner.HEADER + "\n"
+			+ "2016/11/18\tb1\t1\t0\t4\t0\t0\t0\t0\t0\t0\n"
+			+ "2016/11/17\ta1\t1\t2\t3\t4\t5\t6\t7\t8\t9\n"
+			+ "2016/11/17\tb2\t0\t0\t0\t0\t0\t0\t1\t1\t1\n"
+			+ "2016/11/16\tbad\t0\n"
+			+ "2016/11/15\ta2\t0\t10\t0\t0\t0\t0\t0\t0\t0\n"
+			+ "null\ta3\t0\t0\t0\t1\t2\t0\t0\t0\t0\n";
+	
+	/**
+	 * The sizes of the chunks of the tests in bytes.
+	 */
+	private static final long[] CHUNK_SIZES = {7, 40, ResultFileScanner.DEFAULT_CHUNK_SIZE};
+	
+	/**
+	 * The well-formed commits of the {@link #RESULT_FILE}.
+	 */
+	private static final CommitResult[] COMMIT_RESULTS = {
+		new CommitResult("b1", "2016/11/18", 1, 0, 4, 0, 0, 0, 0, 0, 0),
+		new CommitResult("a1", "2016/11/17", 1, 2, 3, 4, 5, 6, 7, 8, 9),
+		new CommitResult("b2", "2016/11/17", 0, 0, 0, 0, 0, 0, 1, 1, 1),
+		new CommitResult("a2", "2016/11/15", 0, 10, 0, 0, 0, 0, 0, 0, 0),
+		new CommitResult("a3", null, 0, 0, 0, 1, 2, 0, 0, 0, 0)
+	};
+	
+	/**
+	 * Test that all well-formed commits are summarized, if no filter is set.
+	 * 
+	 * @throws IOException if writing or summarizing the temporary result file fails
+	 */
+	@Test
+	public void testAllCommits() throws IOException {
+		testSummary(new ResultSummarizer(), 0, 1, 2, 3, 4);
+	}
+	
+	/**
+	 * Test that only the commits of the date range are summarized, if a date range is set.
+	 * 
+	 * @throws IOException if writing or summarizing the temporary result file fails
+	 */
+	@Test
+	public void testDateRange() throws IOException {
+		ResultSummarizer resultSummarizer = new ResultSummarizer();
+		resultSummarizer.setDateRange(CommitResult.parseCommitDay("2016/11/15"),
+				CommitResult.parseCommitDay("2016/11/17"));
+		testSummary(resultSummarizer, 1, 2, 3);
+		resultSummarizer.setDateRange(CommitResult.parseCommitDay("2016/11/17"), CommitResult.NO_COMMIT_DAY);
+		testSummary(resultSummarizer, 0, 1, 2);
+	}
+	
+	/**
+	 * Test that only the commits of the date range and the set of SHAs are summarized, if both are set.
+	 * 
+	 * @throws IOException if writing or summarizing the temporary result file fails
+	 */
+	@Test
+	public void testCommitNumbers() throws IOException {
+		ResultSummarizer resultSummarizer = new ResultSummarizer();
+		resultSummarizer.setCommitNumbers(new HashSet<String>(Arrays.asList("a1", "a3", "bad", "c1")));
+		testSummary(resultSummarizer, 1, 4);
+		resultSummarizer.setDateRange(CommitResult.NO_COMMIT_DAY, CommitResult.parseCommitDay("2016/11/17"));
+		testSummary(resultSummarizer, 1);
+	}
+	
+	/**
+	 * Summarize the uncompressed and the compressed {@link #RESULT_FILE} with the given summarizer for all
+	 * {@link #CHUNK_SIZES} and check that the summary equals the summary of the given commits.
+	 * 
+	 * @param resultSummarizer the {@link ResultSummarizer} to test
+	 * @param expectedCommits the indexes of the {@link #COMMIT_RESULTS} expected in the summary
+	 * @throws IOException if writing or summarizing the temporary result file fails
+	 */
+	private void testSummary(ResultSummarizer resultSummarizer, int... expectedCommits) throws IOException {
+		ResultSummary expectedSummary = new ResultSummary();
+		for (int expectedCommit : expectedCommits) {
+			expectedSummary.add(COMMIT_RESULTS[expectedCommit]);
+		}
+		for (boolean compressed : new boolean[] {false, true}) {
+			File resultFile = createResultFile(RESULT_FILE, compressed);
+			try {
+				for (long chunkSize : CHUNK_SIZES) {
+					String setup = " for chunk size " + chunkSize + (compressed ? " (compressed)" : "");
+					ResultSummary summary = resultSummarizer.summarize(resultFile, 3, chunkSize);
+					assertEquals("[ResultSummarizerTests] Wrong summary" + setup,
+							expectedSummary.format(expectedCommits.length),
+							summary.format(summary.getAnalyzedCommitsCount()));
+					assertEquals("[ResultSummarizerTests] Wrong number of filtered lines" + setup,
+							COMMIT_RESULTS.length - expectedCommits.length, resultSummarizer.getFilteredLinesCount());
+					assertEquals("[ResultSummarizerTests] Wrong number of malformed lines" + setup,
+							1, resultSummarizer.getMalformedLinesCount());
+				}
+			} finally {
+				resultFile.delete();
+			}
+		}
+	}
+	
+	/**
+	 * Create a temporary result file with the given content.
+	 * 
+	 * @param content the content of the result file
+	 * @param compressed <code>true</code> if the file should be compressed with gzip, <code>false</code> otherwise
+	 * @return the temporary result {@link File}
+	 * @throws IOException if writing the file fails
+	 */
+	private File createResultFile(String content, boolean compressed) throws IOException {
+		File resultFile = File.createTempFile("ComAn_Results", compressed ? ".tsv.gz" : ".tsv");
+		OutputStream resultStream = new FileOutputStream(resultFile);
+		try {
+			if (compressed) {
+				resultStream = new GZIPOutputStream(resultStream);
+			}
+			resultStream.write(content.getBytes(StandardCharsets.ISO_8859_1));
+		} finally {
+			resultStream.close();
+		}
+		return resultFile;
+	}
+}
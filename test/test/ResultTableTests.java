@@ -0,0 +1,90 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import diff.DiffAnalyzer;
+import result.CommitResult;
+import result.ResultColumn;
+import result.ResultTable;
+
+/**
+ * This class provides some {@link ResultTable} tests checking that the results of commits are stored and returned
+ * without changes.
+ * 
+ * @author agent
+ *
+ */
+public class ResultTableTests extends AbstractTests {
+
+	/**
+	 * The directory in which the artificial input files are located.
+	 */
+	private static final File ARTIFICIAL_TEST_INPUT_DIR = new File("testdata/test_artificial_input");
+
+	/**
+	 * Test that the results of a {@link DiffAnalyzer} are available in a {@link ResultTable} unchanged.
+	 */
+	@Test
+	public void testDiffAnalyzerResults() {
+		DiffAnalyzer diffAnalyzer = new DiffAnalyzer(new File(ARTIFICIAL_TEST_INPUT_DIR, "sourceChangeCommit.txt"));
+		diffAnalyzer.analyze();
+		ResultTable resultTable = new ResultTable();
+		resultTable.add(diffAnalyzer.getResult());
+		CommitResult commitResult = resultTable.get(0);
+		assertEquals("[ResultTableTests] Commit number must be kept", diffAnalyzer.getCommitNumber(), commitResult.getCommitNumber());
+		assertEquals("[ResultTableTests] Commit date must be kept", diffAnalyzer.getCommitDate(), commitResult.getCommitDate());
+		assertEquals("[ResultTableTests] Changed code files must be kept",
+				diffAnalyzer.getChangedSourceFilesCount(), commitResult.getChangedSourceFilesCount());
+		assertEquals("[ResultTableTests] Changed code lines must be kept",
+				diffAnalyzer.getChangedSourceLinesCount(), commitResult.getChangedSourceLinesCount());
+		assertEquals("[ResultTableTests] Changed code lines including variability must be kept",
+				diffAnalyzer.getChangedSourceVarLinesCount(), commitResult.getChangedSourceVarLinesCount());
+	}
+
+	/**
+	 * Test that commit dates, which are not in the format <i>yyyy/mm/dd</i> or do not define a valid day, are kept as
+	 * given instead of being dropped.
+	 */
+	@Test
+	public void testUnparsedCommitDate() {
+		DiffAnalyzer diffAnalyzer = new DiffAnalyzer(new File(ARTIFICIAL_TEST_INPUT_DIR, "oddDateCommit.txt"));
+		diffAnalyzer.analyze();
+		CommitResult commitResult = diffAnalyzer.getResult();
+		assertEquals("[ResultTableTests] Wrong commit date of the analyzer", "2011/6/1", diffAnalyzer.getCommitDate());
+		assertEquals("[ResultTableTests] Unparsed commit date must be kept", "2011/6/1", commitResult.getCommitDate());
+		assertEquals("[ResultTableTests] Unparsed commit date must not have a day", CommitResult.NO_COMMIT_DAY,
+				commitResult.getCommitDay());
+		String[] commitDates = {"2011/02/30", "2011/06/01", null};
+		for (String commitDate : commitDates) {
+			commitResult = new CommitResult("c", commitDate, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+			assertEquals("[ResultTableTests] Commit date must be kept", commitDate, commitResult.getCommitDate());
+		}
+	}
+
+	/**
+	 * Test that hexadecimal and other commit SHAs as well as dates are stored without changes and that sorting
+	 * by commit date is stable.
+	 */
+	@Test
+	public void testSortByCommitDay() {
+		ResultTable resultTable = new ResultTable();
+		String[] commitNumbers = {"1cf5b87", "e34e178c0ffee", "buildChangeCommit", "0004e99", "abcdef0123456789abcdef0123456789abcdef01"};
+		String[] commitDates = {"2016/11/17", "2016/11/16", null, "2016/11/17", "1999/01/02"};
+		for (int i = 0; i < commitNumbers.length; i++) {
+			resultTable.add(new CommitResult(commitNumbers[i], commitDates[i], i, i + 1, i + 2, 0, 0, 0, 0, 0, i * 10));
+		}
+		resultTable.sortByCommitDay();
+		int[] expectedOrder = {2, 4, 1, 0, 3};
+		for (int i = 0; i < expectedOrder.length; i++) {
+			int expected = expectedOrder[i];
+			assertEquals("[ResultTableTests] Wrong commit at row " + i, commitNumbers[expected], resultTable.getCommitNumber(i));
+			assertEquals("[ResultTableTests] Wrong date at row " + i, commitDates[expected], resultTable.get(i).getCommitDate());
+			assertEquals("[ResultTableTests] Wrong CCLAI at row " + i, expected + 1, resultTable.getCount(i, ResultColumn.CCLAI));
+		}
+		assertEquals("[ResultTableTests] Wrong sum of CMLVI", 100, resultTable.sum(ResultColumn.CMLVI));
+	}
+}